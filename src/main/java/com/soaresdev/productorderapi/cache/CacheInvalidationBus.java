@@ -0,0 +1,13 @@
+package com.soaresdev.productorderapi.cache;
+
+//Broadcasts invalidations to every node, the publishing one included, e.g. over Redis pub/sub. A null key means all keys
+public interface CacheInvalidationBus {
+    void publish(String cacheName, Object key);
+
+    void subscribe(Listener listener);
+
+    @FunctionalInterface
+    interface Listener {
+        void onInvalidation(String cacheName, Object key);
+    }
+}
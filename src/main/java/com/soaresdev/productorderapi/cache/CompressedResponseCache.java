@@ -0,0 +1,77 @@
+package com.soaresdev.productorderapi.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+//Gzipped response bodies of hot catalog listings, see CompressedResponseCacheFilter. When full, the least recently
+//used entry makes room for the new one
+@Component
+public class CompressedResponseCache {
+    public static final String CATEGORIES_PATH = "/v1/categories";
+    public static final String PRODUCTS_PATH = "/v1/products";
+
+    private final Map<String, Entry> entries;
+    private final AtomicLong generation = new AtomicLong();
+
+    public CompressedResponseCache(@Value("${compression.cache.max-entries:256}") int maxEntries) {
+        this.entries = new LruMap<>(maxEntries);
+    }
+
+    public synchronized Entry get(String key) {
+        return entries.get(key);
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    //Skips responses computed before an invalidation that happened while they were being rendered
+    public synchronized void put(String key, Entry entry, long requestGeneration) {
+        if(requestGeneration == generation.get())
+            entries.put(key, entry);
+    }
+
+    //Invalidates now and again after commit, so readers of the not yet committed state can not repopulate it
+    public void invalidate(String path) {
+        evict(path);
+        if(TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(path);
+                }
+            });
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized void evict(String path) {
+        generation.incrementAndGet();
+        entries.keySet().removeIf(key -> key.startsWith(path + "?"));
+    }
+
+    public static class Entry {
+        private final String contentType;
+        private final byte[] gzippedBody;
+
+        public Entry(String contentType, byte[] gzippedBody) {
+            this.contentType = contentType;
+            this.gzippedBody = gzippedBody;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public byte[] getGzippedBody() {
+            return gzippedBody;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.soaresdev.productorderapi.cache;
+
+import com.soaresdev.productorderapi.configs.WebConfig;
+import com.soaresdev.productorderapi.dtos.FieldSet;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.StringJoiner;
+import java.util.TreeSet;
+import java.util.zip.GZIPOutputStream;
+
+//Runs after the security filter chain, which authorizes these GET paths by URL (see SecurityConfig)
+@Component
+@ConditionalOnProperty(name = "compression.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class CompressedResponseCacheFilter extends OncePerRequestFilter {
+    public static final String CACHE_HEADER = "X-Compressed-Cache";
+    //The types the cached listings produce, in the order content negotiation prefers them
+    private static final List<MediaType> PRODUCIBLE_TYPES = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML,
+            MediaType.APPLICATION_CBOR, WebConfig.APPLICATION_SMILE);
+
+    private final CompressedResponseCache cache;
+    private final List<String> paths;
+    private final int maxPages;
+    private final long minResponseSize;
+
+    public CompressedResponseCacheFilter(CompressedResponseCache cache,
+                                         @Value("${compression.cache.paths:/v1/categories,/v1/products}") List<String> paths,
+                                         @Value("${compression.cache.max-pages:2}") int maxPages,
+                                         @Value("${server.compression.min-response-size:2KB}") String minResponseSize) {
+        this.cache = cache;
+        this.paths = paths;
+        this.maxPages = maxPages;
+        this.minResponseSize = DataSize.parse(minResponseSize).toBytes();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return !HttpMethod.GET.matches(request.getMethod()) || !paths.contains(request.getRequestURI()) ||
+                acceptEncoding == null || !acceptEncoding.contains("gzip") || !isFirstPages(request.getParameter("page"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String key = getKey(request);
+        if(key == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        CompressedResponseCache.Entry entry = cache.get(key);
+        if(entry != null) {
+            write(response, entry, "HIT");
+            return;
+        }
+
+        long generation = cache.generation();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, wrapper);
+        if(wrapper.getStatus() != HttpServletResponse.SC_OK || wrapper.getContentType() == null ||
+                wrapper.getContentSize() < minResponseSize) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+
+        entry = new CompressedResponseCache.Entry(wrapper.getContentType(), gzip(wrapper.getContentAsByteArray()));
+        cache.put(key, entry, generation);
+        write(response, entry, "MISS");
+    }
+
+    private void write(HttpServletResponse response, CompressedResponseCache.Entry entry, String cacheStatus) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(entry.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(CACHE_HEADER, cacheStatus);
+        response.setContentLength(entry.getGzippedBody().length);
+        response.getOutputStream().write(entry.getGzippedBody());
+    }
+
+    private boolean isFirstPages(String page) {
+        if(page == null)
+            return true;
+        try {
+            return Integer.parseInt(page) < maxPages;
+        }catch(NumberFormatException e) {
+            return false;
+        }
+    }
+
+    //Only the parameters the listings read and the negotiated type, so reordered parameters, unknown parameters and
+    //equivalent Accept headers share one entry. Null when no cached type is acceptable, which is left to Spring MVC
+    private String getKey(HttpServletRequest request) {
+        MediaType mediaType = negotiate(request.getHeader(HttpHeaders.ACCEPT));
+        if(mediaType == null)
+            return null;
+        String page = request.getParameter("page");
+        return request.getRequestURI() + "?page=" + (page == null ? 0 : Math.max(0, Integer.parseInt(page))) +
+                "&size=" + getSize(request.getParameter("size")) +
+                "&sort=" + getSort(request.getParameterValues("sort")) +
+                "&fields=" + getFields(request.getParameterValues(FieldSet.PARAMETER)) + "|" + mediaType;
+    }
+
+    private MediaType negotiate(String accept) {
+        if(accept == null || accept.isBlank())
+            return PRODUCIBLE_TYPES.get(0);
+        List<MediaType> acceptableTypes;
+        try {
+            acceptableTypes = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        }catch(InvalidMediaTypeException e) {
+            return null;
+        }
+        MimeTypeUtils.sortBySpecificity(acceptableTypes);
+        for(MediaType acceptableType : acceptableTypes) {
+            if(acceptableType.getQualityValue() <= 0)
+                continue;
+            for(MediaType producibleType : PRODUCIBLE_TYPES)
+                if(acceptableType.isCompatibleWith(producibleType))
+                    return producibleType;
+        }
+        return null;
+    }
+
+    //Missing, malformed and non positive sizes all fall back to the default page size
+    private String getSize(String size) {
+        try {
+            int value = Integer.parseInt(size);
+            return value > 0 ? String.valueOf(value) : "";
+        }catch(NumberFormatException e) {
+            return "";
+        }
+    }
+
+    //Sort order is significant, only the spelling of each direction is normalized ("name" = "name,ASC" = "name,asc")
+    private String getSort(String[] sorts) {
+        if(sorts == null)
+            return "";
+        StringJoiner joiner = new StringJoiner(";");
+        for(String sort : sorts) {
+            String[] parts = sort.split(",");
+            String last = parts[parts.length - 1].trim().toLowerCase(Locale.ROOT);
+            boolean hasDirection = last.equals("asc") || last.equals("desc");
+            StringJoiner properties = new StringJoiner(",");
+            for(int i = 0; i < parts.length - (hasDirection ? 1 : 0); i++)
+                if(!parts[i].isBlank())
+                    properties.add(parts[i].trim());
+            joiner.add(properties + "," + (hasDirection ? last : "asc"));
+        }
+        return joiner.toString();
+    }
+
+    private String getFields(String[] fields) {
+        if(fields == null)
+            return "";
+        return String.join(",", new TreeSet<>(FieldSet.parse(String.join(",", fields)).getNames()));
+    }
+
+    private byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(body.length / 4, 64));
+        try(GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,110 @@
+package com.soaresdev.productorderapi.cache;
+
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializingConverter;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongSupplier;
+
+//In-JVM stand-in for the remote tier and its invalidation channel, so several nodes can run on one machine without an
+//external service: every TwoTierCacheManager built on the same instance is a node. Values are kept serialized, so a
+//value that would not survive a real remote fails here too and every get returns a copy. A full cache drops its least
+//recently used key, as a remote configured with an LRU eviction policy would
+public class LoopbackRemoteCache implements RemoteCache, CacheInvalidationBus {
+    private final Map<String, Map<Object, Entry>> caches = new ConcurrentHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final SerializingConverter serializer = new SerializingConverter();
+    private final DeserializingConverter deserializer = new DeserializingConverter(LoopbackRemoteCache.class.getClassLoader());
+    private final int maxEntriesPerCache;
+    private final LongSupplier nanoTime;
+
+    public LoopbackRemoteCache(int maxEntriesPerCache) {
+        this(maxEntriesPerCache, System::nanoTime);
+    }
+
+    LoopbackRemoteCache(int maxEntriesPerCache, LongSupplier nanoTime) {
+        this.maxEntriesPerCache = maxEntriesPerCache;
+        this.nanoTime = nanoTime;
+    }
+
+    @Override
+    public Object get(String cacheName, Object key) {
+        Map<Object, Entry> cache = cache(cacheName);
+        Entry entry;
+        synchronized(cache) {
+            entry = cache.get(key);
+            if(entry == null)
+                return null;
+            if(entry.isExpired(nanoTime.getAsLong())) {
+                cache.remove(key);
+                return null;
+            }
+        }
+        return deserializer.convert(entry.value);
+    }
+
+    @Override
+    public void put(String cacheName, Object key, Object value, Duration ttl) {
+        Map<Object, Entry> cache = cache(cacheName);
+        Entry entry = new Entry(serializer.convert(value), nanoTime.getAsLong() + ttl.toNanos());
+        synchronized(cache) {
+            cache.put(key, entry);
+        }
+    }
+
+    @Override
+    public void evict(String cacheName, Object key) {
+        Map<Object, Entry> cache = cache(cacheName);
+        synchronized(cache) {
+            cache.remove(key);
+        }
+    }
+
+    @Override
+    public void clear(String cacheName) {
+        Map<Object, Entry> cache = cache(cacheName);
+        synchronized(cache) {
+            cache.clear();
+        }
+    }
+
+    //Delivered synchronously, a real channel would deliver shortly after
+    @Override
+    public void publish(String cacheName, Object key) {
+        for(Listener listener : listeners)
+            listener.onInvalidation(cacheName, key);
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public int size(String cacheName) {
+        Map<Object, Entry> cache = cache(cacheName);
+        synchronized(cache) {
+            return cache.size();
+        }
+    }
+
+    private Map<Object, Entry> cache(String cacheName) {
+        return caches.computeIfAbsent(cacheName, name -> new LruMap<>(maxEntriesPerCache));
+    }
+
+    private static class Entry {
+        private final byte[] value;
+        private final long expiresAt;
+
+        private Entry(byte[] value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
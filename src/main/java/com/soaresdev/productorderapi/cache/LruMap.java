@@ -0,0 +1,23 @@
+package com.soaresdev.productorderapi.cache;
+
+import java.io.Serial;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//Access ordered, drops the least recently used entry once it holds more than maxEntries. Not thread safe
+class LruMap<K, V> extends LinkedHashMap<K, V> {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final int maxEntries;
+
+    LruMap(int maxEntries) {
+        super(16, 0.75f, true);
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+        return size() > maxEntries;
+    }
+}
@@ -0,0 +1,124 @@
+package com.soaresdev.productorderapi.cache;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+//Serves the OpenAPI document (JSON and YAML) from memory with an ETag. Each format is read once from the copy
+//pre-generated into the jar (mvn package -Popenapi) or, when there is none, rendered once by springdoc on first request
+public class OpenApiDocumentFilter extends OncePerRequestFilter {
+    public static final String JSON_FILE = "openapi.json";
+    public static final String YAML_FILE = "openapi.yaml";
+    public static final String YAML_CONTENT_TYPE = "application/vnd.oai.openapi";
+    public static final String SOURCE_HEADER = "X-OpenApi-Source";
+
+    private final ResourceLoader resourceLoader;
+    private final String jsonPath;
+    private final String yamlPath;
+    private final String pregeneratedLocation;
+    private final Map<String, Document> documents = new ConcurrentHashMap<>();
+
+    //pregeneratedLocation is a directory such as "classpath:META-INF/openapi/", null to always render
+    public OpenApiDocumentFilter(ResourceLoader resourceLoader, String apiDocsPath, String pregeneratedLocation) {
+        this.resourceLoader = resourceLoader;
+        this.jsonPath = apiDocsPath;
+        this.yamlPath = apiDocsPath + ".yaml";
+        this.pregeneratedLocation = pregeneratedLocation;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !HttpMethod.GET.matches(request.getMethod()) || !(jsonPath.equals(path) || yamlPath.equals(path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI();
+        Document document = documents.get(path);
+        if(document == null) {
+            document = readPregenerated(path);
+            if(document == null) {
+                ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+                filterChain.doFilter(request, wrapper);
+                if(wrapper.getStatus() != HttpServletResponse.SC_OK || wrapper.getContentType() == null) {
+                    wrapper.copyBodyToResponse();
+                    return;
+                }
+                document = new Document(wrapper.getContentType(), wrapper.getContentAsByteArray(), "rendered");
+            }
+            Document current = documents.putIfAbsent(path, document);
+            if(current != null)
+                document = current;
+        }
+        write(request, response, document);
+    }
+
+    private Document readPregenerated(String path) throws IOException {
+        if(pregeneratedLocation == null)
+            return null;
+        boolean yaml = yamlPath.equals(path);
+        Resource resource = resourceLoader.getResource(pregeneratedLocation + (yaml ? YAML_FILE : JSON_FILE));
+        if(!resource.exists())
+            return null;
+        try(InputStream in = resource.getInputStream()) {
+            return new Document(yaml ? YAML_CONTENT_TYPE : MediaType.APPLICATION_JSON_VALUE, in.readAllBytes(), "pregenerated");
+        }
+    }
+
+    private void write(HttpServletRequest request, HttpServletResponse response, Document document) throws IOException {
+        response.setHeader(SOURCE_HEADER, document.getSource());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        if(new ServletWebRequest(request, response).checkNotModified(document.getEtag()))
+            return;
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(document.getContentType());
+        response.setContentLength(document.getBody().length);
+        response.getOutputStream().write(document.getBody());
+    }
+
+    public static class Document {
+        private final String contentType;
+        private final byte[] body;
+        private final String etag;
+        private final String source;
+
+        public Document(String contentType, byte[] body, String source) {
+            this.contentType = contentType;
+            this.body = body;
+            this.etag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+            this.source = source;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getSource() {
+            return source;
+        }
+    }
+}
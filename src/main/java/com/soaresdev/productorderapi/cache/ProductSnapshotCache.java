@@ -0,0 +1,95 @@
+package com.soaresdev.productorderapi.cache;
+
+import com.soaresdev.productorderapi.dtos.ProductDTO;
+import com.soaresdev.productorderapi.entities.Product;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+//Immutable ProductDTOs shared by the items of every order rendered, so a product's categories are loaded and
+//mapped once instead of once per order line. When full, the least recently used product makes room for the new one
+@Component
+public class ProductSnapshotCache {
+    private final Map<UUID, ProductDTO> snapshots;
+    private final AtomicLong generation = new AtomicLong();
+
+    public ProductSnapshotCache(@Value("${product-snapshot.cache.max-entries:10000}") int maxEntries) {
+        this.snapshots = new LruMap<>(maxEntries);
+    }
+
+    //The scalar check catches a snapshot put by a reader that loaded the product before an update committed
+    public ProductDTO get(Product product) {
+        if(product.getId() == null)
+            return ProductDTO.snapshotOf(product);
+        ProductDTO snapshot;
+        synchronized(snapshots) {
+            snapshot = snapshots.get(product.getId());
+        }
+        if(snapshot != null && matches(snapshot, product))
+            return snapshot;
+
+        //Built outside the lock, mapping the categories may load them
+        long requestGeneration = generation.get();
+        snapshot = ProductDTO.snapshotOf(product);
+        synchronized(snapshots) {
+            if(requestGeneration == generation.get())
+                snapshots.put(product.getId(), snapshot);
+        }
+        return snapshot;
+    }
+
+    //Invalidates now and again after commit, so readers of the not yet committed state can not repopulate it
+    public void invalidate(UUID productId) {
+        afterCommit(() -> evict(productId));
+    }
+
+    //Category renames and deletions change the snapshots of every product linked to them
+    public void invalidateAll() {
+        afterCommit(this::evictAll);
+    }
+
+    public int size() {
+        synchronized(snapshots) {
+            return snapshots.size();
+        }
+    }
+
+    private void afterCommit(Runnable eviction) {
+        eviction.run();
+        if(TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    private void evict(UUID productId) {
+        synchronized(snapshots) {
+            generation.incrementAndGet();
+            snapshots.remove(productId);
+        }
+    }
+
+    private void evictAll() {
+        synchronized(snapshots) {
+            generation.incrementAndGet();
+            snapshots.clear();
+        }
+    }
+
+    private static boolean matches(ProductDTO snapshot, Product product) {
+        return Objects.equals(snapshot.getName(), product.getName()) &&
+               Objects.equals(snapshot.getDescription(), product.getDescription()) &&
+               Objects.equals(snapshot.getImgUrl(), product.getImgUrl()) &&
+               Objects.compare(snapshot.getPrice(), product.getPrice(),
+                       (a, b) -> a == null || b == null ? (a == b ? 0 : 1) : a.compareTo(b)) == 0;
+    }
+}
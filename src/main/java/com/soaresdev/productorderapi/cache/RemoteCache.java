@@ -0,0 +1,15 @@
+package com.soaresdev.productorderapi.cache;
+
+import java.time.Duration;
+
+//Cache tier shared by every node, e.g. a Redis or Memcached cluster. Values are Serializable and come back as copies
+public interface RemoteCache {
+    //Null when the key is absent or expired
+    Object get(String cacheName, Object key);
+
+    void put(String cacheName, Object key, Object value, Duration ttl);
+
+    void evict(String cacheName, Object key);
+
+    void clear(String cacheName);
+}
@@ -0,0 +1,158 @@
+package com.soaresdev.productorderapi.cache;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+//A bounded per node near tier with a short ttl in front of the shared remote tier. Reads fill the near tier from the
+//remote one; evictions clear both tiers and are broadcast so the other nodes drop their near copies. The near ttl
+//bounds how long a node can serve a value after a missed broadcast. A full near tier drops its least recently used key
+public class TwoTierCache extends AbstractValueAdaptingCache {
+    private final String name;
+    private final RemoteCache remoteCache;
+    private final CacheInvalidationBus invalidationBus;
+    private final Map<Object, NearEntry> near;
+    private final AtomicLong generation = new AtomicLong();
+    private final long nearTtlNanos;
+    private final Duration remoteTtl;
+    private final LongSupplier nanoTime;
+
+    public TwoTierCache(String name, RemoteCache remoteCache, CacheInvalidationBus invalidationBus, int nearMaxEntries,
+                        Duration nearTtl, Duration remoteTtl, LongSupplier nanoTime) {
+        super(true);
+        this.name = name;
+        this.remoteCache = remoteCache;
+        this.invalidationBus = invalidationBus;
+        this.near = new LruMap<>(nearMaxEntries);
+        this.nearTtlNanos = nearTtl.toNanos();
+        this.remoteTtl = remoteTtl;
+        this.nanoTime = nanoTime;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remoteCache;
+    }
+
+    //A remote value read while an invalidation arrives is returned but not kept in the near tier
+    @Override
+    protected Object lookup(Object key) {
+        long now = nanoTime.getAsLong();
+        synchronized(near) {
+            NearEntry entry = near.get(key);
+            if(entry != null) {
+                if(entry.expiresAt - now > 0)
+                    return entry.value;
+                near.remove(key);
+            }
+        }
+
+        long lookupGeneration = generation.get();
+        Object value = remoteCache.get(name, key);
+        if(value != null)
+            putNear(key, value, now, lookupGeneration);
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if(wrapper != null)
+            return (T) wrapper.get();
+
+        T value;
+        try {
+            value = valueLoader.call();
+        }catch(Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        Object storeValue = toStoreValue(value);
+        long lookupGeneration = generation.get();
+        remoteCache.put(name, key, storeValue, remoteTtl);
+        putNear(key, storeValue, nanoTime.getAsLong(), lookupGeneration);
+    }
+
+    //Invalidates now and again after commit, so readers of the not yet committed state can not repopulate it
+    @Override
+    public void evict(Object key) {
+        invalidate(key);
+        afterCommit(() -> invalidate(key));
+    }
+
+    @Override
+    public void clear() {
+        invalidate(null);
+        afterCommit(() -> invalidate(null));
+    }
+
+    //Called for broadcasts, only this node's copies are dropped
+    public void invalidateNear(Object key) {
+        synchronized(near) {
+            generation.incrementAndGet();
+            if(key == null)
+                near.clear();
+            else
+                near.remove(key);
+        }
+    }
+
+    public int nearSize() {
+        synchronized(near) {
+            return near.size();
+        }
+    }
+
+    private void invalidate(Object key) {
+        invalidateNear(key);
+        if(key == null)
+            remoteCache.clear(name);
+        else
+            remoteCache.evict(name, key);
+        invalidationBus.publish(name, key);
+    }
+
+    private void putNear(Object key, Object storeValue, long now, long lookupGeneration) {
+        synchronized(near) {
+            if(lookupGeneration == generation.get())
+                near.put(key, new NearEntry(storeValue, now + nearTtlNanos));
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if(TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    private static class NearEntry {
+        private final Object value;
+        private final long expiresAt;
+
+        private NearEntry(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.soaresdev.productorderapi.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+//One node's view of the caches, see TwoTierCache. Broadcast invalidations are applied to this node's near tiers
+public class TwoTierCacheManager implements CacheManager {
+    private final Map<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+    private final RemoteCache remoteCache;
+    private final CacheInvalidationBus invalidationBus;
+    private final int nearMaxEntries;
+    private final Duration nearTtl;
+    private final Duration remoteTtl;
+    private final LongSupplier nanoTime;
+
+    public TwoTierCacheManager(RemoteCache remoteCache, CacheInvalidationBus invalidationBus, int nearMaxEntries,
+                               Duration nearTtl, Duration remoteTtl) {
+        this(remoteCache, invalidationBus, nearMaxEntries, nearTtl, remoteTtl, System::nanoTime);
+    }
+
+    TwoTierCacheManager(RemoteCache remoteCache, CacheInvalidationBus invalidationBus, int nearMaxEntries,
+                        Duration nearTtl, Duration remoteTtl, LongSupplier nanoTime) {
+        this.remoteCache = remoteCache;
+        this.invalidationBus = invalidationBus;
+        this.nearMaxEntries = nearMaxEntries;
+        this.nearTtl = nearTtl;
+        this.remoteTtl = remoteTtl;
+        this.nanoTime = nanoTime;
+        invalidationBus.subscribe(this::onInvalidation);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, cacheName -> new TwoTierCache(cacheName, remoteCache, invalidationBus,
+                nearMaxEntries, nearTtl, remoteTtl, nanoTime));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    private void onInvalidation(String cacheName, Object key) {
+        TwoTierCache cache = caches.get(cacheName);
+        if(cache != null)
+            cache.invalidateNear(key);
+    }
+}
@@ -0,0 +1,46 @@
+package com.soaresdev.productorderapi.configs;
+
+import com.soaresdev.productorderapi.cache.CacheInvalidationBus;
+import com.soaresdev.productorderapi.cache.LoopbackRemoteCache;
+import com.soaresdev.productorderapi.cache.RemoteCache;
+import com.soaresdev.productorderapi.cache.TwoTierCacheManager;
+import com.soaresdev.productorderapi.security.LoopbackRevocationBus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import java.time.Duration;
+
+//Spring Cache backed by a near tier per node and a shared remote tier. A client of an external store is plugged in by
+//providing RemoteCache, CacheInvalidationBus and RevocationBus beans with cache.remote.type set to its name
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String PRODUCTS = "products";
+    public static final String CATEGORIES = "categories";
+    public static final String PRINCIPALS = "principals";
+    public static final String ROLES = "roles";
+    //Key of methods taking an id string first, so every spelling of an id shares one entry
+    public static final String UUID_KEY = "T(java.util.UUID).fromString(#p0)";
+
+    @Bean
+    @ConditionalOnProperty(name = "cache.remote.type", havingValue = "loopback", matchIfMissing = true)
+    LoopbackRemoteCache loopbackRemoteCache(@Value("${cache.remote.loopback.max-entries:100000}") int maxEntries) {
+        return new LoopbackRemoteCache(maxEntries);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "cache.remote.type", havingValue = "loopback", matchIfMissing = true)
+    LoopbackRevocationBus loopbackRevocationBus() {
+        return new LoopbackRevocationBus();
+    }
+
+    @Bean
+    TwoTierCacheManager cacheManager(RemoteCache remoteCache, CacheInvalidationBus invalidationBus,
+                                     @Value("${cache.near.max-entries:10000}") int nearMaxEntries,
+                                     @Value("${cache.near.ttl:PT30S}") Duration nearTtl,
+                                     @Value("${cache.remote.ttl:PT10M}") Duration remoteTtl) {
+        return new TwoTierCacheManager(remoteCache, invalidationBus, nearMaxEntries, nearTtl, remoteTtl);
+    }
+}
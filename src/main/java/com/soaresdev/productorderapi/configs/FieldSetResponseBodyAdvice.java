@@ -0,0 +1,46 @@
+package com.soaresdev.productorderapi.configs;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.soaresdev.productorderapi.dtos.FieldSet;
+import org.springframework.core.MethodParameter;
+import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+import java.util.Arrays;
+
+//Trims the serialized body of handlers taking a "fields" parameter to the requested top level fields
+@ControllerAdvice
+public class FieldSetResponseBodyAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return super.supports(returnType, converterType) && returnType.getMethod() != null &&
+                Arrays.stream(returnType.getMethod().getParameters()).anyMatch(parameter -> {
+                    RequestParam requestParam = parameter.getAnnotation(RequestParam.class);
+                    return requestParam != null && FieldSet.PARAMETER.equals(requestParam.value());
+                });
+    }
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if(!(request instanceof ServletServerHttpRequest servletRequest))
+            return;
+        FieldSet fieldSet = FieldSet.parse(servletRequest.getServletRequest().getParameter(FieldSet.PARAMETER));
+        Object value = bodyContainer.getValue();
+        Object element = value instanceof Page<?> page ? page.getContent().stream().findFirst().orElse(null) : value;
+        if(fieldSet.isAll() || element == null)
+            return;
+
+        JsonFilter jsonFilter = element.getClass().getAnnotation(JsonFilter.class);
+        if(jsonFilter != null)
+            bodyContainer.setFilters(fieldSet.filters(jsonFilter.value()));
+    }
+}
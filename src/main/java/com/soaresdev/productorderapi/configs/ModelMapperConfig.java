@@ -66,7 +66,8 @@ public class ModelMapperConfig {
                 user.setPhone(source.getPhone());
                 source.setPassword(bCryptPasswordEncoder.encode(source.getPassword()));
                 user.setPassword(source.getPassword());
-                user.getRoles().add(roleRepository.findByRoleNameCode(RoleName.ROLE_USER.getCode()));
+                user.getRoles().add(roleRepository.getReferenceById(
+                        roleRepository.findIdByRoleNameCode(RoleName.ROLE_USER.getCode())));
                 return user;
             }
         };
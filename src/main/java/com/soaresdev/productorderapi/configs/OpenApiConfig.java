@@ -1,9 +1,19 @@
 package com.soaresdev.productorderapi.configs;
 
+import com.soaresdev.productorderapi.cache.OpenApiDocumentFilter;
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.info.Contact;
 import io.swagger.v3.oas.annotations.info.Info;
+import io.swagger.v3.oas.annotations.servers.Server;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
 
+//A relative server url keeps the document independent of the host that asked for it, so it can be cached and
+//pre-generated. Being a bean, the definition is found without springdoc scanning the class path for it
+@Configuration
 @OpenAPIDefinition(
     info = @Info(
             contact = @Contact(
@@ -13,7 +23,16 @@ import io.swagger.v3.oas.annotations.info.Info;
             description = "Documentation for orders and products API Restful.\n\nThe API supports JSON and XML.",
             title = "Orders and Products API Restful",
             version = "1.0"
-    )
+    ),
+    servers = @Server(url = "/")
 )
 public class OpenApiConfig {
-}
\ No newline at end of file
+    @Bean
+    @ConditionalOnProperty(name = "openapi.cache.enabled", havingValue = "true", matchIfMissing = true)
+    public OpenApiDocumentFilter openApiDocumentFilter(ResourceLoader resourceLoader,
+                                                       @Value("${springdoc.api-docs.path:/v3/api-docs}") String apiDocsPath,
+                                                       @Value("${openapi.pregenerated.enabled:true}") boolean pregenerated,
+                                                       @Value("${openapi.pregenerated.location:classpath:META-INF/openapi/}") String location) {
+        return new OpenApiDocumentFilter(resourceLoader, apiDocsPath, pregenerated ? location : null);
+    }
+}
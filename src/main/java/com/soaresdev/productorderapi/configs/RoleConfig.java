@@ -5,6 +5,9 @@ import com.soaresdev.productorderapi.entities.enums.RoleName;
 import com.soaresdev.productorderapi.repositories.RoleRepository;
 import jakarta.annotation.PostConstruct;
 import org.springframework.context.annotation.Configuration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
 
 @Configuration
 public class RoleConfig {
@@ -14,14 +17,16 @@ public class RoleConfig {
         this.roleRepository = roleRepository;
     }
 
+    //One query at startup instead of one per role
     @PostConstruct
     public void initializeRoles() {
-        for(RoleName roleName : RoleName.values())
-            initializeRoleIfNotExists(roleName);
+        Set<Integer> existingCodes = roleRepository.findAllRoleNameCodes();
+        List<Role> missingRoles = Arrays.stream(RoleName.values())
+                .map(RoleName::getCode)
+                .filter(code -> !existingCodes.contains(code))
+                .map(Role::new)
+                .toList();
+        if(!missingRoles.isEmpty())
+            roleRepository.saveAll(missingRoles);
     }
-
-    private void initializeRoleIfNotExists(RoleName roleName) {
-        if(!roleRepository.existsByRoleNameCode(roleName.getCode()))
-            roleRepository.save(new Role(roleName.getCode()));
-    }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.soaresdev.productorderapi.configs;
 
+import com.soaresdev.productorderapi.exceptions.ErrorResponseWriter;
 import com.soaresdev.productorderapi.security.jwt.JwtConfigurer;
 import com.soaresdev.productorderapi.security.jwt.JwtTokenProvider;
 import io.swagger.v3.oas.annotations.enums.SecuritySchemeIn;
@@ -27,6 +28,9 @@ public class SecurityConfig {
     @Autowired
     private JwtTokenProvider tokenProvider;
 
+    @Autowired
+    private ErrorResponseWriter errorResponseWriter;
+
     @Bean
     AuthenticationManager authenticationManager(AuthenticationConfiguration authenticationConfiguration) throws Exception {
         return authenticationConfiguration.getAuthenticationManager();
@@ -42,14 +46,19 @@ public class SecurityConfig {
                         "/auth/login",
                         "/auth/refresh/**",
                         "/swagger-ui/**",
-                        "/v3/api-docs/**"
+                        "/v3/api-docs/**",
+                        "/v3/api-docs.yaml",
+                        "/actuator/health"
                     ).permitAll()
+                    .requestMatchers("/actuator/**").hasRole("ADMIN")
                     .requestMatchers(RegexRequestMatcher.regexMatcher(HttpMethod.POST, "/v[0-9]+/users")).permitAll()
                     .requestMatchers("/api/**").authenticated()
                     .requestMatchers("/users").denyAll()
+                    //Cached compressed listings are served before method security, see CompressedResponseCacheFilter
+                    .requestMatchers(HttpMethod.GET, "/v1/categories", "/v1/products").hasAnyRole("USER", "ADMIN")
                     .anyRequest().authenticated()
             )
-            .apply(new JwtConfigurer(tokenProvider));
+            .apply(new JwtConfigurer(tokenProvider, errorResponseWriter));
         return http.build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,70 @@
+package com.soaresdev.productorderapi.configs;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.MethodMetadata;
+import java.util.List;
+
+//Cold start settings, used by the AOT/AppCDS image (docker/aot/Dockerfile)
+@Configuration
+public class StartupConfig {
+    private static final Logger logger = LoggerFactory.getLogger(StartupConfig.class);
+
+    private final Environment environment;
+
+    public StartupConfig(Environment environment) {
+        this.environment = environment;
+    }
+
+    //Beans only needed by the first request to their endpoints (springdoc by default) are created on demand.
+    //Excluded: beans that must run at startup, e.g. the springdoc UI setup that registers the swagger-ui resources
+    @Bean
+    public static BeanFactoryPostProcessor lazyNonCriticalBeans(Environment environment) {
+        boolean enabled = environment.getProperty("startup.lazy-non-critical-beans", Boolean.class, false);
+        List<String> packages = List.of(environment.getProperty("startup.lazy-packages", String[].class,
+                new String[]{"org.springdoc"}));
+        List<String> excluded = List.of(environment.getProperty("startup.lazy-excluded", String[].class,
+                new String[]{"org.springdoc.core.configuration.SpringDocUIConfiguration"}));
+        return beanFactory -> {
+            if(!enabled)
+                return;
+            for(String beanName : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition beanDefinition = beanFactory.getBeanDefinition(beanName);
+                String className = declaringClassName(beanDefinition);
+                if(beanDefinition.getRole() == BeanDefinition.ROLE_INFRASTRUCTURE || className == null)
+                    continue;
+                if(packages.stream().anyMatch(className::startsWith) && excluded.stream().noneMatch(className::startsWith))
+                    beanDefinition.setLazyInit(true);
+            }
+        };
+    }
+
+    //Training run of the AppCDS archive: the JVM dumps the loaded classes when it exits after a full startup
+    @EventListener(ApplicationReadyEvent.class)
+    public void exitAfterTrainingRun(ApplicationReadyEvent event) {
+        if(!environment.getProperty("startup.training-run", Boolean.class, false))
+            return;
+        logger.info("Training run finished, exiting");
+        ApplicationContext context = event.getApplicationContext();
+        System.exit(SpringApplication.exit(context));
+    }
+
+    private static String declaringClassName(BeanDefinition beanDefinition) {
+        if(beanDefinition instanceof AnnotatedBeanDefinition annotatedBeanDefinition) {
+            MethodMetadata factoryMethod = annotatedBeanDefinition.getFactoryMethodMetadata();
+            if(factoryMethod != null)
+                return factoryMethod.getDeclaringClassName();
+        }
+        return beanDefinition.getBeanClassName();
+    }
+}
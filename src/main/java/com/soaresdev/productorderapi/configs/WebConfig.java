@@ -1,12 +1,26 @@
 package com.soaresdev.productorderapi.configs;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.soaresdev.productorderapi.dtos.FieldSet;
+import com.soaresdev.productorderapi.exceptions.ErrorResponseWriter;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.ContentNegotiationConfigurer;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import java.util.List;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer{
+    public static final MediaType APPLICATION_SMILE = MediaType.valueOf("application/x-jackson-smile");
+
     @Override
     public void configureContentNegotiation(ContentNegotiationConfigurer configurer) {
         // Via HEADER PARAM
@@ -15,6 +29,33 @@ public class WebConfig implements WebMvcConfigurer{
         .useRegisteredExtensionsOnly(false)
         .defaultContentType(MediaType.APPLICATION_JSON)
             .mediaType("json", MediaType.APPLICATION_JSON)
-            .mediaType("xml", MediaType.APPLICATION_XML);
+            .mediaType("xml", MediaType.APPLICATION_XML)
+            .mediaType("cbor", MediaType.APPLICATION_CBOR)
+            .mediaType("smile", APPLICATION_SMILE);
+    }
+
+    // DTOs declare a @JsonFilter for sparse fieldsets, every field is written unless FieldSetResponseBodyAdvice narrows it
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        for(HttpMessageConverter<?> converter : converters)
+            if(converter instanceof AbstractJackson2HttpMessageConverter jacksonConverter)
+                jacksonConverter.getObjectMapper().setFilterProvider(FieldSet.filters());
+    }
+
+    // Binary Jackson formats for service-to-service callers, built from the same builder as the JSON mapper
+    @Bean
+    MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    // Shared by JwtTokenFilter; as a converter bean it is placed ahead of the default JSON converter
+    @Bean
+    ErrorResponseWriter errorResponseWriter(ObjectMapper objectMapper) {
+        return new ErrorResponseWriter(objectMapper);
     }
-}
\ No newline at end of file
+}
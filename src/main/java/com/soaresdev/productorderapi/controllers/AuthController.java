@@ -12,6 +12,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -29,11 +30,12 @@ public class AuthController {
             @ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = TokenDTO.class))),
             @ApiResponse(responseCode = "400", description = "Invalid arguments", content = @Content(schema = @Schema(implementation = StandardInsertDTOError.class))),
             @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content(schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "429", description = "Too many requests", content = @Content(schema = @Schema(implementation = StandardError.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(schema = @Schema(implementation = StandardError.class))),
     })
-    @PostMapping(value = "/login", consumes = {"application/json", "application/xml"}, produces = {"application/json", "application/xml"})
-    public ResponseEntity<TokenDTO> login(@RequestBody @Valid LoginDTO loginDTO) {
-        TokenDTO tokenDTO = authService.login(loginDTO);
+    @PostMapping(value = "/login", consumes = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"}, produces = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"})
+    public ResponseEntity<TokenDTO> login(@RequestBody @Valid LoginDTO loginDTO, HttpServletRequest request) {
+        TokenDTO tokenDTO = authService.login(loginDTO, request.getRemoteAddr());
         return ResponseEntity.ok(tokenDTO);
     }
 
@@ -45,7 +47,7 @@ public class AuthController {
             @ApiResponse(responseCode = "404", description = "Not Found", content = @Content(schema = @Schema(implementation = StandardError.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(schema = @Schema(implementation = StandardError.class))),
     })
-    @PutMapping(value = "/refresh",consumes = {"application/json", "application/xml"}, produces = {"application/json", "application/xml"})
+    @PutMapping(value = "/refresh",consumes = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"}, produces = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"})
     public ResponseEntity<TokenDTO> refreshToken(@RequestBody @Valid RefreshDTO refreshDTO) {
         return ResponseEntity.ok(authService.refreshToken(refreshDTO));
     }
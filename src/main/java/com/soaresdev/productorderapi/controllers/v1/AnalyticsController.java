@@ -0,0 +1,109 @@
+package com.soaresdev.productorderapi.controllers.v1;
+
+import com.soaresdev.productorderapi.dtos.analyticsDTOs.CategorySalesDTO;
+import com.soaresdev.productorderapi.dtos.analyticsDTOs.PaymentTypeSalesDTO;
+import com.soaresdev.productorderapi.dtos.analyticsDTOs.ProductSalesDTO;
+import com.soaresdev.productorderapi.dtos.analyticsDTOs.RevenueDTO;
+import com.soaresdev.productorderapi.entities.enums.RevenueGranularity;
+import com.soaresdev.productorderapi.entities.enums.SalesRanking;
+import com.soaresdev.productorderapi.exceptions.StandardError;
+import com.soaresdev.productorderapi.services.AnalyticsService;
+import com.soaresdev.productorderapi.services.SalesRollupService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/v1/analytics")
+@Tag(name = "Analytics")
+@SecurityRequirement(name = "bearerAuth")
+public class AnalyticsController {
+    private final AnalyticsService analyticsService;
+    private final SalesRollupService salesRollupService;
+
+    public AnalyticsController(AnalyticsService analyticsService, SalesRollupService salesRollupService) {
+        this.analyticsService = analyticsService;
+        this.salesRollupService = salesRollupService;
+    }
+
+    @Operation(description = "Get the revenue and paid orders per day, week or month between two dates (UTC, inclusive)", method = "GET",
+            summary = "Granularity: DAY, WEEK, MONTH. Weeks start on monday")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Illegal argument", content = @Content(schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "403", description = "Access denied", content = @Content(schema = @Schema(implementation = StandardError.class)))
+    })
+    @PreAuthorize("hasAnyRole('ROLE_MANAGER', 'ROLE_ADMIN')")
+    @GetMapping(value = "/revenue", produces = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"})
+    public ResponseEntity<List<RevenueDTO>> revenue(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                    @RequestParam(defaultValue = "DAY") RevenueGranularity granularity) {
+        return ResponseEntity.ok(analyticsService.revenue(from, to, granularity));
+    }
+
+    @Operation(description = "Get the top-N products by quantity or revenue between two dates (UTC, inclusive)", method = "GET",
+            summary = "Rank by: QUANTITY, REVENUE. Limit between 1 and 100")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Illegal argument", content = @Content(schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "403", description = "Access denied", content = @Content(schema = @Schema(implementation = StandardError.class)))
+    })
+    @PreAuthorize("hasAnyRole('ROLE_MANAGER', 'ROLE_ADMIN')")
+    @GetMapping(value = "/products/top", produces = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"})
+    public ResponseEntity<List<ProductSalesDTO>> topProducts(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                             @RequestParam(defaultValue = "QUANTITY") SalesRanking rankBy,
+                                                             @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(analyticsService.topProducts(from, to, rankBy, limit));
+    }
+
+    @Operation(description = "Get the revenue per category between two dates (UTC, inclusive)", method = "GET")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Illegal argument", content = @Content(schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "403", description = "Access denied", content = @Content(schema = @Schema(implementation = StandardError.class)))
+    })
+    @PreAuthorize("hasAnyRole('ROLE_MANAGER', 'ROLE_ADMIN')")
+    @GetMapping(value = "/categories", produces = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"})
+    public ResponseEntity<List<CategorySalesDTO>> categories(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(analyticsService.categories(from, to));
+    }
+
+    @Operation(description = "Get the revenue and average order value per payment type between two dates (UTC, inclusive)", method = "GET")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Illegal argument", content = @Content(schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "403", description = "Access denied", content = @Content(schema = @Schema(implementation = StandardError.class)))
+    })
+    @PreAuthorize("hasAnyRole('ROLE_MANAGER', 'ROLE_ADMIN')")
+    @GetMapping(value = "/payment-types", produces = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"})
+    public ResponseEntity<List<PaymentTypeSalesDTO>> paymentTypes(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(analyticsService.paymentTypes(from, to));
+    }
+
+    @Operation(description = "Rebuild the sales rollups between two dates (UTC, inclusive), e.g. to backfill history", method = "POST")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Success. No content", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Illegal argument", content = @Content(schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "403", description = "Access denied", content = @Content(schema = @Schema(implementation = StandardError.class)))
+    })
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<Void> rebuildRollups(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        salesRollupService.rebuildDays(from, to);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -39,7 +39,7 @@ public class CategoryController {
             @ApiResponse(responseCode = "403", description = "Access denied", content = @Content(schema = @Schema(implementation = StandardError.class)))
     })
     @PreAuthorize("hasAnyRole('ROLE_USER', 'ROLE_ADMIN')")
-    @GetMapping(produces = {"application/json", "application/xml"})
+    @GetMapping(produces = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"})
     public ResponseEntity<Page<CategoryDTO>> findAll(@PageableDefault(sort = "name") Pageable pageable) {
         return ResponseEntity.ok(categoryService.findAll(pageable));
     }
@@ -52,7 +52,7 @@ public class CategoryController {
             @ApiResponse(responseCode = "404", description = "Entity not found", content = @Content(schema = @Schema(implementation = StandardError.class)))
     })
     @PreAuthorize("hasAnyRole('ROLE_USER', 'ROLE_ADMIN')")
-    @GetMapping(value = "/{uuid}", produces = {"application/json", "application/xml"})
+    @GetMapping(value = "/{uuid}", produces = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"})
     public ResponseEntity<CategoryDTO> findByUUID(@PathVariable String uuid) {
         return ResponseEntity.ok(categoryService.findByUUID(uuid));
     }
@@ -65,7 +65,7 @@ public class CategoryController {
             @ApiResponse(responseCode = "409", description = "Entity already exists", content = @Content(schema = @Schema(implementation = StandardError.class)))
     })
     @PreAuthorize("hasAnyRole('ROLE_MANAGER', 'ROLE_ADMIN')")
-    @PostMapping(consumes = {"application/json", "application/xml"}, produces = {"application/json", "application/xml"})
+    @PostMapping(consumes = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"}, produces = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"})
     public ResponseEntity<CategoryDTO> insert(@RequestBody @Valid CategoryInsertDTO categoryInsertDTO) {
         CategoryDTO categoryDTO = categoryService.insert(categoryInsertDTO);
         URI uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{uuid}")
@@ -96,7 +96,7 @@ public class CategoryController {
             @ApiResponse(responseCode = "409", description = "Entity already exists", content = @Content(schema = @Schema(implementation = StandardError.class)))
     })
     @PreAuthorize("hasAnyRole('ROLE_MANAGER', 'ROLE_ADMIN')")
-    @PutMapping(value = "/{uuid}", consumes = {"application/json", "application/xml"}, produces = {"application/json", "application/xml"})
+    @PutMapping(value = "/{uuid}", consumes = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"}, produces = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"})
     public ResponseEntity<CategoryDTO> updateByUUID(@PathVariable String uuid, @RequestBody @Valid CategoryInsertDTO categoryInsertDTO) {
         return ResponseEntity.ok(categoryService.updateByUUID(uuid, categoryInsertDTO));
     }
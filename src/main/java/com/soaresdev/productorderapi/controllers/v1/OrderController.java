@@ -1,12 +1,16 @@
 package com.soaresdev.productorderapi.controllers.v1;
 
+import com.soaresdev.productorderapi.dtos.FieldSet;
 import com.soaresdev.productorderapi.dtos.OrderDTO;
+import com.soaresdev.productorderapi.dtos.OrderFilterDTO;
+import com.soaresdev.productorderapi.dtos.OrderSummaryDTO;
 import com.soaresdev.productorderapi.dtos.insertDTOs.OrderInsertDTO;
 import com.soaresdev.productorderapi.dtos.insertDTOs.OrderItemDeleteDTO;
 import com.soaresdev.productorderapi.dtos.insertDTOs.OrderItemInsertDTO;
 import com.soaresdev.productorderapi.exceptions.StandardError;
 import com.soaresdev.productorderapi.exceptions.StandardInsertDTOError;
 import com.soaresdev.productorderapi.services.OrderService;
+import com.soaresdev.productorderapi.services.OrderSummaryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -15,8 +19,10 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -30,20 +36,39 @@ import java.net.URI;
 @SecurityRequirement(name = "bearerAuth")
 public class OrderController {
     private final OrderService orderService;
+    private final OrderSummaryService orderSummaryService;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, OrderSummaryService orderSummaryService) {
         this.orderService = orderService;
+        this.orderSummaryService = orderSummaryService;
     }
 
-    @Operation(description = "Get a paginated list of all orders", method = "GET")
+    @Operation(description = "Get a paginated list of orders, optionally filtered by client, status, moment range and total range", method = "GET",
+            summary = "Order status: WAITING_PAYMENT, PAID, SHIPPED, DELIVERED, CANCELED. Moments in ISO-8601, e.g. 2023-07-20T00:00:00Z. " +
+                    "Fields: id, moment, orderStatus, total, client, payment, items, e.g. fields=id,moment,orderStatus,total")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Illegal argument", content = @Content(schema = @Schema(implementation = StandardError.class))),
             @ApiResponse(responseCode = "403", description = "Access denied", content = @Content(schema = @Schema(implementation = StandardError.class)))
     })
     @PreAuthorize("hasAnyRole('ROLE_MANAGER', 'ROLE_ADMIN')")
-    @GetMapping(produces = {"application/json", "application/xml"})
-    public ResponseEntity<Page<OrderDTO>> findAll(@PageableDefault(sort = "client.name") Pageable pageable) {
-        return ResponseEntity.ok(orderService.findAll(pageable));
+    @GetMapping(produces = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"})
+    public ResponseEntity<Page<OrderDTO>> findAll(@ParameterObject OrderFilterDTO orderFilterDTO,
+                                                  @PageableDefault(sort = "client.name") Pageable pageable,
+                                                  @RequestParam(value = FieldSet.PARAMETER, required = false) String fields) {
+        return ResponseEntity.ok(orderService.findAll(orderFilterDTO, pageable, FieldSet.parse(fields, OrderDTO.FIELDS)));
+    }
+
+    @Operation(description = "Get a paginated list of the summaries of the authenticated user's orders", method = "GET",
+            summary = "Order status: WAITING_PAYMENT, PAID, SHIPPED, DELIVERED, CANCELED. Payment type: CREDIT_CARD, PIX")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "403", description = "Access denied", content = @Content(schema = @Schema(implementation = StandardError.class)))
+    })
+    @PreAuthorize("hasAnyRole('ROLE_USER', 'ROLE_MANAGER', 'ROLE_ADMIN')")
+    @GetMapping(value = "/mine", produces = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"})
+    public ResponseEntity<Page<OrderSummaryDTO>> findMine(@PageableDefault(sort = "moment", direction = Sort.Direction.DESC) Pageable pageable) {
+        return ResponseEntity.ok(orderSummaryService.findAllOfContextUser(pageable));
     }
 
     @Operation(description = "Get a order by UUID", method = "GET")
@@ -54,7 +79,7 @@ public class OrderController {
             @ApiResponse(responseCode = "404", description = "Entity not found", content = @Content(schema = @Schema(implementation = StandardError.class)))
     })
     @PreAuthorize("hasAnyRole('ROLE_USER', 'ROLE_MANAGER', 'ROLE_ADMIN')")
-    @GetMapping(value = "/{uuid}", produces = {"application/json", "application/xml"})
+    @GetMapping(value = "/{uuid}", produces = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"})
     public ResponseEntity<OrderDTO> findByUUID(@PathVariable String uuid) {
         return ResponseEntity.ok(orderService.findByUUID(uuid));
     }
@@ -68,7 +93,7 @@ public class OrderController {
             @ApiResponse(responseCode = "404", description = "Entity not found", content = @Content(schema = @Schema(implementation = StandardError.class)))
     })
     @PreAuthorize("hasAnyRole('ROLE_USER', 'ROLE_ADMIN')")
-    @PostMapping(consumes = {"application/json", "application/xml"}, produces = {"application/json", "application/xml"})
+    @PostMapping(consumes = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"}, produces = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"})
     public ResponseEntity<OrderDTO> insert(@RequestBody @Valid OrderInsertDTO orderInsertDTO) {
         OrderDTO orderDTO = orderService.insert(orderInsertDTO);
         URI uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{uuid}")
@@ -99,7 +124,7 @@ public class OrderController {
             @ApiResponse(responseCode = "404", description = "Entity not found", content = @Content(schema = @Schema(implementation = StandardError.class)))
     })
     @PreAuthorize("hasAnyRole('ROLE_MANAGER', 'ROLE_ADMIN')")
-    @PutMapping(value = "/{uuid}", consumes = {"application/json", "application/xml"}, produces = {"application/json", "application/xml"})
+    @PutMapping(value = "/{uuid}", consumes = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"}, produces = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"})
     public ResponseEntity<OrderDTO> updateByUUID(@PathVariable String uuid, @RequestBody @Valid OrderInsertDTO orderInsertDTO) {
         return ResponseEntity.ok().body(orderService.updateByUUID(uuid, orderInsertDTO));
     }
@@ -112,7 +137,7 @@ public class OrderController {
             @ApiResponse(responseCode = "404", description = "Entity not found", content = @Content(schema = @Schema(implementation = StandardError.class)))
     })
     @PreAuthorize("hasAnyRole('ROLE_USER', 'ROLE_ADMIN')")
-    @PostMapping(value = "/{order_uuid}/items", consumes = {"application/json", "application/xml"}, produces = {"application/json", "application/xml"})
+    @PostMapping(value = "/{order_uuid}/items", consumes = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"}, produces = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"})
     public ResponseEntity<OrderDTO> addItemByUUID(@PathVariable String order_uuid, @RequestBody @Valid OrderItemInsertDTO orderItemInsertDTO) {
         return ResponseEntity.ok(orderService.addItem(order_uuid, orderItemInsertDTO));
     }
@@ -138,7 +163,7 @@ public class OrderController {
             @ApiResponse(responseCode = "404", description = "Entity not found", content = @Content(schema = @Schema(implementation = StandardError.class)))
     })
     @PreAuthorize("hasAnyRole('ROLE_USER', 'ROLE_ADMIN')")
-    @PutMapping(value = "/{order_uuid}/items", consumes = {"application/json", "application/xml"}, produces = {"application/json", "application/xml"})
+    @PutMapping(value = "/{order_uuid}/items", consumes = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"}, produces = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"})
     public ResponseEntity<OrderDTO> updateItemByUUID(@PathVariable String order_uuid, @RequestBody @Valid OrderItemInsertDTO orderItemInsertDTO) {
         return ResponseEntity.ok(orderService.updateItem(order_uuid, orderItemInsertDTO));
     }
@@ -1,7 +1,9 @@
 package com.soaresdev.productorderapi.controllers.v1;
 
+import com.soaresdev.productorderapi.dtos.FieldSet;
 import com.soaresdev.productorderapi.dtos.PaymentDTO;
 import com.soaresdev.productorderapi.dtos.insertDTOs.PaymentInsertDTO;
+import com.soaresdev.productorderapi.entities.enums.PaymentStatus;
 import com.soaresdev.productorderapi.exceptions.StandardError;
 import com.soaresdev.productorderapi.exceptions.StandardInsertDTOError;
 import com.soaresdev.productorderapi.services.PaymentService;
@@ -34,15 +36,18 @@ public class PaymentController {
         this.paymentService = paymentService;
     }
 
-    @Operation(description = "Get a paginated list of all payments", method = "GET")
+    @Operation(description = "Get a paginated list of all payments", method = "GET",
+            summary = "Fields: id, order_id, moment, paymentType, amount, e.g. fields=id,amount")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Illegal argument", content = @Content(schema = @Schema(implementation = StandardError.class))),
             @ApiResponse(responseCode = "403", description = "Access denied", content = @Content(schema = @Schema(implementation = StandardError.class)))
     })
     @PreAuthorize("hasAnyRole('ROLE_MANAGER', 'ROLE_ADMIN')")
-    @GetMapping(produces = {"application/json", "application/xml"})
-    public ResponseEntity<Page<PaymentDTO>> findAll(@PageableDefault(sort = "amount", direction = Sort.Direction.DESC) Pageable pageable) {
-        return ResponseEntity.ok(paymentService.findAll(pageable));
+    @GetMapping(produces = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"})
+    public ResponseEntity<Page<PaymentDTO>> findAll(@PageableDefault(sort = "amount", direction = Sort.Direction.DESC) Pageable pageable,
+                                                    @RequestParam(value = FieldSet.PARAMETER, required = false) String fields) {
+        return ResponseEntity.ok(paymentService.findAll(pageable, FieldSet.parse(fields, PaymentDTO.FIELDS)));
     }
 
     @Operation(description = "Get a payment by UUID", method = "GET")
@@ -53,22 +58,31 @@ public class PaymentController {
             @ApiResponse(responseCode = "404", description = "Entity not found", content = @Content(schema = @Schema(implementation = StandardError.class)))
     })
     @PreAuthorize("hasAnyRole('ROLE_USER', 'ROLE_MANAGER', 'ROLE_ADMIN')")
-    @GetMapping(value = "/{uuid}", produces = {"application/json", "application/xml"})
+    @GetMapping(value = "/{uuid}", produces = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"})
     public ResponseEntity<PaymentDTO> findByUUID(@PathVariable String uuid) {
         return ResponseEntity.ok(paymentService.findByUUID(uuid));
     }
 
-    @Operation(description = "Insert a new payment", method = "POST", summary = "Payment type: CREDIT_CARD, PIX")
+    @Operation(description = "Insert a new payment. With asynchronous payments enabled it is accepted as PENDING and " +
+            "completed by the payment workers, its status is read from the Location url", method = "POST",
+            summary = "Payment type: CREDIT_CARD, PIX")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Created", content = @Content(schema = @Schema(implementation = PaymentDTO.class))),
+            @ApiResponse(responseCode = "202", description = "Accepted, pending", content = @Content(schema = @Schema(implementation = PaymentDTO.class))),
             @ApiResponse(responseCode = "400", description = "Invalid arguments", content = @Content(schema = @Schema(implementation = StandardInsertDTOError.class))),
             @ApiResponse(responseCode = "403", description = "Access denied or already paid", content = @Content(schema = @Schema(implementation = StandardError.class))),
-            @ApiResponse(responseCode = "404", description = "Entity not found", content = @Content(schema = @Schema(implementation = StandardError.class)))
+            @ApiResponse(responseCode = "404", description = "Entity not found", content = @Content(schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "429", description = "Too many payments being processed", content = @Content(schema = @Schema(implementation = StandardError.class)))
     })
     @PreAuthorize("hasAnyRole('ROLE_USER', 'ROLE_MANAGER', 'ROLE_ADMIN')")
-    @PostMapping(consumes = {"application/json", "application/xml"}, produces = {"application/json", "application/xml"})
+    @PostMapping(consumes = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"}, produces = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"})
     public ResponseEntity<PaymentDTO> insert(@RequestBody @Valid PaymentInsertDTO paymentInsertDTO) {
         PaymentDTO paymentDTO = paymentService.insert(paymentInsertDTO);
+        if(paymentDTO.getPaymentStatus() == PaymentStatus.PENDING) {
+            URI statusUri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{uuid}")
+                    .buildAndExpand(paymentDTO.getId()).toUri();
+            return ResponseEntity.accepted().location(statusUri).body(paymentDTO);
+        }
         URI uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{uuid}")
                 .buildAndExpand(paymentDTO.getOrder_id()).toUri();
         return ResponseEntity.created(uri).body(paymentDTO);
@@ -96,7 +110,7 @@ public class PaymentController {
             @ApiResponse(responseCode = "404", description = "Entity not found", content = @Content(schema = @Schema(implementation = StandardError.class)))
     })
     @PreAuthorize("hasAnyRole('ROLE_MANAGER', 'ROLE_ADMIN')")
-    @PutMapping(value = "/{uuid}", consumes = {"application/json", "application/xml"}, produces = {"application/json", "application/xml"})
+    @PutMapping(value = "/{uuid}", consumes = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"}, produces = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"})
     public ResponseEntity<PaymentDTO> updateByUUID(@PathVariable String uuid, @RequestBody @Valid PaymentInsertDTO paymentInsertDTO) {
         return ResponseEntity.ok(paymentService.updateByUUID(uuid, paymentInsertDTO));
     }
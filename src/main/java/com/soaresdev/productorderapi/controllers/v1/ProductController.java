@@ -1,8 +1,14 @@
 package com.soaresdev.productorderapi.controllers.v1;
 
+import com.soaresdev.productorderapi.dtos.FieldSet;
+import com.soaresdev.productorderapi.dtos.ProductBulkUpdateResultDTO;
 import com.soaresdev.productorderapi.dtos.ProductDTO;
+import com.soaresdev.productorderapi.dtos.ProductPriceDTO;
+import com.soaresdev.productorderapi.dtos.ProductSearchDTO;
+import com.soaresdev.productorderapi.dtos.insertDTOs.ProductBulkUpdateDTO;
 import com.soaresdev.productorderapi.dtos.insertDTOs.ProductCategoryInsertDTO;
 import com.soaresdev.productorderapi.dtos.insertDTOs.ProductInsertDTO;
+import com.soaresdev.productorderapi.dtos.insertDTOs.ProductPriceBatchInsertDTO;
 import com.soaresdev.productorderapi.exceptions.StandardError;
 import com.soaresdev.productorderapi.exceptions.StandardInsertDTOError;
 import com.soaresdev.productorderapi.services.ProductService;
@@ -21,7 +27,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import java.math.BigDecimal;
 import java.net.URI;
+import java.time.Instant;
+import java.util.List;
 
 @RestController
 @RequestMapping("/v1/products")
@@ -34,15 +43,34 @@ public class ProductController {
         this.productService = productService;
     }
 
-    @Operation(description = "Get a paginated list of all products", method = "GET")
+    @Operation(description = "Get a paginated list of all products", method = "GET",
+            summary = "Fields: id, name, description, price, imgUrl, categories, e.g. fields=id,name,price")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Illegal argument", content = @Content(schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "403", description = "Access denied", content = @Content(schema = @Schema(implementation = StandardError.class)))
+    })
+    @PreAuthorize("hasAnyRole('ROLE_USER', 'ROLE_ADMIN')")
+    @GetMapping(produces = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"})
+    public ResponseEntity<Page<ProductDTO>> findAll(@PageableDefault(sort = "name") Pageable pageable,
+                                                    @RequestParam(value = FieldSet.PARAMETER, required = false) String fields) {
+        return ResponseEntity.ok(productService.findAll(pageable, FieldSet.parse(fields, ProductDTO.FIELDS)));
+    }
+
+    @Operation(description = "Search products by name and description, with category facets and price range", method = "GET")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = ProductSearchDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Illegal argument", content = @Content(schema = @Schema(implementation = StandardError.class))),
             @ApiResponse(responseCode = "403", description = "Access denied", content = @Content(schema = @Schema(implementation = StandardError.class)))
     })
     @PreAuthorize("hasAnyRole('ROLE_USER', 'ROLE_ADMIN')")
-    @GetMapping(produces = {"application/json", "application/xml"})
-    public ResponseEntity<Page<ProductDTO>> findAll(@PageableDefault(sort = "name") Pageable pageable) {
-        return ResponseEntity.ok(productService.findAll(pageable));
+    @GetMapping(value = "/search", produces = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"})
+    public ResponseEntity<ProductSearchDTO> search(@RequestParam(value = "q", required = false) String text,
+                                                   @RequestParam(required = false) String category_id,
+                                                   @RequestParam(required = false) BigDecimal minPrice,
+                                                   @RequestParam(required = false) BigDecimal maxPrice,
+                                                   Pageable pageable) {
+        return ResponseEntity.ok(productService.search(text, category_id, minPrice, maxPrice, pageable));
     }
 
     @Operation(description = "Get a product by UUID", method = "GET")
@@ -53,11 +81,37 @@ public class ProductController {
             @ApiResponse(responseCode = "404", description = "Entity not found", content = @Content(schema = @Schema(implementation = StandardError.class)))
     })
     @PreAuthorize("hasAnyRole('ROLE_USER', 'ROLE_ADMIN')")
-    @GetMapping(value = "/{uuid}", produces = {"application/json", "application/xml"})
+    @GetMapping(value = "/{uuid}", produces = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"})
     public ResponseEntity<ProductDTO> findByUUID(@PathVariable String uuid) {
         return ResponseEntity.ok(productService.findByUUID(uuid));
     }
 
+    @Operation(description = "Get the price a product had at a moment, now when none is given", method = "GET")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = ProductPriceDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Illegal argument", content = @Content(schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "403", description = "Access denied", content = @Content(schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "404", description = "Entity not found", content = @Content(schema = @Schema(implementation = StandardError.class)))
+    })
+    @PreAuthorize("hasAnyRole('ROLE_USER', 'ROLE_ADMIN')")
+    @GetMapping(value = "/{uuid}/price", produces = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"})
+    public ResponseEntity<ProductPriceDTO> findPriceAt(@PathVariable String uuid, @RequestParam(required = false) Instant at) {
+        return ResponseEntity.ok(productService.findPriceAt(uuid, at));
+    }
+
+    @Operation(description = "Update the prices of many products at once, recording their price history", method = "PUT")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Invalid arguments", content = @Content(schema = @Schema(implementation = StandardInsertDTOError.class))),
+            @ApiResponse(responseCode = "403", description = "Access denied", content = @Content(schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "404", description = "Entity not found", content = @Content(schema = @Schema(implementation = StandardError.class)))
+    })
+    @PreAuthorize("hasAnyRole('ROLE_MANAGER', 'ROLE_ADMIN')")
+    @PutMapping(value = "/prices", consumes = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"}, produces = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"})
+    public ResponseEntity<List<ProductPriceDTO>> updatePrices(@RequestBody @Valid ProductPriceBatchInsertDTO productPriceBatchInsertDTO) {
+        return ResponseEntity.ok(productService.updatePrices(productPriceBatchInsertDTO));
+    }
+
     @Operation(description = "Insert a new product", method = "POST")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Created", content = @Content(schema = @Schema(implementation = ProductDTO.class))),
@@ -65,7 +119,7 @@ public class ProductController {
             @ApiResponse(responseCode = "403", description = "Access denied", content = @Content(schema = @Schema(implementation = StandardError.class)))
     })
     @PreAuthorize("hasAnyRole('ROLE_MANAGER', 'ROLE_ADMIN')")
-    @PostMapping(consumes = {"application/json", "application/xml"}, produces = {"application/json", "application/xml"})
+    @PostMapping(consumes = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"}, produces = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"})
     public ResponseEntity<ProductDTO> insert(@RequestBody @Valid ProductInsertDTO productInsertDTO) {
         ProductDTO productDTO = productService.insert(productInsertDTO);
         URI uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{uuid}")
@@ -95,11 +149,23 @@ public class ProductController {
             @ApiResponse(responseCode = "404", description = "Entity not found", content = @Content(schema = @Schema(implementation = StandardError.class)))
     })
     @PreAuthorize("hasAnyRole('ROLE_MANAGER', 'ROLE_ADMIN')")
-    @PutMapping(value = "/{uuid}", consumes = {"application/json", "application/xml"}, produces = {"application/json", "application/xml"})
+    @PutMapping(value = "/{uuid}", consumes = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"}, produces = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"})
     public ResponseEntity<ProductDTO> updateByUUID(@PathVariable String uuid, @RequestBody @Valid ProductInsertDTO productInsertDTO) {
         return ResponseEntity.ok(productService.updateByUUID(uuid, productInsertDTO));
     }
 
+    @Operation(description = "Update every product matching a filter (category, ids, price range) with an absolute or percentage price and/or a description", method = "PATCH")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = ProductBulkUpdateResultDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid arguments", content = @Content(schema = @Schema(implementation = StandardInsertDTOError.class))),
+            @ApiResponse(responseCode = "403", description = "Access denied", content = @Content(schema = @Schema(implementation = StandardError.class)))
+    })
+    @PreAuthorize("hasAnyRole('ROLE_MANAGER', 'ROLE_ADMIN')")
+    @PatchMapping(consumes = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"}, produces = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"})
+    public ResponseEntity<ProductBulkUpdateResultDTO> bulkUpdate(@RequestBody @Valid ProductBulkUpdateDTO productBulkUpdateDTO) {
+        return ResponseEntity.ok(productService.bulkUpdate(productBulkUpdateDTO));
+    }
+
     @Operation(description = "Insert a category into a product by product UUID", method = "POST")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = ProductDTO.class))),
@@ -109,7 +175,7 @@ public class ProductController {
             @ApiResponse(responseCode = "409", description = "Entity already exists", content = @Content(schema = @Schema(implementation = StandardError.class)))
     })
     @PreAuthorize("hasAnyRole('ROLE_MANAGER', 'ROLE_ADMIN')")
-    @PostMapping(value = "/{product_uuid}/categories", consumes = {"application/json", "application/xml"}, produces = {"application/json", "application/xml"})
+    @PostMapping(value = "/{product_uuid}/categories", consumes = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"}, produces = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"})
     public ResponseEntity<ProductDTO> addCategoryByUUID(@PathVariable String product_uuid, @RequestBody @Valid ProductCategoryInsertDTO productCategoryInsertDTO) {
         return ResponseEntity.ok(productService.addCategoryByUUID(product_uuid, productCategoryInsertDTO));
     }
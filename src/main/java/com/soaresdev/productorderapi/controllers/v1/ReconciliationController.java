@@ -0,0 +1,55 @@
+package com.soaresdev.productorderapi.controllers.v1;
+
+import com.soaresdev.productorderapi.dtos.ReconciliationIssueDTO;
+import com.soaresdev.productorderapi.dtos.ReconciliationRunDTO;
+import com.soaresdev.productorderapi.exceptions.StandardError;
+import com.soaresdev.productorderapi.services.ReconciliationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/v1/reconciliation")
+@Tag(name = "Reconciliation")
+@SecurityRequirement(name = "bearerAuth")
+public class ReconciliationController {
+    private final ReconciliationService reconciliationService;
+
+    public ReconciliationController(ReconciliationService reconciliationService) {
+        this.reconciliationService = reconciliationService;
+    }
+
+    @Operation(description = "Get a paginated list of payment reconciliation runs, the latest first", method = "GET")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "403", description = "Access denied", content = @Content(schema = @Schema(implementation = StandardError.class)))
+    })
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping(value = "/runs", produces = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"})
+    public ResponseEntity<Page<ReconciliationRunDTO>> findRuns(Pageable pageable) {
+        return ResponseEntity.ok(reconciliationService.findRuns(pageable));
+    }
+
+    @Operation(description = "Get a paginated report of the issues found by a payment reconciliation run", method = "GET",
+            summary = "Issue type: AMOUNT_MISMATCH, PAID_WITHOUT_PAYMENT, PAYMENT_ON_UNPAID_ORDER")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Illegal argument", content = @Content(schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "403", description = "Access denied", content = @Content(schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "404", description = "Entity not found", content = @Content(schema = @Schema(implementation = StandardError.class)))
+    })
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping(value = "/runs/{uuid}/issues", produces = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"})
+    public ResponseEntity<Page<ReconciliationIssueDTO>> findIssues(@PathVariable String uuid, Pageable pageable) {
+        return ResponseEntity.ok(reconciliationService.findIssues(uuid, pageable));
+    }
+}
@@ -1,10 +1,13 @@
 package com.soaresdev.productorderapi.controllers.v1;
 
+import com.soaresdev.productorderapi.dtos.FieldSet;
+import com.soaresdev.productorderapi.dtos.OrderDTO;
 import com.soaresdev.productorderapi.dtos.UserDTO;
 import com.soaresdev.productorderapi.dtos.insertDTOs.UserInsertDTO;
 import com.soaresdev.productorderapi.dtos.insertDTOs.UserRoleInsertDTO;
 import com.soaresdev.productorderapi.exceptions.StandardError;
 import com.soaresdev.productorderapi.exceptions.StandardInsertDTOError;
+import com.soaresdev.productorderapi.services.OrderService;
 import com.soaresdev.productorderapi.services.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -16,6 +19,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -28,9 +32,11 @@ import java.net.URI;
 @Tag(name = "User")
 public class UserController {
     private final UserService userService;
+    private final OrderService orderService;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, OrderService orderService) {
         this.userService = userService;
+        this.orderService = orderService;
     }
 
     @Operation(description = "Get a paginated list of all users", method = "GET")
@@ -40,7 +46,7 @@ public class UserController {
     })
     @SecurityRequirement(name = "bearerAuth")
     @PreAuthorize("hasAnyRole('ROLE_USER', 'ROLE_ADMIN')")
-    @GetMapping(produces = {"application/json", "application/xml"})
+    @GetMapping(produces = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"})
     public ResponseEntity<Page<UserDTO>> findAll(@PageableDefault(sort = "name") Pageable pageable) {
         return ResponseEntity.ok(userService.findAll(pageable));
     }
@@ -54,18 +60,35 @@ public class UserController {
     })
     @SecurityRequirement(name = "bearerAuth")
     @PreAuthorize("hasAnyRole('ROLE_USER', 'ROLE_ADMIN')")
-    @GetMapping(value = "/{uuid}", produces = {"application/json", "application/xml"})
+    @GetMapping(value = "/{uuid}", produces = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"})
     public ResponseEntity<UserDTO> findByUUID(@PathVariable String uuid) {
         return ResponseEntity.ok(userService.findByUUID(uuid));
     }
 
+    @Operation(description = "Get a paginated list of the orders of an user by UUID", method = "GET",
+            summary = "Fields: id, moment, orderStatus, total, client, payment, items, e.g. fields=id,moment,orderStatus,total")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Illegal argument", content = @Content(schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "403", description = "Access denied", content = @Content(schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "404", description = "Entity not found", content = @Content(schema = @Schema(implementation = StandardError.class)))
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @PreAuthorize("hasAnyRole('ROLE_USER', 'ROLE_MANAGER', 'ROLE_ADMIN')")
+    @GetMapping(value = "/{uuid}/orders", produces = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"})
+    public ResponseEntity<Page<OrderDTO>> findOrdersByUUID(@PathVariable String uuid,
+                                                           @PageableDefault(sort = "moment", direction = Sort.Direction.DESC) Pageable pageable,
+                                                           @RequestParam(value = FieldSet.PARAMETER, required = false) String fields) {
+        return ResponseEntity.ok(orderService.findAllByClient(uuid, pageable, FieldSet.parse(fields, OrderDTO.FIELDS)));
+    }
+
     @Operation(description = "Insert a new user", method = "POST")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Created", content = @Content(schema = @Schema(implementation = UserDTO.class))),
             @ApiResponse(responseCode = "400", description = "Invalid arguments", content = @Content(schema = @Schema(implementation = StandardInsertDTOError.class))),
             @ApiResponse(responseCode = "409", description = "Entity already exists", content = @Content(schema = @Schema(implementation = StandardError.class)))
     })
-    @PostMapping(consumes = {"application/json", "application/xml"}, produces = {"application/json", "application/xml"})
+    @PostMapping(consumes = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"}, produces = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"})
     public ResponseEntity<UserDTO> insert(@RequestBody @Valid UserInsertDTO userInsertDTO) {
         UserDTO userDTO = userService.insert(userInsertDTO);
         URI uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{uuid}")
@@ -82,7 +105,7 @@ public class UserController {
     })
     @SecurityRequirement(name = "bearerAuth")
     @PreAuthorize("hasAnyRole('ROLE_USER', 'ROLE_ADMIN')")
-    @DeleteMapping(value = "/{uuid}", produces = {"application/json", "application/xml"})
+    @DeleteMapping(value = "/{uuid}", produces = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"})
     public ResponseEntity<Void> deleteByUUID(@PathVariable String uuid) {
         userService.deleteByUUID(uuid);
         return ResponseEntity.noContent().build();
@@ -98,7 +121,7 @@ public class UserController {
     })
     @SecurityRequirement(name = "bearerAuth")
     @PreAuthorize("hasAnyRole('ROLE_USER', 'ROLE_ADMIN')")
-    @PutMapping(value = "/{uuid}", consumes = {"application/json", "application/xml"}, produces = {"application/json", "application/xml"})
+    @PutMapping(value = "/{uuid}", consumes = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"}, produces = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"})
     public ResponseEntity<UserDTO> updateByUUID(@PathVariable String uuid, @RequestBody @Valid UserInsertDTO userInsertDTO) {
         return ResponseEntity.ok(userService.updateByUUID(uuid, userInsertDTO));
     }
@@ -113,7 +136,7 @@ public class UserController {
     })
     @SecurityRequirement(name = "bearerAuth")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
-    @PostMapping(value = "/{uuid}/roles", produces = {"application/json", "application/xml"})
+    @PostMapping(value = "/{uuid}/roles", produces = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"})
     public ResponseEntity<Void> addRole(@PathVariable String uuid, @RequestBody @Valid UserRoleInsertDTO userRoleInsertDTO) {
         userService.addRole(uuid, userRoleInsertDTO);
         return ResponseEntity.noContent().build();
@@ -128,7 +151,7 @@ public class UserController {
     })
     @SecurityRequirement(name = "bearerAuth")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
-    @DeleteMapping(value = "/{uuid}/roles", produces = {"application/json", "application/xml"})
+    @DeleteMapping(value = "/{uuid}/roles", produces = {"application/json", "application/xml", "application/cbor", "application/x-jackson-smile"})
     public ResponseEntity<Void> deleteRole(@PathVariable String uuid, @RequestBody @Valid UserRoleInsertDTO userRoleInsertDTO) {
         userService.deleteRole(uuid, userRoleInsertDTO);
         return ResponseEntity.noContent().build();
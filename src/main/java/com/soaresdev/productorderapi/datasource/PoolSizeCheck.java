@@ -0,0 +1,41 @@
+package com.soaresdev.productorderapi.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PoolSizeCheck {
+    private static final Logger logger = LoggerFactory.getLogger(PoolSizeCheck.class);
+
+    private final ObjectProvider<HikariDataSource> dataSources;
+    private final int maxRequestThreads;
+    private final int maxThreadsPerConnection;
+
+    public PoolSizeCheck(ObjectProvider<HikariDataSource> dataSources,
+                         @Value("${server.tomcat.threads.max:200}") int maxRequestThreads,
+                         @Value("${datasource.pool-check.max-threads-per-connection:4}") int maxThreadsPerConnection) {
+        this.dataSources = dataSources;
+        this.maxRequestThreads = maxRequestThreads;
+        this.maxThreadsPerConnection = maxThreadsPerConnection;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkPoolSizes() {
+        dataSources.orderedStream().forEach(dataSource -> {
+            if(isUndersized(dataSource.getMaximumPoolSize()))
+                logger.warn("Pool {} has {} connections for {} request threads. Threads will queue on " +
+                        "hikaricp.connections.pending, check hikaricp.connections.acquire before raising the pool size",
+                        dataSource.getPoolName(), dataSource.getMaximumPoolSize(), maxRequestThreads);
+        });
+    }
+
+    boolean isUndersized(int maximumPoolSize) {
+        return maximumPoolSize > 0 && maxRequestThreads > (long) maximumPoolSize * maxThreadsPerConnection;
+    }
+}
@@ -0,0 +1,72 @@
+package com.soaresdev.productorderapi.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private final DataSource primary;
+    private final Duration replicaRetryInterval;
+    private final Clock clock;
+    private volatile long replicaUnavailableUntil;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration replicaRetryInterval, Clock clock) {
+        this.primary = primary;
+        this.replicaRetryInterval = replicaRetryInterval;
+        this.clock = clock;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if(TransactionSynchronizationManager.isCurrentTransactionReadOnly() && clock.millis() >= replicaUnavailableUntil)
+            return Route.REPLICA;
+        return Route.PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        DataSource target = determineTargetDataSource();
+        try {
+            return target.getConnection();
+        }catch(SQLException e) {
+            if(target == primary)
+                throw e;
+            return fallbackToPrimary(e);
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        DataSource target = determineTargetDataSource();
+        try {
+            return target.getConnection(username, password);
+        }catch(SQLException e) {
+            if(target == primary)
+                throw e;
+            return fallbackToPrimary(e);
+        }
+    }
+
+    //Skips the replica for a while, so every read does not pay the replica connection timeout while it is down
+    private Connection fallbackToPrimary(SQLException e) throws SQLException {
+        replicaUnavailableUntil = clock.millis() + replicaRetryInterval.toMillis();
+        logger.warn("Replica unavailable, routing reads to primary for {}: {}", replicaRetryInterval, e.getMessage());
+        return primary.getConnection();
+    }
+}
@@ -0,0 +1,47 @@
+package com.soaresdev.productorderapi.dtos;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.UUID;
+
+public class CategoryFacetDTO implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private UUID id;
+    private String name;
+    private Long count;
+
+    public CategoryFacetDTO() {
+    }
+
+    public CategoryFacetDTO(UUID id, String name, Long count) {
+        this.id = id;
+        this.name = name;
+        this.count = count;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Long getCount() {
+        return count;
+    }
+
+    public void setCount(Long count) {
+        this.count = count;
+    }
+}
@@ -0,0 +1,72 @@
+package com.soaresdev.productorderapi.dtos;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+//Top level fields requested through the "fields" query parameter, e.g. fields=id,moment,orderStatus,total
+public class FieldSet {
+    public static final String PARAMETER = "fields";
+
+    private static final FieldSet ALL = new FieldSet(Collections.emptySet());
+
+    private final Set<String> names;
+
+    private FieldSet(Set<String> names) {
+        this.names = names;
+    }
+
+    public static FieldSet all() {
+        return ALL;
+    }
+
+    public static FieldSet parse(String fields, Collection<String> allowedFields) {
+        FieldSet fieldSet = parse(fields);
+        for(String name : fieldSet.names)
+            if(!allowedFields.contains(name))
+                throw new IllegalArgumentException("Unknown field: " + name);
+        return fieldSet;
+    }
+
+    public static FieldSet parse(String fields) {
+        if(fields == null || fields.isBlank())
+            return ALL;
+
+        Set<String> names = new LinkedHashSet<>();
+        for(String name : fields.split(","))
+            if(!name.isBlank())
+                names.add(name.trim());
+        return names.isEmpty() ? ALL : new FieldSet(Collections.unmodifiableSet(names));
+    }
+
+    //Filters for mappers serializing @JsonFilter DTOs, unknown filter ids serialize every field
+    public static SimpleFilterProvider filters() {
+        return new SimpleFilterProvider().setFailOnUnknownId(false);
+    }
+
+    public SimpleFilterProvider filters(String filterId) {
+        if(isAll())
+            return filters();
+        return filters().addFilter(filterId, SimpleBeanPropertyFilter.filterOutAllExcept(names));
+    }
+
+    public boolean isAll() {
+        return names.isEmpty();
+    }
+
+    public boolean includes(String name) {
+        return isAll() || names.contains(name);
+    }
+
+    public boolean includesAny(String... names) {
+        return Arrays.stream(names).anyMatch(this::includes);
+    }
+
+    public Set<String> getNames() {
+        return names;
+    }
+}
@@ -1,10 +1,13 @@
 package com.soaresdev.productorderapi.dtos;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.soaresdev.productorderapi.entities.ArchivedOrder;
 import com.soaresdev.productorderapi.entities.Order;
+import com.soaresdev.productorderapi.entities.Product;
 import com.soaresdev.productorderapi.entities.enums.OrderStatus;
 import java.io.Serial;
 import java.io.Serializable;
@@ -12,13 +15,17 @@ import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.List;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @JsonPropertyOrder({"id","moment", "orderStatus", "total", "client", "payment", "items"})
+@JsonFilter("OrderDTO")
 public class OrderDTO implements Serializable {
     @Serial
     private static final long serialVersionUID = 1L;
+    public static final List<String> FIELDS = List.of("id", "moment", "orderStatus", "total", "client", "payment", "items");
 
     private UUID id;
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSSSSSSS'Z'", timezone = "UTC")
@@ -43,12 +50,40 @@ public class OrderDTO implements Serializable {
         this.paymentDTO = paymentDTO;
     }
 
+    public OrderDTO(UUID id, Instant moment, OrderStatus orderStatus, BigDecimal total) {
+        this.id = id;
+        this.moment = moment;
+        this.orderStatus = orderStatus;
+        this.total = total;
+    }
+
     public OrderDTO(Order order) {
+        this(order, ProductDTO::new);
+    }
+
+    //productMapper lets items reuse cached product snapshots instead of mapping the product once per line
+    public OrderDTO(Order order, Function<Product, ProductDTO> productMapper) {
+        this.id = order.getId();
+        this.moment = order.getMoment();
+        this.orderStatus = OrderStatus.valueOf(order.getOrderStatus());
+        this.client = new UserDTO(order.getClient());
+        this.items = order.getItems().stream()
+                .map(item -> new OrderItemDTO(item, productMapper.apply(item.getProduct())))
+                .collect(Collectors.toSet());
+        this.total = order.getTotal();
+        if(order.getPayment() != null)
+            this.paymentDTO = new PaymentDTO(order.getPayment());
+    }
+
+    //Archived items only keep the product id and name, the product may no longer exist
+    public OrderDTO(ArchivedOrder order) {
         this.id = order.getId();
         this.moment = order.getMoment();
         this.orderStatus = OrderStatus.valueOf(order.getOrderStatus());
         this.client = new UserDTO(order.getClient());
-        this.items = order.getItems().stream().map(OrderItemDTO::new).collect(Collectors.toSet());
+        this.items = order.getItems().stream()
+                .map(OrderItemDTO::new)
+                .collect(Collectors.toSet());
         this.total = order.getTotal();
         if(order.getPayment() != null)
             this.paymentDTO = new PaymentDTO(order.getPayment());
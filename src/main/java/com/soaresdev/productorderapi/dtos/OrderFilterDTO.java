@@ -0,0 +1,73 @@
+package com.soaresdev.productorderapi.dtos;
+
+import com.soaresdev.productorderapi.entities.enums.OrderStatus;
+import org.springframework.format.annotation.DateTimeFormat;
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public class OrderFilterDTO implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private String client_id;
+    private OrderStatus orderStatus;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private Instant minMoment;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private Instant maxMoment;
+    private BigDecimal minTotal;
+    private BigDecimal maxTotal;
+
+    public OrderFilterDTO() {
+    }
+
+    public String getClient_id() {
+        return client_id;
+    }
+
+    public void setClient_id(String client_id) {
+        this.client_id = client_id;
+    }
+
+    public OrderStatus getOrderStatus() {
+        return orderStatus;
+    }
+
+    public void setOrderStatus(OrderStatus orderStatus) {
+        this.orderStatus = orderStatus;
+    }
+
+    public Instant getMinMoment() {
+        return minMoment;
+    }
+
+    public void setMinMoment(Instant minMoment) {
+        this.minMoment = minMoment;
+    }
+
+    public Instant getMaxMoment() {
+        return maxMoment;
+    }
+
+    public void setMaxMoment(Instant maxMoment) {
+        this.maxMoment = maxMoment;
+    }
+
+    public BigDecimal getMinTotal() {
+        return minTotal;
+    }
+
+    public void setMinTotal(BigDecimal minTotal) {
+        this.minTotal = minTotal;
+    }
+
+    public BigDecimal getMaxTotal() {
+        return maxTotal;
+    }
+
+    public void setMaxTotal(BigDecimal maxTotal) {
+        this.maxTotal = maxTotal;
+    }
+}
@@ -1,6 +1,7 @@
 package com.soaresdev.productorderapi.dtos;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.soaresdev.productorderapi.entities.ArchivedOrderItem;
 import com.soaresdev.productorderapi.entities.OrderItem;
 import java.io.Serial;
 import java.io.Serializable;
@@ -27,10 +28,22 @@ public class OrderItemDTO implements Serializable {
     }
 
     public OrderItemDTO(OrderItem orderItem) {
+        this(orderItem, new ProductDTO(orderItem.getProduct()));
+    }
+
+    public OrderItemDTO(OrderItem orderItem, ProductDTO productDTO) {
+        this.quantity = orderItem.getQuantity();
+        this.productPriceRecord = orderItem.getProductPriceRecord();
+        this.subTotal = orderItem.getSubTotal();
+        this.productDTO = productDTO;
+    }
+
+    public OrderItemDTO(ArchivedOrderItem orderItem) {
         this.quantity = orderItem.getQuantity();
         this.productPriceRecord = orderItem.getProductPriceRecord();
         this.subTotal = orderItem.getSubTotal();
-        this.productDTO = new ProductDTO(orderItem.getProduct());
+        this.productDTO = new ProductDTO(orderItem.getProductId(), orderItem.getProductName(), null,
+                orderItem.getProductPriceRecord(), null);
     }
 
     public Integer getQuantity() {
@@ -0,0 +1,89 @@
+package com.soaresdev.productorderapi.dtos;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.soaresdev.productorderapi.entities.OrderSummary;
+import com.soaresdev.productorderapi.entities.enums.OrderStatus;
+import com.soaresdev.productorderapi.entities.enums.PaymentType;
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+@JsonPropertyOrder({"id", "moment", "orderStatus", "total", "itemCount", "paymentType"})
+public class OrderSummaryDTO implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private UUID id;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSSSSSSS'Z'", timezone = "UTC")
+    private Instant moment;
+    private OrderStatus orderStatus;
+    private BigDecimal total;
+    private Integer itemCount;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private PaymentType paymentType;
+
+    public OrderSummaryDTO() {
+    }
+
+    public OrderSummaryDTO(OrderSummary orderSummary) {
+        this.id = orderSummary.getOrderId();
+        this.moment = orderSummary.getMoment();
+        this.orderStatus = OrderStatus.valueOf(orderSummary.getOrderStatus());
+        this.total = orderSummary.getTotal();
+        this.itemCount = orderSummary.getItemCount();
+        if(orderSummary.getPaymentType() != null)
+            this.paymentType = PaymentType.valueOf(orderSummary.getPaymentType());
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public Instant getMoment() {
+        return moment;
+    }
+
+    public void setMoment(Instant moment) {
+        this.moment = moment;
+    }
+
+    public OrderStatus getOrderStatus() {
+        return orderStatus;
+    }
+
+    public void setOrderStatus(OrderStatus orderStatus) {
+        this.orderStatus = orderStatus;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+
+    public Integer getItemCount() {
+        return itemCount;
+    }
+
+    public void setItemCount(Integer itemCount) {
+        this.itemCount = itemCount;
+    }
+
+    public PaymentType getPaymentType() {
+        return paymentType;
+    }
+
+    public void setPaymentType(PaymentType paymentType) {
+        this.paymentType = paymentType;
+    }
+}
@@ -1,24 +1,31 @@
 package com.soaresdev.productorderapi.dtos;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.soaresdev.productorderapi.entities.ArchivedPayment;
 import com.soaresdev.productorderapi.entities.Payment;
+import com.soaresdev.productorderapi.entities.enums.PaymentStatus;
 import com.soaresdev.productorderapi.entities.enums.PaymentType;
 import java.io.Serial;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
-@JsonPropertyOrder({"id", "order_id", "moment", "paymentType", "amount"})
+@JsonPropertyOrder({"id", "order_id", "moment", "paymentType", "paymentStatus", "amount"})
+@JsonFilter("PaymentDTO")
 public class PaymentDTO implements Serializable {
     @Serial
     private static final long serialVersionUID = 1L;
+    public static final List<String> FIELDS = List.of("id", "order_id", "moment", "paymentType", "paymentStatus", "amount");
 
     private UUID id;
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSSSSSSS'Z'", timezone = "UTC")
     private Instant moment;
     private PaymentType paymentType;
+    private PaymentStatus paymentStatus = PaymentStatus.COMPLETED;
     private BigDecimal amount;
 
     private UUID order_id;
@@ -33,6 +40,15 @@ public class PaymentDTO implements Serializable {
     }
 
     public PaymentDTO(Payment payment) {
+        this.id = payment.getId();
+        this.moment = payment.getMoment();
+        this.paymentType = PaymentType.valueOf(payment.getPaymentType());
+        this.paymentStatus = PaymentStatus.valueOf(payment.getPaymentStatus());
+        this.amount = payment.getAmount();
+        this.order_id = payment.getOrder().getId();
+    }
+
+    public PaymentDTO(ArchivedPayment payment) {
         this.id = payment.getId();
         this.moment = payment.getMoment();
         this.paymentType = PaymentType.valueOf(payment.getPaymentType());
@@ -56,6 +72,14 @@ public class PaymentDTO implements Serializable {
         this.paymentType = paymentType;
     }
 
+    public PaymentStatus getPaymentStatus() {
+        return paymentStatus;
+    }
+
+    public void setPaymentStatus(PaymentStatus paymentStatus) {
+        this.paymentStatus = paymentStatus;
+    }
+
     public BigDecimal getAmount() {
         return amount;
     }
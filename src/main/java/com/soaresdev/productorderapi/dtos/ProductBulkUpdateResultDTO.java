@@ -0,0 +1,26 @@
+package com.soaresdev.productorderapi.dtos;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+public class ProductBulkUpdateResultDTO implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private Integer updated;
+
+    public ProductBulkUpdateResultDTO() {
+    }
+
+    public ProductBulkUpdateResultDTO(Integer updated) {
+        this.updated = updated;
+    }
+
+    public Integer getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(Integer updated) {
+        this.updated = updated;
+    }
+}
@@ -1,17 +1,22 @@
 package com.soaresdev.productorderapi.dtos;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.soaresdev.productorderapi.entities.Product;
 import java.io.Serial;
 import java.io.Serializable;
 import java.math.BigDecimal;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+@JsonFilter("ProductDTO")
 public class ProductDTO implements Serializable {
     @Serial
     private static final long serialVersionUID = 1L;
+    public static final List<String> FIELDS = List.of("id", "name", "description", "price", "imgUrl", "categories");
 
     private UUID id;
     private String name;
@@ -41,6 +46,13 @@ public class ProductDTO implements Serializable {
         this.categories = product.getCategories().stream().map(CategoryDTO::new).collect(Collectors.toSet());
     }
 
+    //Shared between responses by ProductSnapshotCache, so its categories can not be modified
+    public static ProductDTO snapshotOf(Product product) {
+        ProductDTO productDTO = new ProductDTO(product);
+        productDTO.categories = Collections.unmodifiableSet(productDTO.categories);
+        return productDTO;
+    }
+
     public UUID getId() {
         return id;
     }
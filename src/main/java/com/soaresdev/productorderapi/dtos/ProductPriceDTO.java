@@ -0,0 +1,53 @@
+package com.soaresdev.productorderapi.dtos;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+@JsonPropertyOrder({"product_id", "at", "price"})
+public class ProductPriceDTO implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private UUID product_id;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSSSSSSS'Z'", timezone = "UTC")
+    private Instant at;
+    private BigDecimal price;
+
+    public ProductPriceDTO() {
+    }
+
+    public ProductPriceDTO(UUID product_id, Instant at, BigDecimal price) {
+        this.product_id = product_id;
+        this.at = at;
+        this.price = price;
+    }
+
+    public UUID getProduct_id() {
+        return product_id;
+    }
+
+    public void setProduct_id(UUID product_id) {
+        this.product_id = product_id;
+    }
+
+    public Instant getAt() {
+        return at;
+    }
+
+    public void setAt(Instant at) {
+        this.at = at;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+}
@@ -0,0 +1,41 @@
+package com.soaresdev.productorderapi.dtos;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import org.springframework.data.domain.Page;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+@JsonPropertyOrder({"products", "facets"})
+public class ProductSearchDTO implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private Page<ProductDTO> products;
+    private List<CategoryFacetDTO> facets = new ArrayList<>();
+
+    public ProductSearchDTO() {
+    }
+
+    public ProductSearchDTO(Page<ProductDTO> products, List<CategoryFacetDTO> facets) {
+        this.products = products;
+        this.facets = facets;
+    }
+
+    public Page<ProductDTO> getProducts() {
+        return products;
+    }
+
+    public void setProducts(Page<ProductDTO> products) {
+        this.products = products;
+    }
+
+    public List<CategoryFacetDTO> getFacets() {
+        return facets;
+    }
+
+    public void setFacets(List<CategoryFacetDTO> facets) {
+        this.facets = facets;
+    }
+}
@@ -0,0 +1,96 @@
+package com.soaresdev.productorderapi.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.soaresdev.productorderapi.entities.ReconciliationIssue;
+import com.soaresdev.productorderapi.entities.enums.OrderStatus;
+import com.soaresdev.productorderapi.entities.enums.ReconciliationIssueType;
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@JsonPropertyOrder({"id", "issueType", "orderId", "orderStatus", "orderTotal", "paymentId", "paymentAmount"})
+public class ReconciliationIssueDTO implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private UUID id;
+    private ReconciliationIssueType issueType;
+    private UUID orderId;
+    private OrderStatus orderStatus;
+    private BigDecimal orderTotal;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private UUID paymentId;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private BigDecimal paymentAmount;
+
+    public ReconciliationIssueDTO() {
+    }
+
+    public ReconciliationIssueDTO(ReconciliationIssue reconciliationIssue) {
+        this.id = reconciliationIssue.getId();
+        this.issueType = ReconciliationIssueType.valueOf(reconciliationIssue.getIssueType());
+        this.orderId = reconciliationIssue.getOrderId();
+        this.orderStatus = OrderStatus.valueOf(reconciliationIssue.getOrderStatus());
+        this.orderTotal = reconciliationIssue.getOrderTotal();
+        this.paymentId = reconciliationIssue.getPaymentId();
+        this.paymentAmount = reconciliationIssue.getPaymentAmount();
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public ReconciliationIssueType getIssueType() {
+        return issueType;
+    }
+
+    public void setIssueType(ReconciliationIssueType issueType) {
+        this.issueType = issueType;
+    }
+
+    public UUID getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(UUID orderId) {
+        this.orderId = orderId;
+    }
+
+    public OrderStatus getOrderStatus() {
+        return orderStatus;
+    }
+
+    public void setOrderStatus(OrderStatus orderStatus) {
+        this.orderStatus = orderStatus;
+    }
+
+    public BigDecimal getOrderTotal() {
+        return orderTotal;
+    }
+
+    public void setOrderTotal(BigDecimal orderTotal) {
+        this.orderTotal = orderTotal;
+    }
+
+    public UUID getPaymentId() {
+        return paymentId;
+    }
+
+    public void setPaymentId(UUID paymentId) {
+        this.paymentId = paymentId;
+    }
+
+    public BigDecimal getPaymentAmount() {
+        return paymentAmount;
+    }
+
+    public void setPaymentAmount(BigDecimal paymentAmount) {
+        this.paymentAmount = paymentAmount;
+    }
+}
@@ -0,0 +1,86 @@
+package com.soaresdev.productorderapi.dtos;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.soaresdev.productorderapi.entities.ReconciliationRun;
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.UUID;
+
+@JsonPropertyOrder({"id", "startedAt", "finishedAt", "segments", "checked", "issues"})
+public class ReconciliationRunDTO implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private UUID id;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSSSSSSS'Z'", timezone = "UTC")
+    private Instant startedAt;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSSSSSSS'Z'", timezone = "UTC")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Instant finishedAt;
+    private Integer segments;
+    private Long checked;
+    private Long issues;
+
+    public ReconciliationRunDTO() {
+    }
+
+    public ReconciliationRunDTO(ReconciliationRun reconciliationRun) {
+        this.id = reconciliationRun.getId();
+        this.startedAt = reconciliationRun.getStartedAt();
+        this.finishedAt = reconciliationRun.getFinishedAt();
+        this.segments = reconciliationRun.getSegments();
+        this.checked = reconciliationRun.getChecked();
+        this.issues = reconciliationRun.getIssues();
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public Integer getSegments() {
+        return segments;
+    }
+
+    public void setSegments(Integer segments) {
+        this.segments = segments;
+    }
+
+    public Long getChecked() {
+        return checked;
+    }
+
+    public void setChecked(Long checked) {
+        this.checked = checked;
+    }
+
+    public Long getIssues() {
+        return issues;
+    }
+
+    public void setIssues(Long issues) {
+        this.issues = issues;
+    }
+}
@@ -0,0 +1,68 @@
+package com.soaresdev.productorderapi.dtos.analyticsDTOs;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public class CategorySalesDTO implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private UUID id;
+    private String name;
+    private Long orders;
+    private Long quantity;
+    private BigDecimal revenue;
+
+    public CategorySalesDTO() {
+    }
+
+    public CategorySalesDTO(UUID id, String name, Long orders, Long quantity, BigDecimal revenue) {
+        this.id = id;
+        this.name = name;
+        this.orders = orders;
+        this.quantity = quantity;
+        this.revenue = revenue;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Long getOrders() {
+        return orders;
+    }
+
+    public void setOrders(Long orders) {
+        this.orders = orders;
+    }
+
+    public Long getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Long quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+}
@@ -0,0 +1,58 @@
+package com.soaresdev.productorderapi.dtos.analyticsDTOs;
+
+import com.soaresdev.productorderapi.entities.enums.PaymentType;
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+public class PaymentTypeSalesDTO implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private PaymentType paymentType;
+    private Long orders;
+    private BigDecimal revenue;
+    private BigDecimal averageOrderValue;
+
+    public PaymentTypeSalesDTO() {
+    }
+
+    public PaymentTypeSalesDTO(PaymentType paymentType, Long orders, BigDecimal revenue, BigDecimal averageOrderValue) {
+        this.paymentType = paymentType;
+        this.orders = orders;
+        this.revenue = revenue;
+        this.averageOrderValue = averageOrderValue;
+    }
+
+    public PaymentType getPaymentType() {
+        return paymentType;
+    }
+
+    public void setPaymentType(PaymentType paymentType) {
+        this.paymentType = paymentType;
+    }
+
+    public Long getOrders() {
+        return orders;
+    }
+
+    public void setOrders(Long orders) {
+        this.orders = orders;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+
+    public BigDecimal getAverageOrderValue() {
+        return averageOrderValue;
+    }
+
+    public void setAverageOrderValue(BigDecimal averageOrderValue) {
+        this.averageOrderValue = averageOrderValue;
+    }
+}
@@ -0,0 +1,50 @@
+package com.soaresdev.productorderapi.dtos.analyticsDTOs;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class RevenueDTO implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
+    private LocalDate start;
+    private Long orders;
+    private BigDecimal revenue;
+
+    public RevenueDTO() {
+    }
+
+    public RevenueDTO(LocalDate start, Long orders, BigDecimal revenue) {
+        this.start = start;
+        this.orders = orders;
+        this.revenue = revenue;
+    }
+
+    public LocalDate getStart() {
+        return start;
+    }
+
+    public void setStart(LocalDate start) {
+        this.start = start;
+    }
+
+    public Long getOrders() {
+        return orders;
+    }
+
+    public void setOrders(Long orders) {
+        this.orders = orders;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+}
@@ -0,0 +1,109 @@
+package com.soaresdev.productorderapi.dtos.insertDTOs;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.List;
+
+//Filter (category_id, product_ids, minPrice, maxPrice, combined with AND) and change (price or pricePercentage,
+//description) of a bulk update, e.g. {"category_id": "...", "pricePercentage": -10} for 10% off a category
+public class ProductBulkUpdateDTO implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+    private static final String UUID_REGEX = "^[a-fA-F0-9]{8}-[a-fA-F0-9]{4}-[1-5][a-fA-F0-9]{3}-[89aAbB][a-fA-F0-9]{3}-[a-fA-F0-9]{12}$";
+
+    @Pattern(regexp = UUID_REGEX, message = "Invalid category uuid")
+    private String category_id;
+
+    @Size(max = 1000, message = "At most 1000 product uuids per request")
+    private List<@Pattern(regexp = UUID_REGEX, message = "Invalid product uuid") String> product_ids;
+
+    @PositiveOrZero(message = "Min price can not be negative")
+    private BigDecimal minPrice;
+
+    @PositiveOrZero(message = "Max price can not be negative")
+    private BigDecimal maxPrice;
+
+    @Positive(message = "Price must be greater than zero")
+    private BigDecimal price;
+
+    @DecimalMin(value = "-99", message = "Price percentage must be between -99 and 1000")
+    @DecimalMax(value = "1000", message = "Price percentage must be between -99 and 1000")
+    private BigDecimal pricePercentage;
+
+    @Size(min = 1, message = "Description can not be empty")
+    private String description;
+
+    public ProductBulkUpdateDTO() {
+    }
+
+    public String getCategory_id() {
+        return category_id;
+    }
+
+    public void setCategory_id(String category_id) {
+        this.category_id = category_id;
+    }
+
+    public List<String> getProduct_ids() {
+        return product_ids;
+    }
+
+    public void setProduct_ids(List<String> product_ids) {
+        this.product_ids = product_ids;
+    }
+
+    public BigDecimal getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(BigDecimal minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public BigDecimal getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(BigDecimal maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public BigDecimal getPricePercentage() {
+        return pricePercentage;
+    }
+
+    public void setPricePercentage(BigDecimal pricePercentage) {
+        this.pricePercentage = pricePercentage;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public boolean hasFilter() {
+        return category_id != null || (product_ids != null && !product_ids.isEmpty()) || minPrice != null || maxPrice != null;
+    }
+
+    public boolean changesPrice() {
+        return price != null || pricePercentage != null;
+    }
+}
@@ -0,0 +1,32 @@
+package com.soaresdev.productorderapi.dtos.insertDTOs;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+public class ProductPriceBatchInsertDTO implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @NotEmpty(message = "Prices can not be empty")
+    @Size(max = 1000, message = "At most 1000 prices per request")
+    private List<@Valid ProductPriceInsertDTO> prices;
+
+    public ProductPriceBatchInsertDTO() {
+    }
+
+    public ProductPriceBatchInsertDTO(List<ProductPriceInsertDTO> prices) {
+        this.prices = prices;
+    }
+
+    public List<ProductPriceInsertDTO> getPrices() {
+        return prices;
+    }
+
+    public void setPrices(List<ProductPriceInsertDTO> prices) {
+        this.prices = prices;
+    }
+}
@@ -0,0 +1,89 @@
+package com.soaresdev.productorderapi.entities;
+
+import jakarta.persistence.*;
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+//Closed order moved out of tb_order by OrderArchivalService. Written only by its set-based inserts, read by OrderService
+@Entity
+@Table(name = "tb_order_archive", indexes = @Index(name = "idx_order_archive_client_moment", columnList = "user_id, moment"))
+public class ArchivedOrder implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    private UUID id;
+    @Column(nullable = false)
+    private Instant moment;
+    @Column(nullable = false)
+    private Integer orderStatus;
+    @Column(nullable = false)
+    private Instant archivedAt;
+
+    @ManyToOne
+    @JoinColumn(name = "user_id")
+    private User client;
+
+    @OneToMany(mappedBy = "id.order", cascade = CascadeType.REMOVE)
+    private final Set<ArchivedOrderItem> items = new HashSet<>();
+
+    @OneToOne(mappedBy = "order", cascade = CascadeType.REMOVE)
+    private ArchivedPayment payment;
+
+    public ArchivedOrder() {
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public Instant getMoment() {
+        return moment;
+    }
+
+    public Integer getOrderStatus() {
+        return orderStatus;
+    }
+
+    public Instant getArchivedAt() {
+        return archivedAt;
+    }
+
+    public User getClient() {
+        return client;
+    }
+
+    public Set<ArchivedOrderItem> getItems() {
+        return items;
+    }
+
+    public ArchivedPayment getPayment() {
+        return payment;
+    }
+
+    public BigDecimal getTotal() {
+        BigDecimal sum = BigDecimal.ZERO;
+        for(ArchivedOrderItem item : items)
+            sum = sum.add(item.getSubTotal());
+        return sum;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ArchivedOrder that = (ArchivedOrder) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
@@ -0,0 +1,69 @@
+package com.soaresdev.productorderapi.entities;
+
+import com.soaresdev.productorderapi.entities.pk.ArchivedOrderItemPK;
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Objects;
+import java.util.UUID;
+
+@Entity
+@Table(name = "tb_order_product_archive")
+public class ArchivedOrderItem implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @EmbeddedId
+    private final ArchivedOrderItemPK id = new ArchivedOrderItemPK();
+    //Copied from the product when the order is archived, the product itself may be deleted later
+    @Column(nullable = false)
+    private String productName;
+    @Column(nullable = false)
+    private Integer quantity;
+    @Column(nullable = false)
+    private BigDecimal productPriceRecord;
+
+    public ArchivedOrderItem() {
+    }
+
+    public ArchivedOrder getOrder() {
+        return id.getOrder();
+    }
+
+    public UUID getProductId() {
+        return id.getProductId();
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public BigDecimal getProductPriceRecord() {
+        return productPriceRecord;
+    }
+
+    public BigDecimal getSubTotal() {
+        return productPriceRecord.multiply(BigDecimal.valueOf(quantity));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ArchivedOrderItem that = (ArchivedOrderItem) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
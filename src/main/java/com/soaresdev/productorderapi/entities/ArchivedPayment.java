@@ -0,0 +1,64 @@
+package com.soaresdev.productorderapi.entities;
+
+import jakarta.persistence.*;
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+@Entity
+@Table(name = "tb_payment_archive", indexes = @Index(name = "idx_payment_archive_moment", columnList = "moment"))
+public class ArchivedPayment implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    private UUID id;
+    @Column(nullable = false)
+    private Instant moment;
+    @Column(nullable = false)
+    private Integer paymentType;
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @OneToOne
+    private ArchivedOrder order;
+
+    public ArchivedPayment() {
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public Instant getMoment() {
+        return moment;
+    }
+
+    public Integer getPaymentType() {
+        return paymentType;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public ArchivedOrder getOrder() {
+        return order;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ArchivedPayment that = (ArchivedPayment) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
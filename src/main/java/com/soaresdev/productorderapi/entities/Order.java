@@ -12,7 +12,11 @@ import java.util.Set;
 import java.util.UUID;
 
 @Entity
-@Table(name = "tb_order")
+@Table(name = "tb_order", indexes = {
+        @Index(name = "idx_order_client_moment", columnList = "user_id, moment"),
+        @Index(name = "idx_order_status_moment", columnList = "orderStatus, moment"),
+        @Index(name = "idx_order_moment", columnList = "moment")
+})
 public class Order implements Serializable {
     @Serial
     private static final long serialVersionUID = 1L;
@@ -84,6 +88,16 @@ public class Order implements Serializable {
         this.payment = payment;
     }
 
+    //A declined asynchronous payment leaves the order open, to changes and to a new payment
+    public boolean hasPayment() {
+        return payment != null && !payment.isFailed();
+    }
+
+    //A pending payment only locks the items, the order is paid once the charge completes
+    public boolean isPaid() {
+        return payment != null && payment.isCompleted();
+    }
+
     public Set<OrderItem> getItems() {
         return items;
     }
@@ -0,0 +1,111 @@
+package com.soaresdev.productorderapi.entities;
+
+import com.soaresdev.productorderapi.entities.enums.OrderStatus;
+import com.soaresdev.productorderapi.entities.enums.PaymentType;
+import jakarta.persistence.*;
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+//Read model of an order for its client, kept by OrderSummaryService. The index covers every column, so a page is index-only
+@Entity
+@Table(name = "tb_order_summary", indexes = @Index(name = "idx_order_summary_client_moment",
+        columnList = "user_id, moment, order_id, orderStatus, total, itemCount, paymentType"))
+public class OrderSummary implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "order_id")
+    private UUID orderId;
+    @Column(name = "user_id", nullable = false)
+    private UUID clientId;
+    @Column(nullable = false)
+    private Instant moment;
+    @Column(nullable = false)
+    private Integer orderStatus;
+    @Column(nullable = false)
+    private BigDecimal total;
+    @Column(nullable = false)
+    private Integer itemCount;
+    private Integer paymentType;
+
+    public OrderSummary() {
+    }
+
+    public OrderSummary(UUID orderId) {
+        this.orderId = orderId;
+    }
+
+    public UUID getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(UUID orderId) {
+        this.orderId = orderId;
+    }
+
+    public UUID getClientId() {
+        return clientId;
+    }
+
+    public void setClientId(UUID clientId) {
+        this.clientId = clientId;
+    }
+
+    public Instant getMoment() {
+        return moment;
+    }
+
+    public void setMoment(Instant moment) {
+        this.moment = moment;
+    }
+
+    public Integer getOrderStatus() {
+        return orderStatus;
+    }
+
+    public void setOrderStatus(OrderStatus orderStatus) {
+        this.orderStatus = orderStatus.getCode();
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+
+    public Integer getItemCount() {
+        return itemCount;
+    }
+
+    public void setItemCount(Integer itemCount) {
+        this.itemCount = itemCount;
+    }
+
+    public Integer getPaymentType() {
+        return paymentType;
+    }
+
+    public void setPaymentType(PaymentType paymentType) {
+        this.paymentType = paymentType == null ? null : paymentType.getCode();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        OrderSummary that = (OrderSummary) o;
+        return Objects.equals(orderId, that.orderId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(orderId);
+    }
+}
@@ -0,0 +1,148 @@
+package com.soaresdev.productorderapi.entities;
+
+import com.soaresdev.productorderapi.entities.enums.OutboxEventType;
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.UUID;
+
+@Entity
+@Table(name = "tb_outbox_event", indexes = @Index(name = "idx_outbox_event_pending", columnList = "publishedAt, createdAt"))
+public class OutboxEvent implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+    @Column(nullable = false)
+    private Integer eventType;
+    @Column(nullable = false)
+    private UUID aggregateId;
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+    @Column(nullable = false)
+    private Instant createdAt;
+    private Instant publishedAt;
+    //Delivery state kept by OutboxRelay: sinks that already took the event, failed rounds and when it was given up on
+    @Column(length = 1000)
+    private String deliveredSinks;
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Integer attempts = 0;
+    @Column(length = 1000)
+    private String lastError;
+    private Instant parkedAt;
+
+    public OutboxEvent() {
+    }
+
+    public OutboxEvent(OutboxEventType eventType, UUID aggregateId, String payload, Instant createdAt) {
+        this.eventType = eventType.getCode();
+        this.aggregateId = aggregateId;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public Integer getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(OutboxEventType eventType) {
+        this.eventType = eventType.getCode();
+    }
+
+    public UUID getAggregateId() {
+        return aggregateId;
+    }
+
+    public void setAggregateId(UUID aggregateId) {
+        this.aggregateId = aggregateId;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getPublishedAt() {
+        return publishedAt;
+    }
+
+    public void setPublishedAt(Instant publishedAt) {
+        this.publishedAt = publishedAt;
+    }
+
+    public boolean isDeliveredTo(String sink) {
+        return deliveredSinks != null && Arrays.asList(deliveredSinks.split(",")).contains(sink);
+    }
+
+    public void markDeliveredTo(String sink) {
+        if(!isDeliveredTo(sink))
+            deliveredSinks = deliveredSinks == null ? sink : deliveredSinks + "," + sink;
+    }
+
+    public String getDeliveredSinks() {
+        return deliveredSinks;
+    }
+
+    public Integer getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public Instant getParkedAt() {
+        return parkedAt;
+    }
+
+    public void setParkedAt(Instant parkedAt) {
+        this.parkedAt = parkedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        OutboxEvent that = (OutboxEvent) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
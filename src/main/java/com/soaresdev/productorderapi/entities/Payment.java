@@ -1,7 +1,9 @@
 package com.soaresdev.productorderapi.entities;
 
+import com.soaresdev.productorderapi.entities.enums.PaymentStatus;
 import com.soaresdev.productorderapi.entities.enums.PaymentType;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.io.Serial;
 import java.io.Serializable;
 import java.math.BigDecimal;
@@ -10,7 +12,7 @@ import java.util.Objects;
 import java.util.UUID;
 
 @Entity
-@Table(name = "tb_payment")
+@Table(name = "tb_payment", indexes = @Index(name = "idx_payment_moment", columnList = "moment"))
 public class Payment implements Serializable {
     @Serial
     private static final long serialVersionUID = 1L;
@@ -24,6 +26,10 @@ public class Payment implements Serializable {
     private Integer paymentType;
     @Column(nullable = false)
     private BigDecimal amount;
+    //Rows written before asynchronous payments existed were all completed synchronously
+    @Column(nullable = false)
+    @ColumnDefault("2")
+    private Integer paymentStatus = PaymentStatus.COMPLETED.getCode();
 
     @OneToOne
     private Order order;
@@ -70,6 +76,22 @@ public class Payment implements Serializable {
         this.amount = amount;
     }
 
+    public Integer getPaymentStatus() {
+        return paymentStatus;
+    }
+
+    public void setPaymentStatus(PaymentStatus paymentStatus) {
+        this.paymentStatus = paymentStatus.getCode();
+    }
+
+    public boolean isCompleted() {
+        return PaymentStatus.COMPLETED.getCode().equals(paymentStatus);
+    }
+
+    public boolean isFailed() {
+        return PaymentStatus.FAILED.getCode().equals(paymentStatus);
+    }
+
     public Order getOrder() {
         return order;
     }
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import java.io.Serial;
 import java.io.Serializable;
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
@@ -26,6 +27,9 @@ public class Product implements Serializable {
     private BigDecimal price;
     @Column(nullable = false)
     private String imgUrl;
+    //Unknown for products created before it was recorded
+    @Column(updatable = false)
+    private Instant createdAt;
 
     @ManyToMany
     @JoinTable(
@@ -87,6 +91,14 @@ public class Product implements Serializable {
         this.imgUrl = imgUrl;
     }
 
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
     public Set<Category> getCategories() {
         return categories;
     }
@@ -0,0 +1,70 @@
+package com.soaresdev.productorderapi.entities;
+
+import jakarta.persistence.*;
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+//Append-only price history: a product costs price from validFrom until its next row. The product id is a plain column,
+//so the history outlives deleted products
+@Entity
+@Table(name = "tb_product_price_history", indexes = @Index(name = "idx_product_price_history_product_valid_from",
+        columnList = "productId, validFrom"))
+public class ProductPrice implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    //valid_from of the price a product had when its history started, the moment it was set is unknown
+    public static final Instant BEFORE_HISTORY = Instant.EPOCH;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+    @Column(nullable = false, updatable = false)
+    private UUID productId;
+    @Column(nullable = false, updatable = false)
+    private Instant validFrom;
+    @Column(nullable = false, updatable = false)
+    private BigDecimal price;
+
+    public ProductPrice() {
+    }
+
+    public ProductPrice(UUID productId, Instant validFrom, BigDecimal price) {
+        this.productId = productId;
+        this.validFrom = validFrom;
+        this.price = price;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getProductId() {
+        return productId;
+    }
+
+    public Instant getValidFrom() {
+        return validFrom;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ProductPrice that = (ProductPrice) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
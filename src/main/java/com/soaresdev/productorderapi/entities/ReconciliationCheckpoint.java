@@ -0,0 +1,102 @@
+package com.soaresdev.productorderapi.entities;
+
+import jakarta.persistence.*;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.UUID;
+
+//Progress of one id range of a run: orders in (lastOrderId, upperOrderId] are still to be checked. Saved in the same
+//transaction as the issues of each chunk, so a resumed run neither skips nor repeats a chunk
+@Entity
+@Table(name = "tb_reconciliation_checkpoint", uniqueConstraints = @UniqueConstraint(name = "uk_reconciliation_checkpoint_segment",
+        columnNames = {"runId", "segment"}))
+public class ReconciliationCheckpoint implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+    @Column(nullable = false)
+    private UUID runId;
+    @Column(nullable = false)
+    private Integer segment;
+    @Column(nullable = false)
+    private UUID lastOrderId;
+    @Column(nullable = false)
+    private UUID upperOrderId;
+    @Column(nullable = false)
+    private Long checked = 0L;
+    @Column(nullable = false)
+    private Long issues = 0L;
+    @Column(nullable = false)
+    private Boolean done = false;
+
+    public ReconciliationCheckpoint() {
+    }
+
+    public ReconciliationCheckpoint(UUID runId, Integer segment, UUID lastOrderId, UUID upperOrderId) {
+        this.runId = runId;
+        this.segment = segment;
+        this.lastOrderId = lastOrderId;
+        this.upperOrderId = upperOrderId;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public UUID getRunId() {
+        return runId;
+    }
+
+    public Integer getSegment() {
+        return segment;
+    }
+
+    public UUID getLastOrderId() {
+        return lastOrderId;
+    }
+
+    public UUID getUpperOrderId() {
+        return upperOrderId;
+    }
+
+    public Long getChecked() {
+        return checked;
+    }
+
+    public Long getIssues() {
+        return issues;
+    }
+
+    public Boolean getDone() {
+        return done;
+    }
+
+    public void advance(UUID lastOrderId, int checked, int issues, boolean done) {
+        if(lastOrderId != null)
+            this.lastOrderId = lastOrderId;
+        this.checked += checked;
+        this.issues += issues;
+        this.done = done;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ReconciliationCheckpoint that = (ReconciliationCheckpoint) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
@@ -0,0 +1,96 @@
+package com.soaresdev.productorderapi.entities;
+
+import com.soaresdev.productorderapi.entities.enums.ReconciliationIssueType;
+import jakarta.persistence.*;
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Objects;
+import java.util.UUID;
+
+//One line of a reconciliation report. Ids are copied rather than joined, the order may be archived or fixed later
+@Entity
+@Table(name = "tb_reconciliation_issue", indexes = @Index(name = "idx_reconciliation_issue_run", columnList = "runId"))
+public class ReconciliationIssue implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+    @Column(nullable = false)
+    private UUID runId;
+    @Column(nullable = false)
+    private Integer issueType;
+    @Column(nullable = false)
+    private UUID orderId;
+    @Column(nullable = false)
+    private Integer orderStatus;
+    @Column(nullable = false)
+    private BigDecimal orderTotal;
+    private UUID paymentId;
+    private BigDecimal paymentAmount;
+
+    public ReconciliationIssue() {
+    }
+
+    public ReconciliationIssue(UUID runId, ReconciliationIssueType issueType, UUID orderId, Integer orderStatus,
+                               BigDecimal orderTotal, UUID paymentId, BigDecimal paymentAmount) {
+        this.runId = runId;
+        this.issueType = issueType.getCode();
+        this.orderId = orderId;
+        this.orderStatus = orderStatus;
+        this.orderTotal = orderTotal;
+        this.paymentId = paymentId;
+        this.paymentAmount = paymentAmount;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public UUID getRunId() {
+        return runId;
+    }
+
+    public Integer getIssueType() {
+        return issueType;
+    }
+
+    public UUID getOrderId() {
+        return orderId;
+    }
+
+    public Integer getOrderStatus() {
+        return orderStatus;
+    }
+
+    public BigDecimal getOrderTotal() {
+        return orderTotal;
+    }
+
+    public UUID getPaymentId() {
+        return paymentId;
+    }
+
+    public BigDecimal getPaymentAmount() {
+        return paymentAmount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ReconciliationIssue that = (ReconciliationIssue) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
@@ -0,0 +1,84 @@
+package com.soaresdev.productorderapi.entities;
+
+import jakarta.persistence.*;
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+//A run is unfinished while finishedAt is null; the next run resumes it from the checkpoints of its segments
+@Entity
+@Table(name = "tb_reconciliation_run")
+public class ReconciliationRun implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+    @Column(nullable = false)
+    private Instant startedAt;
+    private Instant finishedAt;
+    @Column(nullable = false)
+    private Integer segments;
+    @Column(nullable = false)
+    private Long checked = 0L;
+    @Column(nullable = false)
+    private Long issues = 0L;
+
+    public ReconciliationRun() {
+    }
+
+    public ReconciliationRun(Instant startedAt, Integer segments) {
+        this.startedAt = startedAt;
+        this.segments = segments;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public Integer getSegments() {
+        return segments;
+    }
+
+    public Long getChecked() {
+        return checked;
+    }
+
+    public Long getIssues() {
+        return issues;
+    }
+
+    public void finish(Instant finishedAt, Long checked, Long issues) {
+        this.finishedAt = finishedAt;
+        this.checked = checked;
+        this.issues = issues;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ReconciliationRun that = (ReconciliationRun) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
@@ -0,0 +1,76 @@
+package com.soaresdev.productorderapi.entities;
+
+import jakarta.persistence.*;
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+//An issued refresh token, identified by its jti. Tokens rotated from the same login share the family id
+@Entity
+@Table(name = "tb_refresh_token", indexes = {
+        @Index(name = "idx_refresh_token_family", columnList = "familyId"),
+        @Index(name = "idx_refresh_token_email", columnList = "email"),
+        @Index(name = "idx_refresh_token_expires_at", columnList = "expiresAt")})
+public class RefreshToken implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    private UUID id;
+    @Column(nullable = false)
+    private UUID familyId;
+    @Column(nullable = false)
+    private String email;
+    @Column(nullable = false)
+    private Instant expiresAt;
+    private Instant rotatedAt;
+
+    public RefreshToken() {
+    }
+
+    public RefreshToken(UUID id, UUID familyId, String email, Instant expiresAt) {
+        this.id = id;
+        this.familyId = familyId;
+        this.email = email;
+        this.expiresAt = expiresAt;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getFamilyId() {
+        return familyId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public Instant getRotatedAt() {
+        return rotatedAt;
+    }
+
+    public void setRotatedAt(Instant rotatedAt) {
+        this.rotatedAt = rotatedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RefreshToken that = (RefreshToken) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
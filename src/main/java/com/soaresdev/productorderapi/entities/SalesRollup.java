@@ -0,0 +1,117 @@
+package com.soaresdev.productorderapi.entities;
+
+import com.soaresdev.productorderapi.entities.enums.SalesDimension;
+import jakarta.persistence.*;
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.UUID;
+
+//One row per (UTC day, dimension, key), e.g. (2023-07-20, PRODUCT, <product id>)
+@Entity
+@Table(name = "tb_sales_rollup", uniqueConstraints = @UniqueConstraint(name = "uk_sales_rollup_bucket",
+        columnNames = {"dimension", "sales_day", "dimensionKey"}))
+public class SalesRollup implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+    @Column(name = "sales_day", nullable = false)
+    private LocalDate day;
+    @Column(nullable = false)
+    private Integer dimension;
+    @Column(nullable = false)
+    private String dimensionKey;
+    @Column(nullable = false)
+    private Long orders;
+    @Column(nullable = false)
+    private Long quantity;
+    @Column(nullable = false)
+    private BigDecimal revenue;
+
+    public SalesRollup() {
+    }
+
+    public SalesRollup(LocalDate day, SalesDimension dimension, String dimensionKey, Long orders, Long quantity,
+                       BigDecimal revenue) {
+        this.day = day;
+        this.dimension = dimension.getCode();
+        this.dimensionKey = dimensionKey;
+        this.orders = orders;
+        this.quantity = quantity;
+        this.revenue = revenue;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public void setDay(LocalDate day) {
+        this.day = day;
+    }
+
+    public Integer getDimension() {
+        return dimension;
+    }
+
+    public void setDimension(SalesDimension dimension) {
+        this.dimension = dimension.getCode();
+    }
+
+    public String getDimensionKey() {
+        return dimensionKey;
+    }
+
+    public void setDimensionKey(String dimensionKey) {
+        this.dimensionKey = dimensionKey;
+    }
+
+    public Long getOrders() {
+        return orders;
+    }
+
+    public void setOrders(Long orders) {
+        this.orders = orders;
+    }
+
+    public Long getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Long quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SalesRollup that = (SalesRollup) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
@@ -0,0 +1,43 @@
+package com.soaresdev.productorderapi.entities;
+
+import jakarta.persistence.*;
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+//One row per rolled up day, locked by SalesRollupService so rebuilds of the same day never overlap
+@Entity
+@Table(name = "tb_sales_rollup_day")
+public class SalesRollupDay implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "sales_day")
+    private LocalDate day;
+
+    public SalesRollupDay() {
+    }
+
+    public SalesRollupDay(LocalDate day) {
+        this.day = day;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SalesRollupDay that = (SalesRollupDay) o;
+        return Objects.equals(day, that.day);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(day);
+    }
+}
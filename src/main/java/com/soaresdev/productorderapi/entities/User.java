@@ -42,6 +42,9 @@ public class User implements Serializable, UserDetails {
     @OneToMany(mappedBy = "client", cascade = CascadeType.REMOVE)
     private final List<Order> orders = new ArrayList<>();
 
+    @OneToMany(mappedBy = "client", cascade = CascadeType.REMOVE)
+    private final List<ArchivedOrder> archivedOrders = new ArrayList<>();
+
     @ManyToMany
     @JoinTable(
         name = "tb_user_role",
@@ -134,6 +137,10 @@ public class User implements Serializable, UserDetails {
         return orders;
     }
 
+    public List<ArchivedOrder> getArchivedOrders() {
+        return archivedOrders;
+    }
+
     public List<Role> getRoles() {
         return roles;
     }
@@ -0,0 +1,25 @@
+package com.soaresdev.productorderapi.entities.enums;
+
+public enum OutboxEventType {
+    PAYMENT_INSERTED(1),
+    PAYMENT_UPDATED(2),
+    PAYMENT_DELETED(3),
+    ORDER_UPDATED(4);
+
+    private final Integer code;
+    OutboxEventType(Integer code) {
+        this.code = code;
+    }
+
+    public Integer getCode() {
+        return code;
+    }
+
+    public static OutboxEventType valueOf(Integer code) {
+        for(OutboxEventType outboxEventType : OutboxEventType.values()) {
+            if(code.equals(outboxEventType.getCode()))
+                return outboxEventType;
+        }
+        throw new IllegalArgumentException("Invalid outbox event type code");
+    }
+}
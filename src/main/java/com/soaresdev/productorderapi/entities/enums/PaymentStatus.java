@@ -0,0 +1,23 @@
+package com.soaresdev.productorderapi.entities.enums;
+
+public enum PaymentStatus {
+    PENDING(1),
+    COMPLETED(2),
+    FAILED(3);
+
+    private final Integer code;
+    PaymentStatus(Integer code) {
+        this.code = code;
+    }
+    public Integer getCode() {
+        return code;
+    }
+
+    public static PaymentStatus valueOf(Integer code) {
+        for(PaymentStatus paymentStatus : PaymentStatus.values()) {
+            if(code.equals(paymentStatus.getCode()))
+                return paymentStatus;
+        }
+        throw new IllegalArgumentException("Invalid payment status code");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.soaresdev.productorderapi.entities.enums;
+
+public enum ReconciliationIssueType {
+    AMOUNT_MISMATCH(1),
+    PAID_WITHOUT_PAYMENT(2),
+    PAYMENT_ON_UNPAID_ORDER(3);
+
+    private final Integer code;
+    ReconciliationIssueType(Integer code) {
+        this.code = code;
+    }
+    public Integer getCode() {
+        return code;
+    }
+
+    public static ReconciliationIssueType valueOf(Integer code) {
+        for(ReconciliationIssueType issueType : ReconciliationIssueType.values()) {
+            if(code.equals(issueType.getCode()))
+                return issueType;
+        }
+        throw new IllegalArgumentException("Invalid reconciliation issue type code");
+    }
+}
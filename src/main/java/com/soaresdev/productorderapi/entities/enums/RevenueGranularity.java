@@ -0,0 +1,7 @@
+package com.soaresdev.productorderapi.entities.enums;
+
+public enum RevenueGranularity {
+    DAY,
+    WEEK,
+    MONTH
+}
@@ -0,0 +1,24 @@
+package com.soaresdev.productorderapi.entities.enums;
+
+public enum SalesDimension {
+    TOTAL(1),
+    PRODUCT(2),
+    CATEGORY(3),
+    PAYMENT_TYPE(4);
+
+    private final Integer code;
+    SalesDimension(Integer code) {
+        this.code = code;
+    }
+    public Integer getCode() {
+        return code;
+    }
+
+    public static SalesDimension valueOf(Integer code) {
+        for(SalesDimension salesDimension : SalesDimension.values()) {
+            if(code.equals(salesDimension.getCode()))
+                return salesDimension;
+        }
+        throw new IllegalArgumentException("Invalid sales dimension code");
+    }
+}
@@ -0,0 +1,6 @@
+package com.soaresdev.productorderapi.entities.enums;
+
+public enum SalesRanking {
+    QUANTITY,
+    REVENUE
+}
@@ -0,0 +1,54 @@
+package com.soaresdev.productorderapi.entities.pk;
+
+import com.soaresdev.productorderapi.entities.ArchivedOrder;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.UUID;
+
+//The product id is a plain column, so archived orders do not keep their products from being deleted
+@Embeddable
+public class ArchivedOrderItemPK implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @ManyToOne
+    @JoinColumn(name = "order_id")
+    private ArchivedOrder order;
+
+    @Column(name = "product_id")
+    private UUID productId;
+
+    public ArchivedOrder getOrder() {
+        return order;
+    }
+
+    public void setOrder(ArchivedOrder order) {
+        this.order = order;
+    }
+
+    public UUID getProductId() {
+        return productId;
+    }
+
+    public void setProductId(UUID productId) {
+        this.productId = productId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ArchivedOrderItemPK that = (ArchivedOrderItemPK) o;
+        return Objects.equals(order, that.order) && Objects.equals(productId, that.productId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(order, productId);
+    }
+}
@@ -0,0 +1,19 @@
+package com.soaresdev.productorderapi.events;
+
+import com.soaresdev.productorderapi.entities.OutboxEvent;
+import com.soaresdev.productorderapi.entities.enums.OutboxEventType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "outbox.sink.log.enabled", havingValue = "true", matchIfMissing = true)
+public class LogOutboxEventSink implements OutboxEventSink {
+    private static final Logger logger = LoggerFactory.getLogger("outbox.events");
+
+    @Override
+    public void publish(OutboxEvent event) {
+        logger.info("{} {} {}", OutboxEventType.valueOf(event.getEventType()), event.getAggregateId(), event.getPayload());
+    }
+}
@@ -0,0 +1,14 @@
+package com.soaresdev.productorderapi.events;
+
+import com.soaresdev.productorderapi.entities.OutboxEvent;
+import java.util.List;
+
+public interface OutboxEventSink {
+    void publish(OutboxEvent event) throws Exception;
+
+    //Called by OutboxRelay once per batch, in creation order. Sinks that can coalesce the events of a batch override it
+    default void publishAll(List<OutboxEvent> events) throws Exception {
+        for(OutboxEvent event : events)
+            publish(event);
+    }
+}
@@ -0,0 +1,160 @@
+package com.soaresdev.productorderapi.events;
+
+import com.soaresdev.productorderapi.entities.OutboxEvent;
+import com.soaresdev.productorderapi.repositories.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//Each sink runs in its own transaction and only gets the events it has not taken yet, so a failing sink neither rolls
+//back the batch nor makes the other sinks publish again. A batch a sink rejects is retried event by event to single
+//out the failing events, which are parked after max-attempts polls instead of holding the head of the outbox
+@Component
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxEventSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate sinkTransactionTemplate;
+    private final Clock clock;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Counter parkedCounter;
+    private final Timer lagTimer;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, List<OutboxEventSink> sinks,
+                       TransactionTemplate transactionTemplate, Clock clock, MeterRegistry meterRegistry,
+                       @Value("${outbox.relay.batch-size:100}") int batchSize,
+                       @Value("${outbox.relay.max-attempts:10}") int maxAttempts) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sinks = sinks;
+        this.transactionTemplate = transactionTemplate;
+        this.sinkTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.sinkTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.clock = clock;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.publishedCounter = meterRegistry.counter("outbox.events.published");
+        this.failedCounter = meterRegistry.counter("outbox.events.failed");
+        this.parkedCounter = meterRegistry.counter("outbox.events.parked");
+        this.lagTimer = Timer.builder("outbox.events.lag")
+                .description("Time between the event being written and being published")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("outbox.events.pending", outboxEventRepository,
+                OutboxEventRepository::countByPublishedAtIsNullAndParkedAtIsNull).register(meterRegistry);
+    }
+
+    //Stops at the first batch that is not fully published, its failed events wait for the next poll
+    @Scheduled(fixedDelayString = "${outbox.relay.fixed-delay:1000}")
+    public void relay() {
+        try {
+            Integer published;
+            do {
+                published = transactionTemplate.execute(status -> relayBatch());
+            } while(published != null && published == batchSize);
+        }catch(Exception e) {
+            failedCounter.increment();
+            logger.warn("Outbox relay batch failed, it will be retried on the next poll: {}", e.getMessage());
+        }
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> events = outboxEventRepository.findPendingForUpdate(PageRequest.of(0, batchSize));
+        Map<OutboxEvent, String> errors = new HashMap<>();
+        for(OutboxEventSink sink : sinks)
+            publish(sink, events, errors);
+        Instant now = Instant.now(clock);
+        for(OutboxEvent event : events) {
+            if(errors.containsKey(event)) {
+                recordFailure(event, errors.get(event), now);
+                continue;
+            }
+            event.setPublishedAt(now);
+            lagTimer.record(Duration.between(event.getCreatedAt(), now));
+            publishedCounter.increment();
+        }
+        outboxEventRepository.saveAll(events);
+        return events.size() - errors.size();
+    }
+
+    private void publish(OutboxEventSink sink, List<OutboxEvent> events, Map<OutboxEvent, String> errors) {
+        String name = sink.getClass().getSimpleName();
+        List<OutboxEvent> pending = events.stream().filter(event -> !event.isDeliveredTo(name)).toList();
+        if(pending.isEmpty())
+            return;
+        try {
+            inSinkTransaction(() -> sink.publishAll(pending));
+            pending.forEach(event -> event.markDeliveredTo(name));
+            return;
+        }catch(Exception e) {
+            if(pending.size() == 1) {
+                errors.putIfAbsent(pending.get(0), name + ": " + getMessage(e));
+                return;
+            }
+        }
+        for(OutboxEvent event : pending) {
+            try {
+                inSinkTransaction(() -> sink.publish(event));
+                event.markDeliveredTo(name);
+            }catch(Exception e) {
+                errors.putIfAbsent(event, name + ": " + getMessage(e));
+            }
+        }
+    }
+
+    private void recordFailure(OutboxEvent event, String error, Instant now) {
+        event.setAttempts(event.getAttempts() + 1);
+        event.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        failedCounter.increment();
+        if(event.getAttempts() < maxAttempts) {
+            logger.warn("Outbox event {} failed, attempt {} of {}: {}", event.getId(), event.getAttempts(),
+                    maxAttempts, error);
+            return;
+        }
+        event.setParkedAt(now);
+        parkedCounter.increment();
+        logger.error("Outbox event {} parked after {} attempts: {}", event.getId(), event.getAttempts(), error);
+    }
+
+    private void inSinkTransaction(SinkCall sinkCall) {
+        sinkTransactionTemplate.executeWithoutResult(status -> {
+            try {
+                sinkCall.run();
+            }catch(RuntimeException e) {
+                throw e;
+            }catch(Exception e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        });
+    }
+
+    private static String getMessage(Exception e) {
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+
+    private interface SinkCall {
+        void run() throws Exception;
+    }
+}
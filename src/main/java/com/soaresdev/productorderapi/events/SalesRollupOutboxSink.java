@@ -0,0 +1,57 @@
+package com.soaresdev.productorderapi.events;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.soaresdev.productorderapi.entities.OutboxEvent;
+import com.soaresdev.productorderapi.entities.enums.OutboxEventType;
+import com.soaresdev.productorderapi.services.SalesRollupService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+//Keeps the sales rollups incremental: a relay batch rebuilds each day it has payment changes for once, whatever the
+//number of events for that day
+@Component
+@ConditionalOnProperty(name = "analytics.rollup.sink.enabled", havingValue = "true", matchIfMissing = true)
+public class SalesRollupOutboxSink implements OutboxEventSink {
+    private static final Set<OutboxEventType> PAYMENT_EVENTS = Set.of(OutboxEventType.PAYMENT_INSERTED,
+            OutboxEventType.PAYMENT_UPDATED, OutboxEventType.PAYMENT_DELETED);
+
+    private final SalesRollupService salesRollupService;
+    private final ObjectMapper objectMapper;
+
+    public SalesRollupOutboxSink(SalesRollupService salesRollupService, ObjectMapper objectMapper) {
+        this.salesRollupService = salesRollupService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void publish(OutboxEvent event) throws Exception {
+        publishAll(List.of(event));
+    }
+
+    @Override
+    public void publishAll(List<OutboxEvent> events) throws Exception {
+        Set<LocalDate> days = new TreeSet<>();
+        for(OutboxEvent event : events) {
+            LocalDate day = getPaymentDay(event);
+            if(day != null)
+                days.add(day);
+        }
+        for(LocalDate day : days)
+            salesRollupService.rebuildDay(day);
+    }
+
+    private LocalDate getPaymentDay(OutboxEvent event) throws Exception {
+        if(!PAYMENT_EVENTS.contains(OutboxEventType.valueOf(event.getEventType())))
+            return null;
+        JsonNode moment = objectMapper.readTree(event.getPayload()).get("moment");
+        if(moment == null || moment.isNull())
+            return null;
+        return SalesRollupService.dayOf(Instant.parse(moment.asText()));
+    }
+}
@@ -6,6 +6,7 @@ import com.auth0.jwt.exceptions.JWTDecodeException;
 import jakarta.persistence.EntityExistsException;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -17,6 +18,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import java.time.Instant;
 import java.util.List;
 
+//JSON error bodies are streamed by ErrorResponseWriter, the first JSON message converter (see WebConfig)
 @RestControllerAdvice
 public class ControllersExceptionHandler {
     @ExceptionHandler(IllegalArgumentException.class)
@@ -59,6 +61,12 @@ public class ControllersExceptionHandler {
                 .body(getStandardError(HttpStatus.FORBIDDEN, e, request));
     }
 
+    @ExceptionHandler(PaymentInProgressException.class)
+    public ResponseEntity<StandardError> paymentInProgress(PaymentInProgressException e, HttpServletRequest request) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(getStandardError(HttpStatus.CONFLICT, e, request));
+    }
+
 
     @ExceptionHandler(BadCredentialsException.class)
     public ResponseEntity<StandardError> badCredentials(BadCredentialsException e, HttpServletRequest request) {
@@ -66,6 +74,13 @@ public class ControllersExceptionHandler {
                 .body(getStandardError(HttpStatus.UNAUTHORIZED, e, request));
     }
 
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<StandardError> tooManyRequests(TooManyRequestsException e, HttpServletRequest request) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(getStandardError(HttpStatus.TOO_MANY_REQUESTS, e, request));
+    }
+
     @ExceptionHandler(JWTDecodeException.class)
     public ResponseEntity<StandardError> jwtDecode(JWTDecodeException e, HttpServletRequest request) {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
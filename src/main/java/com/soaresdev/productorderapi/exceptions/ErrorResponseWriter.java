@@ -0,0 +1,63 @@
+package com.soaresdev.productorderapi.exceptions;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+
+//JSON writer for error bodies, resolved once and streamed to the response. Used directly by JwtTokenFilter and, as
+//the first message converter for application/json, by ControllersExceptionHandler. Other media types keep their converters
+public class ErrorResponseWriter extends AbstractHttpMessageConverter<Object> {
+    private final ObjectWriter standardErrorWriter;
+    private final ObjectWriter standardInsertDTOErrorWriter;
+
+    public ErrorResponseWriter(ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON);
+        this.standardErrorWriter = objectMapper.writerFor(StandardError.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.standardInsertDTOErrorWriter = objectMapper.writerFor(StandardInsertDTOError.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    public void write(HttpServletRequest request, HttpServletResponse response, HttpStatus httpStatus, Exception e)
+            throws IOException {
+        StandardError standardError = new StandardError(Instant.now(), httpStatus.value(), e.getClass().getSimpleName(),
+                e.getMessage(), request.getRequestURI());
+        response.setStatus(httpStatus.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        OutputStream out = response.getOutputStream();
+        standardErrorWriter.writeValue(out, standardError);
+        out.flush();
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return StandardError.class == clazz || StandardInsertDTOError.class == clazz;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Error bodies are write only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object error, HttpOutputMessage outputMessage) throws IOException {
+        ObjectWriter writer = error instanceof StandardError ? standardErrorWriter : standardInsertDTOErrorWriter;
+        writer.writeValue(outputMessage.getBody(), error);
+    }
+}
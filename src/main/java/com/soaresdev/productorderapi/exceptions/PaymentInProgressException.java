@@ -0,0 +1,12 @@
+package com.soaresdev.productorderapi.exceptions;
+
+import java.io.Serial;
+
+public class PaymentInProgressException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public PaymentInProgressException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
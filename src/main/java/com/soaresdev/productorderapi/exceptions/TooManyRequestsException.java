@@ -0,0 +1,19 @@
+package com.soaresdev.productorderapi.exceptions;
+
+import java.io.Serial;
+
+public class TooManyRequestsException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
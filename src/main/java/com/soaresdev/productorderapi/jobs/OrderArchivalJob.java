@@ -0,0 +1,55 @@
+package com.soaresdev.productorderapi.jobs;
+
+import com.soaresdev.productorderapi.services.OrderArchivalService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+//Archives closed orders older than min-age in short batches, each in its own transaction, so locks are held briefly
+//and a failed run keeps everything moved before it
+@Component
+@ConditionalOnProperty(name = "order-archival.enabled", havingValue = "true", matchIfMissing = true)
+public class OrderArchivalJob {
+    private static final Logger logger = LoggerFactory.getLogger(OrderArchivalJob.class);
+
+    private final OrderArchivalService orderArchivalService;
+    private final Clock clock;
+    private final Duration minAge;
+    private final int batchSize;
+    private final int maxBatches;
+
+    public OrderArchivalJob(OrderArchivalService orderArchivalService, Clock clock,
+                            @Value("${order-archival.min-age:P180D}") Duration minAge,
+                            @Value("${order-archival.batch-size:500}") int batchSize,
+                            @Value("${order-archival.max-batches:200}") int maxBatches) {
+        this.orderArchivalService = orderArchivalService;
+        this.clock = clock;
+        this.minAge = minAge;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+    }
+
+    @Scheduled(cron = "${order-archival.cron:0 0 3 * * *}")
+    public void archive() {
+        Instant cutoff = clock.instant().minus(minAge);
+        int archived = 0;
+        try {
+            for(int batch = 0; batch < maxBatches; batch++) {
+                int moved = orderArchivalService.archiveBatch(cutoff, batchSize);
+                archived += moved;
+                if(moved < batchSize)
+                    break;
+            }
+        }catch(Exception e) {
+            logger.warn("Order archival failed, it will be resumed on the next run: {}", e.getMessage());
+        }
+        if(archived > 0)
+            logger.info("Archived {} orders older than {}", archived, cutoff);
+    }
+}
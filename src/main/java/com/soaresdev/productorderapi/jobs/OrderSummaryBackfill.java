@@ -0,0 +1,29 @@
+package com.soaresdev.productorderapi.jobs;
+
+import com.soaresdev.productorderapi.services.OrderSummaryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+//Creates the summaries of orders written before the read model existed, one set-based insert on startup
+@Component
+@ConditionalOnProperty(name = "order-summary.backfill.enabled", havingValue = "true", matchIfMissing = true)
+public class OrderSummaryBackfill implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(OrderSummaryBackfill.class);
+
+    private final OrderSummaryService orderSummaryService;
+
+    public OrderSummaryBackfill(OrderSummaryService orderSummaryService) {
+        this.orderSummaryService = orderSummaryService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int inserted = orderSummaryService.insertMissing();
+        if(inserted > 0)
+            logger.info("Backfilled {} order summaries", inserted);
+    }
+}
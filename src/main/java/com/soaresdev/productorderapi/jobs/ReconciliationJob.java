@@ -0,0 +1,42 @@
+package com.soaresdev.productorderapi.jobs;
+
+import com.soaresdev.productorderapi.services.ReconciliationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+//Nightly check of payment amounts against order totals, see ReconciliationService. A failed run is resumed from its
+//checkpoints on the next one
+@Component
+@ConditionalOnProperty(name = "payment-reconciliation.enabled", havingValue = "true", matchIfMissing = true)
+public class ReconciliationJob {
+    private static final Logger logger = LoggerFactory.getLogger(ReconciliationJob.class);
+
+    private final ReconciliationService reconciliationService;
+    private final int segments;
+    private final int threads;
+    private final int chunkSize;
+
+    public ReconciliationJob(ReconciliationService reconciliationService,
+                             @Value("${payment-reconciliation.segments:16}") int segments,
+                             @Value("${payment-reconciliation.threads:0}") int threads,
+                             @Value("${payment-reconciliation.chunk-size:1000}") int chunkSize) {
+        this.reconciliationService = reconciliationService;
+        this.segments = segments;
+        //0 uses one thread per core
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(cron = "${payment-reconciliation.cron:0 30 4 * * *}")
+    public void reconcile() {
+        try {
+            reconciliationService.reconcile(segments, threads, chunkSize);
+        }catch(Exception e) {
+            logger.warn("Payment reconciliation failed, it will be resumed on the next run: {}", e.getMessage());
+        }
+    }
+}
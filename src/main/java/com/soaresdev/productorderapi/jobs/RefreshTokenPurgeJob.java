@@ -0,0 +1,28 @@
+package com.soaresdev.productorderapi.jobs;
+
+import com.soaresdev.productorderapi.services.TokenRevocationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+//Expired tokens no longer pass signature verification, so their rows and revocations can be dropped
+@Component
+public class RefreshTokenPurgeJob {
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenPurgeJob.class);
+
+    private final TokenRevocationService tokenRevocationService;
+
+    public RefreshTokenPurgeJob(TokenRevocationService tokenRevocationService) {
+        this.tokenRevocationService = tokenRevocationService;
+    }
+
+    @Scheduled(cron = "${security.refresh-token.purge.cron:0 30 * * * *}")
+    public void purge() {
+        try {
+            tokenRevocationService.purgeExpired();
+        }catch(Exception e) {
+            logger.warn("Refresh token purge failed, it will be retried on the next run: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.soaresdev.productorderapi.payments;
+
+import com.soaresdev.productorderapi.entities.enums.PaymentType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+
+//Stand-in provider that approves every charge after an optional delay, to reproduce a real provider's latency
+@Component
+@ConditionalOnProperty(name = "payment.gateway.type", havingValue = "local", matchIfMissing = true)
+public class LocalPaymentGateway implements PaymentGateway {
+    private final Duration latency;
+
+    public LocalPaymentGateway(@Value("${payment.gateway.local.latency:PT0S}") Duration latency) {
+        this.latency = latency;
+    }
+
+    @Override
+    public boolean charge(UUID paymentId, PaymentType paymentType, BigDecimal amount) throws InterruptedException {
+        if(!latency.isZero())
+            Thread.sleep(latency.toMillis());
+        return true;
+    }
+}
@@ -0,0 +1,12 @@
+package com.soaresdev.productorderapi.payments;
+
+import com.soaresdev.productorderapi.entities.enums.PaymentType;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+//Payment provider, called by the PaymentProcessor workers outside of any request thread or transaction. The payment id
+//is the idempotency key: a payment left pending by a restart is charged again with the same id
+public interface PaymentGateway {
+    //True when the charge was approved, false when it was declined. Throwing counts as declined
+    boolean charge(UUID paymentId, PaymentType paymentType, BigDecimal amount) throws Exception;
+}
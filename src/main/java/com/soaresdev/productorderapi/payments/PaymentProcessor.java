@@ -0,0 +1,207 @@
+package com.soaresdev.productorderapi.payments;
+
+import com.soaresdev.productorderapi.entities.Payment;
+import com.soaresdev.productorderapi.entities.enums.OrderStatus;
+import com.soaresdev.productorderapi.entities.enums.OutboxEventType;
+import com.soaresdev.productorderapi.entities.enums.PaymentStatus;
+import com.soaresdev.productorderapi.entities.enums.PaymentType;
+import com.soaresdev.productorderapi.repositories.PaymentRepository;
+import com.soaresdev.productorderapi.services.OrderSummaryService;
+import com.soaresdev.productorderapi.services.OutboxService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+//Bounded pool of workers that charge pending payments through the PaymentGateway and complete them. Request threads
+//only reserve a slot and write the pending payment; when every worker and queue slot is taken they are refused up front
+@Component
+public class PaymentProcessor {
+    private static final Logger logger = LoggerFactory.getLogger(PaymentProcessor.class);
+
+    private final PaymentGateway paymentGateway;
+    private final PaymentRepository paymentRepository;
+    private final OutboxService outboxService;
+    private final OrderSummaryService orderSummaryService;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final boolean enabled;
+    private final Duration staleAfter;
+    private final ThreadPoolExecutor executor;
+    private final Semaphore slots;
+    private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+    private final Counter completedCounter;
+    private final Counter declinedCounter;
+    private final Counter rejectedCounter;
+
+    public PaymentProcessor(PaymentGateway paymentGateway, PaymentRepository paymentRepository, OutboxService outboxService,
+                            OrderSummaryService orderSummaryService, TransactionTemplate transactionTemplate, Clock clock,
+                            MeterRegistry meterRegistry,
+                            @Value("${payment.async.enabled:false}") boolean enabled,
+                            @Value("${payment.async.workers:8}") int workers,
+                            @Value("${payment.async.queue-capacity:200}") int queueCapacity,
+                            @Value("${payment.async.stale-after:PT5M}") Duration staleAfter) {
+        this.paymentGateway = paymentGateway;
+        this.paymentRepository = paymentRepository;
+        this.outboxService = outboxService;
+        this.orderSummaryService = orderSummaryService;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.staleAfter = staleAfter;
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("payment-worker-"));
+        this.slots = new Semaphore(workers + queueCapacity);
+        this.completedCounter = meterRegistry.counter("payments.async.completed");
+        this.declinedCounter = meterRegistry.counter("payments.async.declined");
+        this.rejectedCounter = meterRegistry.counter("payments.async.rejected");
+        Gauge.builder("payments.async.queued", executor, pool -> pool.getQueue().size()).register(meterRegistry);
+        Gauge.builder("payments.async.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    //Called by the request thread before the pending payment is written
+    public boolean tryReserve() {
+        if(slots.tryAcquire())
+            return true;
+        rejectedCounter.increment();
+        return false;
+    }
+
+    //Gives back a slot that was reserved but not handed to submitAfterCommit
+    public void release() {
+        slots.release();
+    }
+
+    //Takes over a reserved slot: the payment is queued once the transaction that wrote it commits, the slot is given
+    //back if it rolls back
+    public void submitAfterCommit(UUID paymentId, PaymentType paymentType, BigDecimal amount) {
+        if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+            submit(paymentId, paymentType, amount);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if(status == STATUS_COMMITTED)
+                    submit(paymentId, paymentType, amount);
+                else
+                    slots.release();
+            }
+        });
+    }
+
+    //Pending payments lost by a restart or never queued go back to the workers. Those still in flight here are skipped,
+    //and completing one twice is harmless because only pending payments are completed
+    @Scheduled(fixedDelayString = "${payment.async.recovery.fixed-delay:60000}")
+    public void recover() {
+        if(!enabled)
+            return;
+        try {
+            List<Payment> stale = paymentRepository.findByPaymentStatusAndMomentBefore(PaymentStatus.PENDING.getCode(),
+                    clock.instant().minus(staleAfter), PageRequest.of(0, Math.max(1, slots.availablePermits())));
+            for(Payment payment : stale) {
+                if(inFlight.contains(payment.getId()) || !slots.tryAcquire())
+                    continue;
+                submit(payment.getId(), PaymentType.valueOf(payment.getPaymentType()), payment.getAmount());
+            }
+        }catch(Exception e) {
+            logger.warn("Pending payment recovery failed, it will be retried on the next run: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if(!executor.awaitTermination(10, TimeUnit.SECONDS))
+            executor.shutdownNow();
+    }
+
+    private void submit(UUID paymentId, PaymentType paymentType, BigDecimal amount) {
+        if(!inFlight.add(paymentId)) {
+            slots.release();
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    process(paymentId, paymentType, amount);
+                }finally {
+                    inFlight.remove(paymentId);
+                    slots.release();
+                }
+            });
+        }catch(RejectedExecutionException e) {
+            inFlight.remove(paymentId);
+            slots.release();
+            logger.warn("Payment {} was not queued, it will be recovered: {}", paymentId, e.getMessage());
+        }
+    }
+
+    //The provider is called outside of any transaction, so no connection is held while waiting on it
+    void process(UUID paymentId, PaymentType paymentType, BigDecimal amount) {
+        boolean approved;
+        try {
+            approved = paymentGateway.charge(paymentId, paymentType, amount);
+        }catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }catch(Exception e) {
+            logger.warn("Payment {} declined, the gateway failed: {}", paymentId, e.getMessage());
+            approved = false;
+        }
+
+        boolean result = approved;
+        try {
+            if(Boolean.TRUE.equals(transactionTemplate.execute(status -> complete(paymentId, result))))
+                (result ? completedCounter : declinedCounter).increment();
+        }catch(Exception e) {
+            logger.warn("Payment {} could not be completed, it will be recovered: {}", paymentId, e.getMessage());
+        }
+    }
+
+    private boolean complete(UUID paymentId, boolean approved) {
+        Payment payment = paymentRepository.findById(paymentId).orElse(null);
+        //Deleted, or already settled by another node, while the provider was being called
+        if(payment == null || !PaymentStatus.PENDING.getCode().equals(payment.getPaymentStatus()))
+            return false;
+        if(!approved) {
+            payment.setPaymentStatus(PaymentStatus.FAILED);
+            return true;
+        }
+
+        payment.setPaymentStatus(PaymentStatus.COMPLETED);
+        payment.setMoment(clock.instant());
+        //An order moved on, or canceled, while its payment was pending keeps its status
+        if(payment.getOrder().getOrderStatus().equals(OrderStatus.WAITING_PAYMENT.getCode()))
+            payment.getOrder().setOrderStatus(OrderStatus.PAID);
+        outboxService.paymentChanged(OutboxEventType.PAYMENT_INSERTED, payment);
+        orderSummaryService.paymentChanged(payment.getOrder(), payment);
+        return true;
+    }
+}
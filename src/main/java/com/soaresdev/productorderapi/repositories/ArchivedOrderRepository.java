@@ -0,0 +1,46 @@
+package com.soaresdev.productorderapi.repositories;
+
+import com.soaresdev.productorderapi.entities.ArchivedOrder;
+import jakarta.annotation.Nonnull;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, UUID> {
+    @Override
+    @Nonnull
+    @EntityGraph(attributePaths = {"client", "items", "payment"})
+    Optional<ArchivedOrder> findById(@Nonnull UUID id);
+
+    @EntityGraph(attributePaths = {"client", "items", "payment"})
+    Optional<ArchivedOrder> findByIdAndClientId(UUID id, UUID clientId);
+
+    //Copies of the live rows, the order first so the items and payment can reference it. Items keep the product name, as
+    //the archive does not reference the product. Only completed payments are kept
+    @Modifying
+    @Query(nativeQuery = true, value =
+            "INSERT INTO tb_order_archive (id, moment, order_status, user_id, archived_at) " +
+            "SELECT o.id, o.moment, o.order_status, o.user_id, :archivedAt FROM tb_order o WHERE o.id IN :orderIds")
+    int archiveOrders(Collection<UUID> orderIds, Instant archivedAt);
+
+    @Modifying
+    @Query(nativeQuery = true, value =
+            "INSERT INTO tb_order_product_archive (order_id, product_id, product_name, quantity, product_price_record) " +
+            "SELECT i.order_id, i.product_id, pr.name, i.quantity, i.product_price_record FROM tb_order_product i " +
+            "JOIN tb_product pr ON pr.id = i.product_id WHERE i.order_id IN :orderIds")
+    int archiveItems(Collection<UUID> orderIds);
+
+    @Modifying
+    @Query(nativeQuery = true, value =
+            "INSERT INTO tb_payment_archive (id, order_id, moment, payment_type, amount) " +
+            "SELECT p.id, p.order_id, p.moment, p.payment_type, p.amount FROM tb_payment p " +
+            "WHERE p.order_id IN :orderIds AND p.payment_status = :completedStatus")
+    int archivePayments(Collection<UUID> orderIds, Integer completedStatus);
+}
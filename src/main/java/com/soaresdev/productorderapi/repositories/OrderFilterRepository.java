@@ -0,0 +1,11 @@
+package com.soaresdev.productorderapi.repositories;
+
+import com.soaresdev.productorderapi.entities.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import java.util.UUID;
+
+public interface OrderFilterRepository {
+    Page<UUID> findIds(Specification<Order> specification, Pageable pageable);
+}
@@ -0,0 +1,56 @@
+package com.soaresdev.productorderapi.repositories;
+
+import com.soaresdev.productorderapi.entities.Order;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import java.util.UUID;
+
+//Pages only the order ids, so LIMIT/OFFSET run in the database instead of over a fetch-joined collection
+public class OrderFilterRepositoryImpl implements OrderFilterRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<UUID> findIds(Specification<Order> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<UUID> idsQuery = cb.createQuery(UUID.class);
+        Root<Order> root = idsQuery.from(Order.class);
+        idsQuery.select(root.get("id"));
+        applyPredicate(idsQuery, specification.toPredicate(root, idsQuery, cb));
+        //Id as tiebreaker keeps pages stable when the requested sort has duplicates
+        idsQuery.orderBy(QueryUtils.toOrders(pageable.getSort().and(Sort.by("id")), root, cb));
+        TypedQuery<UUID> query = entityManager.createQuery(idsQuery);
+        if(pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> count(specification));
+    }
+
+    private long count(Specification<Order> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+        Root<Order> root = countQuery.from(Order.class);
+        countQuery.select(cb.count(root));
+        applyPredicate(countQuery, specification.toPredicate(root, countQuery, cb));
+        return entityManager.createQuery(countQuery).getSingleResult();
+    }
+
+    private void applyPredicate(CriteriaQuery<?> query, Predicate predicate) {
+        if(predicate != null)
+            query.where(predicate);
+    }
+}
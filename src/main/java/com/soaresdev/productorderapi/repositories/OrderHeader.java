@@ -0,0 +1,12 @@
+package com.soaresdev.productorderapi.repositories;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+public interface OrderHeader {
+    UUID getId();
+    Instant getMoment();
+    Integer getOrderStatus();
+    BigDecimal getTotal();
+}
@@ -4,7 +4,10 @@ import com.soaresdev.productorderapi.entities.OrderItem;
 import com.soaresdev.productorderapi.entities.pk.OrderItemPK;
 import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.UUID;
 
 @Repository
@@ -14,4 +17,8 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, OrderItemP
 
     boolean existsById_OrderIdAndId_ProductId(UUID order_uuid, UUID product_uuid);
     OrderItem findById_OrderIdAndId_ProductId(UUID order_uuid, UUID product_uuid);
+
+    @Modifying
+    @Query("DELETE FROM OrderItem i WHERE i.id.order.id IN :orderIds")
+    int deleteByOrderIdIn(Collection<UUID> orderIds);
 }
\ No newline at end of file
@@ -2,17 +2,60 @@ package com.soaresdev.productorderapi.repositories;
 
 import com.soaresdev.productorderapi.entities.Order;
 import jakarta.annotation.Nonnull;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, UUID> {
+public interface OrderRepository extends JpaRepository<Order, UUID>, OrderFilterRepository {
     @Override
     @Nonnull
     @EntityGraph(attributePaths = {"client", "items", "payment"}) //To improve SQL query performance
     Page<Order> findAll(Pageable pageable);
+
+    //Owner scoped lookups, the client is compared on the foreign key column so non owners load nothing
+    Optional<Order> findByIdAndClientId(UUID id, UUID clientId);
+
+    boolean existsByIdAndClientId(UUID id, UUID clientId);
+
+    @EntityGraph(attributePaths = {"client", "items", "payment"})
+    List<Order> findByIdIn(Collection<UUID> ids);
+
+    //Scalar columns only, the total is summed by the database so items, products and clients are never loaded
+    @Query("SELECT o.id AS id, o.moment AS moment, o.orderStatus AS orderStatus, " +
+           "COALESCE((SELECT SUM(i.productPriceRecord * i.quantity) FROM OrderItem i WHERE i.id.order = o), 0) AS total " +
+           "FROM Order o WHERE o.id IN :ids")
+    List<OrderHeader> findHeadersByIdIn(Collection<UUID> ids);
+
+    //Keyset chunk of the id range (after, last] for reconciliation, in id order, next to its completed payment
+    @Query("SELECT o.id AS orderId, o.orderStatus AS orderStatus, " +
+           "COALESCE((SELECT SUM(i.productPriceRecord * i.quantity) FROM OrderItem i WHERE i.id.order = o), 0) AS itemTotal, " +
+           "p.id AS paymentId, p.amount AS paymentAmount " +
+           "FROM Order o LEFT JOIN o.payment p ON p.paymentStatus = :completedStatus " +
+           "WHERE o.id > :after AND o.id <= :last ORDER BY o.id")
+    List<ReconciliationRow> findReconciliationRows(UUID after, UUID last, Integer completedStatus, Pageable pageable);
+
+    //Oldest delivered or canceled orders first, read by the moment index. Rows locked by a concurrent archiver or by a
+    //status change are skipped instead of waited on (FOR UPDATE SKIP LOCKED on Postgres)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT o.id FROM Order o WHERE o.moment < :cutoff AND o.orderStatus IN :closedStatuses ORDER BY o.moment")
+    List<UUID> findArchivableIds(Instant cutoff, Collection<Integer> closedStatuses, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Order o WHERE o.id IN :ids")
+    int deleteByIdIn(Collection<UUID> ids);
 }
\ No newline at end of file
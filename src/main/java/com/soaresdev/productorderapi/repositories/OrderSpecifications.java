@@ -0,0 +1,70 @@
+package com.soaresdev.productorderapi.repositories;
+
+import com.soaresdev.productorderapi.dtos.OrderFilterDTO;
+import com.soaresdev.productorderapi.entities.Order;
+import com.soaresdev.productorderapi.entities.OrderItem;
+import com.soaresdev.productorderapi.entities.enums.OrderStatus;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+public class OrderSpecifications {
+    private OrderSpecifications() {
+    }
+
+    public static Specification<Order> of(OrderFilterDTO filter) {
+        Specification<Order> specification = Specification.where(null);
+        if(filter.getClient_id() != null)
+            specification = specification.and(hasClient(UUID.fromString(filter.getClient_id())));
+        if(filter.getOrderStatus() != null)
+            specification = specification.and(hasStatus(filter.getOrderStatus()));
+        if(filter.getMinMoment() != null)
+            specification = specification.and(momentFrom(filter.getMinMoment()));
+        if(filter.getMaxMoment() != null)
+            specification = specification.and(momentUntil(filter.getMaxMoment()));
+        if(filter.getMinTotal() != null)
+            specification = specification.and(totalFrom(filter.getMinTotal()));
+        if(filter.getMaxTotal() != null)
+            specification = specification.and(totalUntil(filter.getMaxTotal()));
+        return specification;
+    }
+
+    public static Specification<Order> hasClient(UUID clientId) {
+        return (root, query, cb) -> cb.equal(root.get("client").get("id"), clientId);
+    }
+
+    public static Specification<Order> hasStatus(OrderStatus orderStatus) {
+        return (root, query, cb) -> cb.equal(root.get("orderStatus"), orderStatus.getCode());
+    }
+
+    public static Specification<Order> momentFrom(Instant moment) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("moment"), moment);
+    }
+
+    public static Specification<Order> momentUntil(Instant moment) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("moment"), moment);
+    }
+
+    public static Specification<Order> totalFrom(BigDecimal total) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(total(root, query, cb), total);
+    }
+
+    public static Specification<Order> totalUntil(BigDecimal total) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(total(root, query, cb), total);
+    }
+
+    //Same as Order.getTotal(), computed by the database through a correlated subquery on the order items
+    private static Subquery<BigDecimal> total(Root<Order> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+        Subquery<BigDecimal> subquery = query.subquery(BigDecimal.class);
+        Root<OrderItem> item = subquery.from(OrderItem.class);
+        subquery.select(cb.coalesce(cb.sum(cb.prod(item.<BigDecimal>get("productPriceRecord"),
+                        cb.toBigDecimal(item.get("quantity")))), BigDecimal.ZERO))
+                .where(cb.equal(item.get("id").get("order"), root));
+        return subquery;
+    }
+}
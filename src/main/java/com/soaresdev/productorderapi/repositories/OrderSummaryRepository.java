@@ -0,0 +1,34 @@
+package com.soaresdev.productorderapi.repositories;
+
+import com.soaresdev.productorderapi.entities.OrderSummary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.util.UUID;
+
+@Repository
+public interface OrderSummaryRepository extends JpaRepository<OrderSummary, UUID> {
+    Page<OrderSummary> findByClientId(UUID clientId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM OrderSummary s WHERE s.orderId = :orderId")
+    void deleteByOrderId(UUID orderId);
+
+    @Modifying
+    @Query("DELETE FROM OrderSummary s WHERE s.clientId = :clientId")
+    void deleteByClientId(UUID clientId);
+
+    //Summaries for orders written before the read model existed
+    @Modifying
+    @Query(nativeQuery = true, value =
+            "INSERT INTO tb_order_summary (order_id, user_id, moment, order_status, total, item_count, payment_type) " +
+            "SELECT o.id, o.user_id, o.moment, o.order_status, " +
+            "COALESCE((SELECT SUM(i.product_price_record * i.quantity) FROM tb_order_product i WHERE i.order_id = o.id), 0), " +
+            "(SELECT COUNT(*) FROM tb_order_product i WHERE i.order_id = o.id), p.payment_type " +
+            "FROM tb_order o LEFT JOIN tb_payment p ON p.order_id = o.id AND p.payment_status = :completedStatus " +
+            "WHERE NOT EXISTS (SELECT 1 FROM tb_order_summary s WHERE s.order_id = o.id)")
+    int insertMissing(Integer completedStatus);
+}
@@ -10,11 +10,29 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, UUID> {
-    boolean existsByOrderId(UUID uuid);
+    //A declined payment does not count, the order can be paid again
+    @Query("SELECT COUNT(p) > 0 FROM Payment p WHERE p.order.id = :uuid AND p.paymentStatus <> :failedStatus")
+    boolean existsByOrderId(UUID uuid, Integer failedStatus);
+
+    @Transactional
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("DELETE FROM Payment p WHERE p.order.id = :orderId AND p.paymentStatus = :failedStatus")
+    void deleteFailedByOrderId(UUID orderId, Integer failedStatus);
+
+    //Pending payments left behind by a restart, handed back to the payment workers by PaymentProcessor
+    List<Payment> findByPaymentStatusAndMomentBefore(Integer paymentStatus, Instant moment, Pageable pageable);
+
+    //Owner scoped lookup, joins the order only to compare its client foreign key
+    @Query("SELECT p FROM Payment p WHERE p.id = :id AND p.order.client.id = :clientId")
+    Optional<Payment> findByIdAndOrderClientId(UUID id, UUID clientId);
 
     @Transactional
     @Modifying(clearAutomatically = true, flushAutomatically = true)
@@ -25,4 +43,14 @@ public interface PaymentRepository extends JpaRepository<Payment, UUID> {
     @Nonnull
     @EntityGraph(attributePaths = {"order"}) //To improve SQL query performance
     Page<Payment> findAll(Pageable pageable);
+
+    //Reads the order id from the foreign key column, without joining the order or its client
+    @Query(value = "SELECT p.id AS id, p.order.id AS orderId, p.moment AS moment, p.paymentType AS paymentType, " +
+                   "p.paymentStatus AS paymentStatus, p.amount AS amount FROM Payment p",
+           countQuery = "SELECT COUNT(p) FROM Payment p")
+    Page<PaymentView> findAllViews(Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Payment p WHERE p.order.id IN :orderIds")
+    int deleteByOrderIdIn(Collection<UUID> orderIds);
 }
\ No newline at end of file
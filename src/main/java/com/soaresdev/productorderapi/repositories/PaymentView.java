@@ -0,0 +1,14 @@
+package com.soaresdev.productorderapi.repositories;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+public interface PaymentView {
+    UUID getId();
+    UUID getOrderId();
+    Instant getMoment();
+    Integer getPaymentType();
+    Integer getPaymentStatus();
+    BigDecimal getAmount();
+}
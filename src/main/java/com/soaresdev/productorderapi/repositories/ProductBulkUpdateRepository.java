@@ -0,0 +1,8 @@
+package com.soaresdev.productorderapi.repositories;
+
+import com.soaresdev.productorderapi.dtos.insertDTOs.ProductBulkUpdateDTO;
+import java.time.Instant;
+
+public interface ProductBulkUpdateRepository {
+    int bulkUpdate(ProductBulkUpdateDTO productBulkUpdateDTO, Instant now);
+}
@@ -0,0 +1,108 @@
+package com.soaresdev.productorderapi.repositories;
+
+import com.soaresdev.productorderapi.dtos.insertDTOs.ProductBulkUpdateDTO;
+import com.soaresdev.productorderapi.entities.ProductPrice;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+//Set-based: two INSERT ... SELECT into the price history and one UPDATE, all filtered on tb_product as it is before
+//the update, whatever the number of products. Products are never loaded, so the persistence context is left stale.
+//The target rows are locked first, in id order so overlapping bulk updates queue instead of deadlocking, and every
+//statement sees the same prices until the transaction ends
+public class ProductBulkUpdateRepositoryImpl implements ProductBulkUpdateRepository {
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Boolean postgres;
+
+    @Override
+    public int bulkUpdate(ProductBulkUpdateDTO productBulkUpdateDTO, Instant now) {
+        Map<String, Object> parameters = new HashMap<>();
+        String where = getWhereClause(productBulkUpdateDTO, parameters);
+        lockTargets(where, parameters);
+        StringBuilder set = new StringBuilder();
+        if(productBulkUpdateDTO.changesPrice()) {
+            String newPrice = getNewPrice(productBulkUpdateDTO, parameters);
+            String changed = where + " AND " + newPrice + " <> p.price";
+            //The first change of a product also records the price it had until then, see ProductService
+            execute("INSERT INTO tb_product_price_history (id, product_id, valid_from, price) SELECT " + newId() +
+                    ", p.id, :beforeHistory, p.price FROM tb_product p" + changed +
+                    " AND NOT EXISTS (SELECT 1 FROM tb_product_price_history h WHERE h.product_id = p.id)",
+                    parameters, Map.of("beforeHistory", ProductPrice.BEFORE_HISTORY));
+            execute("INSERT INTO tb_product_price_history (id, product_id, valid_from, price) SELECT " + newId() +
+                    ", p.id, :now, " + newPrice + " FROM tb_product p" + changed, parameters, Map.of("now", now));
+            set.append("price = ").append(newPrice);
+        }
+        if(productBulkUpdateDTO.getDescription() != null) {
+            set.append(set.isEmpty() ? "" : ", ").append("description = :description");
+            parameters.put("description", productBulkUpdateDTO.getDescription());
+        }
+        return execute("UPDATE tb_product p SET " + set + where, parameters, Map.of());
+    }
+
+    private void lockTargets(String where, Map<String, Object> parameters) {
+        Query query = entityManager.createNativeQuery("SELECT p.id FROM tb_product p" + where +
+                " ORDER BY p.id FOR UPDATE");
+        parameters.forEach(query::setParameter);
+        query.getResultList();
+    }
+
+    private int execute(String sql, Map<String, Object> parameters, Map<String, Object> extraParameters) {
+        Query query = entityManager.createNativeQuery(sql);
+        parameters.forEach(query::setParameter);
+        extraParameters.forEach(query::setParameter);
+        return query.executeUpdate();
+    }
+
+    //Percentages are rounded to cents, a product never drops below one cent
+    private String getNewPrice(ProductBulkUpdateDTO productBulkUpdateDTO, Map<String, Object> parameters) {
+        if(productBulkUpdateDTO.getPrice() != null) {
+            parameters.put("price", productBulkUpdateDTO.getPrice());
+            return "CAST(:price AS NUMERIC(38, 2))";
+        }
+        parameters.put("factor", HUNDRED.add(productBulkUpdateDTO.getPricePercentage()).divide(HUNDRED));
+        return "GREATEST(ROUND(p.price * :factor, 2), 0.01)";
+    }
+
+    private String getWhereClause(ProductBulkUpdateDTO productBulkUpdateDTO, Map<String, Object> parameters) {
+        StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+        if(productBulkUpdateDTO.getCategory_id() != null) {
+            where.append(" AND EXISTS (SELECT 1 FROM tb_product_category fc WHERE fc.product_id = p.id AND fc.category_id = :categoryId)");
+            parameters.put("categoryId", UUID.fromString(productBulkUpdateDTO.getCategory_id()));
+        }
+        if(productBulkUpdateDTO.getProduct_ids() != null && !productBulkUpdateDTO.getProduct_ids().isEmpty()) {
+            where.append(" AND p.id IN (:ids)");
+            parameters.put("ids", productBulkUpdateDTO.getProduct_ids().stream().map(UUID::fromString).toList());
+        }
+        if(productBulkUpdateDTO.getMinPrice() != null) {
+            where.append(" AND p.price >= :minPrice");
+            parameters.put("minPrice", productBulkUpdateDTO.getMinPrice());
+        }
+        if(productBulkUpdateDTO.getMaxPrice() != null) {
+            where.append(" AND p.price <= :maxPrice");
+            parameters.put("maxPrice", productBulkUpdateDTO.getMaxPrice());
+        }
+        return where.toString();
+    }
+
+    private String newId() {
+        return isPostgres() ? "gen_random_uuid()" : "RANDOM_UUID()";
+    }
+
+    private boolean isPostgres() {
+        if(postgres == null)
+            postgres = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+        return postgres;
+    }
+}
@@ -0,0 +1,25 @@
+package com.soaresdev.productorderapi.repositories;
+
+import com.soaresdev.productorderapi.entities.ProductPrice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+@Repository
+public interface ProductPriceRepository extends JpaRepository<ProductPrice, UUID> {
+    //Latest row at or before the given moment, one seek on the (product_id, valid_from) index
+    Optional<ProductPrice> findFirstByProductIdAndValidFromLessThanEqualOrderByValidFromDesc(UUID productId, Instant at);
+
+    //First change after the BEFORE_HISTORY row, the earliest moment known for products without a creation moment
+    Optional<ProductPrice> findFirstByProductIdAndValidFromGreaterThanOrderByValidFromAsc(UUID productId, Instant after);
+
+    boolean existsByProductId(UUID productId);
+
+    @Query("SELECT DISTINCT h.productId FROM ProductPrice h WHERE h.productId IN :productIds")
+    Set<UUID> findProductIdsWithHistory(Collection<UUID> productIds);
+}
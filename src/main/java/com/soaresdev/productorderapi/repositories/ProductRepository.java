@@ -1,18 +1,44 @@
 package com.soaresdev.productorderapi.repositories;
 
+import com.soaresdev.productorderapi.dtos.ProductDTO;
 import com.soaresdev.productorderapi.entities.Product;
 import jakarta.annotation.Nonnull;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, UUID> {
+public interface ProductRepository extends JpaRepository<Product, UUID>, ProductSearchRepository, ProductBulkUpdateRepository {
     @Override
     @Nonnull
     @EntityGraph(attributePaths = {"categories"}) //To improve SQL query performance
     Page<Product> findAll(Pageable pageable);
-}
\ No newline at end of file
+
+    @EntityGraph(attributePaths = {"categories"})
+    List<Product> findByIdIn(Collection<UUID> ids);
+
+    //Without categories, so neither the join table nor the categories are read
+    @Query(value = "SELECT new com.soaresdev.productorderapi.dtos.ProductDTO(p.id, p.name, p.description, p.price, p.imgUrl) " +
+                   "FROM Product p",
+           countQuery = "SELECT COUNT(p) FROM Product p")
+    Page<ProductDTO> findAllWithoutCategories(Pageable pageable);
+
+    //Price changes lock the product first, so two of them can not both record its initial price in the history
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id = :id")
+    Optional<Product> findByIdForUpdate(UUID id);
+
+    //In id order, so concurrent batches lock shared products in the same order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<Product> findAllByIdForUpdate(Collection<UUID> ids);
+}
@@ -0,0 +1,18 @@
+package com.soaresdev.productorderapi.repositories;
+
+import com.soaresdev.productorderapi.dtos.CategoryFacetDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+public interface ProductSearchRepository {
+    //Properties searchIds can sort by, any other one is rejected
+    Set<String> SORT_PROPERTIES = Set.of("name", "price");
+
+    Page<UUID> searchIds(String text, UUID categoryId, BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable);
+
+    List<CategoryFacetDTO> countCategoryFacets(String text, BigDecimal minPrice, BigDecimal maxPrice);
+}
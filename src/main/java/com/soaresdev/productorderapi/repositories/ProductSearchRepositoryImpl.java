@@ -0,0 +1,129 @@
+package com.soaresdev.productorderapi.repositories;
+
+import com.soaresdev.productorderapi.dtos.CategoryFacetDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+// PostgreSQL: tsvector (GIN, see schema-postgresql.sql) ranked search plus pg_trgm similarity for typos.
+// Other databases (H2 in tests): case-insensitive LIKE over name and description, wildcards in the text are literal.
+// A requested sort (name or price) replaces the relevance order.
+public class ProductSearchRepositoryImpl implements ProductSearchRepository {
+    private static final String TS_QUERY = "websearch_to_tsquery('simple', :text)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Boolean postgres;
+
+    @Override
+    public Page<UUID> searchIds(String text, UUID categoryId, BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
+        Map<String, Object> parameters = new HashMap<>();
+        String where = getWhereClause(text, categoryId, minPrice, maxPrice, parameters);
+
+        Query idsQuery = entityManager.createNativeQuery("SELECT p.id FROM tb_product p" + where +
+                " ORDER BY " + getOrderBy(text, pageable.getSort()), UUID.class);
+        Query countQuery = entityManager.createNativeQuery("SELECT COUNT(*) FROM tb_product p" + where, Long.class);
+        parameters.forEach((name, value) -> {
+            idsQuery.setParameter(name, value);
+            countQuery.setParameter(name, value);
+        });
+        idsQuery.setFirstResult((int) pageable.getOffset());
+        idsQuery.setMaxResults(pageable.getPageSize());
+
+        @SuppressWarnings("unchecked")
+        List<UUID> ids = idsQuery.getResultList();
+        return PageableExecutionUtils.getPage(ids, pageable, () -> (Long) countQuery.getSingleResult());
+    }
+
+    //Facets ignore the category filter itself, so clients can see the counts of the other categories
+    @Override
+    public List<CategoryFacetDTO> countCategoryFacets(String text, BigDecimal minPrice, BigDecimal maxPrice) {
+        Map<String, Object> parameters = new HashMap<>();
+        String where = getWhereClause(text, null, minPrice, maxPrice, parameters);
+        @SuppressWarnings("unchecked")
+        NativeQuery<Object[]> query = entityManager.createNativeQuery(
+                "SELECT c.id AS id, c.name AS name, COUNT(*) AS total FROM tb_product p " +
+                "JOIN tb_product_category pc ON pc.product_id = p.id " +
+                "JOIN tb_category c ON c.id = pc.category_id" + where +
+                " GROUP BY c.id, c.name ORDER BY COUNT(*) DESC, c.name")
+                .unwrap(NativeQuery.class)
+                .addScalar("id", UUID.class)
+                .addScalar("name", String.class)
+                .addScalar("total", Long.class);
+        parameters.forEach(query::setParameter);
+
+        List<Object[]> rows = query.getResultList();
+        return rows.stream()
+                .map(row -> new CategoryFacetDTO((UUID) row[0], (String) row[1], (Long) row[2]))
+                .toList();
+    }
+
+    private String getWhereClause(String text, UUID categoryId, BigDecimal minPrice, BigDecimal maxPrice,
+                                  Map<String, Object> parameters) {
+        StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+        if(text != null) {
+            if(isPostgres()) {
+                where.append(" AND (p.search_vector @@ ").append(TS_QUERY).append(" OR p.name % :text)");
+                parameters.put("text", text);
+            }
+            else {
+                where.append(" AND (LOWER(p.name) LIKE :pattern ESCAPE '\\'")
+                        .append(" OR LOWER(p.description) LIKE :pattern ESCAPE '\\')");
+                parameters.put("pattern", "%" + escapeLike(text.toLowerCase(Locale.ROOT)) + "%");
+            }
+        }
+        if(categoryId != null) {
+            where.append(" AND EXISTS (SELECT 1 FROM tb_product_category fc WHERE fc.product_id = p.id AND fc.category_id = :categoryId)");
+            parameters.put("categoryId", categoryId);
+        }
+        if(minPrice != null) {
+            where.append(" AND p.price >= :minPrice");
+            parameters.put("minPrice", minPrice);
+        }
+        if(maxPrice != null) {
+            where.append(" AND p.price <= :maxPrice");
+            parameters.put("maxPrice", maxPrice);
+        }
+        return where.toString();
+    }
+
+    private String getOrderBy(String text, Sort sort) {
+        if(sort.isSorted()) {
+            StringBuilder orderBy = new StringBuilder();
+            for(Sort.Order order : sort) {
+                if(!SORT_PROPERTIES.contains(order.getProperty()))
+                    throw new IllegalArgumentException("Invalid sort property: " + order.getProperty());
+                orderBy.append("p.").append(order.getProperty()).append(order.isAscending() ? " ASC, " : " DESC, ");
+            }
+            return orderBy.append("p.id").toString();
+        }
+        if(text != null && isPostgres())
+            return "ts_rank(p.search_vector, " + TS_QUERY + ") DESC, similarity(p.name, :text) DESC, p.id";
+        return "p.name, p.id";
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private boolean isPostgres() {
+        if(postgres == null)
+            postgres = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+        return postgres;
+    }
+}
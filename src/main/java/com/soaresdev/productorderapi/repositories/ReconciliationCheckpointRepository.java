@@ -0,0 +1,24 @@
+package com.soaresdev.productorderapi.repositories;
+
+import com.soaresdev.productorderapi.entities.ReconciliationCheckpoint;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ReconciliationCheckpointRepository extends JpaRepository<ReconciliationCheckpoint, UUID> {
+    List<ReconciliationCheckpoint> findByRunIdOrderBySegment(UUID runId);
+
+    //Empty while another node checks a chunk of the segment (FOR UPDATE SKIP LOCKED on Postgres)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT c FROM ReconciliationCheckpoint c WHERE c.id = :id")
+    Optional<ReconciliationCheckpoint> findByIdForUpdate(UUID id);
+}
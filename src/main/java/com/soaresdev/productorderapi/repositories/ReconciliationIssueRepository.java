@@ -0,0 +1,13 @@
+package com.soaresdev.productorderapi.repositories;
+
+import com.soaresdev.productorderapi.entities.ReconciliationIssue;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.UUID;
+
+@Repository
+public interface ReconciliationIssueRepository extends JpaRepository<ReconciliationIssue, UUID> {
+    Page<ReconciliationIssue> findByRunId(UUID runId, Pageable pageable);
+}
@@ -0,0 +1,13 @@
+package com.soaresdev.productorderapi.repositories;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+//An order with the sum of its items and its completed payment, payment columns are null when it has none
+public interface ReconciliationRow {
+    UUID getOrderId();
+    Integer getOrderStatus();
+    BigDecimal getItemTotal();
+    UUID getPaymentId();
+    BigDecimal getPaymentAmount();
+}
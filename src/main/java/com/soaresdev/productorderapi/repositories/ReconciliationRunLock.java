@@ -0,0 +1,5 @@
+package com.soaresdev.productorderapi.repositories;
+
+public interface ReconciliationRunLock {
+    void lockRunStart();
+}
@@ -0,0 +1,31 @@
+package com.soaresdev.productorderapi.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+//Transaction scoped advisory lock, so nodes starting a reconciliation at the same time create one run and resume it
+//together instead of creating one each. H2 only backs single node tests and development, where there is no race
+public class ReconciliationRunLockImpl implements ReconciliationRunLock {
+    private static final long RUN_START_LOCK_KEY = 0x7265636f6e63696cL;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Boolean postgres;
+
+    @Override
+    public void lockRunStart() {
+        if(isPostgres())
+            entityManager.createNativeQuery("SELECT pg_advisory_xact_lock(:key)")
+                    .setParameter("key", RUN_START_LOCK_KEY).getSingleResult();
+    }
+
+    private boolean isPostgres() {
+        if(postgres == null)
+            postgres = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+        return postgres;
+    }
+}
@@ -0,0 +1,24 @@
+package com.soaresdev.productorderapi.repositories;
+
+import com.soaresdev.productorderapi.entities.ReconciliationRun;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ReconciliationRunRepository extends JpaRepository<ReconciliationRun, UUID>, ReconciliationRunLock {
+    Optional<ReconciliationRun> findFirstByFinishedAtIsNullOrderByStartedAtDesc();
+
+    Page<ReconciliationRun> findAllByOrderByStartedAtDesc(Pageable pageable);
+
+    //Nodes sharing a run finish it one at a time, the later ones find it finished
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM ReconciliationRun r WHERE r.id = :id")
+    Optional<ReconciliationRun> findByIdForUpdate(UUID id);
+}
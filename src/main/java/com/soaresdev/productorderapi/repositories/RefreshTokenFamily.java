@@ -0,0 +1,9 @@
+package com.soaresdev.productorderapi.repositories;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public interface RefreshTokenFamily {
+    UUID getFamilyId();
+    Instant getExpiresAt();
+}
@@ -0,0 +1,29 @@
+package com.soaresdev.productorderapi.repositories;
+
+import com.soaresdev.productorderapi.entities.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
+    //Conditional update, so of two concurrent refreshes with the same token only one rotates it
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.rotatedAt = :now WHERE t.id = :id AND t.rotatedAt IS NULL AND t.expiresAt > :now")
+    int markRotated(UUID id, Instant now);
+
+    @Query("SELECT MAX(t.expiresAt) FROM RefreshToken t WHERE t.familyId = :familyId")
+    Instant findLastExpirationOfFamily(UUID familyId);
+
+    @Query("SELECT t.familyId AS familyId, MAX(t.expiresAt) AS expiresAt FROM RefreshToken t " +
+           "WHERE t.email = :email AND t.expiresAt > :now GROUP BY t.familyId")
+    List<RefreshTokenFamily> findLiveFamiliesByEmail(String email, Instant now);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.expiresAt <= :now")
+    int deleteExpired(Instant now);
+}
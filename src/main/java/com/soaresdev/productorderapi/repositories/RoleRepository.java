@@ -1,13 +1,25 @@
 package com.soaresdev.productorderapi.repositories;
 
+import com.soaresdev.productorderapi.configs.CacheConfig;
 import com.soaresdev.productorderapi.entities.Role;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
 public interface RoleRepository extends JpaRepository<Role, UUID> {
     Role findByRoleNameCode(Integer code);
 
+    //Roles are only created at startup, see RoleConfig. Only the id is cached, callers attach it with getReferenceById
+    @Cacheable(cacheNames = CacheConfig.ROLES, key = "#p0")
+    @Query("SELECT r.id FROM Role r WHERE r.roleNameCode = :code")
+    UUID findIdByRoleNameCode(Integer code);
+
     boolean existsByRoleNameCode(Integer code);
+
+    @Query("SELECT r.roleNameCode FROM Role r")
+    Set<Integer> findAllRoleNameCodes();
 }
\ No newline at end of file
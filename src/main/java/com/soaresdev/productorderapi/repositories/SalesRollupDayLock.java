@@ -0,0 +1,7 @@
+package com.soaresdev.productorderapi.repositories;
+
+import java.time.LocalDate;
+
+public interface SalesRollupDayLock {
+    void insertIfMissing(LocalDate day);
+}
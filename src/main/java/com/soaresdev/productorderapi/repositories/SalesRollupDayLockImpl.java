@@ -0,0 +1,30 @@
+package com.soaresdev.productorderapi.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import java.time.LocalDate;
+
+//A concurrent insert of the same day waits for the other transaction instead of failing on the primary key
+public class SalesRollupDayLockImpl implements SalesRollupDayLock {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Boolean postgres;
+
+    @Override
+    public void insertIfMissing(LocalDate day) {
+        String sql = isPostgres()
+                ? "INSERT INTO tb_sales_rollup_day (sales_day) VALUES (:day) ON CONFLICT (sales_day) DO NOTHING"
+                : "MERGE INTO tb_sales_rollup_day (sales_day) KEY (sales_day) VALUES (:day)";
+        entityManager.createNativeQuery(sql).setParameter("day", day).executeUpdate();
+    }
+
+    private boolean isPostgres() {
+        if(postgres == null)
+            postgres = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+        return postgres;
+    }
+}
@@ -0,0 +1,17 @@
+package com.soaresdev.productorderapi.repositories;
+
+import com.soaresdev.productorderapi.entities.SalesRollupDay;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface SalesRollupDayRepository extends JpaRepository<SalesRollupDay, LocalDate>, SalesRollupDayLock {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM SalesRollupDay d WHERE d.day = :day")
+    Optional<SalesRollupDay> findByDayForUpdate(LocalDate day);
+}
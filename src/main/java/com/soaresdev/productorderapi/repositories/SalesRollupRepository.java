@@ -0,0 +1,70 @@
+package com.soaresdev.productorderapi.repositories;
+
+import com.soaresdev.productorderapi.entities.SalesRollup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface SalesRollupRepository extends JpaRepository<SalesRollup, UUID> {
+    List<SalesRollup> findByDimensionAndDayBetweenOrderByDay(Integer dimension, LocalDate from, LocalDate to);
+
+    @Query("SELECT r.dimensionKey AS dimensionKey, SUM(r.orders) AS orders, SUM(r.quantity) AS quantity, " +
+           "SUM(r.revenue) AS revenue FROM SalesRollup r WHERE r.dimension = :dimension AND r.day BETWEEN :from AND :to " +
+           "GROUP BY r.dimensionKey ORDER BY SUM(r.quantity) DESC, SUM(r.revenue) DESC")
+    List<SalesRollupTotal> sumByDimensionOrderByQuantity(Integer dimension, LocalDate from, LocalDate to, Pageable pageable);
+
+    @Query("SELECT r.dimensionKey AS dimensionKey, SUM(r.orders) AS orders, SUM(r.quantity) AS quantity, " +
+           "SUM(r.revenue) AS revenue FROM SalesRollup r WHERE r.dimension = :dimension AND r.day BETWEEN :from AND :to " +
+           "GROUP BY r.dimensionKey ORDER BY SUM(r.revenue) DESC, SUM(r.quantity) DESC")
+    List<SalesRollupTotal> sumByDimensionOrderByRevenue(Integer dimension, LocalDate from, LocalDate to, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM SalesRollup r WHERE r.day = :day")
+    void deleteByDay(LocalDate day);
+
+    //Source aggregations over one day of completed payments, used to rebuild that day's rollup rows
+    @Query("SELECT COUNT(p), COALESCE(SUM(p.amount), 0) FROM Payment p " +
+           "WHERE p.moment >= :start AND p.moment < :end AND p.paymentStatus = :completedStatus")
+    List<Object[]> aggregatePayments(Instant start, Instant end, Integer completedStatus);
+
+    @Query("SELECT p.paymentType, COUNT(p), SUM(p.amount) FROM Payment p " +
+           "WHERE p.moment >= :start AND p.moment < :end AND p.paymentStatus = :completedStatus GROUP BY p.paymentType")
+    List<Object[]> aggregatePaymentsByPaymentType(Instant start, Instant end, Integer completedStatus);
+
+    @Query("SELECT i.id.product.id, COUNT(i), SUM(i.quantity), SUM(i.productPriceRecord * i.quantity) " +
+           "FROM Payment p JOIN p.order o JOIN o.items i " +
+           "WHERE p.moment >= :start AND p.moment < :end AND p.paymentStatus = :completedStatus GROUP BY i.id.product.id")
+    List<Object[]> aggregateItemsByProduct(Instant start, Instant end, Integer completedStatus);
+
+    @Query("SELECT c.id, COUNT(DISTINCT o.id), SUM(i.quantity), SUM(i.productPriceRecord * i.quantity) " +
+           "FROM Payment p JOIN p.order o JOIN o.items i JOIN i.id.product pr JOIN pr.categories c " +
+           "WHERE p.moment >= :start AND p.moment < :end AND p.paymentStatus = :completedStatus GROUP BY c.id")
+    List<Object[]> aggregateItemsByCategory(Instant start, Instant end, Integer completedStatus);
+
+    //The same aggregations over orders moved to the archive by OrderArchivalService
+    @Query("SELECT COUNT(p), COALESCE(SUM(p.amount), 0) FROM ArchivedPayment p WHERE p.moment >= :start AND p.moment < :end")
+    List<Object[]> aggregateArchivedPayments(Instant start, Instant end);
+
+    @Query("SELECT p.paymentType, COUNT(p), SUM(p.amount) FROM ArchivedPayment p " +
+           "WHERE p.moment >= :start AND p.moment < :end GROUP BY p.paymentType")
+    List<Object[]> aggregateArchivedPaymentsByPaymentType(Instant start, Instant end);
+
+    @Query("SELECT i.id.productId, COUNT(i), SUM(i.quantity), SUM(i.productPriceRecord * i.quantity) " +
+           "FROM ArchivedPayment p JOIN p.order o JOIN o.items i " +
+           "WHERE p.moment >= :start AND p.moment < :end GROUP BY i.id.productId")
+    List<Object[]> aggregateArchivedItemsByProduct(Instant start, Instant end);
+
+    //Archived items only hold the product id, items of deleted products have no category left to count them under
+    @Query("SELECT c.id, COUNT(DISTINCT o.id), SUM(i.quantity), SUM(i.productPriceRecord * i.quantity) " +
+           "FROM ArchivedPayment p JOIN p.order o JOIN o.items i JOIN Product pr ON pr.id = i.id.productId " +
+           "JOIN pr.categories c " +
+           "WHERE p.moment >= :start AND p.moment < :end GROUP BY c.id")
+    List<Object[]> aggregateArchivedItemsByCategory(Instant start, Instant end);
+}
@@ -0,0 +1,10 @@
+package com.soaresdev.productorderapi.repositories;
+
+import java.math.BigDecimal;
+
+public interface SalesRollupTotal {
+    String getDimensionKey();
+    Long getOrders();
+    Long getQuantity();
+    BigDecimal getRevenue();
+}
@@ -0,0 +1,79 @@
+package com.soaresdev.productorderapi.security;
+
+import com.soaresdev.productorderapi.entities.Role;
+import com.soaresdev.productorderapi.entities.User;
+import com.soaresdev.productorderapi.entities.enums.RoleName;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+//Immutable authorization view of the authenticated user, so checks never touch the entity or the database. It is
+//what the principals cache holds (see UserService.loadPrincipal): no password hash and nothing shared with a session
+public final class AuthorizedPrincipal implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final UUID id;
+    private final String idString;
+    private final String email;
+    private final Set<RoleName> roleNames;
+    private final List<GrantedAuthority> authorities;
+    private final boolean admin;
+    private final boolean managerOrAdmin;
+
+    private AuthorizedPrincipal(UUID id, String email, EnumSet<RoleName> roleNames) {
+        this.id = id;
+        this.idString = id == null ? null : id.toString();
+        this.email = email;
+        this.roleNames = Collections.unmodifiableSet(roleNames);
+        this.authorities = roleNames.stream().<GrantedAuthority>map(roleName -> new SimpleGrantedAuthority(roleName.name()))
+                .toList();
+        this.admin = roleNames.contains(RoleName.ROLE_ADMIN);
+        this.managerOrAdmin = admin || roleNames.contains(RoleName.ROLE_MANAGER);
+    }
+
+    public static AuthorizedPrincipal of(User user) {
+        EnumSet<RoleName> roleNames = EnumSet.noneOf(RoleName.class);
+        for(Role role : user.getRoles())
+            roleNames.add(RoleName.valueOf(role.getRoleNameCode()));
+        return new AuthorizedPrincipal(user.getId(), user.getEmail(), roleNames);
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Set<RoleName> getRoleNames() {
+        return roleNames;
+    }
+
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    public boolean hasRole(RoleName roleName) {
+        return roleNames.contains(roleName);
+    }
+
+    public boolean isAdmin() {
+        return admin;
+    }
+
+    public boolean isManagerOrAdmin() {
+        return managerOrAdmin;
+    }
+
+    public boolean isSelf(String userUuid) {
+        return idString != null && idString.equalsIgnoreCase(userUuid);
+    }
+}
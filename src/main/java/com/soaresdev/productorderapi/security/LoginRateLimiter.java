@@ -0,0 +1,102 @@
+package com.soaresdev.productorderapi.security;
+
+import com.soaresdev.productorderapi.exceptions.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+//Throttles login attempts per client address and per email before any user query or BCrypt verify runs.
+//The per address limit stops a single source, the per email limit stops attacks spread over many addresses
+@Component
+public class LoginRateLimiter {
+    private static final String OVERFLOW_KEY = "";
+    private static final long NANOS_PER_SECOND = Duration.ofSeconds(1).toNanos();
+
+    private final Limit addressLimit;
+    private final Limit emailLimit;
+    private final boolean enabled;
+    private final LongSupplier nanoTime;
+
+    @Autowired
+    public LoginRateLimiter(MeterRegistry meterRegistry,
+                            @Value("${security.login.rate-limit.enabled:true}") boolean enabled,
+                            @Value("${security.login.rate-limit.address.capacity:20}") int addressCapacity,
+                            @Value("${security.login.rate-limit.address.refill-period:PT3S}") Duration addressRefillPeriod,
+                            @Value("${security.login.rate-limit.email.capacity:5}") int emailCapacity,
+                            @Value("${security.login.rate-limit.email.refill-period:PT1M}") Duration emailRefillPeriod,
+                            @Value("${security.login.rate-limit.max-entries:100000}") int maxEntries) {
+        this(meterRegistry, enabled, addressCapacity, addressRefillPeriod, emailCapacity, emailRefillPeriod, maxEntries,
+                System::nanoTime);
+    }
+
+    LoginRateLimiter(MeterRegistry meterRegistry, boolean enabled, int addressCapacity, Duration addressRefillPeriod,
+                     int emailCapacity, Duration emailRefillPeriod, int maxEntries, LongSupplier nanoTime) {
+        this.enabled = enabled;
+        this.nanoTime = nanoTime;
+        this.addressLimit = new Limit("address", addressCapacity, addressRefillPeriod, maxEntries, meterRegistry);
+        this.emailLimit = new Limit("email", emailCapacity, emailRefillPeriod, maxEntries, meterRegistry);
+    }
+
+    public void acquire(String address, String email) {
+        if(!enabled)
+            return;
+        long now = nanoTime.getAsLong();
+        addressLimit.acquire(address, now);
+        emailLimit.acquire(email == null ? null : email.trim().toLowerCase(Locale.ROOT), now);
+    }
+
+    private class Limit {
+        private final int capacity;
+        private final long nanosPerToken;
+        private final int maxEntries;
+        private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+        private final AtomicLong lastSweep;
+        private final Counter allowedCounter;
+        private final Counter rejectedCounter;
+
+        Limit(String name, int capacity, Duration refillPeriod, int maxEntries, MeterRegistry meterRegistry) {
+            this.capacity = capacity;
+            this.nanosPerToken = refillPeriod.toNanos();
+            this.maxEntries = maxEntries;
+            this.lastSweep = new AtomicLong(nanoTime.getAsLong());
+            this.allowedCounter = meterRegistry.counter("auth.login.rate-limit.allowed", "key", name);
+            this.rejectedCounter = meterRegistry.counter("auth.login.rate-limit.rejected", "key", name);
+            Gauge.builder("auth.login.rate-limit.buckets", buckets, Map::size).tag("key", name).register(meterRegistry);
+        }
+
+        void acquire(String key, long now) {
+            long waitNanos = bucketOf(key == null ? OVERFLOW_KEY : key, now).tryAcquire(now);
+            if(waitNanos > 0) {
+                rejectedCounter.increment();
+                throw new TooManyRequestsException("Too many login attempts, try again later",
+                        (waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+            }
+            allowedCounter.increment();
+        }
+
+        //Bounded: full buckets are dropped first, keys that still do not fit share one overflow bucket.
+        //At most one sweep per refill period, so a flood of new keys does not turn every attempt into a scan
+        private TokenBucket bucketOf(String key, long now) {
+            TokenBucket bucket = buckets.get(key);
+            if(bucket != null)
+                return bucket;
+            if(buckets.size() >= maxEntries) {
+                long last = lastSweep.get();
+                if(now - last >= nanosPerToken && lastSweep.compareAndSet(last, now))
+                    buckets.values().removeIf(candidate -> candidate.isFull(now));
+                if(buckets.size() >= maxEntries)
+                    key = OVERFLOW_KEY;
+            }
+            return buckets.computeIfAbsent(key, k -> new TokenBucket(capacity, nanosPerToken, now));
+        }
+    }
+}
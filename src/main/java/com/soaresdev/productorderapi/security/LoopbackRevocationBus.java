@@ -0,0 +1,23 @@
+package com.soaresdev.productorderapi.security;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+//In-JVM stand-in for the revocation channel, every TokenRevocationService subscribed to the same instance is a node
+public class LoopbackRevocationBus implements RevocationBus {
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    //Delivered synchronously, a real channel would deliver shortly after
+    @Override
+    public void publish(UUID id, Instant expiresAt) {
+        for(Listener listener : listeners)
+            listener.onRevocation(id, expiresAt);
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+}
@@ -0,0 +1,17 @@
+package com.soaresdev.productorderapi.security;
+
+import java.time.Instant;
+import java.util.UUID;
+
+//Broadcasts committed token revocations to every node, the publishing one included, over the same transport as the
+//cache invalidations (see CacheConfig), so each node's RevokedTokens learns them without waiting for a reload
+public interface RevocationBus {
+    void publish(UUID id, Instant expiresAt);
+
+    void subscribe(Listener listener);
+
+    @FunctionalInterface
+    interface Listener {
+        void onRevocation(UUID id, Instant expiresAt);
+    }
+}
@@ -0,0 +1,68 @@
+package com.soaresdev.productorderapi.security;
+
+import com.soaresdev.productorderapi.entities.RevokedToken;
+import com.soaresdev.productorderapi.repositories.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+//In-memory copy of tb_revoked_token, checked on every authenticated request. Ids that were never revoked, almost
+//all of them, are answered by the Bloom filter alone; its positives are confirmed against the exact map
+@Component
+public class RevokedTokens {
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final Clock clock;
+    private final int expectedEntries;
+    private final Map<UUID, Instant> expirations = new ConcurrentHashMap<>();
+    private volatile UuidBloomFilter bloomFilter;
+
+    public RevokedTokens(RevokedTokenRepository revokedTokenRepository, Clock clock,
+                         @Value("${security.refresh-token.revocation.expected-entries:100000}") int expectedEntries) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.clock = clock;
+        this.expectedEntries = expectedEntries;
+        this.bloomFilter = new UuidBloomFilter(expectedEntries, FALSE_POSITIVE_RATE);
+    }
+
+    //Loaded before the web server takes requests, so there is no window where revoked tokens are accepted
+    @PostConstruct
+    public synchronized void load() {
+        for(RevokedToken revokedToken : revokedTokenRepository.findByExpiresAtAfter(clock.instant()))
+            expirations.put(revokedToken.getId(), revokedToken.getExpiresAt());
+        rebuildBloomFilter();
+    }
+
+    public boolean isRevoked(UUID id) {
+        return id != null && bloomFilter.mightContain(id) && expirations.containsKey(id);
+    }
+
+    //Writes are synchronized with evictExpired, so a rebuilt filter never misses a concurrent revocation
+    public synchronized void revoke(UUID id, Instant expiresAt) {
+        expirations.merge(id, expiresAt, (current, added) -> current.isAfter(added) ? current : added);
+        bloomFilter.put(id);
+    }
+
+    public synchronized int evictExpired(Instant now) {
+        int size = expirations.size();
+        expirations.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+        rebuildBloomFilter();
+        return size - expirations.size();
+    }
+
+    public int size() {
+        return expirations.size();
+    }
+
+    private void rebuildBloomFilter() {
+        UuidBloomFilter rebuilt = new UuidBloomFilter(Math.max(expectedEntries, expirations.size() * 2), FALSE_POSITIVE_RATE);
+        expirations.keySet().forEach(rebuilt::put);
+        bloomFilter = rebuilt;
+    }
+}
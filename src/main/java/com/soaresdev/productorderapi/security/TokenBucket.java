@@ -0,0 +1,34 @@
+package com.soaresdev.productorderapi.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+//Token bucket kept as a single timestamp (GCRA): the instant at which the bucket would be full again.
+//Taking a token is one CAS, there is no lock and no refill thread
+public final class TokenBucket {
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    public TokenBucket(int capacity, long nanosPerToken, long now) {
+        this.nanosPerToken = nanosPerToken;
+        this.burstNanos = capacity * nanosPerToken;
+        this.fullAt = new AtomicLong(now);
+    }
+
+    //Returns 0 when a token was taken, otherwise the nanos to wait for the next one
+    public long tryAcquire(long now) {
+        while(true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + nanosPerToken;
+            if(next - now > burstNanos)
+                return next - now - burstNanos;
+            if(fullAt.compareAndSet(current, next))
+                return 0;
+        }
+    }
+
+    //A full bucket holds no state worth keeping, dropping it and creating a new one later is equivalent
+    public boolean isFull(long now) {
+        return fullAt.get() - now <= 0;
+    }
+}
@@ -0,0 +1,67 @@
+package com.soaresdev.productorderapi.security;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+//Lock-free Bloom filter over UUIDs: no false negatives, a false positive rate close to the one it was sized for
+public final class UuidBloomFilter {
+    private final AtomicLongArray words;
+    private final int numBits;
+    private final int numHashes;
+
+    public UuidBloomFilter(int expectedEntries, double falsePositiveRate) {
+        int entries = Math.max(1, expectedEntries);
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-entries * Math.log(falsePositiveRate) / (ln2 * ln2));
+        this.numBits = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, bits));
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / entries * ln2));
+        this.words = new AtomicLongArray((numBits + 63) >>> 6);
+    }
+
+    public void put(UUID id) {
+        long hash1 = mix(id.getMostSignificantBits());
+        long hash2 = mix(id.getLeastSignificantBits());
+        for(int i = 0; i < numHashes; i++) {
+            int bit = bitIndex(hash1 + i * hash2);
+            long mask = 1L << bit;
+            int word = bit >>> 6;
+            long current;
+            do {
+                current = words.get(word);
+            }while((current & mask) == 0 && !words.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(UUID id) {
+        long hash1 = mix(id.getMostSignificantBits());
+        long hash2 = mix(id.getLeastSignificantBits());
+        for(int i = 0; i < numHashes; i++) {
+            int bit = bitIndex(hash1 + i * hash2);
+            if((words.get(bit >>> 6) & (1L << bit)) == 0)
+                return false;
+        }
+        return true;
+    }
+
+    public int getNumBits() {
+        return numBits;
+    }
+
+    public int getNumHashes() {
+        return numHashes;
+    }
+
+    private int bitIndex(long combinedHash) {
+        return (int) Math.floorMod(combinedHash, (long) numBits);
+    }
+
+    //MurmurHash3 finalizer, spreads ids that are not random (e.g. time based) over every bit
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -1,5 +1,6 @@
 package com.soaresdev.productorderapi.security.jwt;
 
+import com.soaresdev.productorderapi.exceptions.ErrorResponseWriter;
 import org.springframework.security.config.annotation.SecurityConfigurerAdapter;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.web.DefaultSecurityFilterChain;
@@ -7,14 +8,16 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 
 public class JwtConfigurer extends SecurityConfigurerAdapter<DefaultSecurityFilterChain, HttpSecurity> {
     private final JwtTokenProvider jwtTokenProvider;
+    private final ErrorResponseWriter errorResponseWriter;
 
-    public JwtConfigurer(JwtTokenProvider tokenProvider) {
+    public JwtConfigurer(JwtTokenProvider tokenProvider, ErrorResponseWriter errorResponseWriter) {
         this.jwtTokenProvider = tokenProvider;
+        this.errorResponseWriter = errorResponseWriter;
     }
 
     @Override
     public void configure(HttpSecurity http) {
-        JwtTokenFilter customFilter = new JwtTokenFilter(jwtTokenProvider);
+        JwtTokenFilter customFilter = new JwtTokenFilter(jwtTokenProvider, errorResponseWriter);
         http.addFilterBefore(customFilter, UsernamePasswordAuthenticationFilter.class);
     }
 }
\ No newline at end of file
@@ -6,13 +6,14 @@ import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.*;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.soaresdev.productorderapi.dtos.security.TokenDTO;
+import com.soaresdev.productorderapi.security.AuthorizedPrincipal;
+import com.soaresdev.productorderapi.security.RevokedTokens;
+import com.soaresdev.productorderapi.services.UserService;
 import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import java.time.Clock;
@@ -20,17 +21,21 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.Base64;
 import java.util.List;
+import java.util.UUID;
 
 @Service
 public class JwtTokenProvider {
+    public static final Duration REFRESH_TOKEN_DURATION = Duration.ofHours(3);
     private static String SECRET_KEY;
 
-    private final UserDetailsService userDetailsService;
+    private final UserService userService;
+    private final RevokedTokens revokedTokens;
     private final Clock clock;
     private Algorithm algorithm;
 
-    public JwtTokenProvider(UserDetailsService userDetailsService, Clock clock) {
-        this.userDetailsService = userDetailsService;
+    public JwtTokenProvider(UserService userService, RevokedTokens revokedTokens, Clock clock) {
+        this.userService = userService;
+        this.revokedTokens = revokedTokens;
         this.clock = clock;
     }
 
@@ -41,29 +46,33 @@ public class JwtTokenProvider {
     }
 
     public TokenDTO createToken(String email, List<String> roles) {
+        return createToken(email, roles, UUID.randomUUID(), UUID.randomUUID());
+    }
+
+    //Both tokens carry the family id, so revoking a family also cuts off the access tokens issued with it
+    public TokenDTO createToken(String email, List<String> roles, UUID familyId, UUID refreshTokenId) {
         Instant creation = Instant.now(clock);
         Instant expiration = creation.plus(Duration.ofHours(1));
-        String accessToken = getAccessToken(email, roles, creation, expiration);
-        String refreshToken = getRefreshToken(email, roles, creation);
+        String accessToken = getAccessToken(email, roles, familyId, creation, expiration);
+        String refreshToken = getRefreshToken(email, roles, familyId, refreshTokenId, creation);
         return new TokenDTO(email, true, creation, expiration, accessToken, refreshToken);
     }
 
-    public TokenDTO createTokenWithRefreshToken(String refreshToken) {
-            if(!isRefreshToken(refreshToken))
-                throw new InvalidClaimException("Invalid or expired token");
-
-            DecodedJWT decodedJWT = verifyAndDecodeToken(refreshToken);
-            String email = decodedJWT.getSubject();
-            List<String> roles = decodedJWT.getClaim("roles").asList(String.class);
-            return createToken(email,roles);
+    //Verifies the signature once; the caller reads subject, jti and family from the decoded token
+    public DecodedJWT decodeRefreshToken(String refreshToken) {
+        DecodedJWT decodedJWT = verifyAndDecodeToken(refreshToken);
+        if(!hasPurpose(decodedJWT, "refresh"))
+            throw new InvalidClaimException("Invalid or expired token");
+        return decodedJWT;
     }
 
-    private String getAccessToken(String email, List<String> roles, Instant creation, Instant expiration) {
+    private String getAccessToken(String email, List<String> roles, UUID familyId, Instant creation, Instant expiration) {
         try {
             String issuerUrl = ServletUriComponentsBuilder.fromCurrentContextPath().build().toUriString();
             return JWT.create()
                     .withClaim("roles", roles)
                     .withClaim("purpose", "access")
+                    .withClaim("fid", familyId.toString())
                     .withIssuedAt(creation)
                     .withExpiresAt(expiration)
                     .withSubject(email)
@@ -75,12 +84,14 @@ public class JwtTokenProvider {
         }
     }
 
-    private String getRefreshToken(String email, List<String> roles, Instant creation) {
+    private String getRefreshToken(String email, List<String> roles, UUID familyId, UUID refreshTokenId, Instant creation) {
         try {
-            Instant refreshTokenExpiration = creation.plus(Duration.ofHours(3));
+            Instant refreshTokenExpiration = creation.plus(REFRESH_TOKEN_DURATION);
             return JWT.create()
+                    .withJWTId(refreshTokenId.toString())
                     .withClaim("roles", roles)
                     .withClaim("purpose", "refresh")
+                    .withClaim("fid", familyId.toString())
                     .withIssuedAt(creation)
                     .withExpiresAt(refreshTokenExpiration)
                     .withSubject(email)
@@ -93,8 +104,14 @@ public class JwtTokenProvider {
 
     public Authentication getAuthentication(String token) {
         DecodedJWT decodedJWT = verifyAndDecodeToken(token);
-        UserDetails userDetails = userDetailsService.loadUserByUsername(decodedJWT.getSubject());
-        return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
+        if(revokedTokens.isRevoked(getFamilyId(decodedJWT)))
+            throw new JWTDecodeException("Error decoding token: Invalid or expired token");
+        AuthorizedPrincipal authorizedPrincipal = userService.loadPrincipal(decodedJWT.getSubject());
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                authorizedPrincipal.getEmail(), "", authorizedPrincipal.getAuthorities());
+        //Role and ownership checks of the request read this view, there is no loaded user
+        authentication.setDetails(authorizedPrincipal);
+        return authentication;
     }
 
     private DecodedJWT verifyAndDecodeToken(String token) {
@@ -115,15 +132,31 @@ public class JwtTokenProvider {
     }
 
     public boolean isAccessToken(String token) {
-        DecodedJWT decodedJWT = verifyAndDecodeToken(token);
-        return decodedJWT.getClaims().containsKey("purpose") &&
-               decodedJWT.getClaims().get("purpose").asString().equals("access");
+        return hasPurpose(verifyAndDecodeToken(token), "access");
     }
 
     public boolean isRefreshToken(String token) {
-        DecodedJWT decodedJWT = verifyAndDecodeToken(token);
+        return hasPurpose(verifyAndDecodeToken(token), "refresh");
+    }
+
+    private boolean hasPurpose(DecodedJWT decodedJWT, String purpose) {
         return decodedJWT.getClaims().containsKey("purpose") &&
-               decodedJWT.getClaims().get("purpose").asString().equals("refresh");
+               purpose.equals(decodedJWT.getClaims().get("purpose").asString());
+    }
+
+    //Null for tokens issued before families existed or with a malformed claim
+    public static UUID getFamilyId(DecodedJWT decodedJWT) {
+        return parseUuid(decodedJWT.getClaim("fid").asString());
+    }
+
+    public static UUID parseUuid(String value) {
+        if(value == null)
+            return null;
+        try {
+            return UUID.fromString(value);
+        }catch(IllegalArgumentException e) {
+            return null;
+        }
     }
 
     public String getEmailByToken(String token) {
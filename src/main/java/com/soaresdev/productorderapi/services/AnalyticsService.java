@@ -0,0 +1,125 @@
+package com.soaresdev.productorderapi.services;
+
+import com.soaresdev.productorderapi.dtos.analyticsDTOs.CategorySalesDTO;
+import com.soaresdev.productorderapi.dtos.analyticsDTOs.PaymentTypeSalesDTO;
+import com.soaresdev.productorderapi.dtos.analyticsDTOs.ProductSalesDTO;
+import com.soaresdev.productorderapi.dtos.analyticsDTOs.RevenueDTO;
+import com.soaresdev.productorderapi.entities.Category;
+import com.soaresdev.productorderapi.entities.Product;
+import com.soaresdev.productorderapi.entities.SalesRollup;
+import com.soaresdev.productorderapi.entities.enums.PaymentType;
+import com.soaresdev.productorderapi.entities.enums.RevenueGranularity;
+import com.soaresdev.productorderapi.entities.enums.SalesDimension;
+import com.soaresdev.productorderapi.entities.enums.SalesRanking;
+import com.soaresdev.productorderapi.repositories.CategoryRepository;
+import com.soaresdev.productorderapi.repositories.ProductRepository;
+import com.soaresdev.productorderapi.repositories.SalesRollupRepository;
+import com.soaresdev.productorderapi.repositories.SalesRollupTotal;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+//Reads only the pre-aggregated tb_sales_rollup rows (see SalesRollupService), never the orders themselves
+@Service
+public class AnalyticsService {
+    private static final int MAX_LIMIT = 100;
+
+    private final SalesRollupRepository salesRollupRepository;
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+
+    public AnalyticsService(SalesRollupRepository salesRollupRepository, ProductRepository productRepository,
+                            CategoryRepository categoryRepository) {
+        this.salesRollupRepository = salesRollupRepository;
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public List<RevenueDTO> revenue(LocalDate from, LocalDate to, RevenueGranularity granularity) {
+        ifRangeIsInvalidThrowsException(from, to);
+        Map<LocalDate, RevenueDTO> buckets = new LinkedHashMap<>();
+        for(SalesRollup rollup : salesRollupRepository.findByDimensionAndDayBetweenOrderByDay(
+                SalesDimension.TOTAL.getCode(), from, to)) {
+            RevenueDTO bucket = buckets.computeIfAbsent(bucketStart(rollup.getDay(), granularity),
+                    start -> new RevenueDTO(start, 0L, BigDecimal.ZERO));
+            bucket.setOrders(bucket.getOrders() + rollup.getOrders());
+            bucket.setRevenue(bucket.getRevenue().add(rollup.getRevenue()));
+        }
+        return new ArrayList<>(buckets.values());
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProductSalesDTO> topProducts(LocalDate from, LocalDate to, SalesRanking ranking, int limit) {
+        ifRangeIsInvalidThrowsException(from, to);
+        if(limit < 1 || limit > MAX_LIMIT)
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+
+        List<SalesRollupTotal> totals = sumByDimension(SalesDimension.PRODUCT, from, to, ranking, PageRequest.of(0, limit));
+        Map<UUID, String> names = productRepository.findAllById(keysOf(totals)).stream()
+                .collect(Collectors.toMap(Product::getId, Product::getName));
+        return totals.stream().map(total -> {
+            UUID id = UUID.fromString(total.getDimensionKey());
+            return new ProductSalesDTO(id, names.get(id), total.getOrders(), total.getQuantity(), total.getRevenue());
+        }).toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<CategorySalesDTO> categories(LocalDate from, LocalDate to) {
+        ifRangeIsInvalidThrowsException(from, to);
+        List<SalesRollupTotal> totals = sumByDimension(SalesDimension.CATEGORY, from, to, SalesRanking.REVENUE,
+                Pageable.unpaged());
+        Map<UUID, String> names = categoryRepository.findAllById(keysOf(totals)).stream()
+                .collect(Collectors.toMap(Category::getId, Category::getName));
+        return totals.stream().map(total -> {
+            UUID id = UUID.fromString(total.getDimensionKey());
+            return new CategorySalesDTO(id, names.get(id), total.getOrders(), total.getQuantity(), total.getRevenue());
+        }).toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<PaymentTypeSalesDTO> paymentTypes(LocalDate from, LocalDate to) {
+        ifRangeIsInvalidThrowsException(from, to);
+        return sumByDimension(SalesDimension.PAYMENT_TYPE, from, to, SalesRanking.REVENUE, Pageable.unpaged()).stream()
+                .map(total -> new PaymentTypeSalesDTO(PaymentType.valueOf(Integer.valueOf(total.getDimensionKey())),
+                        total.getOrders(), total.getRevenue(),
+                        total.getRevenue().divide(BigDecimal.valueOf(total.getOrders()), 2, RoundingMode.HALF_EVEN)))
+                .toList();
+    }
+
+    private List<SalesRollupTotal> sumByDimension(SalesDimension dimension, LocalDate from, LocalDate to,
+                                                  SalesRanking ranking, Pageable pageable) {
+        if(ranking == SalesRanking.QUANTITY)
+            return salesRollupRepository.sumByDimensionOrderByQuantity(dimension.getCode(), from, to, pageable);
+        return salesRollupRepository.sumByDimensionOrderByRevenue(dimension.getCode(), from, to, pageable);
+    }
+
+    private List<UUID> keysOf(List<SalesRollupTotal> totals) {
+        return totals.stream().map(SalesRollupTotal::getDimensionKey).map(UUID::fromString).toList();
+    }
+
+    private LocalDate bucketStart(LocalDate day, RevenueGranularity granularity) {
+        return switch(granularity) {
+            case DAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+
+    private void ifRangeIsInvalidThrowsException(LocalDate from, LocalDate to) {
+        if(from.isAfter(to))
+            throw new IllegalArgumentException("Start date can not be after end date");
+    }
+}
@@ -1,12 +1,12 @@
 package com.soaresdev.productorderapi.services;
 
+import com.auth0.jwt.interfaces.DecodedJWT;
 import com.soaresdev.productorderapi.dtos.security.LoginDTO;
 import com.soaresdev.productorderapi.dtos.security.RefreshDTO;
 import com.soaresdev.productorderapi.dtos.security.TokenDTO;
 import com.soaresdev.productorderapi.entities.User;
-import com.soaresdev.productorderapi.repositories.UserRepository;
+import com.soaresdev.productorderapi.security.LoginRateLimiter;
 import com.soaresdev.productorderapi.security.jwt.JwtTokenProvider;
-import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationServiceException;
@@ -24,9 +24,14 @@ public class AuthService {
     private JwtTokenProvider jwtTokenProvider;
 
     @Autowired
-    private UserRepository userRepository;
+    private RefreshTokenService refreshTokenService;
 
-    public TokenDTO login(LoginDTO data) {
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
+    public TokenDTO login(LoginDTO data, String clientAddress) {
+        //Outside the try, a throttled attempt must reach the client as 429 and not as bad credentials
+        loginRateLimiter.acquire(clientAddress, data.getEmail());
         try {
             String email = data.getEmail();
             String password = data.getPassword();
@@ -36,7 +41,7 @@ public class AuthService {
 
             User user = (User) authentication.getPrincipal();
 
-            TokenDTO tokenResponse = jwtTokenProvider.createToken(email, user.getRoleNames());
+            TokenDTO tokenResponse = refreshTokenService.issue(email, user.getRoleNames());
             return tokenResponse;
         }catch(Exception e) {
             throw new BadCredentialsException("Invalid email address or password");
@@ -47,12 +52,12 @@ public class AuthService {
         String email = refreshDTO.getEmail();
         String refreshToken = refreshDTO.getRefreshToken();
 
-        if(!userRepository.existsByEmail(email))
-            throw new EntityNotFoundException("User not found");
-        if(!jwtTokenProvider.getEmailByToken(refreshToken).equals(email))
+        //Verified once; a deleted user or changed email has already revoked the token's family
+        DecodedJWT decodedJWT = jwtTokenProvider.decodeRefreshToken(refreshToken);
+        if(!decodedJWT.getSubject().equals(email))
             throw new AuthenticationServiceException("Email not matching");
 
-        TokenDTO tokenResponse = jwtTokenProvider.createTokenWithRefreshToken(refreshToken);
+        TokenDTO tokenResponse = refreshTokenService.rotate(decodedJWT);
         return tokenResponse;
     }
 }
\ No newline at end of file
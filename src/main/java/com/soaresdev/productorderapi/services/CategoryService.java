@@ -1,5 +1,8 @@
 package com.soaresdev.productorderapi.services;
 
+import com.soaresdev.productorderapi.cache.CompressedResponseCache;
+import com.soaresdev.productorderapi.cache.ProductSnapshotCache;
+import com.soaresdev.productorderapi.configs.CacheConfig;
 import com.soaresdev.productorderapi.dtos.CategoryDTO;
 import com.soaresdev.productorderapi.dtos.insertDTOs.CategoryInsertDTO;
 import com.soaresdev.productorderapi.entities.Category;
@@ -7,6 +10,9 @@ import com.soaresdev.productorderapi.repositories.CategoryRepository;
 import jakarta.persistence.EntityExistsException;
 import jakarta.persistence.EntityNotFoundException;
 import org.modelmapper.ModelMapper;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -17,16 +23,24 @@ import java.util.UUID;
 public class CategoryService {
     private final CategoryRepository categoryRepository;
     private final ModelMapper modelMapper;
+    private final CompressedResponseCache compressedResponseCache;
+    private final ProductSnapshotCache productSnapshotCache;
 
-    public CategoryService(CategoryRepository categoryRepository,ModelMapper modelMapper) {
+    public CategoryService(CategoryRepository categoryRepository,ModelMapper modelMapper,
+                           CompressedResponseCache compressedResponseCache, ProductSnapshotCache productSnapshotCache) {
         this.categoryRepository = categoryRepository;
         this.modelMapper = modelMapper;
+        this.compressedResponseCache = compressedResponseCache;
+        this.productSnapshotCache = productSnapshotCache;
     }
 
+    @Transactional(readOnly = true)
     public Page<CategoryDTO> findAll(Pageable pageable) {
         return categoryRepository.findAll(pageable).map(CategoryDTO::new);
     }
 
+    @Cacheable(cacheNames = CacheConfig.CATEGORIES, key = CacheConfig.UUID_KEY)
+    @Transactional(readOnly = true)
     public CategoryDTO findByUUID(String uuid) {
         return new CategoryDTO(getCategory(uuid));
     }
@@ -38,14 +52,22 @@ public class CategoryService {
 
         Category category = modelMapper.map(categoryInsertDTO, Category.class);
         category = categoryRepository.save(category);
+        invalidateCachedListings();
         return new CategoryDTO(category);
     }
 
+    //Products embed their categories
+    @Caching(evict = {@CacheEvict(cacheNames = CacheConfig.CATEGORIES, key = CacheConfig.UUID_KEY),
+                      @CacheEvict(cacheNames = CacheConfig.PRODUCTS, allEntries = true)})
     @Transactional
     public void deleteByUUID(String uuid) {
         categoryRepository.deleteByUUID(getCategory(uuid).getId());
+        invalidateCachedListings();
+        productSnapshotCache.invalidateAll();
     }
 
+    @Caching(evict = {@CacheEvict(cacheNames = CacheConfig.CATEGORIES, key = CacheConfig.UUID_KEY),
+                      @CacheEvict(cacheNames = CacheConfig.PRODUCTS, allEntries = true)})
     @Transactional
     public CategoryDTO updateByUUID(String uuid, CategoryInsertDTO categoryInsertDTO) {
         Category category = getCategory(uuid);
@@ -55,9 +77,17 @@ public class CategoryService {
 
         category.setName(insertDTOCategoryName);
         category = categoryRepository.save(category);
+        invalidateCachedListings();
+        productSnapshotCache.invalidateAll();
         return new CategoryDTO(category);
     }
 
+    //Product listings embed their categories, so they are stale too
+    private void invalidateCachedListings() {
+        compressedResponseCache.invalidate(CompressedResponseCache.CATEGORIES_PATH);
+        compressedResponseCache.invalidate(CompressedResponseCache.PRODUCTS_PATH);
+    }
+
     private Category getCategory(String uuid) {
         return categoryRepository.findById(UUID.fromString(uuid))
                .orElseThrow(() -> new EntityNotFoundException("Category not found"));
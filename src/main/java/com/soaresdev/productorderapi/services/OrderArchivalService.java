@@ -0,0 +1,58 @@
+package com.soaresdev.productorderapi.services;
+
+import com.soaresdev.productorderapi.entities.enums.OrderStatus;
+import com.soaresdev.productorderapi.entities.enums.PaymentStatus;
+import com.soaresdev.productorderapi.repositories.ArchivedOrderRepository;
+import com.soaresdev.productorderapi.repositories.OrderItemRepository;
+import com.soaresdev.productorderapi.repositories.OrderRepository;
+import com.soaresdev.productorderapi.repositories.PaymentRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+//Moves closed orders, their items and payment out of the live tables, so the tables and indexes read by carts and
+//checkouts only hold recent orders. Summaries stay where they are, and OrderService falls back to the archive by id
+@Service
+public class OrderArchivalService {
+    //Paid and shipped orders can still move on, only orders that reached a final status are archived
+    private static final List<Integer> CLOSED_STATUSES =
+            List.of(OrderStatus.DELIVERED.getCode(), OrderStatus.CANCELED.getCode());
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final PaymentRepository paymentRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final Clock clock;
+
+    public OrderArchivalService(OrderRepository orderRepository, OrderItemRepository orderItemRepository,
+                                PaymentRepository paymentRepository, ArchivedOrderRepository archivedOrderRepository,
+                                Clock clock) {
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.paymentRepository = paymentRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.clock = clock;
+    }
+
+    //One batch per transaction: set-based copies into the archive, then deletes of the live rows, children first
+    @Transactional
+    public int archiveBatch(Instant cutoff, int batchSize) {
+        if(batchSize < 1)
+            throw new IllegalArgumentException("Batch size must be positive");
+        List<UUID> orderIds = orderRepository.findArchivableIds(cutoff, CLOSED_STATUSES, PageRequest.of(0, batchSize));
+        if(orderIds.isEmpty())
+            return 0;
+
+        archivedOrderRepository.archiveOrders(orderIds, clock.instant());
+        archivedOrderRepository.archiveItems(orderIds);
+        archivedOrderRepository.archivePayments(orderIds, PaymentStatus.COMPLETED.getCode());
+        paymentRepository.deleteByOrderIdIn(orderIds);
+        orderItemRepository.deleteByOrderIdIn(orderIds);
+        orderRepository.deleteByIdIn(orderIds);
+        return orderIds.size();
+    }
+}
@@ -1,81 +1,139 @@
 package com.soaresdev.productorderapi.services;
 
+import com.soaresdev.productorderapi.cache.ProductSnapshotCache;
+import com.soaresdev.productorderapi.dtos.FieldSet;
 import com.soaresdev.productorderapi.dtos.OrderDTO;
+import com.soaresdev.productorderapi.dtos.OrderFilterDTO;
 import com.soaresdev.productorderapi.dtos.insertDTOs.OrderInsertDTO;
 import com.soaresdev.productorderapi.dtos.insertDTOs.OrderItemDeleteDTO;
 import com.soaresdev.productorderapi.dtos.insertDTOs.OrderItemInsertDTO;
+import com.soaresdev.productorderapi.entities.ArchivedOrder;
 import com.soaresdev.productorderapi.entities.Order;
 import com.soaresdev.productorderapi.entities.OrderItem;
-import com.soaresdev.productorderapi.entities.User;
 import com.soaresdev.productorderapi.entities.enums.OrderStatus;
-import com.soaresdev.productorderapi.entities.enums.RoleName;
+import com.soaresdev.productorderapi.entities.enums.OutboxEventType;
 import com.soaresdev.productorderapi.exceptions.AlreadyPaidException;
 import com.soaresdev.productorderapi.exceptions.NotPaidException;
+import com.soaresdev.productorderapi.repositories.ArchivedOrderRepository;
+import com.soaresdev.productorderapi.repositories.OrderHeader;
 import com.soaresdev.productorderapi.repositories.OrderItemRepository;
 import com.soaresdev.productorderapi.repositories.OrderRepository;
+import com.soaresdev.productorderapi.repositories.OrderSpecifications;
 import com.soaresdev.productorderapi.repositories.ProductRepository;
 import com.soaresdev.productorderapi.repositories.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static com.soaresdev.productorderapi.utils.Utils.*;
 
 // 20/07/2023  21:09 !
 @Service
 public class OrderService {
+    //Statuses an order only reaches with a completed payment, a pending one is not enough
+    private static final Set<OrderStatus> PAID_STATUSES =
+            EnumSet.of(OrderStatus.PAID, OrderStatus.SHIPPED, OrderStatus.DELIVERED);
+
     private final OrderRepository orderRepository;
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
     private final OrderItemRepository orderItemRepository;
     private final ModelMapper modelMapper;
+    private final OutboxService outboxService;
+    private final OrderSummaryService orderSummaryService;
+    private final ProductSnapshotCache productSnapshotCache;
+    private final ArchivedOrderRepository archivedOrderRepository;
 
     public OrderService(OrderRepository orderRepository, UserRepository userRepository, ModelMapper modelMapper,
-                        ProductRepository productRepository, OrderItemRepository orderItemRepository) {
+                        ProductRepository productRepository, OrderItemRepository orderItemRepository,
+                        OutboxService outboxService, OrderSummaryService orderSummaryService,
+                        ProductSnapshotCache productSnapshotCache, ArchivedOrderRepository archivedOrderRepository) {
         this.orderRepository = orderRepository;
         this.userRepository = userRepository;
         this.productRepository = productRepository;
         this.orderItemRepository = orderItemRepository;
         this.modelMapper = modelMapper;
+        this.outboxService = outboxService;
+        this.orderSummaryService = orderSummaryService;
+        this.productSnapshotCache = productSnapshotCache;
+        this.archivedOrderRepository = archivedOrderRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public Page<OrderDTO> findAll(OrderFilterDTO orderFilterDTO, Pageable pageable, FieldSet fieldSet) {
+        if(orderFilterDTO.getMinMoment() != null && orderFilterDTO.getMaxMoment() != null &&
+                orderFilterDTO.getMinMoment().isAfter(orderFilterDTO.getMaxMoment()))
+            throw new IllegalArgumentException("Min moment can not be after max moment");
+        if(orderFilterDTO.getMinTotal() != null && orderFilterDTO.getMaxTotal() != null &&
+                orderFilterDTO.getMinTotal().compareTo(orderFilterDTO.getMaxTotal()) > 0)
+            throw new IllegalArgumentException("Min total can not be greater than max total");
+
+        return findPage(OrderSpecifications.of(orderFilterDTO), pageable, fieldSet);
     }
 
-    public Page<OrderDTO> findAll(Pageable pageable) {
-        return orderRepository.findAll(pageable).map(OrderDTO::new);
+    @Transactional(readOnly = true)
+    public Page<OrderDTO> findAllByClient(String clientUuid, Pageable pageable, FieldSet fieldSet) {
+        ifClientNotExistsThrowsException(clientUuid);
+        UUID clientId = UUID.fromString(clientUuid);
+        if(!isContextUserManagerOrAdmin() && !getAuthorizedPrincipal().isSelf(clientUuid))
+            throw new AccessDeniedException("Access denied");
+
+        return findPage(OrderSpecifications.hasClient(clientId), pageable, fieldSet);
     }
 
+    @Transactional(readOnly = true)
     public OrderDTO findByUUID(String uuid) {
-        Order order = getOrder(uuid);
-        User contextUser = getContextUser();
-        if(contextUser.getRoleNames().stream().noneMatch(r -> r.equals(RoleName.ROLE_MANAGER.toString()) ||
-                r.equals(RoleName.ROLE_ADMIN.toString())))
-            ifUserIsNotSameThrowsException(order.getClient(), contextUser);
+        UUID orderId = UUID.fromString(uuid);
+        if(isContextUserManagerOrAdmin()) {
+            Optional<Order> order = orderRepository.findById(orderId);
+            if(order.isPresent())
+                return toOrderDTO(order.get());
+            return archivedOrderRepository.findById(orderId).map(this::toOrderDTO)
+                    .orElseThrow(() -> new EntityNotFoundException("Order not found"));
+        }
 
-        return new OrderDTO(order);
+        UUID clientId = getAuthorizedPrincipal().getId();
+        Optional<Order> order = orderRepository.findByIdAndClientId(orderId, clientId);
+        if(order.isPresent())
+            return toOrderDTO(order.get());
+        //Closed orders moved by OrderArchivalService, only looked up once the live tables missed
+        return archivedOrderRepository.findByIdAndClientId(orderId, clientId).map(this::toOrderDTO)
+                .orElseThrow(() -> orderRepository.existsById(orderId) || archivedOrderRepository.existsById(orderId) ?
+                        new AccessDeniedException("Access denied") : new EntityNotFoundException("Order not found"));
     }
 
     @Transactional
     public OrderDTO insert(OrderInsertDTO orderInsertDTO) {
         String insertDTOClientUuid = orderInsertDTO.getClient_id();
         ifClientNotExistsThrowsException(insertDTOClientUuid);
-        if(!isContextUserAdmin()) {
-            User client = userRepository.getReferenceById(UUID.fromString(insertDTOClientUuid));
-            ifUserIsNotSameThrowsException(client, getContextUser());
-        }
+        if(!isContextUserAdmin() && !getAuthorizedPrincipal().isSelf(insertDTOClientUuid))
+            throw new AccessDeniedException("Access denied");
         if(orderInsertDTO.getOrderStatus() == OrderStatus.PAID)
             throw new NotPaidException("Not paid yet");
 
         Order order = modelMapper.map(orderInsertDTO, Order.class);
         order = orderRepository.save(order);
-        return new OrderDTO(order);
+        orderSummaryService.orderChanged(order);
+        return toOrderDTO(order);
     }
 
     @Transactional
     public void deleteByUUID(String uuid) {
-        orderRepository.delete(getOrder(uuid));
+        Order order = getOrder(uuid);
+        orderRepository.delete(order);
+        orderSummaryService.orderDeleted(order.getId());
     }
 
     @Transactional
@@ -83,16 +141,16 @@ public class OrderService {
         Order order = getOrder(uuid);
         updateOrder(order, orderInsertDTO);
         order = orderRepository.save(order);
-        return new OrderDTO(order);
+        outboxService.orderChanged(OutboxEventType.ORDER_UPDATED, order);
+        orderSummaryService.orderChanged(order);
+        return toOrderDTO(order);
     }
 
     @Transactional
     public OrderDTO addItem(String uuid, OrderItemInsertDTO orderItemInsertDTO) {
         ifProductNotExistsThrowsException(orderItemInsertDTO.getProduct_id());
 
-        Order order = getOrder(uuid);
-        if(!isContextUserAdmin())
-            ifUserIsNotSameThrowsException(order.getClient(), getContextUser());
+        Order order = isContextUserAdmin() ? getOrder(uuid) : getOwnedOrder(uuid);
         ifOrderIsAlreadyPaidThrowsException(order);
 
         UUID insertDTOProductUuid = UUID.fromString(orderItemInsertDTO.getProduct_id());
@@ -105,16 +163,15 @@ public class OrderService {
             order.getItems().add(orderItem);
         }
         order = orderRepository.save(order);
-        return new OrderDTO(order);
+        orderSummaryService.orderChanged(order);
+        return toOrderDTO(order);
     }
 
     @Transactional
     public OrderDTO deleteItem(String uuid, OrderItemDeleteDTO orderItemDeleteDTO) {
         ifProductNotExistsThrowsException(orderItemDeleteDTO.getProduct_id());
 
-        Order order = getOrder(uuid);
-        if(!isContextUserAdmin())
-            ifUserIsNotSameThrowsException(order.getClient(), getContextUser());
+        Order order = isContextUserAdmin() ? getOrder(uuid) : getOwnedOrder(uuid);
         ifOrderIsAlreadyPaidThrowsException(order);
         UUID insertDTOProductUuid = UUID.fromString(orderItemDeleteDTO.getProduct_id());
         ifOrderItemNotExistsThrowsException(order.getId(), insertDTOProductUuid);
@@ -122,16 +179,15 @@ public class OrderService {
         order.getItems().remove(getOrderItem(order.getId(), insertDTOProductUuid));
         orderItemRepository.deleteById_OrderIdAndId_ProductId(order.getId(), insertDTOProductUuid);
         order = orderRepository.save(order);
-        return new OrderDTO(order);
+        orderSummaryService.orderChanged(order);
+        return toOrderDTO(order);
     }
 
     @Transactional
     public OrderDTO updateItem(String uuid, OrderItemInsertDTO orderItemInsertDTO) {
         ifProductNotExistsThrowsException(orderItemInsertDTO.getProduct_id());
 
-        Order order = getOrder(uuid);
-        if(!isContextUserAdmin())
-            ifUserIsNotSameThrowsException(order.getClient(), getContextUser());
+        Order order = isContextUserAdmin() ? getOrder(uuid) : getOwnedOrder(uuid);
         ifOrderIsAlreadyPaidThrowsException(order);
 
         UUID insertDTOProductUuid = UUID.fromString(orderItemInsertDTO.getProduct_id());
@@ -140,9 +196,44 @@ public class OrderService {
         OrderItem orderItem = getOrderItem(order.getId(), insertDTOProductUuid);
         orderItem.setQuantity(orderItemInsertDTO.getQuantity());
         order = orderRepository.save(order);
+        orderSummaryService.orderChanged(order);
+        return toOrderDTO(order);
+    }
+
+    private Page<OrderDTO> findPage(Specification<Order> specification, Pageable pageable, FieldSet fieldSet) {
+        Page<UUID> ids = orderRepository.findIds(specification, pageable);
+        if(!fieldSet.includesAny("client", "payment", "items")) {
+            Map<UUID, OrderHeader> headers = orderRepository.findHeadersByIdIn(ids.getContent()).stream()
+                    .collect(Collectors.toMap(OrderHeader::getId, Function.identity()));
+            return hydrate(ids, headers, this::toOrderDTO);
+        }
+
+        Map<UUID, Order> orders = orderRepository.findByIdIn(ids.getContent()).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+        return hydrate(ids, orders, this::toOrderDTO);
+    }
+
+    private OrderDTO toOrderDTO(Order order) {
+        return new OrderDTO(order, productSnapshotCache::get);
+    }
+
+    private OrderDTO toOrderDTO(ArchivedOrder order) {
         return new OrderDTO(order);
     }
 
+    private OrderDTO toOrderDTO(OrderHeader header) {
+        return new OrderDTO(header.getId(), header.getMoment(), OrderStatus.valueOf(header.getOrderStatus()),
+                header.getTotal());
+    }
+
+    //Non owners are told apart from missing orders with an existence check, only on the failure path
+    private Order getOwnedOrder(String uuid) {
+        UUID orderId = UUID.fromString(uuid);
+        return orderRepository.findByIdAndClientId(orderId, getAuthorizedPrincipal().getId())
+                .orElseThrow(() -> orderRepository.existsById(orderId) ?
+                        new AccessDeniedException("Access denied") : new EntityNotFoundException("Order not found"));
+    }
+
     private Order getOrder(String uuid) {
         return orderRepository.findById(UUID.fromString(uuid))
                 .orElseThrow(() -> new EntityNotFoundException("Order not found"));
@@ -154,9 +245,9 @@ public class OrderService {
 
     private void updateOrder(Order order, OrderInsertDTO orderInsertDTO) {
         ifClientNotExistsThrowsException(orderInsertDTO.getClient_id());
-        if(orderInsertDTO.getOrderStatus() == OrderStatus.PAID && order.getPayment() == null)
+        if(PAID_STATUSES.contains(orderInsertDTO.getOrderStatus()) && !order.isPaid())
             throw new NotPaidException("Not paid yet");
-        if(order.getPayment() != null && orderInsertDTO.getOrderStatus() == OrderStatus.WAITING_PAYMENT)
+        if(order.isPaid() && orderInsertDTO.getOrderStatus() == OrderStatus.WAITING_PAYMENT)
             throw new AlreadyPaidException("Already paid, unable to update order status to WAITING_PAYMENT");
 
         order.setOrderStatus(orderInsertDTO.getOrderStatus());
@@ -174,7 +265,7 @@ public class OrderService {
     }
 
     private void ifOrderIsAlreadyPaidThrowsException(Order order) {
-        if(order.getPayment() != null)
+        if(order.hasPayment())
             throw new AlreadyPaidException("Already paid, unable to do changes in this order item");
     }
 
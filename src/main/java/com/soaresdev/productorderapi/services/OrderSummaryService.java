@@ -0,0 +1,71 @@
+package com.soaresdev.productorderapi.services;
+
+import com.soaresdev.productorderapi.dtos.OrderSummaryDTO;
+import com.soaresdev.productorderapi.entities.Order;
+import com.soaresdev.productorderapi.entities.OrderSummary;
+import com.soaresdev.productorderapi.entities.Payment;
+import com.soaresdev.productorderapi.entities.enums.OrderStatus;
+import com.soaresdev.productorderapi.entities.enums.PaymentStatus;
+import com.soaresdev.productorderapi.entities.enums.PaymentType;
+import com.soaresdev.productorderapi.repositories.OrderSummaryRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.UUID;
+
+import static com.soaresdev.productorderapi.utils.Utils.getAuthorizedPrincipal;
+
+//Written in the same transaction as the order and payment changes, so "my orders" never lags behind them
+@Service
+public class OrderSummaryService {
+    private final OrderSummaryRepository orderSummaryRepository;
+
+    public OrderSummaryService(OrderSummaryRepository orderSummaryRepository) {
+        this.orderSummaryRepository = orderSummaryRepository;
+    }
+
+    //Ownership is part of the query, there is nothing to load and check afterwards
+    @Transactional(readOnly = true)
+    public Page<OrderSummaryDTO> findAllOfContextUser(Pageable pageable) {
+        return orderSummaryRepository.findByClientId(getAuthorizedPrincipal().getId(), pageable).map(OrderSummaryDTO::new);
+    }
+
+    @Transactional
+    public void orderChanged(Order order) {
+        save(order, order.getPayment());
+    }
+
+    //The payment side of the association may not be set on the order yet, or may be about to be removed (null)
+    @Transactional
+    public void paymentChanged(Order order, Payment payment) {
+        save(order, payment);
+    }
+
+    @Transactional
+    public void orderDeleted(UUID orderId) {
+        orderSummaryRepository.deleteByOrderId(orderId);
+    }
+
+    @Transactional
+    public void clientDeleted(UUID clientId) {
+        orderSummaryRepository.deleteByClientId(clientId);
+    }
+
+    @Transactional
+    public int insertMissing() {
+        return orderSummaryRepository.insertMissing(PaymentStatus.COMPLETED.getCode());
+    }
+
+    private void save(Order order, Payment payment) {
+        OrderSummary orderSummary = orderSummaryRepository.findById(order.getId())
+                .orElseGet(() -> new OrderSummary(order.getId()));
+        orderSummary.setClientId(order.getClient().getId());
+        orderSummary.setMoment(order.getMoment());
+        orderSummary.setOrderStatus(OrderStatus.valueOf(order.getOrderStatus()));
+        orderSummary.setTotal(order.getTotal());
+        orderSummary.setItemCount(order.getItems().size());
+        orderSummary.setPaymentType(payment == null ? null : PaymentType.valueOf(payment.getPaymentType()));
+        orderSummaryRepository.save(orderSummary);
+    }
+}
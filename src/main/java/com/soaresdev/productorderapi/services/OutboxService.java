@@ -0,0 +1,64 @@
+package com.soaresdev.productorderapi.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.soaresdev.productorderapi.entities.Order;
+import com.soaresdev.productorderapi.entities.OutboxEvent;
+import com.soaresdev.productorderapi.entities.Payment;
+import com.soaresdev.productorderapi.entities.enums.OrderStatus;
+import com.soaresdev.productorderapi.entities.enums.OutboxEventType;
+import com.soaresdev.productorderapi.entities.enums.PaymentType;
+import com.soaresdev.productorderapi.repositories.OutboxEventRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Service
+public class OutboxService {
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+
+    public OutboxService(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper, Clock clock) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+    }
+
+    //Must join the caller transaction: the event is only visible to the relay if the state change commits
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderChanged(OutboxEventType eventType, Order order) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("orderId", order.getId());
+        payload.put("orderStatus", OrderStatus.valueOf(order.getOrderStatus()));
+        payload.put("clientId", order.getClient() != null ? order.getClient().getId() : null);
+        save(eventType, order, payload);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void paymentChanged(OutboxEventType eventType, Payment payment) {
+        Order order = payment.getOrder();
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("paymentId", payment.getId());
+        payload.put("orderId", order.getId());
+        payload.put("orderStatus", OrderStatus.valueOf(order.getOrderStatus()));
+        payload.put("paymentType", PaymentType.valueOf(payment.getPaymentType()));
+        payload.put("amount", payment.getAmount());
+        payload.put("moment", payment.getMoment().toString());
+        save(eventType, order, payload);
+    }
+
+    private void save(OutboxEventType eventType, Order order, Map<String, Object> payload) {
+        payload.put("eventType", eventType);
+        try {
+            String json = objectMapper.writeValueAsString(payload);
+            outboxEventRepository.save(new OutboxEvent(eventType, order.getId(), json, Instant.now(clock)));
+        }catch(JsonProcessingException e) {
+            throw new IllegalStateException("Error serializing outbox event payload", e);
+        }
+    }
+}
@@ -1,20 +1,29 @@
 package com.soaresdev.productorderapi.services;
 
+import com.soaresdev.productorderapi.dtos.FieldSet;
 import com.soaresdev.productorderapi.dtos.PaymentDTO;
 import com.soaresdev.productorderapi.dtos.insertDTOs.PaymentInsertDTO;
 import com.soaresdev.productorderapi.entities.Order;
 import com.soaresdev.productorderapi.entities.Payment;
-import com.soaresdev.productorderapi.entities.User;
 import com.soaresdev.productorderapi.entities.enums.OrderStatus;
+import com.soaresdev.productorderapi.entities.enums.OutboxEventType;
+import com.soaresdev.productorderapi.entities.enums.PaymentStatus;
+import com.soaresdev.productorderapi.entities.enums.PaymentType;
 import com.soaresdev.productorderapi.exceptions.AlreadyPaidException;
+import com.soaresdev.productorderapi.exceptions.PaymentInProgressException;
+import com.soaresdev.productorderapi.exceptions.TooManyRequestsException;
+import com.soaresdev.productorderapi.payments.PaymentProcessor;
 import com.soaresdev.productorderapi.repositories.OrderRepository;
 import com.soaresdev.productorderapi.repositories.PaymentRepository;
+import com.soaresdev.productorderapi.repositories.PaymentView;
 import jakarta.persistence.EntityNotFoundException;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.Clock;
 import java.util.UUID;
 
 import static com.soaresdev.productorderapi.utils.Utils.*;
@@ -24,22 +33,33 @@ public class PaymentService {
     private final PaymentRepository paymentRepository;
     private final OrderRepository orderRepository;
     private final ModelMapper modelMapper;
-
-    public PaymentService(PaymentRepository paymentRepository, OrderRepository orderRepository, ModelMapper modelMapper) {
+    private final OutboxService outboxService;
+    private final OrderSummaryService orderSummaryService;
+    private final PaymentProcessor paymentProcessor;
+    private final Clock clock;
+
+    public PaymentService(PaymentRepository paymentRepository, OrderRepository orderRepository, ModelMapper modelMapper,
+                          OutboxService outboxService, OrderSummaryService orderSummaryService,
+                          PaymentProcessor paymentProcessor, Clock clock) {
         this.paymentRepository = paymentRepository;
         this.orderRepository = orderRepository;
         this.modelMapper = modelMapper;
+        this.outboxService = outboxService;
+        this.orderSummaryService = orderSummaryService;
+        this.paymentProcessor = paymentProcessor;
+        this.clock = clock;
     }
 
-    public Page<PaymentDTO> findAll(Pageable pageable) {
+    @Transactional(readOnly = true)
+    public Page<PaymentDTO> findAll(Pageable pageable, FieldSet fieldSet) {
+        if(!fieldSet.isAll())
+            return paymentRepository.findAllViews(pageable).map(this::toPaymentDTO);
         return paymentRepository.findAll(pageable).map(PaymentDTO::new);
     }
 
+    @Transactional(readOnly = true)
     public PaymentDTO findByUUID(String uuid) {
-        Payment payment = getPayment(uuid);
-        User contextUser = getContextUser();
-        if(contextUser.getRoleNames().stream().noneMatch(r -> r.equals("ROLE_MANAGER") || r.equals("ROLE_ADMIN")))
-            ifUserIsNotSameThrowsException(payment.getOrder().getClient(), contextUser);
+        Payment payment = isContextUserManagerOrAdmin() ? getPayment(uuid) : getOwnedPayment(uuid);
 
         return new PaymentDTO(payment);
     }
@@ -49,17 +69,21 @@ public class PaymentService {
         UUID insertDTOOrderUuid = UUID.fromString(paymentInsertDTO.getOrder_id());
         ifPaymentOrderNotExistsThrowsException(insertDTOOrderUuid);
 
-        if(paymentRepository.existsByOrderId(insertDTOOrderUuid))
+        if(paymentRepository.existsByOrderId(insertDTOOrderUuid, PaymentStatus.FAILED.getCode()))
             throw new AlreadyPaidException("Order already paid");
 
-        User contextUser = getContextUser();
-        if(contextUser.getRoleNames().stream().noneMatch(r -> r.equals("ROLE_MANAGER") || r.equals("ROLE_ADMIN"))) {
-            User orderClient = orderRepository.getReferenceById(insertDTOOrderUuid).getClient();
-            ifUserIsNotSameThrowsException(orderClient, contextUser);
-        }
+        if(!isContextUserManagerOrAdmin() &&
+                !orderRepository.existsByIdAndClientId(insertDTOOrderUuid, getAuthorizedPrincipal().getId()))
+            throw new AccessDeniedException("Access denied");
+
+        paymentRepository.deleteFailedByOrderId(insertDTOOrderUuid, PaymentStatus.FAILED.getCode());
+        if(paymentProcessor.isEnabled())
+            return insertPending(insertDTOOrderUuid, paymentInsertDTO.getPaymentType());
 
         Payment payment = modelMapper.map(paymentInsertDTO, Payment.class);
         payment = paymentRepository.save(payment);
+        outboxService.paymentChanged(OutboxEventType.PAYMENT_INSERTED, payment);
+        orderSummaryService.paymentChanged(payment.getOrder(), payment);
         return new PaymentDTO(payment);
     }
 
@@ -67,32 +91,79 @@ public class PaymentService {
     public void deleteByUUID(String uuid) {
         Payment payment = getPayment(uuid);
         payment.getOrder().setOrderStatus(OrderStatus.WAITING_PAYMENT);
+        outboxService.paymentChanged(OutboxEventType.PAYMENT_DELETED, payment);
+        orderSummaryService.paymentChanged(payment.getOrder(), null);
         paymentRepository.deleteByUUID(payment.getId());
     }
 
     @Transactional
     public PaymentDTO updateByUUID(String uuid, PaymentInsertDTO paymentInsertDTO) {
         Payment payment = getPayment(uuid);
+        Order previousOrder = payment.getOrder();
         updatePayment(payment, paymentInsertDTO);
         payment = paymentRepository.save(payment);
+        outboxService.paymentChanged(OutboxEventType.PAYMENT_UPDATED, payment);
+        if(!previousOrder.getId().equals(payment.getOrder().getId()))
+            orderSummaryService.paymentChanged(previousOrder, null);
+        orderSummaryService.paymentChanged(payment.getOrder(), payment);
+        return new PaymentDTO(payment);
+    }
+
+    //The order stays WAITING_PAYMENT until a payment worker completes the charge, so the provider is never called here
+    private PaymentDTO insertPending(UUID orderUuid, PaymentType paymentType) {
+        if(!paymentProcessor.tryReserve())
+            throw new TooManyRequestsException("Too many payments being processed, try again later", 1);
+
+        Payment payment;
+        try {
+            payment = new Payment(clock.instant(), paymentType, orderRepository.getReferenceById(orderUuid));
+            payment.setPaymentStatus(PaymentStatus.PENDING);
+            payment = paymentRepository.save(payment);
+        }catch(RuntimeException e) {
+            paymentProcessor.release();
+            throw e;
+        }
+        paymentProcessor.submitAfterCommit(payment.getId(), paymentType, payment.getAmount());
         return new PaymentDTO(payment);
     }
 
+    private PaymentDTO toPaymentDTO(PaymentView view) {
+        PaymentDTO paymentDTO = new PaymentDTO(view.getMoment(), PaymentType.valueOf(view.getPaymentType()), view.getAmount());
+        paymentDTO.setId(view.getId());
+        paymentDTO.setPaymentStatus(PaymentStatus.valueOf(view.getPaymentStatus()));
+        paymentDTO.setOrder_id(view.getOrderId());
+        return paymentDTO;
+    }
+
+    //A pending charge is left alone until its worker finishes it. Only a completed payment pays its order, a failed
+    //one can be moved or retyped but leaves the status of its orders as it is
     private void updatePayment(Payment payment, PaymentInsertDTO paymentInsertDTO) {
+        if(PaymentStatus.PENDING.getCode().equals(payment.getPaymentStatus()))
+            throw new PaymentInProgressException("Payment is still being processed");
         UUID insertDTOOrderUuid = UUID.fromString(paymentInsertDTO.getOrder_id());
         ifPaymentOrderNotExistsThrowsException(insertDTOOrderUuid);
-        if(!insertDTOOrderUuid.equals(payment.getOrder().getId()) && paymentRepository.existsByOrderId(insertDTOOrderUuid))
+        boolean orderChanged = !insertDTOOrderUuid.equals(payment.getOrder().getId());
+        if(orderChanged && paymentRepository.existsByOrderId(insertDTOOrderUuid, PaymentStatus.FAILED.getCode()))
             throw new AlreadyPaidException("Order already paid");
-        if(insertDTOOrderUuid != payment.getOrder().getId())
+        if(orderChanged && payment.isCompleted())
             payment.getOrder().setOrderStatus(OrderStatus.WAITING_PAYMENT);
 
         Order order = orderRepository.getReferenceById(insertDTOOrderUuid);
-        order.setOrderStatus(OrderStatus.PAID);
+        if(payment.isCompleted())
+            order.setOrderStatus(OrderStatus.PAID);
         payment.setPaymentType(paymentInsertDTO.getPaymentType());
         payment.setOrder(order);
         payment.setAmount(order.getTotal());
     }
 
+    //Non owners are told apart from missing payments with an existence check, only on the failure path
+    private Payment getOwnedPayment(String uuid) {
+        UUID paymentId = UUID.fromString(uuid);
+        return paymentRepository.findByIdAndOrderClientId(paymentId, getAuthorizedPrincipal().getId())
+                .orElseThrow(() -> paymentRepository.existsById(paymentId) ?
+                        new AccessDeniedException("Access denied") : new EntityNotFoundException("Payment not found"));
+    }
+
     private Payment getPayment(String uuid) {
         return paymentRepository.findById(UUID.fromString(uuid)).
                orElseThrow(() -> new EntityNotFoundException("Payment not found"));
@@ -1,61 +1,217 @@
 package com.soaresdev.productorderapi.services;
 
+import com.soaresdev.productorderapi.cache.CompressedResponseCache;
+import com.soaresdev.productorderapi.cache.ProductSnapshotCache;
+import com.soaresdev.productorderapi.configs.CacheConfig;
+import com.soaresdev.productorderapi.dtos.FieldSet;
+import com.soaresdev.productorderapi.dtos.ProductBulkUpdateResultDTO;
 import com.soaresdev.productorderapi.dtos.ProductDTO;
+import com.soaresdev.productorderapi.dtos.ProductPriceDTO;
+import com.soaresdev.productorderapi.dtos.ProductSearchDTO;
+import com.soaresdev.productorderapi.dtos.insertDTOs.ProductBulkUpdateDTO;
 import com.soaresdev.productorderapi.dtos.insertDTOs.ProductCategoryInsertDTO;
 import com.soaresdev.productorderapi.dtos.insertDTOs.ProductInsertDTO;
+import com.soaresdev.productorderapi.dtos.insertDTOs.ProductPriceBatchInsertDTO;
+import com.soaresdev.productorderapi.dtos.insertDTOs.ProductPriceInsertDTO;
 import com.soaresdev.productorderapi.entities.Category;
 import com.soaresdev.productorderapi.entities.Product;
+import com.soaresdev.productorderapi.entities.ProductPrice;
 import com.soaresdev.productorderapi.repositories.CategoryRepository;
+import com.soaresdev.productorderapi.repositories.ProductPriceRepository;
 import com.soaresdev.productorderapi.repositories.ProductRepository;
+import com.soaresdev.productorderapi.repositories.ProductSearchRepository;
 import jakarta.persistence.EntityExistsException;
 import jakarta.persistence.EntityNotFoundException;
 import org.modelmapper.ModelMapper;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.soaresdev.productorderapi.utils.Utils.hydrate;
 
 @Service
 public class ProductService {
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final ModelMapper modelMapper;
+    private final CompressedResponseCache compressedResponseCache;
+    private final ProductSnapshotCache productSnapshotCache;
+    private final ProductPriceRepository productPriceRepository;
+    private final Clock clock;
 
-    public ProductService(ProductRepository productRepository, CategoryRepository categoryRepository, ModelMapper modelMapper) {
+    public ProductService(ProductRepository productRepository, CategoryRepository categoryRepository, ModelMapper modelMapper,
+                          CompressedResponseCache compressedResponseCache, ProductSnapshotCache productSnapshotCache,
+                          ProductPriceRepository productPriceRepository, Clock clock) {
         this.productRepository = productRepository;
         this.categoryRepository = categoryRepository;
         this.modelMapper = modelMapper;
+        this.compressedResponseCache = compressedResponseCache;
+        this.productSnapshotCache = productSnapshotCache;
+        this.productPriceRepository = productPriceRepository;
+        this.clock = clock;
     }
 
-    public Page<ProductDTO> findAll(Pageable pageable) {
+    @Transactional(readOnly = true)
+    public Page<ProductDTO> findAll(Pageable pageable, FieldSet fieldSet) {
+        if(!fieldSet.includes("categories"))
+            return productRepository.findAllWithoutCategories(pageable);
         return productRepository.findAll(pageable).map(ProductDTO::new);
     }
 
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS, key = CacheConfig.UUID_KEY)
+    @Transactional(readOnly = true)
     public ProductDTO findByUUID(String uuid) {
         return new ProductDTO(getProduct(uuid));
     }
 
+    @Transactional(readOnly = true)
+    public ProductSearchDTO search(String text, String categoryUuid, BigDecimal minPrice, BigDecimal maxPrice,
+                                   Pageable pageable) {
+        if(minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0)
+            throw new IllegalArgumentException("Min price can not be greater than max price");
+        pageable.getSort().stream().filter(order -> !ProductSearchRepository.SORT_PROPERTIES.contains(order.getProperty()))
+                .findFirst().ifPresent(order -> {
+                    throw new IllegalArgumentException("Invalid sort property: " + order.getProperty());
+                });
+        String searchText = text == null || text.isBlank() ? null : text.strip();
+        UUID categoryId = categoryUuid == null ? null : UUID.fromString(categoryUuid);
+
+        Page<UUID> ids = productRepository.searchIds(searchText, categoryId, minPrice, maxPrice, pageable);
+        Map<UUID, Product> products = productRepository.findByIdIn(ids.getContent()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        Page<ProductDTO> page = hydrate(ids, products, ProductDTO::new);
+        return new ProductSearchDTO(page, productRepository.countCategoryFacets(searchText, minPrice, maxPrice));
+    }
+
+    //A product without history never changed its price since the history started, so its current price answers.
+    //Deleted products and moments before the product existed have no price; without a creation moment, the first
+    //recorded change is the earliest moment the product is known to have existed
+    @Transactional(readOnly = true)
+    public ProductPriceDTO findPriceAt(String uuid, Instant at) {
+        Product product = getProduct(uuid);
+        Instant moment = at == null ? clock.instant() : at;
+        Instant existsSince = product.getCreatedAt();
+        if(existsSince == null)
+            existsSince = productPriceRepository.findFirstByProductIdAndValidFromGreaterThanOrderByValidFromAsc(
+                    product.getId(), ProductPrice.BEFORE_HISTORY).map(ProductPrice::getValidFrom).orElse(null);
+        if(existsSince != null && moment.isBefore(existsSince))
+            throw new EntityNotFoundException("Product did not exist at the given moment");
+
+        Optional<ProductPrice> recorded = productPriceRepository
+                .findFirstByProductIdAndValidFromLessThanEqualOrderByValidFromDesc(product.getId(), moment);
+        BigDecimal price = recorded.isPresent() ? recorded.get().getPrice() : product.getPrice();
+        return new ProductPriceDTO(product.getId(), moment, price);
+    }
+
     @Transactional
     public ProductDTO insert(ProductInsertDTO productInsertDTO) {
         Product product = modelMapper.map(productInsertDTO, Product.class);
+        product.setCreatedAt(clock.instant());
         product = productRepository.save(product);
+        compressedResponseCache.invalidate(CompressedResponseCache.PRODUCTS_PATH);
         return new ProductDTO(product);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = CacheConfig.UUID_KEY)
     @Transactional
     public void deleteByUUID(String uuid) {
-        productRepository.delete(getProduct(uuid));
+        Product product = getProduct(uuid);
+        productRepository.delete(product);
+        compressedResponseCache.invalidate(CompressedResponseCache.PRODUCTS_PATH);
+        productSnapshotCache.invalidate(product.getId());
     }
 
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = CacheConfig.UUID_KEY)
     @Transactional
     public ProductDTO updateByUUID(String uuid, ProductInsertDTO productInsertDTO) {
-        Product product = getProduct(uuid);
+        Product product = productRepository.findByIdForUpdate(UUID.fromString(uuid))
+                .orElseThrow(() -> new EntityNotFoundException("Product not found"));
+        BigDecimal previousPrice = product.getPrice();
         modelMapper.map(productInsertDTO, product);
         product = productRepository.save(product);
+        if(previousPrice.compareTo(product.getPrice()) != 0) {
+            List<ProductPrice> history = new ArrayList<>(2);
+            addPriceChange(history, product.getId(), previousPrice, product.getPrice(),
+                    productPriceRepository.existsByProductId(product.getId()), clock.instant());
+            productPriceRepository.saveAll(history);
+        }
+        compressedResponseCache.invalidate(CompressedResponseCache.PRODUCTS_PATH);
+        productSnapshotCache.invalidate(product.getId());
         return new ProductDTO(product);
     }
 
+    //One select for the products and one for their history, then batched updates and inserts on flush
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS, allEntries = true)
+    @Transactional
+    public List<ProductPriceDTO> updatePrices(ProductPriceBatchInsertDTO productPriceBatchInsertDTO) {
+        Map<UUID, BigDecimal> prices = new LinkedHashMap<>();
+        for(ProductPriceInsertDTO productPriceInsertDTO : productPriceBatchInsertDTO.getPrices()) {
+            if(prices.put(UUID.fromString(productPriceInsertDTO.getProduct_id()), productPriceInsertDTO.getPrice()) != null)
+                throw new IllegalArgumentException("Duplicate product in price update");
+        }
+        Map<UUID, Product> products = productRepository.findAllByIdForUpdate(prices.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        if(products.size() != prices.size())
+            throw new EntityNotFoundException("Product not found");
+
+        Set<UUID> withHistory = productPriceRepository.findProductIdsWithHistory(prices.keySet());
+        Instant now = clock.instant();
+        List<ProductPrice> history = new ArrayList<>();
+        List<ProductPriceDTO> result = new ArrayList<>(prices.size());
+        for(Map.Entry<UUID, BigDecimal> entry : prices.entrySet()) {
+            Product product = products.get(entry.getKey());
+            if(product.getPrice().compareTo(entry.getValue()) != 0) {
+                addPriceChange(history, product.getId(), product.getPrice(), entry.getValue(),
+                        withHistory.contains(product.getId()), now);
+                product.setPrice(entry.getValue());
+            }
+            result.add(new ProductPriceDTO(product.getId(), now, product.getPrice()));
+        }
+        productRepository.saveAll(products.values());
+        productPriceRepository.saveAll(history);
+        compressedResponseCache.invalidate(CompressedResponseCache.PRODUCTS_PATH);
+        products.keySet().forEach(productSnapshotCache::invalidate);
+        return result;
+    }
+
+    //A filter is required, so a request can not reprice the whole catalog by mistake
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS, allEntries = true)
+    @Transactional
+    public ProductBulkUpdateResultDTO bulkUpdate(ProductBulkUpdateDTO productBulkUpdateDTO) {
+        if(!productBulkUpdateDTO.hasFilter())
+            throw new IllegalArgumentException("At least one filter is required");
+        if(productBulkUpdateDTO.getPrice() != null && productBulkUpdateDTO.getPricePercentage() != null)
+            throw new IllegalArgumentException("Price and price percentage can not be combined");
+        if(!productBulkUpdateDTO.changesPrice() && productBulkUpdateDTO.getDescription() == null)
+            throw new IllegalArgumentException("No change was given");
+        if(productBulkUpdateDTO.getMinPrice() != null && productBulkUpdateDTO.getMaxPrice() != null &&
+           productBulkUpdateDTO.getMinPrice().compareTo(productBulkUpdateDTO.getMaxPrice()) > 0)
+            throw new IllegalArgumentException("Min price can not be greater than max price");
+
+        int updated = productRepository.bulkUpdate(productBulkUpdateDTO, clock.instant());
+        if(updated > 0) {
+            compressedResponseCache.invalidate(CompressedResponseCache.PRODUCTS_PATH);
+            productSnapshotCache.invalidateAll();
+        }
+        return new ProductBulkUpdateResultDTO(updated);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = CacheConfig.UUID_KEY)
     @Transactional
     public ProductDTO addCategoryByUUID(String product_uuid, ProductCategoryInsertDTO productCategoryInsertDTO) {
         UUID insertDTOCategoryUuid = UUID.fromString(productCategoryInsertDTO.getCategory_uuid());
@@ -69,9 +225,12 @@ public class ProductService {
 
         product.getCategories().add(category);
         product = productRepository.save(product);
+        compressedResponseCache.invalidate(CompressedResponseCache.PRODUCTS_PATH);
+        productSnapshotCache.invalidate(product.getId());
         return new ProductDTO(product);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = CacheConfig.UUID_KEY)
     @Transactional
     public ProductDTO removeCategoryByUUID(String product_uuid, ProductCategoryInsertDTO productCategoryInsertDTO) {
         UUID insertDTOCategoryUuid = UUID.fromString(productCategoryInsertDTO.getCategory_uuid());
@@ -85,9 +244,19 @@ public class ProductService {
 
         product.getCategories().remove(category);
         product = productRepository.save(product);
+        compressedResponseCache.invalidate(CompressedResponseCache.PRODUCTS_PATH);
+        productSnapshotCache.invalidate(product.getId());
         return new ProductDTO(product);
     }
 
+    //The first change of a product also records the price it had until then
+    private void addPriceChange(List<ProductPrice> history, UUID productId, BigDecimal previousPrice, BigDecimal price,
+                                boolean hasHistory, Instant now) {
+        if(!hasHistory)
+            history.add(new ProductPrice(productId, ProductPrice.BEFORE_HISTORY, previousPrice));
+        history.add(new ProductPrice(productId, now, price));
+    }
+
     private Product getProduct(String uuid) {
         return productRepository.findById(UUID.fromString(uuid))
                .orElseThrow(() -> new EntityNotFoundException("Product not found"));
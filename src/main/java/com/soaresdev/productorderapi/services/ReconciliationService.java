@@ -0,0 +1,202 @@
+package com.soaresdev.productorderapi.services;
+
+import com.soaresdev.productorderapi.dtos.ReconciliationIssueDTO;
+import com.soaresdev.productorderapi.dtos.ReconciliationRunDTO;
+import com.soaresdev.productorderapi.entities.ReconciliationCheckpoint;
+import com.soaresdev.productorderapi.entities.ReconciliationIssue;
+import com.soaresdev.productorderapi.entities.ReconciliationRun;
+import com.soaresdev.productorderapi.entities.enums.OrderStatus;
+import com.soaresdev.productorderapi.entities.enums.PaymentStatus;
+import com.soaresdev.productorderapi.entities.enums.ReconciliationIssueType;
+import com.soaresdev.productorderapi.repositories.OrderRepository;
+import com.soaresdev.productorderapi.repositories.ReconciliationCheckpointRepository;
+import com.soaresdev.productorderapi.repositories.ReconciliationIssueRepository;
+import com.soaresdev.productorderapi.repositories.ReconciliationRow;
+import com.soaresdev.productorderapi.repositories.ReconciliationRunRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigInteger;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+//Checks every live order against its completed payment. The id space is split into segments that are read in keyset
+//chunks by parallel workers; each chunk writes its issues and its checkpoint in one short transaction. Nodes running
+//the job at the same time share one run, each chunk is checked by the node that holds its checkpoint row
+@Service
+public class ReconciliationService {
+    private static final Logger logger = LoggerFactory.getLogger(ReconciliationService.class);
+    private static final Set<Integer> PAID_STATUSES = Set.of(OrderStatus.PAID.getCode(), OrderStatus.SHIPPED.getCode(),
+            OrderStatus.DELIVERED.getCode());
+
+    private final OrderRepository orderRepository;
+    private final ReconciliationRunRepository reconciliationRunRepository;
+    private final ReconciliationCheckpointRepository reconciliationCheckpointRepository;
+    private final ReconciliationIssueRepository reconciliationIssueRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+
+    public ReconciliationService(OrderRepository orderRepository, ReconciliationRunRepository reconciliationRunRepository,
+                                 ReconciliationCheckpointRepository reconciliationCheckpointRepository,
+                                 ReconciliationIssueRepository reconciliationIssueRepository,
+                                 TransactionTemplate transactionTemplate, Clock clock) {
+        this.orderRepository = orderRepository;
+        this.reconciliationRunRepository = reconciliationRunRepository;
+        this.reconciliationCheckpointRepository = reconciliationCheckpointRepository;
+        this.reconciliationIssueRepository = reconciliationIssueRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+    }
+
+    //Resumes the unfinished run if there is one, so segments and chunks already checked are not read again
+    public ReconciliationRun reconcile(int segments, int threads, int chunkSize) {
+        if(segments < 1 || threads < 1 || chunkSize < 1)
+            throw new IllegalArgumentException("Segments, threads and chunk size must be positive");
+        ReconciliationRun run = transactionTemplate.execute(status -> startOrResume(segments));
+        List<ReconciliationCheckpoint> pending = reconciliationCheckpointRepository.findByRunIdOrderBySegment(run.getId())
+                .stream().filter(checkpoint -> !checkpoint.getDone()).toList();
+        if(!pending.isEmpty()) {
+            ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, pending.size()),
+                    new CustomizableThreadFactory("reconciliation-"));
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for(ReconciliationCheckpoint checkpoint : pending)
+                    futures.add(executor.submit(() -> reconcileSegment(checkpoint.getId(), chunkSize)));
+                for(Future<?> future : futures)
+                    future.get();
+            }catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Reconciliation interrupted", e);
+            }catch(ExecutionException e) {
+                throw new IllegalStateException("Reconciliation of a segment failed", e.getCause());
+            }finally {
+                executor.shutdownNow();
+            }
+        }
+        return transactionTemplate.execute(status -> finish(run.getId()));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ReconciliationRunDTO> findRuns(Pageable pageable) {
+        return reconciliationRunRepository.findAllByOrderByStartedAtDesc(pageable).map(ReconciliationRunDTO::new);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ReconciliationIssueDTO> findIssues(String runUuid, Pageable pageable) {
+        UUID runId = UUID.fromString(runUuid);
+        if(!reconciliationRunRepository.existsById(runId))
+            throw new EntityNotFoundException("Reconciliation run not found");
+        return reconciliationIssueRepository.findByRunId(runId, pageable).map(ReconciliationIssueDTO::new);
+    }
+
+    private ReconciliationRun startOrResume(int segments) {
+        reconciliationRunRepository.lockRunStart();
+        Optional<ReconciliationRun> unfinished = reconciliationRunRepository.findFirstByFinishedAtIsNullOrderByStartedAtDesc();
+        if(unfinished.isPresent()) {
+            logger.info("Resuming reconciliation run {}", unfinished.get().getId());
+            return unfinished.get();
+        }
+        ReconciliationRun run = reconciliationRunRepository.save(new ReconciliationRun(clock.instant(), segments));
+        List<ReconciliationCheckpoint> checkpoints = new ArrayList<>();
+        for(int segment = 0; segment < segments; segment++)
+            checkpoints.add(new ReconciliationCheckpoint(run.getId(), segment, lowerBound(segment, segments),
+                    upperBound(segment, segments)));
+        reconciliationCheckpointRepository.saveAll(checkpoints);
+        return run;
+    }
+
+    private void reconcileSegment(UUID checkpointId, int chunkSize) {
+        ReconciliationCheckpoint current;
+        do {
+            current = transactionTemplate.execute(status -> reconcileChunk(checkpointId, chunkSize));
+        }while(current != null && !current.getDone());
+    }
+
+    //The checkpoint is read again under its row lock, so a chunk checked by another node is never checked twice. Null
+    //when another node holds it, that node carries on with the segment
+    private ReconciliationCheckpoint reconcileChunk(UUID checkpointId, int chunkSize) {
+        ReconciliationCheckpoint checkpoint = reconciliationCheckpointRepository.findByIdForUpdate(checkpointId).orElse(null);
+        if(checkpoint == null || checkpoint.getDone())
+            return checkpoint;
+        List<ReconciliationRow> rows = orderRepository.findReconciliationRows(checkpoint.getLastOrderId(),
+                checkpoint.getUpperOrderId(), PaymentStatus.COMPLETED.getCode(), PageRequest.of(0, chunkSize));
+        List<ReconciliationIssue> issues = new ArrayList<>();
+        for(ReconciliationRow row : rows)
+            issues.addAll(issuesOf(checkpoint.getRunId(), row));
+        reconciliationIssueRepository.saveAll(issues);
+        UUID lastOrderId = rows.isEmpty() ? null : rows.get(rows.size() - 1).getOrderId();
+        checkpoint.advance(lastOrderId, rows.size(), issues.size(), rows.size() < chunkSize);
+        return reconciliationCheckpointRepository.save(checkpoint);
+    }
+
+    //Left unfinished while segments are still being checked by another node, the last node to finish closes the run
+    private ReconciliationRun finish(UUID runId) {
+        ReconciliationRun run = reconciliationRunRepository.findByIdForUpdate(runId)
+                .orElseThrow(() -> new IllegalStateException("Reconciliation run not found"));
+        if(run.getFinishedAt() != null)
+            return run;
+        long checked = 0;
+        long issues = 0;
+        for(ReconciliationCheckpoint checkpoint : reconciliationCheckpointRepository.findByRunIdOrderBySegment(runId)) {
+            if(!checkpoint.getDone()) {
+                logger.info("Reconciliation run {} is still being checked by another node", runId);
+                return run;
+            }
+            checked += checkpoint.getChecked();
+            issues += checkpoint.getIssues();
+        }
+        run.finish(clock.instant(), checked, issues);
+        if(issues > 0)
+            logger.warn("Reconciliation run {} checked {} orders and found {} issues", runId, checked, issues);
+        else
+            logger.info("Reconciliation run {} checked {} orders and found no issues", runId, checked);
+        return reconciliationRunRepository.save(run);
+    }
+
+    //CANCELED orders with a payment are left out, refunds are not tracked here
+    static List<ReconciliationIssue> issuesOf(UUID runId, ReconciliationRow row) {
+        List<ReconciliationIssue> issues = new ArrayList<>(2);
+        if(OrderStatus.CANCELED.getCode().equals(row.getOrderStatus()))
+            return issues;
+        boolean paid = row.getPaymentId() != null;
+        if(!paid && PAID_STATUSES.contains(row.getOrderStatus()))
+            issues.add(issueOf(runId, ReconciliationIssueType.PAID_WITHOUT_PAYMENT, row));
+        if(paid && OrderStatus.WAITING_PAYMENT.getCode().equals(row.getOrderStatus()))
+            issues.add(issueOf(runId, ReconciliationIssueType.PAYMENT_ON_UNPAID_ORDER, row));
+        if(paid && row.getPaymentAmount().compareTo(row.getItemTotal()) != 0)
+            issues.add(issueOf(runId, ReconciliationIssueType.AMOUNT_MISMATCH, row));
+        return issues;
+    }
+
+    private static ReconciliationIssue issueOf(UUID runId, ReconciliationIssueType issueType, ReconciliationRow row) {
+        return new ReconciliationIssue(runId, issueType, row.getOrderId(), row.getOrderStatus(), row.getItemTotal(),
+                row.getPaymentId(), row.getPaymentAmount());
+    }
+
+    //Segments split the 128 bit id space on the most significant half, compared unsigned as the databases do. The
+    //lower bound is exclusive, so the nil id, which is never generated, is the only one outside every segment
+    public static UUID lowerBound(int segment, int segments) {
+        return segment == 0 ? new UUID(0L, 0L) : upperBound(segment - 1, segments);
+    }
+
+    public static UUID upperBound(int segment, int segments) {
+        long nextStart = BigInteger.ONE.shiftLeft(64).multiply(BigInteger.valueOf(segment + 1L))
+                .divide(BigInteger.valueOf(segments)).longValue();
+        return new UUID(nextStart - 1, -1L);
+    }
+}
@@ -0,0 +1,67 @@
+package com.soaresdev.productorderapi.services;
+
+import com.auth0.jwt.exceptions.InvalidClaimException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.soaresdev.productorderapi.dtos.security.TokenDTO;
+import com.soaresdev.productorderapi.entities.RefreshToken;
+import com.soaresdev.productorderapi.repositories.RefreshTokenRepository;
+import com.soaresdev.productorderapi.security.RevokedTokens;
+import com.soaresdev.productorderapi.security.jwt.JwtTokenProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+public class RefreshTokenService {
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TokenRevocationService tokenRevocationService;
+    private final RevokedTokens revokedTokens;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final Clock clock;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, TokenRevocationService tokenRevocationService,
+                               RevokedTokens revokedTokens, JwtTokenProvider jwtTokenProvider, Clock clock) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.tokenRevocationService = tokenRevocationService;
+        this.revokedTokens = revokedTokens;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.clock = clock;
+    }
+
+    //A login starts a new family
+    @Transactional
+    public TokenDTO issue(String email, List<String> roles) {
+        return issue(email, roles, UUID.randomUUID());
+    }
+
+    //Each refresh token can be used once, markRotated only succeeds for a token that was never rotated. Presenting an
+    //already rotated one means it leaked, so the whole family (the attacker's and the owner's tokens) is revoked; the
+    //revocation must survive the exception
+    @Transactional(noRollbackFor = InvalidClaimException.class)
+    public TokenDTO rotate(DecodedJWT refreshToken) {
+        UUID tokenId = JwtTokenProvider.parseUuid(refreshToken.getId());
+        UUID familyId = JwtTokenProvider.getFamilyId(refreshToken);
+        if(tokenId == null || familyId == null || revokedTokens.isRevoked(familyId))
+            throw new InvalidClaimException("Invalid or expired token");
+
+        if(refreshTokenRepository.markRotated(tokenId, clock.instant()) == 0) {
+            if(!refreshTokenRepository.existsById(tokenId))
+                throw new InvalidClaimException("Invalid or expired token");
+            tokenRevocationService.revokeFamily(familyId);
+            throw new InvalidClaimException("Refresh token reuse detected");
+        }
+
+        return issue(refreshToken.getSubject(), refreshToken.getClaim("roles").asList(String.class), familyId);
+    }
+
+    private TokenDTO issue(String email, List<String> roles, UUID familyId) {
+        UUID tokenId = UUID.randomUUID();
+        TokenDTO tokenDTO = jwtTokenProvider.createToken(email, roles, familyId, tokenId);
+        refreshTokenRepository.save(new RefreshToken(tokenId, familyId, email,
+                tokenDTO.getCreation().plus(JwtTokenProvider.REFRESH_TOKEN_DURATION)));
+        return tokenDTO;
+    }
+}
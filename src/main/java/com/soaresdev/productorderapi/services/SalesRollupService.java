@@ -0,0 +1,115 @@
+package com.soaresdev.productorderapi.services;
+
+import com.soaresdev.productorderapi.entities.SalesRollup;
+import com.soaresdev.productorderapi.entities.enums.PaymentStatus;
+import com.soaresdev.productorderapi.entities.enums.SalesDimension;
+import com.soaresdev.productorderapi.repositories.SalesRollupDayRepository;
+import com.soaresdev.productorderapi.repositories.SalesRollupRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class SalesRollupService {
+    public static final ZoneOffset ROLLUP_ZONE = ZoneOffset.UTC;
+    //Live payments still pending or declined are left out, the archive only holds completed ones
+    private static final Integer COMPLETED = PaymentStatus.COMPLETED.getCode();
+
+    private final SalesRollupRepository salesRollupRepository;
+    private final SalesRollupDayRepository salesRollupDayRepository;
+
+    public SalesRollupService(SalesRollupRepository salesRollupRepository,
+                              SalesRollupDayRepository salesRollupDayRepository) {
+        this.salesRollupRepository = salesRollupRepository;
+        this.salesRollupDayRepository = salesRollupDayRepository;
+    }
+
+    public static LocalDate dayOf(Instant moment) {
+        return LocalDate.ofInstant(moment, ROLLUP_ZONE);
+    }
+
+    //Rebuilding a whole day is idempotent, so replays of the same payment event are harmless. The outbox sink and the
+    //catch-up job can rebuild the same day at once, so the day row is locked until commit and the second rebuild waits
+    //instead of inserting the same rollup buckets. Days are always rebuilt in ascending order, which rules out deadlocks
+    @Transactional
+    public void rebuildDay(LocalDate day) {
+        salesRollupDayRepository.insertIfMissing(day);
+        salesRollupDayRepository.findByDayForUpdate(day);
+        Instant start = day.atStartOfDay(ROLLUP_ZONE).toInstant();
+        Instant end = day.plusDays(1).atStartOfDay(ROLLUP_ZONE).toInstant();
+        salesRollupRepository.deleteByDay(day);
+
+        List<SalesRollup> rollups = new ArrayList<>();
+        Object[] total = sum(salesRollupRepository.aggregatePayments(start, end, COMPLETED),
+                salesRollupRepository.aggregateArchivedPayments(start, end));
+        if(toLong(total[0]) > 0)
+            rollups.add(new SalesRollup(day, SalesDimension.TOTAL, "", toLong(total[0]), 0L, toBigDecimal(total[1])));
+        for(Object[] row : mergeByKey(salesRollupRepository.aggregatePaymentsByPaymentType(start, end, COMPLETED),
+                salesRollupRepository.aggregateArchivedPaymentsByPaymentType(start, end)))
+            rollups.add(new SalesRollup(day, SalesDimension.PAYMENT_TYPE, row[0].toString(), toLong(row[1]), 0L,
+                    toBigDecimal(row[2])));
+        for(Object[] row : mergeByKey(salesRollupRepository.aggregateItemsByProduct(start, end, COMPLETED),
+                salesRollupRepository.aggregateArchivedItemsByProduct(start, end)))
+            rollups.add(new SalesRollup(day, SalesDimension.PRODUCT, row[0].toString(), toLong(row[1]), toLong(row[2]),
+                    toBigDecimal(row[3])));
+        for(Object[] row : mergeByKey(salesRollupRepository.aggregateItemsByCategory(start, end, COMPLETED),
+                salesRollupRepository.aggregateArchivedItemsByCategory(start, end)))
+            rollups.add(new SalesRollup(day, SalesDimension.CATEGORY, row[0].toString(), toLong(row[1]), toLong(row[2]),
+                    toBigDecimal(row[3])));
+        salesRollupRepository.saveAll(rollups);
+    }
+
+    @Transactional
+    public void rebuildDays(LocalDate from, LocalDate to) {
+        if(from.isAfter(to))
+            throw new IllegalArgumentException("Start date can not be after end date");
+        for(LocalDate day = from; !day.isAfter(to); day = day.plusDays(1))
+            rebuildDay(day);
+    }
+
+    //An order is either live or archived, never both, so the two sides of a day add up without double counting
+    private Object[] sum(List<Object[]> live, List<Object[]> archived) {
+        Object[] total = new Object[]{0L, BigDecimal.ZERO};
+        for(Object[] row : live)
+            total = add(total, row, 0);
+        for(Object[] row : archived)
+            total = add(total, row, 0);
+        return total;
+    }
+
+    private Collection<Object[]> mergeByKey(List<Object[]> live, List<Object[]> archived) {
+        if(archived.isEmpty())
+            return live;
+        Map<Object, Object[]> merged = new LinkedHashMap<>();
+        for(Object[] row : live)
+            merged.put(row[0], row);
+        for(Object[] row : archived)
+            merged.merge(row[0], row, (current, added) -> add(current, added, 1));
+        return merged.values();
+    }
+
+    private Object[] add(Object[] current, Object[] added, int from) {
+        Object[] sum = current.clone();
+        for(int i = from; i < sum.length; i++)
+            sum[i] = toBigDecimal(current[i]).add(toBigDecimal(added[i]));
+        return sum;
+    }
+
+    private long toLong(Object value) {
+        return value == null ? 0L : ((Number) value).longValue();
+    }
+
+    private BigDecimal toBigDecimal(Object value) {
+        if(value == null)
+            return BigDecimal.ZERO;
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
+}
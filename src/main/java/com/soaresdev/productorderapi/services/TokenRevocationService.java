@@ -0,0 +1,81 @@
+package com.soaresdev.productorderapi.services;
+
+import com.soaresdev.productorderapi.entities.RevokedToken;
+import com.soaresdev.productorderapi.repositories.RefreshTokenFamily;
+import com.soaresdev.productorderapi.repositories.RefreshTokenRepository;
+import com.soaresdev.productorderapi.repositories.RevokedTokenRepository;
+import com.soaresdev.productorderapi.security.RevocationBus;
+import com.soaresdev.productorderapi.security.RevokedTokens;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.UUID;
+
+//Kept apart from RefreshTokenService so UserService can revoke sessions without depending on the token provider.
+//Revocations are broadcast after commit, so the in-memory RevokedTokens of every node learn them, not only this one
+@Service
+public class TokenRevocationService {
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final RevokedTokens revokedTokens;
+    private final RevocationBus revocationBus;
+    private final Clock clock;
+
+    public TokenRevocationService(RefreshTokenRepository refreshTokenRepository, RevokedTokenRepository revokedTokenRepository,
+                                  RevokedTokens revokedTokens, RevocationBus revocationBus, Clock clock) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.revokedTokens = revokedTokens;
+        this.revocationBus = revocationBus;
+        this.clock = clock;
+        revocationBus.subscribe(revokedTokens::revoke);
+    }
+
+    //Only needs to be remembered until the revoked token would have expired anyway. Nodes learn it after commit, a
+    //rolled back revocation (e.g. of a failed user update) never rejects the token
+    @Transactional
+    public void revokeToken(UUID id, Instant expiresAt) {
+        RevokedToken revokedToken = new RevokedToken(id, expiresAt);
+        revokedTokenRepository.save(revokedToken);
+        if(TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    broadcast(revokedToken);
+                }
+            });
+        }else {
+            broadcast(revokedToken);
+        }
+    }
+
+    @Transactional
+    public void revokeFamily(UUID familyId) {
+        Instant expiresAt = refreshTokenRepository.findLastExpirationOfFamily(familyId);
+        if(expiresAt != null)
+            revokeToken(familyId, expiresAt);
+    }
+
+    @Transactional
+    public void revokeAllOf(String email) {
+        for(RefreshTokenFamily family : refreshTokenRepository.findLiveFamiliesByEmail(email, clock.instant()))
+            revokeToken(family.getFamilyId(), family.getExpiresAt());
+    }
+
+    @Transactional
+    public int purgeExpired() {
+        Instant now = clock.instant();
+        refreshTokenRepository.deleteExpired(now);
+        int purged = revokedTokenRepository.deleteExpired(now);
+        revokedTokens.evictExpired(now);
+        return purged;
+    }
+
+    private void broadcast(RevokedToken revokedToken) {
+        revokedTokens.revoke(revokedToken.getId(), revokedToken.getExpiresAt());
+        revocationBus.publish(revokedToken.getId(), revokedToken.getExpiresAt());
+    }
+}
@@ -1,16 +1,22 @@
 package com.soaresdev.productorderapi.services;
 
+import com.soaresdev.productorderapi.configs.CacheConfig;
 import com.soaresdev.productorderapi.dtos.UserDTO;
 import com.soaresdev.productorderapi.dtos.insertDTOs.UserInsertDTO;
 import com.soaresdev.productorderapi.dtos.insertDTOs.UserRoleInsertDTO;
 import com.soaresdev.productorderapi.entities.User;
 import com.soaresdev.productorderapi.repositories.RoleRepository;
 import com.soaresdev.productorderapi.repositories.UserRepository;
+import com.soaresdev.productorderapi.security.AuthorizedPrincipal;
 import jakarta.persistence.EntityExistsException;
 import jakarta.persistence.EntityNotFoundException;
 import org.modelmapper.ModelMapper;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
@@ -24,23 +30,41 @@ public class UserService implements UserDetailsService {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final ModelMapper modelMapper;
+    private final OrderSummaryService orderSummaryService;
+    private final TokenRevocationService tokenRevocationService;
+    private final CacheManager cacheManager;
 
-    public UserService(UserRepository userRepository, RoleRepository roleRepository, ModelMapper modelMapper) {
+    public UserService(UserRepository userRepository, RoleRepository roleRepository, ModelMapper modelMapper,
+                       OrderSummaryService orderSummaryService, TokenRevocationService tokenRevocationService,
+                       CacheManager cacheManager) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.modelMapper = modelMapper;
+        this.orderSummaryService = orderSummaryService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.cacheManager = cacheManager;
     }
 
+    //Login only, the password hash is checked against the user as it is now
     @Override
     public UserDetails loadUserByUsername(String email) {
         return userRepository.findByEmailWithEagerRoles(email).
                orElseThrow(() -> new EntityNotFoundException("Email not exists"));
     }
 
+    //Called for every authenticated request, see JwtTokenProvider.getAuthentication
+    @Cacheable(cacheNames = CacheConfig.PRINCIPALS, key = "#p0")
+    public AuthorizedPrincipal loadPrincipal(String email) {
+        return AuthorizedPrincipal.of(userRepository.findByEmailWithEagerRoles(email).
+               orElseThrow(() -> new EntityNotFoundException("Email not exists")));
+    }
+
+    @Transactional(readOnly = true)
     public Page<UserDTO> findAll(Pageable pageable) {
         return userRepository.findAll(pageable).map(UserDTO::new);
     }
 
+    @Transactional(readOnly = true)
     public UserDTO findByUUID(String uuid) {
         return new UserDTO(getUser(uuid));
     }
@@ -57,24 +81,28 @@ public class UserService implements UserDetailsService {
 
     @Transactional
     public void deleteByUUID(String uuid) {
-        User user = getUser(uuid);
-        if(!isContextUserAdmin())
-            ifUserIsNotSameThrowsException(user, getContextUser());
+        User user = isContextUserAdmin() ? getUser(uuid) : getSelf(uuid);
 
         userRepository.delete(user);
+        orderSummaryService.clientDeleted(user.getId());
+        tokenRevocationService.revokeAllOf(user.getEmail());
+        evictPrincipal(user.getEmail());
     }
 
     @Transactional
     public UserDTO updateByUUID(String uuid, UserInsertDTO userInsertDTO) {
-        User user = getUser(uuid);
-        if(!isContextUserAdmin())
-            ifUserIsNotSameThrowsException(user, getContextUser());
+        User user = isContextUserAdmin() ? getUser(uuid) : getSelf(uuid);
         if(!userInsertDTO.getEmail().equals(user.getEmail()) &&
                 userRepository.existsByEmail(userInsertDTO.getEmail()))
             throw new EntityExistsException("Email already exists");
 
+        String oldEmail = user.getEmail();
         modelMapper.map(userInsertDTO, user, "updateUserConverter");
         user = userRepository.save(user);
+        //Tokens are bound to the email they were issued for
+        if(!oldEmail.equals(user.getEmail()))
+            tokenRevocationService.revokeAllOf(oldEmail);
+        evictPrincipal(oldEmail);
         return new UserDTO(user);
     }
 
@@ -84,8 +112,10 @@ public class UserService implements UserDetailsService {
         if(user.getRoleNames().contains(userRoleInsertDTO.getRoleName().toString().toUpperCase()))
             throw new EntityExistsException("Role already exists in this user");
 
-        user.getRoles().add(roleRepository.findByRoleNameCode(userRoleInsertDTO.getRoleName().getCode()));
+        user.getRoles().add(roleRepository.getReferenceById(
+                roleRepository.findIdByRoleNameCode(userRoleInsertDTO.getRoleName().getCode())));
         userRepository.save(user);
+        evictPrincipal(user.getEmail());
     }
 
     @Transactional
@@ -94,8 +124,25 @@ public class UserService implements UserDetailsService {
         if(!user.getRoleNames().contains(userRoleInsertDTO.getRoleName().toString().toUpperCase()))
             throw new EntityNotFoundException("Role not found in this user");
 
-        user.getRoles().remove(roleRepository.findByRoleNameCode(userRoleInsertDTO.getRoleName().getCode()));
+        Integer roleNameCode = userRoleInsertDTO.getRoleName().getCode();
+        user.getRoles().removeIf(role -> roleNameCode.equals(role.getRoleNameCode()));
         userRepository.save(user);
+        evictPrincipal(user.getEmail());
+    }
+
+    //The cached principal is keyed by the email it was loaded with, which the caller may be changing
+    private void evictPrincipal(String email) {
+        Cache principals = cacheManager.getCache(CacheConfig.PRINCIPALS);
+        if(principals != null)
+            principals.evict(email);
+    }
+
+    //Only the authenticated user itself is loaded, other ids are answered with an existence check
+    private User getSelf(String uuid) {
+        if(!getAuthorizedPrincipal().isSelf(uuid))
+            throw userRepository.existsById(UUID.fromString(uuid)) ?
+                    new AccessDeniedException("Access denied") : new EntityNotFoundException("User not found");
+        return getUser(uuid);
     }
 
     private User getUser(String uuid) {
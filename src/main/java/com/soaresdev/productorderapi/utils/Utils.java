@@ -1,27 +1,42 @@
 package com.soaresdev.productorderapi.utils;
 
 import com.soaresdev.productorderapi.entities.User;
-import com.soaresdev.productorderapi.entities.enums.RoleName;
-import org.springframework.security.access.AccessDeniedException;
+import com.soaresdev.productorderapi.security.AuthorizedPrincipal;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
 
 public class Utils {
     private Utils() {
     }
 
-    public static User getContextUser() {
-        return (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+    public static AuthorizedPrincipal getAuthorizedPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if(authentication.getDetails() instanceof AuthorizedPrincipal authorizedPrincipal)
+            return authorizedPrincipal;
+        //Authentications not created by JwtTokenProvider (login) carry no view, so it is built from the principal
+        return AuthorizedPrincipal.of((User) authentication.getPrincipal());
     }
 
     public static boolean isContextUserAdmin() {
-        User contextUser = getContextUser();
-        return contextUser.getRoleNames().contains(RoleName.ROLE_ADMIN.toString());
+        return getAuthorizedPrincipal().isAdmin();
     }
 
-    public static void ifUserIsNotSameThrowsException(User userOne, User userTwo) {
-        String userOneEmail = userOne.getEmail();
-        String userTwoEmail = userTwo.getEmail();
-        if(!userOneEmail.equals(userTwoEmail))
-            throw new AccessDeniedException("Access denied");
+    public static boolean isContextUserManagerOrAdmin() {
+        return getAuthorizedPrincipal().isManagerOrAdmin();
     }
-}
\ No newline at end of file
+
+    //Maps a page of ids to the rows loaded for them in id order. Ids whose row was deleted between the two queries are
+    //left out of the page and its total
+    public static <T, R> Page<R> hydrate(Page<UUID> ids, Map<UUID, T> rows, Function<T, R> mapper) {
+        List<R> content = ids.getContent().stream().filter(rows::containsKey).map(id -> mapper.apply(rows.get(id)))
+                .toList();
+        long missing = ids.getNumberOfElements() - content.size();
+        return new PageImpl<>(content, ids.getPageable(), ids.getTotalElements() - missing);
+    }
+}
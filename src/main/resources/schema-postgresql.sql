@@ -0,0 +1,6 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+ALTER TABLE tb_product ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (setweight(to_tsvector('simple', coalesce(name, '')), 'A') || setweight(to_tsvector('simple', coalesce(description, '')), 'B')) STORED;
+CREATE INDEX IF NOT EXISTS idx_product_search_vector ON tb_product USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS idx_product_name_trgm ON tb_product USING GIN (name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_product_price ON tb_product (price);
+CREATE INDEX IF NOT EXISTS idx_product_category_category ON tb_product_category (category_id, product_id);
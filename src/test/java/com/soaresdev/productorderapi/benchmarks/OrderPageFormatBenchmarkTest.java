@@ -0,0 +1,97 @@
+package com.soaresdev.productorderapi.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.soaresdev.productorderapi.dtos.*;
+import com.soaresdev.productorderapi.entities.enums.OrderStatus;
+import com.soaresdev.productorderapi.entities.enums.PaymentType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// mvn test -Pbenchmark -Dtest=OrderPageFormatBenchmarkTest -Dbenchmark.orders=1000
+@Tag("benchmark")
+class OrderPageFormatBenchmarkTest {
+    private static final Logger logger = LoggerFactory.getLogger(OrderPageFormatBenchmarkTest.class);
+    private static final int ORDERS = Integer.getInteger("benchmark.orders", 1_000);
+    private static final int ITEMS_PER_ORDER = 5;
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 50;
+
+    private static Page<OrderDTO> page;
+    private static Map<String, ObjectMapper> mappers;
+
+    @BeforeAll
+    static void setup() {
+        List<OrderDTO> orders = new ArrayList<>();
+        for(int i = 0; i < ORDERS; i++) {
+            UserDTO client = new UserDTO(UUID.randomUUID(), "Client " + i, "client" + i + "@gmail.com", "1199999" + i);
+            PaymentDTO paymentDTO = new PaymentDTO(Instant.now(), PaymentType.PIX, BigDecimal.valueOf(i));
+            OrderDTO orderDTO = new OrderDTO(UUID.randomUUID(), Instant.now(), client, OrderStatus.PAID, paymentDTO);
+            for(int j = 0; j < ITEMS_PER_ORDER; j++) {
+                ProductDTO productDTO = new ProductDTO(UUID.randomUUID(), "Product " + j, "Description of product " + j,
+                        BigDecimal.valueOf(j + 0.99), "https://img.com/" + j);
+                productDTO.getCategories().add(new CategoryDTO("Category " + j, UUID.randomUUID()));
+                orderDTO.getItems().add(new OrderItemDTO(j + 1, productDTO.getPrice(),
+                        productDTO.getPrice().multiply(BigDecimal.valueOf(j + 1)), productDTO));
+            }
+            orderDTO.setTotal(BigDecimal.valueOf(i * 10L));
+            orders.add(orderDTO);
+        }
+        page = new PageImpl<>(orders, PageRequest.of(0, ORDERS), ORDERS * 10L);
+
+        mappers = new LinkedHashMap<>();
+        mappers.put("application/json", Jackson2ObjectMapperBuilder.json().filters(FieldSet.filters()).build());
+        mappers.put("application/xml", Jackson2ObjectMapperBuilder.xml().filters(FieldSet.filters()).build());
+        mappers.put("application/cbor", Jackson2ObjectMapperBuilder.json().filters(FieldSet.filters()).factory(new CBORFactory()).build());
+        mappers.put("application/x-jackson-smile", Jackson2ObjectMapperBuilder.json().filters(FieldSet.filters()).factory(new SmileFactory()).build());
+    }
+
+    @Test
+    void compareOrderPageFormats() throws Exception {
+        Map<String, Integer> sizes = new LinkedHashMap<>();
+        logger.info("Page<OrderDTO> with {} orders x {} items", ORDERS, ITEMS_PER_ORDER);
+        logger.info(String.format("%-28s %12s %14s %14s", "format", "bytes", "encode ms/op", "decode ms/op"));
+        for(Map.Entry<String, ObjectMapper> entry : mappers.entrySet()) {
+            ObjectMapper mapper = entry.getValue();
+            byte[] bytes = mapper.writeValueAsBytes(page);
+            for(int i = 0; i < WARMUP; i++)
+                mapper.readTree(mapper.writeValueAsBytes(page));
+
+            long start = System.nanoTime();
+            for(int i = 0; i < ITERATIONS; i++)
+                bytes = mapper.writeValueAsBytes(page);
+            double encodeMs = (System.nanoTime() - start) / 1_000_000.0 / ITERATIONS;
+
+            JsonNode tree = null;
+            start = System.nanoTime();
+            for(int i = 0; i < ITERATIONS; i++)
+                tree = mapper.readTree(bytes);
+            double decodeMs = (System.nanoTime() - start) / 1_000_000.0 / ITERATIONS;
+
+            assertNotNull(tree);
+            sizes.put(entry.getKey(), bytes.length);
+            logger.info(String.format("%-28s %12d %14.3f %14.3f", entry.getKey(), bytes.length, encodeMs, decodeMs));
+        }
+
+        assertTrue(sizes.get("application/cbor") < sizes.get("application/json"));
+        assertTrue(sizes.get("application/x-jackson-smile") < sizes.get("application/json"));
+    }
+}
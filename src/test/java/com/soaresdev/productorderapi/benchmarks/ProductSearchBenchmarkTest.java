@@ -0,0 +1,124 @@
+package com.soaresdev.productorderapi.benchmarks;
+
+import com.soaresdev.productorderapi.dtos.CategoryFacetDTO;
+import com.soaresdev.productorderapi.entities.Product;
+import com.soaresdev.productorderapi.repositories.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//Times the tsvector/pg_trgm path, so it only runs against PostgreSQL: H2 would time the LIKE fallback instead.
+//Point it at a throwaway database, the generated catalog is rolled back after each test
+// BENCHMARK_POSTGRES_URL=jdbc:postgresql://localhost:5432/bench BENCHMARK_POSTGRES_USER=... BENCHMARK_POSTGRES_PASSWORD=...
+// mvn test -Pbenchmark -Dtest=ProductSearchBenchmarkTest -Dbenchmark.products=1000000
+@Tag("benchmark")
+@EnabledIfEnvironmentVariable(named = "BENCHMARK_POSTGRES_URL", matches = ".+")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles(value = "test")
+class ProductSearchBenchmarkTest {
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchBenchmarkTest.class);
+    private static final int PRODUCTS = Integer.getInteger("benchmark.products", 1_000_000);
+    private static final int CATEGORIES = 20;
+    private static final int WARMUP = 3;
+    private static final int ITERATIONS = 10;
+    private static final String UUID_PREFIX = "'00000000-0000-4000-8000-' || LPAD(CAST(%s AS VARCHAR), 12, '0')";
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getenv("BENCHMARK_POSTGRES_URL"));
+        registry.add("spring.datasource.username", () -> System.getenv("BENCHMARK_POSTGRES_USER"));
+        registry.add("spring.datasource.password", () -> System.getenv("BENCHMARK_POSTGRES_PASSWORD"));
+        registry.add("spring.datasource.driverClassName", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.sql.init.mode", () -> "always");
+        registry.add("spring.sql.init.platform", () -> "postgresql");
+    }
+
+    @BeforeEach
+    void generateCatalog() {
+        long start = System.nanoTime();
+        entityManager.createNativeQuery("INSERT INTO tb_category (id, name) SELECT CAST(" +
+                UUID_PREFIX.formatted("x") + " AS UUID), 'Category ' || x FROM generate_series(1, " + CATEGORIES +
+                ") AS g(x)").executeUpdate();
+        entityManager.createNativeQuery("INSERT INTO tb_product (id, name, description, price, img_url) " +
+                "SELECT CAST(" + UUID_PREFIX.formatted("x + 1000") + " AS UUID), " +
+                "'Product ' || x || CASE MOD(x, 10) WHEN 0 THEN ' phone' WHEN 1 THEN ' book' ELSE ' item' END, " +
+                "'Generated description ' || x, MOD(x, 5000) + 1, 'https://img.com/' || x " +
+                "FROM generate_series(1, " + PRODUCTS + ") AS g(x)").executeUpdate();
+        entityManager.createNativeQuery("INSERT INTO tb_product_category (product_id, category_id) " +
+                "SELECT CAST(" + UUID_PREFIX.formatted("x + 1000") + " AS UUID), " +
+                "CAST(" + UUID_PREFIX.formatted("MOD(x, " + CATEGORIES + ") + 1") + " AS UUID) " +
+                "FROM generate_series(1, " + PRODUCTS + ") AS g(x)").executeUpdate();
+        entityManager.createNativeQuery("ANALYZE tb_product, tb_product_category").executeUpdate();
+        logger.info("Generated {} products in {} ms", PRODUCTS, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Test
+    void searchByText() {
+        run("text", () -> search("phone", null, null, null));
+    }
+
+    @Test
+    void searchByTextWithTypo() {
+        run("text with typo", () -> search("phnoe", null, null, null));
+    }
+
+    @Test
+    void searchByTextCategoryAndPriceRange() {
+        UUID categoryId = UUID.fromString("00000000-0000-4000-8000-000000000001");
+        run("text+category+price", () -> search("phone", categoryId, BigDecimal.valueOf(100), BigDecimal.valueOf(1000)));
+    }
+
+    @Test
+    void searchByPriceRangeOnly() {
+        run("price", () -> search(null, null, BigDecimal.valueOf(10), BigDecimal.valueOf(20)));
+    }
+
+    private int search(String text, UUID categoryId, BigDecimal minPrice, BigDecimal maxPrice) {
+        Page<UUID> ids = productRepository.searchIds(text, categoryId, minPrice, maxPrice, PageRequest.of(0, 20));
+        List<Product> products = productRepository.findByIdIn(ids.getContent());
+        List<CategoryFacetDTO> facets = productRepository.countCategoryFacets(text, minPrice, maxPrice);
+        entityManager.clear();
+        return products.size() + facets.size();
+    }
+
+    private void run(String name, SearchCall call) {
+        for(int i = 0; i < WARMUP; i++)
+            assertTrue(call.search() > 0);
+        long start = System.nanoTime();
+        for(int i = 0; i < ITERATIONS; i++)
+            call.search();
+        double averageMs = (System.nanoTime() - start) / 1_000_000.0 / ITERATIONS;
+        logger.info("Product search [{}] over {} products: {} ms/op (page + hydrate + facets)",
+                name, PRODUCTS, String.format("%.2f", averageMs));
+    }
+
+    @FunctionalInterface
+    private interface SearchCall {
+        int search();
+    }
+}
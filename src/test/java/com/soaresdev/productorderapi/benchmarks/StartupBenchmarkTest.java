@@ -0,0 +1,65 @@
+package com.soaresdev.productorderapi.benchmarks;
+
+import com.soaresdev.productorderapi.ProductOrderApiApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// mvn test -Pbenchmark -Dtest=StartupBenchmarkTest -Dbenchmark.startup.runs=5
+// Every run is a fresh JVM against H2 that exits as soon as the application is ready (startup.training-run).
+// AOT and AppCDS can be measured on their artifacts with -Dbenchmark.startup.jvm-args, e.g.
+// "-Dspring.aot.enabled=true -XX:SharedArchiveFile=app.jsa" with the class path of the packaged jars
+@Tag("benchmark")
+class StartupBenchmarkTest {
+    private static final Logger logger = LoggerFactory.getLogger(StartupBenchmarkTest.class);
+    private static final int RUNS = Integer.getInteger("benchmark.startup.runs", 3);
+    private static final String JVM_ARGS = System.getProperty("benchmark.startup.jvm-args", "");
+    private static final String CLASS_PATH = System.getProperty("benchmark.startup.class-path",
+            System.getProperty("java.class.path"));
+
+    @Test
+    void startup() throws Exception {
+        run("eager", List.of());
+        run("lazy non-critical beans", List.of("-Dstartup.lazy-non-critical-beans=true"));
+    }
+
+    private void run(String name, List<String> modeArgs) throws Exception {
+        start(modeArgs); //warms the OS file cache, not measured
+        long[] millis = new long[RUNS];
+        for(int i = 0; i < RUNS; i++)
+            millis[i] = start(modeArgs);
+        Arrays.sort(millis);
+        logger.info(String.format("%-24s median %6d ms   min %6d ms   max %6d ms", name, millis[RUNS / 2], millis[0],
+                millis[RUNS - 1]));
+    }
+
+    private long start(List<String> modeArgs) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if(!JVM_ARGS.isBlank())
+            command.addAll(Arrays.asList(JVM_ARGS.trim().split("\\s+")));
+        command.addAll(modeArgs);
+        command.addAll(List.of("-cp", CLASS_PATH, ProductOrderApiApplication.class.getName(),
+                "--spring.profiles.active=test", "--spring.jpa.show-sql=false", "--server.port=0",
+                "--startup.training-run=true"));
+
+        File log = File.createTempFile("startup-benchmark", ".log");
+        log.deleteOnExit();
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log).start();
+        assertTrue(process.waitFor(5, TimeUnit.MINUTES), "Application did not start, see " + log);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        assertEquals(0, process.exitValue(), "Application failed to start, see " + log);
+        return millis;
+    }
+}
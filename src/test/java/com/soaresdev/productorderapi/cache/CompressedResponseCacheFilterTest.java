@@ -0,0 +1,162 @@
+package com.soaresdev.productorderapi.cache;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedResponseCacheFilterTest {
+    private static final String BODY = "{\"content\":\"" + "category".repeat(64) + "\"}";
+
+    private CompressedResponseCache cache;
+    private CompressedResponseCacheFilter filter;
+    private AtomicInteger renders;
+
+    @BeforeEach
+    void setup() {
+        cache = new CompressedResponseCache(256);
+        filter = new CompressedResponseCacheFilter(cache, List.of("/v1/categories", "/v1/products"), 2, "256B");
+        renders = new AtomicInteger();
+    }
+
+    @Test
+    void shouldRenderOnceAndServeCachedGzipAfterwards() throws Exception {
+        MockHttpServletResponse first = perform(request("/v1/categories"), BODY, HttpServletResponse.SC_OK);
+        MockHttpServletResponse second = perform(request("/v1/categories"), BODY, HttpServletResponse.SC_OK);
+
+        assertEquals(1, renders.get());
+        assertEquals("MISS", first.getHeader(CompressedResponseCacheFilter.CACHE_HEADER));
+        assertEquals("HIT", second.getHeader(CompressedResponseCacheFilter.CACHE_HEADER));
+        assertEquals("gzip", second.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("application/json", second.getContentType());
+        assertEquals(BODY, gunzip(first.getContentAsByteArray()));
+        assertEquals(BODY, gunzip(second.getContentAsByteArray()));
+    }
+
+    @Test
+    void shouldRenderAgainAfterInvalidation() throws Exception {
+        perform(request("/v1/products"), BODY, HttpServletResponse.SC_OK);
+        cache.invalidate(CompressedResponseCache.PRODUCTS_PATH);
+        MockHttpServletResponse response = perform(request("/v1/products"), BODY, HttpServletResponse.SC_OK);
+
+        assertEquals(2, renders.get());
+        assertEquals("MISS", response.getHeader(CompressedResponseCacheFilter.CACHE_HEADER));
+    }
+
+    @Test
+    void shouldKeepSeparateEntriesPerAcceptHeader() throws Exception {
+        MockHttpServletRequest xmlRequest = request("/v1/categories");
+        xmlRequest.addHeader(HttpHeaders.ACCEPT, "application/xml");
+
+        perform(request("/v1/categories"), BODY, HttpServletResponse.SC_OK);
+        perform(xmlRequest, BODY, HttpServletResponse.SC_OK);
+
+        assertEquals(2, renders.get());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void shouldShareEntryForReorderedParametersAndEquivalentAcceptHeaders() throws Exception {
+        MockHttpServletRequest first = request("/v1/products");
+        first.setParameter("page", "1");
+        first.setParameter("size", "20");
+        first.setParameter("sort", "name");
+        first.setParameter("fields", "name,price");
+        first.addHeader(HttpHeaders.ACCEPT, "application/json");
+        MockHttpServletRequest second = request("/v1/products");
+        second.setParameter("fields", "price,name");
+        second.setParameter("utm_source", "newsletter");
+        second.setParameter("sort", "name,ASC");
+        second.setParameter("size", "20");
+        second.setParameter("page", "1");
+        second.addHeader(HttpHeaders.ACCEPT, "text/html;q=0.9, application/*;q=0.8, */*;q=0.1");
+
+        perform(first, BODY, HttpServletResponse.SC_OK);
+        MockHttpServletResponse response = perform(second, BODY, HttpServletResponse.SC_OK);
+
+        assertEquals(1, renders.get());
+        assertEquals("HIT", response.getHeader(CompressedResponseCacheFilter.CACHE_HEADER));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void shouldBypassWhenNoCachedTypeIsAccepted() throws Exception {
+        MockHttpServletRequest request = request("/v1/categories");
+        request.addHeader(HttpHeaders.ACCEPT, "text/html");
+
+        MockHttpServletResponse response = perform(request, BODY, HttpServletResponse.SC_OK);
+
+        assertNull(response.getHeader(CompressedResponseCacheFilter.CACHE_HEADER));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldBypassWhenClientDoesNotAcceptGzip() throws Exception {
+        MockHttpServletRequest request = request("/v1/categories");
+        request.removeHeader(HttpHeaders.ACCEPT_ENCODING);
+
+        MockHttpServletResponse response = perform(request, BODY, HttpServletResponse.SC_OK);
+
+        assertNull(response.getHeader(CompressedResponseCacheFilter.CACHE_HEADER));
+        assertEquals(BODY, response.getContentAsString());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldBypassPagesAfterMaxPages() throws Exception {
+        MockHttpServletRequest request = request("/v1/products");
+        request.setParameter("page", "2");
+        request.setQueryString("page=2");
+
+        MockHttpServletResponse response = perform(request, BODY, HttpServletResponse.SC_OK);
+
+        assertNull(response.getHeader(CompressedResponseCacheFilter.CACHE_HEADER));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldNotCacheSmallOrFailedResponses() throws Exception {
+        MockHttpServletResponse small = perform(request("/v1/categories"), "{}", HttpServletResponse.SC_OK);
+        MockHttpServletResponse failed = perform(request("/v1/products"), BODY, HttpServletResponse.SC_FORBIDDEN);
+
+        assertEquals("{}", small.getContentAsString());
+        assertNull(small.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpServletResponse.SC_FORBIDDEN, failed.getStatus());
+        assertEquals(BODY, failed.getContentAsString());
+        assertEquals(0, cache.size());
+    }
+
+    private MockHttpServletRequest request(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+        return request;
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request, String body, int status) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> {
+            renders.incrementAndGet();
+            HttpServletResponse httpResponse = (HttpServletResponse) res;
+            httpResponse.setStatus(status);
+            httpResponse.setContentType("application/json");
+            httpResponse.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+        });
+        return response;
+    }
+
+    private String gunzip(byte[] body) throws IOException {
+        try(GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
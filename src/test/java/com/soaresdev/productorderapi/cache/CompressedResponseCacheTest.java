@@ -0,0 +1,65 @@
+package com.soaresdev.productorderapi.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedResponseCacheTest {
+    private static final String CATEGORIES_KEY = "/v1/categories?|application/json";
+    private static final String PRODUCTS_KEY = "/v1/products?page=1|application/json";
+
+    private CompressedResponseCache cache;
+    private CompressedResponseCache.Entry entry;
+
+    @BeforeEach
+    void setup() {
+        cache = new CompressedResponseCache(2);
+        entry = new CompressedResponseCache.Entry("application/json", new byte[]{1, 2, 3});
+    }
+
+    @Test
+    void shouldStoreEntryWhenGenerationIsUnchanged() {
+        cache.put(CATEGORIES_KEY, entry, cache.generation());
+
+        assertSame(entry, cache.get(CATEGORIES_KEY));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void shouldNotStoreEntryRenderedBeforeAnInvalidation() {
+        long generation = cache.generation();
+        cache.invalidate(CompressedResponseCache.PRODUCTS_PATH);
+
+        cache.put(CATEGORIES_KEY, entry, generation);
+
+        assertNull(cache.get(CATEGORIES_KEY));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldInvalidateOnlyEntriesOfThePath() {
+        cache.put(CATEGORIES_KEY, entry, cache.generation());
+        cache.put(PRODUCTS_KEY, entry, cache.generation());
+
+        cache.invalidate(CompressedResponseCache.PRODUCTS_PATH);
+
+        assertNotNull(cache.get(CATEGORIES_KEY));
+        assertNull(cache.get(PRODUCTS_KEY));
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedEntryWhenFull() {
+        String xmlProductsKey = "/v1/products?|application/xml";
+        cache.put(CATEGORIES_KEY, entry, cache.generation());
+        cache.put(PRODUCTS_KEY, entry, cache.generation());
+        cache.get(CATEGORIES_KEY);
+
+        cache.put(xmlProductsKey, entry, cache.generation());
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(CATEGORIES_KEY));
+        assertNull(cache.get(PRODUCTS_KEY));
+        assertNotNull(cache.get(xmlProductsKey));
+    }
+}
@@ -0,0 +1,77 @@
+package com.soaresdev.productorderapi.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.serializer.support.SerializationFailedException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoopbackRemoteCacheTest {
+    private AtomicLong nanoTime;
+    private LoopbackRemoteCache remoteCache;
+
+    @BeforeEach
+    void setup() {
+        nanoTime = new AtomicLong();
+        remoteCache = new LoopbackRemoteCache(2, nanoTime::get);
+    }
+
+    @Test
+    void shouldReturnCopiesOfStoredValues() {
+        List<String> value = new ArrayList<>(List.of("a"));
+        remoteCache.put("cache", "key", value, Duration.ofMinutes(1));
+        value.add("b");
+
+        @SuppressWarnings("unchecked")
+        List<String> copy = (List<String>) remoteCache.get("cache", "key");
+
+        assertEquals(List.of("a"), copy);
+        assertNotSame(copy, remoteCache.get("cache", "key"));
+    }
+
+    @Test
+    void shouldRejectValuesThatCanNotBeSerialized() {
+        assertThrows(SerializationFailedException.class,
+                () -> remoteCache.put("cache", "key", new Object(), Duration.ofMinutes(1)));
+    }
+
+    @Test
+    void shouldExpireValues() {
+        remoteCache.put("cache", "key", "value", Duration.ofMinutes(1));
+
+        nanoTime.addAndGet(Duration.ofMinutes(1).toNanos());
+
+        assertNull(remoteCache.get("cache", "key"));
+        assertEquals(0, remoteCache.size("cache"));
+    }
+
+    @Test
+    void shouldMakeRoomByDroppingLeastRecentlyUsedValue() {
+        remoteCache.put("cache", "key1", "value1", Duration.ofMinutes(1));
+        remoteCache.put("cache", "key2", "value2", Duration.ofMinutes(1));
+        remoteCache.get("cache", "key1");
+
+        remoteCache.put("cache", "key3", "value3", Duration.ofMinutes(1));
+
+        assertEquals(2, remoteCache.size("cache"));
+        assertEquals("value3", remoteCache.get("cache", "key3"));
+        assertEquals("value1", remoteCache.get("cache", "key1"));
+        assertNull(remoteCache.get("cache", "key2"));
+    }
+
+    @Test
+    void shouldDeliverInvalidationsToEverySubscriber() {
+        List<String> received = new ArrayList<>();
+        remoteCache.subscribe((cacheName, key) -> received.add("1:" + cacheName + ":" + key));
+        remoteCache.subscribe((cacheName, key) -> received.add("2:" + cacheName + ":" + key));
+
+        remoteCache.publish("cache", "key");
+        remoteCache.publish("cache", null);
+
+        assertEquals(List.of("1:cache:key", "2:cache:key", "1:cache:null", "2:cache:null"), received);
+    }
+}
@@ -0,0 +1,123 @@
+package com.soaresdev.productorderapi.cache;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpenApiDocumentFilterTest {
+    private static final String JSON = "{\"openapi\":\"3.0.1\"}";
+    private static final String YAML = "openapi: 3.0.1";
+
+    @TempDir
+    private Path pregenerated;
+
+    private OpenApiDocumentFilter filter;
+    private AtomicInteger renders;
+
+    @BeforeEach
+    void setup() {
+        filter = new OpenApiDocumentFilter(new DefaultResourceLoader(), "/v3/api-docs", null);
+        renders = new AtomicInteger();
+    }
+
+    @Test
+    void shouldRenderOnceAndServeCachedDocumentAfterwards() throws Exception {
+        MockHttpServletResponse first = perform(request("/v3/api-docs"), HttpServletResponse.SC_OK);
+        MockHttpServletResponse second = perform(request("/v3/api-docs"), HttpServletResponse.SC_OK);
+
+        assertEquals(1, renders.get());
+        assertEquals(JSON, first.getContentAsString());
+        assertEquals(JSON, second.getContentAsString());
+        assertEquals("application/json", second.getContentType());
+        assertEquals("rendered", second.getHeader(OpenApiDocumentFilter.SOURCE_HEADER));
+        assertNotNull(first.getHeader(HttpHeaders.ETAG));
+        assertEquals(first.getHeader(HttpHeaders.ETAG), second.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void shouldKeepSeparateDocumentsPerFormat() throws Exception {
+        MockHttpServletResponse json = perform(request("/v3/api-docs"), HttpServletResponse.SC_OK);
+        MockHttpServletResponse yaml = perform(request("/v3/api-docs.yaml"), HttpServletResponse.SC_OK);
+
+        assertEquals(2, renders.get());
+        assertEquals(YAML, yaml.getContentAsString());
+        assertEquals(OpenApiDocumentFilter.YAML_CONTENT_TYPE, yaml.getContentType());
+        assertNotEquals(json.getHeader(HttpHeaders.ETAG), yaml.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void shouldAnswerNotModifiedWhenEtagMatches() throws Exception {
+        String etag = perform(request("/v3/api-docs"), HttpServletResponse.SC_OK).getHeader(HttpHeaders.ETAG);
+        MockHttpServletRequest request = request("/v3/api-docs");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+
+        MockHttpServletResponse response = perform(request, HttpServletResponse.SC_OK);
+
+        assertEquals(HttpServletResponse.SC_NOT_MODIFIED, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    void shouldServePregeneratedDocumentWithoutRendering() throws Exception {
+        Files.writeString(pregenerated.resolve(OpenApiDocumentFilter.JSON_FILE), JSON);
+        filter = new OpenApiDocumentFilter(new DefaultResourceLoader(), "/v3/api-docs",
+                pregenerated.toUri().toString());
+
+        MockHttpServletResponse json = perform(request("/v3/api-docs"), HttpServletResponse.SC_OK);
+        MockHttpServletResponse yaml = perform(request("/v3/api-docs.yaml"), HttpServletResponse.SC_OK);
+
+        assertEquals("pregenerated", json.getHeader(OpenApiDocumentFilter.SOURCE_HEADER));
+        assertEquals(JSON, json.getContentAsString());
+        assertEquals("rendered", yaml.getHeader(OpenApiDocumentFilter.SOURCE_HEADER));
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    void shouldNotCacheFailedRenders() throws Exception {
+        MockHttpServletResponse failed = perform(request("/v3/api-docs"), HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        MockHttpServletResponse response = perform(request("/v3/api-docs"), HttpServletResponse.SC_OK);
+
+        assertEquals(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, failed.getStatus());
+        assertNull(failed.getHeader(HttpHeaders.ETAG));
+        assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+        assertEquals(2, renders.get());
+    }
+
+    @Test
+    void shouldBypassOtherPaths() throws Exception {
+        MockHttpServletResponse response = perform(request("/v3/api-docs/swagger-config"), HttpServletResponse.SC_OK);
+        perform(request("/v3/api-docs/swagger-config"), HttpServletResponse.SC_OK);
+
+        assertNull(response.getHeader(OpenApiDocumentFilter.SOURCE_HEADER));
+        assertEquals(2, renders.get());
+    }
+
+    private MockHttpServletRequest request(String uri) {
+        return new MockHttpServletRequest("GET", uri);
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request, int status) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> {
+            renders.incrementAndGet();
+            boolean yaml = request.getRequestURI().endsWith(".yaml");
+            HttpServletResponse httpResponse = (HttpServletResponse) res;
+            httpResponse.setStatus(status);
+            httpResponse.setContentType(yaml ? OpenApiDocumentFilter.YAML_CONTENT_TYPE : "application/json");
+            httpResponse.getOutputStream().write((yaml ? YAML : JSON).getBytes(StandardCharsets.UTF_8));
+        });
+        return response;
+    }
+}
@@ -0,0 +1,98 @@
+package com.soaresdev.productorderapi.cache;
+
+import com.soaresdev.productorderapi.dtos.CategoryDTO;
+import com.soaresdev.productorderapi.dtos.ProductDTO;
+import com.soaresdev.productorderapi.entities.Category;
+import com.soaresdev.productorderapi.entities.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSnapshotCacheTest {
+    private ProductSnapshotCache cache;
+    private Product product;
+
+    @BeforeEach
+    void setup() {
+        cache = new ProductSnapshotCache(2);
+        product = newProduct();
+    }
+
+    @Test
+    void shouldReuseSnapshotOfTheSameProduct() {
+        ProductDTO snapshot = cache.get(product);
+
+        assertSame(snapshot, cache.get(product));
+        assertEquals(product.getId(), snapshot.getId());
+        assertEquals(1, snapshot.getCategories().size());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void shouldNotAllowChangingCategoriesOfASnapshot() {
+        ProductDTO snapshot = cache.get(product);
+
+        assertThrows(UnsupportedOperationException.class,
+                () -> snapshot.getCategories().add(new CategoryDTO()));
+    }
+
+    @Test
+    void shouldRebuildSnapshotWhenProductChangedWithoutInvalidation() {
+        ProductDTO snapshot = cache.get(product);
+        product.setPrice(new BigDecimal("20.00"));
+
+        ProductDTO rebuilt = cache.get(product);
+
+        assertNotSame(snapshot, rebuilt);
+        assertEquals(new BigDecimal("20.00"), rebuilt.getPrice());
+        assertSame(rebuilt, cache.get(product));
+    }
+
+    @Test
+    void shouldInvalidateOnlyTheGivenProduct() {
+        Product other = newProduct();
+        ProductDTO snapshot = cache.get(product);
+        ProductDTO otherSnapshot = cache.get(other);
+
+        cache.invalidate(product.getId());
+
+        assertNotSame(snapshot, cache.get(product));
+        assertSame(otherSnapshot, cache.get(other));
+    }
+
+    @Test
+    void shouldInvalidateAll() {
+        cache.get(product);
+        cache.get(newProduct());
+
+        cache.invalidateAll();
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedProductWhenFull() {
+        ProductDTO first = cache.get(product);
+        Product second = newProduct();
+        ProductDTO secondSnapshot = cache.get(second);
+        cache.get(product);
+        Product third = newProduct();
+
+        ProductDTO thirdSnapshot = cache.get(third);
+
+        assertEquals(2, cache.size());
+        assertSame(first, cache.get(product));
+        assertSame(thirdSnapshot, cache.get(third));
+        assertNotSame(secondSnapshot, cache.get(second));
+    }
+
+    private Product newProduct() {
+        Product newProduct = new Product("name", "description", new BigDecimal("10.00"), "imgUrl");
+        newProduct.setId(UUID.randomUUID());
+        newProduct.getCategories().add(new Category("category"));
+        return newProduct;
+    }
+}
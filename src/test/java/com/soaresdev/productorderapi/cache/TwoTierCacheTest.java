@@ -0,0 +1,166 @@
+package com.soaresdev.productorderapi.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//Two nodes sharing one loopback remote tier
+class TwoTierCacheTest {
+    private static final Duration NEAR_TTL = Duration.ofSeconds(30);
+    private static final Duration REMOTE_TTL = Duration.ofMinutes(10);
+
+    private AtomicLong nanoTime;
+    private LoopbackRemoteCache remoteCache;
+    private TwoTierCache node1;
+    private TwoTierCache node2;
+
+    @BeforeEach
+    void setup() {
+        nanoTime = new AtomicLong();
+        remoteCache = new LoopbackRemoteCache(100, nanoTime::get);
+        node1 = (TwoTierCache) new TwoTierCacheManager(remoteCache, remoteCache, 2, NEAR_TTL, REMOTE_TTL, nanoTime::get)
+                .getCache("products");
+        node2 = (TwoTierCache) new TwoTierCacheManager(remoteCache, remoteCache, 2, NEAR_TTL, REMOTE_TTL, nanoTime::get)
+                .getCache("products");
+    }
+
+    @Test
+    void shouldReadValuesPutByOtherNodesThroughTheRemoteTier() {
+        node1.put("key", "value");
+
+        Cache.ValueWrapper wrapper = node2.get("key");
+
+        assertNotNull(wrapper);
+        assertEquals("value", wrapper.get());
+        assertEquals(1, node2.nearSize());
+        assertEquals(1, remoteCache.size("products"));
+    }
+
+    @Test
+    void shouldServeNearCopyUntilItsTtlExpires() {
+        node1.put("key", "value");
+        node2.get("key");
+        remoteCache.clear("products");
+
+        assertEquals("value", node2.get("key", String.class));
+        nanoTime.addAndGet(NEAR_TTL.toNanos());
+        assertNull(node2.get("key"));
+    }
+
+    @Test
+    void shouldDropNearCopiesOfEveryNodeOnEvict() {
+        node1.put("key", "value");
+        node2.get("key");
+
+        node1.evict("key");
+
+        assertNull(node1.get("key"));
+        assertNull(node2.get("key"));
+        assertEquals(0, node2.nearSize());
+        assertEquals(0, remoteCache.size("products"));
+    }
+
+    @Test
+    void shouldDropEveryKeyOfEveryNodeOnClear() {
+        node1.put("key1", "value1");
+        node1.put("key2", "value2");
+        node2.get("key1");
+
+        node2.clear();
+
+        assertNull(node1.get("key1"));
+        assertNull(node1.get("key2"));
+        assertEquals(0, node1.nearSize());
+    }
+
+    @Test
+    void shouldEvictAgainAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            node1.put("key", "value");
+            node1.evict("key");
+            node2.put("key", "stale value read before commit");
+
+            for(TransactionSynchronization synchronization : new ArrayList<>(TransactionSynchronizationManager.getSynchronizations()))
+                synchronization.afterCommit();
+        }finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertNull(node1.get("key"));
+        assertNull(node2.get("key"));
+    }
+
+    @Test
+    void shouldCacheNullValues() {
+        node1.put("key", null);
+
+        Cache.ValueWrapper wrapper = node2.get("key");
+
+        assertNotNull(wrapper);
+        assertNull(wrapper.get());
+    }
+
+    @Test
+    void shouldLoadOnceWithValueLoader() {
+        AtomicLong loads = new AtomicLong();
+
+        Callable<String> loader = () -> {
+            loads.incrementAndGet();
+            return "value";
+        };
+
+        assertEquals("value", node1.get("key", loader));
+        assertEquals("value", node2.get("key", loader));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void shouldWrapValueLoaderExceptions() {
+        IllegalStateException exception = new IllegalStateException("Database is down");
+
+        Cache.ValueRetrievalException e = assertThrows(Cache.ValueRetrievalException.class,
+                () -> node1.get("key", () -> {
+                    throw exception;
+                }));
+        assertSame(exception, e.getCause());
+        assertNull(node1.get("key"));
+    }
+
+    @Test
+    void shouldServeNewKeyFromNearTierAfterItWasFull() {
+        node1.put("key1", "value1");
+        node1.put("key2", "value2");
+        node1.get("key1");
+        node1.put("key3", "value3");
+        remoteCache.evict("products", "key3");
+
+        assertEquals(2, node1.nearSize());
+        assertEquals("value3", node1.get("key3", String.class));
+        assertEquals("value1", node1.get("key1", String.class));
+        remoteCache.evict("products", "key2");
+        assertNull(node1.get("key2"));
+    }
+
+    @Test
+    void shouldKeepCachesApartByName() {
+        TwoTierCacheManager manager = new TwoTierCacheManager(remoteCache, remoteCache, 2, NEAR_TTL, REMOTE_TTL,
+                nanoTime::get);
+        manager.getCache("categories").put("key", "category");
+        node1.put("key", "product");
+
+        manager.getCache("categories").evict("key");
+
+        assertEquals("product", node2.get("key", String.class));
+        assertNull(manager.getCache("categories").get("key"));
+        assertTrue(manager.getCacheNames().contains("categories"));
+    }
+}
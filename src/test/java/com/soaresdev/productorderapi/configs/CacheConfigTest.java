@@ -0,0 +1,148 @@
+package com.soaresdev.productorderapi.configs;
+
+import com.soaresdev.productorderapi.cache.CompressedResponseCache;
+import com.soaresdev.productorderapi.cache.ProductSnapshotCache;
+import com.soaresdev.productorderapi.dtos.insertDTOs.CategoryInsertDTO;
+import com.soaresdev.productorderapi.dtos.insertDTOs.ProductBulkUpdateDTO;
+import com.soaresdev.productorderapi.dtos.insertDTOs.ProductInsertDTO;
+import com.soaresdev.productorderapi.dtos.insertDTOs.ProductPriceBatchInsertDTO;
+import com.soaresdev.productorderapi.dtos.insertDTOs.ProductPriceInsertDTO;
+import com.soaresdev.productorderapi.entities.Category;
+import com.soaresdev.productorderapi.entities.Product;
+import com.soaresdev.productorderapi.repositories.CategoryRepository;
+import com.soaresdev.productorderapi.repositories.ProductPriceRepository;
+import com.soaresdev.productorderapi.repositories.ProductRepository;
+import com.soaresdev.productorderapi.services.CategoryService;
+import com.soaresdev.productorderapi.services.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+//The caching annotations of the services, applied by the proxies of a real context
+@SpringBootTest(classes = {CacheConfig.class, ClockConfig.class, ProductService.class, CategoryService.class})
+class CacheConfigTest {
+    private static final UUID PRODUCT_ID = UUID.fromString("6f1c2d9e-3a4b-4c5d-8e9f-0a1b2c3d4e5f");
+    private static final UUID CATEGORY_ID = UUID.fromString("1a2b3c4d-5e6f-4a8b-9c0d-1e2f3a4b5c6d");
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockBean
+    private ProductRepository productRepository;
+
+    @MockBean
+    private CategoryRepository categoryRepository;
+
+    @MockBean
+    private ModelMapper modelMapper;
+
+    @MockBean
+    private CompressedResponseCache compressedResponseCache;
+
+    @MockBean
+    private ProductSnapshotCache productSnapshotCache;
+
+    @MockBean
+    private ProductPriceRepository productPriceRepository;
+
+    private Product product;
+    private Category category;
+
+    @BeforeEach
+    void setup() {
+        cacheManager.getCache(CacheConfig.PRODUCTS).clear();
+        cacheManager.getCache(CacheConfig.CATEGORIES).clear();
+        product = new Product("Notebook", "A notebook", BigDecimal.TEN, "https://img.com/1");
+        product.setId(PRODUCT_ID);
+        category = new Category("Computers");
+        category.setId(CATEGORY_ID);
+        when(productRepository.findById(PRODUCT_ID)).thenReturn(Optional.of(product));
+        when(productRepository.findByIdForUpdate(PRODUCT_ID)).thenReturn(Optional.of(product));
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+        when(categoryRepository.findById(CATEGORY_ID)).thenReturn(Optional.of(category));
+        when(categoryRepository.save(any(Category.class))).thenReturn(category);
+    }
+
+    @Test
+    void shouldLoadAProductOnceForEverySpellingOfItsId() {
+        productService.findByUUID(PRODUCT_ID.toString());
+        productService.findByUUID(PRODUCT_ID.toString().toUpperCase());
+
+        assertEquals("Notebook", productService.findByUUID(PRODUCT_ID.toString()).getName());
+        verify(productRepository, times(1)).findById(PRODUCT_ID);
+    }
+
+    @Test
+    void shouldLoadAProductAgainAfterItIsUpdated() {
+        productService.findByUUID(PRODUCT_ID.toString());
+
+        productService.updateByUUID(PRODUCT_ID.toString(), new ProductInsertDTO());
+        productService.findByUUID(PRODUCT_ID.toString());
+
+        verify(productRepository, times(2)).findById(PRODUCT_ID);
+        verify(productRepository, times(1)).findByIdForUpdate(PRODUCT_ID);
+    }
+
+    @Test
+    void shouldEvictProductsWhenACategoryIsUpdated() {
+        productService.findByUUID(PRODUCT_ID.toString());
+        categoryService.findByUUID(CATEGORY_ID.toString());
+
+        categoryService.updateByUUID(CATEGORY_ID.toString(), new CategoryInsertDTO("Laptops"));
+        productService.findByUUID(PRODUCT_ID.toString());
+        categoryService.findByUUID(CATEGORY_ID.toString());
+
+        verify(productRepository, times(2)).findById(PRODUCT_ID);
+        verify(categoryRepository, times(3)).findById(CATEGORY_ID);
+    }
+
+    @Test
+    void shouldEvictProductsWhenPricesAreUpdatedInBatch() {
+        productService.findByUUID(PRODUCT_ID.toString());
+        when(productRepository.findAllByIdForUpdate(any())).thenReturn(List.of(product));
+
+        productService.updatePrices(new ProductPriceBatchInsertDTO(List.of(
+                new ProductPriceInsertDTO(PRODUCT_ID.toString(), BigDecimal.ONE))));
+
+        assertEquals(0, BigDecimal.ONE.compareTo(productService.findByUUID(PRODUCT_ID.toString()).getPrice()));
+        verify(productRepository, times(2)).findById(PRODUCT_ID);
+    }
+
+    @Test
+    void shouldEvictProductsWhenTheyAreUpdatedInBulk() {
+        productService.findByUUID(PRODUCT_ID.toString());
+        ProductBulkUpdateDTO productBulkUpdateDTO = new ProductBulkUpdateDTO();
+        productBulkUpdateDTO.setCategory_id(CATEGORY_ID.toString());
+        productBulkUpdateDTO.setDescription("On sale");
+        when(productRepository.bulkUpdate(any(), any())).thenReturn(1);
+
+        productService.bulkUpdate(productBulkUpdateDTO);
+        productService.findByUUID(PRODUCT_ID.toString());
+
+        verify(productRepository, times(2)).findById(PRODUCT_ID);
+    }
+
+    @Test
+    void shouldRejectInvalidIdsBeforeCaching() {
+        assertThrows(IllegalArgumentException.class, () -> productService.findByUUID("not an id"));
+        verifyNoInteractions(productRepository);
+    }
+}
@@ -0,0 +1,63 @@
+package com.soaresdev.productorderapi.configs;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataSourceConfigTest {
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(DataSourceAutoConfiguration.class,
+                    DataSourceTransactionManagerAutoConfiguration.class, TransactionAutoConfiguration.class,
+                    JdbcTemplateAutoConfiguration.class))
+            .withUserConfiguration(ClockConfig.class, DataSourceConfig.class)
+            .withPropertyValues(
+                    "spring.datasource.url=jdbc:h2:mem:config-primary;DB_CLOSE_DELAY=-1",
+                    "spring.datasource.username=sa",
+                    "spring.datasource.password=",
+                    "spring.datasource.hikari.maximum-pool-size=3");
+
+    @Test
+    void shouldUseSingleDataSourceWhenReplicaIsNotConfigured() {
+        contextRunner.run(context -> {
+            assertFalse(context.containsBean("replicaDataSource"));
+            assertInstanceOf(HikariDataSource.class, context.getBean(DataSource.class));
+        });
+    }
+
+    @Test
+    void shouldRouteReadOnlyTransactionsToReplicaDataSource() {
+        contextRunner.withPropertyValues(
+                "spring.datasource.replica.url=jdbc:h2:mem:config-replica;DB_CLOSE_DELAY=-1",
+                "spring.datasource.replica.hikari.maximum-pool-size=2")
+                .run(context -> {
+                    HikariDataSource primary = context.getBean("primaryDataSource", HikariDataSource.class);
+                    HikariDataSource replica = context.getBean("replicaDataSource", HikariDataSource.class);
+                    assertEquals(3, primary.getMaximumPoolSize());
+                    assertEquals(2, replica.getMaximumPoolSize());
+                    assertInstanceOf(LazyConnectionDataSourceProxy.class, context.getBean(DataSource.class));
+
+                    new JdbcTemplate(primary).execute("CREATE TABLE IF NOT EXISTS marker AS SELECT 'primary' name");
+                    new JdbcTemplate(replica).execute("CREATE TABLE IF NOT EXISTS marker AS SELECT 'replica' name");
+                    JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+                    TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+
+                    transactionTemplate.setReadOnly(true);
+                    assertEquals("replica", transactionTemplate.execute(status ->
+                            jdbcTemplate.queryForObject("SELECT name FROM marker", String.class)));
+                    transactionTemplate.setReadOnly(false);
+                    assertEquals("primary", transactionTemplate.execute(status ->
+                            jdbcTemplate.queryForObject("SELECT name FROM marker", String.class)));
+                });
+    }
+}
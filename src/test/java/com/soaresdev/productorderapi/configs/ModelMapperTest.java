@@ -92,7 +92,9 @@ class ModelMapperTest {
         UserInsertDTO userInsertDTO = getTestUserInsertDTO();
         Role role = new Role(RoleName.ROLE_USER.getCode());
         when(bCryptPasswordEncoder.encode(anyString())).thenReturn(ENCRYPTED_PASSWORD);
-        when(roleRepository.findByRoleNameCode(anyInt())).thenReturn(role);
+        UUID roleId = UUID.randomUUID();
+        when(roleRepository.findIdByRoleNameCode(RoleName.ROLE_USER.getCode())).thenReturn(roleId);
+        when(roleRepository.getReferenceById(roleId)).thenReturn(role);
 
         User user = modelMapper.map(userInsertDTO, User.class, "createUserConverter");
 
@@ -106,7 +108,8 @@ class ModelMapperTest {
         assertEquals(role.getRoleNameCode(), user.getRoles().get(0).getRoleNameCode());
         verify(bCryptPasswordEncoder, times(1)).encode(anyString());
         verifyNoMoreInteractions(bCryptPasswordEncoder);
-        verify(roleRepository, times(1)).findByRoleNameCode(anyInt());
+        verify(roleRepository, times(1)).findIdByRoleNameCode(RoleName.ROLE_USER.getCode());
+        verify(roleRepository, times(1)).getReferenceById(roleId);
         verifyNoMoreInteractions(roleRepository);
     }
 
@@ -0,0 +1,47 @@
+package com.soaresdev.productorderapi.configs;
+
+import com.soaresdev.productorderapi.ProductOrderApiApplication;
+import com.soaresdev.productorderapi.cache.OpenApiDocumentFilter;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// mvn package -Popenapi
+// Renders the OpenAPI document through springdoc once, at build time, into target/classes so it is packaged in the jar
+@Tag("openapi")
+@SpringBootTest(classes = ProductOrderApiApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"openapi.pregenerated.enabled=false", "spring.jpa.show-sql=false"})
+@ActiveProfiles("test")
+class OpenApiDocumentGenerationTest {
+    private static final Path OUTPUT_DIRECTORY = Path.of(System.getProperty("openapi.output-directory",
+            "target/classes/META-INF/openapi"));
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void generate() throws IOException {
+        write("/v3/api-docs", OpenApiDocumentFilter.JSON_FILE);
+        write("/v3/api-docs.yaml", OpenApiDocumentFilter.YAML_FILE);
+    }
+
+    private void write(String path, String file) throws IOException {
+        ResponseEntity<byte[]> response = restTemplate.getForEntity(path, byte[].class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("rendered", response.getHeaders().getFirst(OpenApiDocumentFilter.SOURCE_HEADER));
+        assertNotNull(response.getBody());
+        Files.createDirectories(OUTPUT_DIRECTORY);
+        Files.write(OUTPUT_DIRECTORY.resolve(file), response.getBody());
+    }
+}
@@ -0,0 +1,45 @@
+package com.soaresdev.productorderapi.configs;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StartupConfigTest {
+    private static final String SPRINGDOC_BEAN = "org.springdoc.core.service.OpenAPIService";
+    private static final String SPRINGDOC_UI_BEAN = "org.springdoc.core.configuration.SpringDocUIConfiguration";
+    private static final String APPLICATION_BEAN = "com.soaresdev.productorderapi.services.ProductService";
+
+    @Test
+    void shouldMakeOnlyNonCriticalBeansLazyWhenEnabled() {
+        DefaultListableBeanFactory beanFactory = beanFactory();
+
+        StartupConfig.lazyNonCriticalBeans(new MockEnvironment()
+                .withProperty("startup.lazy-non-critical-beans", "true")).postProcessBeanFactory(beanFactory);
+
+        assertTrue(beanFactory.getBeanDefinition(SPRINGDOC_BEAN).isLazyInit());
+        assertFalse(beanFactory.getBeanDefinition(SPRINGDOC_UI_BEAN).isLazyInit());
+        assertFalse(beanFactory.getBeanDefinition(APPLICATION_BEAN).isLazyInit());
+    }
+
+    @Test
+    void shouldKeepEveryBeanEagerWhenDisabled() {
+        DefaultListableBeanFactory beanFactory = beanFactory();
+
+        StartupConfig.lazyNonCriticalBeans(new MockEnvironment()).postProcessBeanFactory(beanFactory);
+
+        assertFalse(beanFactory.getBeanDefinition(SPRINGDOC_BEAN).isLazyInit());
+    }
+
+    private DefaultListableBeanFactory beanFactory() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        for(String className : new String[]{SPRINGDOC_BEAN, SPRINGDOC_UI_BEAN, APPLICATION_BEAN}) {
+            RootBeanDefinition beanDefinition = new RootBeanDefinition();
+            beanDefinition.setBeanClassName(className);
+            beanFactory.registerBeanDefinition(className, beanDefinition);
+        }
+        return beanFactory;
+    }
+}
@@ -9,6 +9,7 @@ import com.soaresdev.productorderapi.configs.SecurityConfig;
 import com.soaresdev.productorderapi.dtos.security.LoginDTO;
 import com.soaresdev.productorderapi.dtos.security.RefreshDTO;
 import com.soaresdev.productorderapi.dtos.security.TokenDTO;
+import com.soaresdev.productorderapi.exceptions.TooManyRequestsException;
 import com.soaresdev.productorderapi.security.jwt.JwtTokenProvider;
 import com.soaresdev.productorderapi.services.AuthService;
 import jakarta.persistence.EntityNotFoundException;
@@ -29,6 +30,7 @@ import java.time.Instant;
 
 import static org.hamcrest.Matchers.matchesRegex;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -68,7 +70,7 @@ class AuthControllerTest {
     @Test
     @WithAnonymousUser
     void shouldLoginAsJsonAndReturn200() throws Exception {
-        when(authService.login(any(LoginDTO.class))).thenReturn(tokenDTO);
+        when(authService.login(any(LoginDTO.class), anyString())).thenReturn(tokenDTO);
 
         mvc.perform(post(URL_PATH + "/login").contentType(MediaType.APPLICATION_JSON).
                 accept(MediaType.APPLICATION_JSON).
@@ -85,14 +87,14 @@ class AuthControllerTest {
                 andExpect(jsonPath("$.refreshToken", is(tokenDTO.getRefreshToken()))).
                 andDo(print());
 
-        verify(authService, times(1)).login(any(LoginDTO.class));
+        verify(authService, times(1)).login(any(LoginDTO.class), anyString());
         verifyNoMoreInteractions(authService);
     }
 
     @Test
     @WithAnonymousUser
     void shouldLoginAsXmlAndReturn200() throws Exception {
-        when(authService.login(any(LoginDTO.class))).thenReturn(tokenDTO);
+        when(authService.login(any(LoginDTO.class), anyString())).thenReturn(tokenDTO);
 
         mvc.perform(post(URL_PATH + "/login").contentType(MediaType.APPLICATION_XML).
                 accept(MediaType.APPLICATION_XML).
@@ -109,7 +111,7 @@ class AuthControllerTest {
                 andExpect(xpath("/TokenDTO/refreshToken").string(tokenDTO.getRefreshToken())).
                 andDo(print());
 
-        verify(authService, times(1)).login(any(LoginDTO.class));
+        verify(authService, times(1)).login(any(LoginDTO.class), anyString());
         verifyNoMoreInteractions(authService);
     }
 
@@ -135,7 +137,7 @@ class AuthControllerTest {
     @WithAnonymousUser
     void shouldReturn401WhenLoginIsWrongInLogin() throws Exception {
         String errorMessage = "Invalid email address or password";
-        when(authService.login(any(LoginDTO.class))).
+        when(authService.login(any(LoginDTO.class), anyString())).
                 thenThrow(new BadCredentialsException(errorMessage));
 
         mvc.perform(post(URL_PATH + "/login").contentType(MediaType.APPLICATION_JSON).
@@ -150,7 +152,29 @@ class AuthControllerTest {
                 andExpect(jsonPath("$.path", is(URL_PATH + "/login"))).
                 andDo(print());
 
-        verify(authService, times(1)).login(any(LoginDTO.class));
+        verify(authService, times(1)).login(any(LoginDTO.class), anyString());
+        verifyNoMoreInteractions(authService);
+    }
+
+    @Test
+    @WithAnonymousUser
+    void shouldReturn429WithRetryAfterWhenLoginIsThrottledInLogin() throws Exception {
+        String errorMessage = "Too many login attempts, try again later";
+        when(authService.login(any(LoginDTO.class), anyString())).
+                thenThrow(new TooManyRequestsException(errorMessage, 12));
+
+        mvc.perform(post(URL_PATH + "/login").contentType(MediaType.APPLICATION_JSON).
+                content(objectMapper.writeValueAsString(validLoginDTO))).
+                andExpect(status().isTooManyRequests()).
+                andExpect(header().string("Retry-After", "12")).
+                andExpect(jsonPath("$.status", is(HttpStatus.TOO_MANY_REQUESTS.value()))).
+                andExpect(jsonPath("$.error",
+                        is(TooManyRequestsException.class.getSimpleName()))).
+                andExpect(jsonPath("$.message", is(errorMessage))).
+                andExpect(jsonPath("$.path", is(URL_PATH + "/login"))).
+                andDo(print());
+
+        verify(authService, times(1)).login(any(LoginDTO.class), anyString());
         verifyNoMoreInteractions(authService);
     }
 
@@ -158,7 +182,7 @@ class AuthControllerTest {
     @WithAnonymousUser
     void shouldThrow500WhenOccursErrorInTokenCreationInLogin() throws Exception {
         String errorMessage = "Error generating token";
-        when(authService.login(any(LoginDTO.class))).
+        when(authService.login(any(LoginDTO.class), anyString())).
                 thenThrow(new JWTCreationException(errorMessage, null));
 
         mvc.perform(post(URL_PATH + "/login").contentType(MediaType.APPLICATION_JSON).
@@ -173,7 +197,7 @@ class AuthControllerTest {
                 andExpect(jsonPath("$.path", is(URL_PATH + "/login"))).
                 andDo(print());
 
-        verify(authService, times(1)).login(any(LoginDTO.class));
+        verify(authService, times(1)).login(any(LoginDTO.class), anyString());
         verifyNoMoreInteractions(authService);
     }
 
@@ -0,0 +1,169 @@
+package com.soaresdev.productorderapi.controllers.v1;
+
+import com.soaresdev.productorderapi.configs.SecurityConfig;
+import com.soaresdev.productorderapi.dtos.analyticsDTOs.CategorySalesDTO;
+import com.soaresdev.productorderapi.dtos.analyticsDTOs.PaymentTypeSalesDTO;
+import com.soaresdev.productorderapi.dtos.analyticsDTOs.ProductSalesDTO;
+import com.soaresdev.productorderapi.dtos.analyticsDTOs.RevenueDTO;
+import com.soaresdev.productorderapi.entities.enums.PaymentType;
+import com.soaresdev.productorderapi.entities.enums.RevenueGranularity;
+import com.soaresdev.productorderapi.entities.enums.SalesRanking;
+import com.soaresdev.productorderapi.security.jwt.JwtTokenProvider;
+import com.soaresdev.productorderapi.services.AnalyticsService;
+import com.soaresdev.productorderapi.services.SalesRollupService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithAnonymousUser;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@Import(SecurityConfig.class)
+@WebMvcTest(AnalyticsController.class)
+class AnalyticsControllerTest {
+    @Autowired
+    private MockMvc mvc;
+
+    @MockBean
+    private AnalyticsService analyticsService;
+
+    @MockBean
+    private SalesRollupService salesRollupService;
+
+    @MockBean
+    private JwtTokenProvider jwtTokenProvider;
+
+    private static final String URL_PATH = "/v1/analytics";
+    private static final LocalDate FROM = LocalDate.parse("2023-07-01");
+    private static final LocalDate TO = LocalDate.parse("2023-07-31");
+
+    @Test
+    @WithMockUser(roles = {"MANAGER", "ADMIN"})
+    void shouldFindRevenueAndReturn200WhenIsAuthenticated() throws Exception {
+        when(analyticsService.revenue(FROM, TO, RevenueGranularity.MONTH))
+                .thenReturn(List.of(new RevenueDTO(FROM, 3L, BigDecimal.TEN)));
+
+        mvc.perform(get(URL_PATH + "/revenue").param("from", "2023-07-01").param("to", "2023-07-31")
+                        .param("granularity", "MONTH").accept(MediaType.APPLICATION_JSON)).
+                andExpect(status().isOk()).
+                andExpect(jsonPath("$.size()", is(1))).
+                andExpect(jsonPath("$[0].start", is("2023-07-01"))).
+                andExpect(jsonPath("$[0].orders", is(3))).
+                andExpect(jsonPath("$[0].revenue", is(10))).
+                andDo(print());
+
+        verify(analyticsService, times(1)).revenue(FROM, TO, RevenueGranularity.MONTH);
+        verifyNoMoreInteractions(analyticsService);
+    }
+
+    @Test
+    @WithMockUser(roles = {"MANAGER", "ADMIN"})
+    void shouldReturn400WhenRangeIsInvalidInRevenue() throws Exception {
+        when(analyticsService.revenue(any(), any(), any()))
+                .thenThrow(new IllegalArgumentException("Start date can not be after end date"));
+
+        mvc.perform(get(URL_PATH + "/revenue").param("from", "2023-07-31").param("to", "2023-07-01")
+                        .accept(MediaType.APPLICATION_JSON)).
+                andExpect(status().isBadRequest()).
+                andExpect(jsonPath("$.message", is("Start date can not be after end date"))).
+                andDo(print());
+    }
+
+    @Test
+    @WithMockUser(roles = {"MANAGER", "ADMIN"})
+    void shouldFindTopProductsAndReturn200WhenIsAuthenticated() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(analyticsService.topProducts(FROM, TO, SalesRanking.REVENUE, 3))
+                .thenReturn(List.of(new ProductSalesDTO(id, "Phone", 2L, 5L, BigDecimal.TEN)));
+
+        mvc.perform(get(URL_PATH + "/products/top").param("from", "2023-07-01").param("to", "2023-07-31")
+                        .param("rankBy", "REVENUE").param("limit", "3").accept(MediaType.APPLICATION_JSON)).
+                andExpect(status().isOk()).
+                andExpect(jsonPath("$[0].id", is(id.toString()))).
+                andExpect(jsonPath("$[0].name", is("Phone"))).
+                andExpect(jsonPath("$[0].quantity", is(5))).
+                andDo(print());
+
+        verify(analyticsService, times(1)).topProducts(FROM, TO, SalesRanking.REVENUE, 3);
+        verifyNoMoreInteractions(analyticsService);
+    }
+
+    @Test
+    @WithMockUser(roles = {"MANAGER", "ADMIN"})
+    void shouldFindCategoriesAndReturn200WhenIsAuthenticated() throws Exception {
+        when(analyticsService.categories(FROM, TO))
+                .thenReturn(List.of(new CategorySalesDTO(UUID.randomUUID(), "Electronics", 1L, 1L, BigDecimal.ONE)));
+
+        mvc.perform(get(URL_PATH + "/categories").param("from", "2023-07-01").param("to", "2023-07-31")
+                        .accept(MediaType.APPLICATION_JSON)).
+                andExpect(status().isOk()).
+                andExpect(jsonPath("$[0].name", is("Electronics"))).
+                andDo(print());
+    }
+
+    @Test
+    @WithMockUser(roles = {"MANAGER", "ADMIN"})
+    void shouldFindPaymentTypesAndReturn200WhenIsAuthenticated() throws Exception {
+        when(analyticsService.paymentTypes(FROM, TO))
+                .thenReturn(List.of(new PaymentTypeSalesDTO(PaymentType.PIX, 2L, BigDecimal.TEN, new BigDecimal("5.00"))));
+
+        mvc.perform(get(URL_PATH + "/payment-types").param("from", "2023-07-01").param("to", "2023-07-31")
+                        .accept(MediaType.APPLICATION_JSON)).
+                andExpect(status().isOk()).
+                andExpect(jsonPath("$[0].paymentType", is("PIX"))).
+                andExpect(jsonPath("$[0].averageOrderValue", is(5.00))).
+                andDo(print());
+    }
+
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void shouldReturn403WhenIsNotManagerOrAdminInRevenue() throws Exception {
+        mvc.perform(get(URL_PATH + "/revenue").param("from", "2023-07-01").param("to", "2023-07-31")).
+                andExpect(status().isForbidden()).andDo(print());
+
+        verifyNoInteractions(analyticsService);
+    }
+
+    @Test
+    @WithAnonymousUser
+    void shouldReturn403WhenIsNotAuthenticatedInTopProducts() throws Exception {
+        mvc.perform(get(URL_PATH + "/products/top").param("from", "2023-07-01").param("to", "2023-07-31")).
+                andExpect(status().isForbidden()).andDo(print());
+
+        verifyNoInteractions(analyticsService);
+    }
+
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void shouldRebuildRollupsAndReturn204WhenIsAdmin() throws Exception {
+        mvc.perform(post(URL_PATH + "/rollups/rebuild").param("from", "2023-07-01").param("to", "2023-07-31")).
+                andExpect(status().isNoContent()).andDo(print());
+
+        verify(salesRollupService, times(1)).rebuildDays(FROM, TO);
+        verifyNoMoreInteractions(salesRollupService);
+    }
+
+    @Test
+    @WithMockUser(roles = {"MANAGER"})
+    void shouldReturn403WhenIsNotAdminInRebuildRollups() throws Exception {
+        mvc.perform(post(URL_PATH + "/rollups/rebuild").param("from", "2023-07-01").param("to", "2023-07-31")).
+                andExpect(status().isForbidden()).andDo(print());
+
+        verifyNoInteractions(salesRollupService);
+    }
+}
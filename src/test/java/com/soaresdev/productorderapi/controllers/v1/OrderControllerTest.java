@@ -1,21 +1,27 @@
 package com.soaresdev.productorderapi.controllers.v1;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import com.soaresdev.productorderapi.configs.SecurityConfig;
 import com.soaresdev.productorderapi.dtos.*;
 import com.soaresdev.productorderapi.dtos.insertDTOs.OrderInsertDTO;
 import com.soaresdev.productorderapi.dtos.insertDTOs.OrderItemDeleteDTO;
 import com.soaresdev.productorderapi.dtos.insertDTOs.OrderItemInsertDTO;
+import com.soaresdev.productorderapi.entities.OrderSummary;
 import com.soaresdev.productorderapi.entities.enums.OrderStatus;
 import com.soaresdev.productorderapi.entities.enums.PaymentType;
 import com.soaresdev.productorderapi.exceptions.AlreadyPaidException;
 import com.soaresdev.productorderapi.exceptions.NotPaidException;
 import com.soaresdev.productorderapi.security.jwt.JwtTokenProvider;
 import com.soaresdev.productorderapi.services.OrderService;
+import com.soaresdev.productorderapi.services.OrderSummaryService;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -32,6 +38,7 @@ import org.springframework.test.web.servlet.MvcResult;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.hamcrest.CoreMatchers.containsString;
@@ -58,7 +65,12 @@ class OrderControllerTest {
     @MockBean
     private OrderService orderService;
 
+    @MockBean
+    private OrderSummaryService orderSummaryService;
+
     private final XmlMapper xmlMapper = new XmlMapper();
+    private final CBORMapper cborMapper = new CBORMapper();
+    private final SmileMapper smileMapper = new SmileMapper();
 
     @MockBean
     private JwtTokenProvider jwtTokenProvider;
@@ -87,7 +99,7 @@ class OrderControllerTest {
     @Test
     @WithMockUser(roles = {"MANAGER", "ADMIN"})
     void shouldFindAllOrdersAsJsonAndReturn200WhenIsAuthenticated() throws Exception {
-        when(orderService.findAll(any(Pageable.class))).
+        when(orderService.findAll(any(OrderFilterDTO.class), any(Pageable.class), any(FieldSet.class))).
                 thenReturn(new PageImpl<>(List.of(validOrderDTO)));
 
         mvc.perform(get(URL_PATH).accept(MediaType.APPLICATION_JSON)).
@@ -121,14 +133,49 @@ class OrderControllerTest {
                 andExpect(jsonPath("$.content[0].items[0].product.categories[0].name", is(validOrderDTO.getItems().iterator().next().getProductDTO().getCategories().iterator().next().getName()))).
                 andDo(print());
 
-        verify(orderService, times(1)).findAll(any(Pageable.class));
+        verify(orderService, times(1)).findAll(any(OrderFilterDTO.class), any(Pageable.class), any(FieldSet.class));
+        verifyNoMoreInteractions(orderService);
+    }
+
+    @Test
+    @WithMockUser(roles = {"MANAGER", "ADMIN"})
+    void shouldFindAllOrdersWithOnlyRequestedFieldsAndReturn200() throws Exception {
+        when(orderService.findAll(any(OrderFilterDTO.class), any(Pageable.class), any(FieldSet.class))).
+                thenReturn(new PageImpl<>(List.of(validOrderDTO)));
+
+        mvc.perform(get(URL_PATH).param("fields", "id, total,payment").accept(MediaType.APPLICATION_JSON)).
+                andExpect(status().isOk()).
+                andExpect(jsonPath("$.content.size()", is(1))).
+                andExpect(jsonPath("$.content[0].id", is(validOrderDTO.getId().toString()))).
+                andExpect(jsonPath("$.content[0].total", comparesEqualTo(validOrderDTO.getTotal().intValue()))).
+                andExpect(jsonPath("$.content[0].payment.amount", comparesEqualTo(validOrderDTO.getPaymentDTO().getAmount().intValue()))).
+                andExpect(jsonPath("$.content[0].moment").doesNotExist()).
+                andExpect(jsonPath("$.content[0].client").doesNotExist()).
+                andExpect(jsonPath("$.content[0].items").doesNotExist()).
+                andExpect(jsonPath("$.totalElements", is(1))).
+                andDo(print());
+
+        ArgumentCaptor<FieldSet> captor = ArgumentCaptor.forClass(FieldSet.class);
+        verify(orderService, times(1)).findAll(any(OrderFilterDTO.class), any(Pageable.class), captor.capture());
+        assertEquals(Set.of("id", "total", "payment"), captor.getValue().getNames());
         verifyNoMoreInteractions(orderService);
     }
 
+    @Test
+    @WithMockUser(roles = {"MANAGER", "ADMIN"})
+    void shouldReturn400WhenFieldIsUnknownInFindAllOrders() throws Exception {
+        mvc.perform(get(URL_PATH).param("fields", "id,password").accept(MediaType.APPLICATION_JSON)).
+                andExpect(status().isBadRequest()).
+                andExpect(jsonPath("$.message", is("Unknown field: password"))).
+                andDo(print());
+
+        verifyNoInteractions(orderService);
+    }
+
     @Test
     @WithMockUser(roles = {"MANAGER", "ADMIN"})
     void shouldFindAllOrdersAsXmlAndReturn200WhenIsAuthenticated() throws Exception {
-        when(orderService.findAll(any(Pageable.class)))
+        when(orderService.findAll(any(OrderFilterDTO.class), any(Pageable.class), any(FieldSet.class)))
                 .thenReturn(new PageImpl<>(List.of(validOrderDTO)));
 
         mvc.perform(get(URL_PATH).accept(MediaType.APPLICATION_XML)).
@@ -162,7 +209,89 @@ class OrderControllerTest {
                 andExpect(xpath("/PageImpl/content/content/items/items/product/categories/categories/name").string(is(validOrderDTO.getItems().iterator().next().getProductDTO().getCategories().iterator().next().getName()))).
                 andDo(print());
 
-        verify(orderService, times(1)).findAll(any(Pageable.class));
+        verify(orderService, times(1)).findAll(any(OrderFilterDTO.class), any(Pageable.class), any(FieldSet.class));
+        verifyNoMoreInteractions(orderService);
+    }
+
+    @Test
+    @WithMockUser(roles = {"MANAGER", "ADMIN"})
+    void shouldBindFiltersInFindAllOrders() throws Exception {
+        when(orderService.findAll(any(OrderFilterDTO.class), any(Pageable.class), any(FieldSet.class)))
+                .thenReturn(new PageImpl<>(List.of(validOrderDTO)));
+
+        mvc.perform(get(URL_PATH).accept(MediaType.APPLICATION_JSON)
+                        .param("client_id", STRING_UUID)
+                        .param("orderStatus", "PAID")
+                        .param("minMoment", "2023-07-20T00:00:00Z")
+                        .param("maxMoment", "2023-07-27T00:00:00Z")
+                        .param("minTotal", "10")
+                        .param("maxTotal", "100.50")).
+                andExpect(status().isOk()).
+                andExpect(jsonPath("$.content.size()", is(1))).
+                andDo(print());
+
+        ArgumentCaptor<OrderFilterDTO> captor = ArgumentCaptor.forClass(OrderFilterDTO.class);
+        verify(orderService, times(1)).findAll(captor.capture(), any(Pageable.class), any(FieldSet.class));
+        assertEquals(STRING_UUID, captor.getValue().getClient_id());
+        assertEquals(OrderStatus.PAID, captor.getValue().getOrderStatus());
+        assertEquals(Instant.parse("2023-07-20T00:00:00Z"), captor.getValue().getMinMoment());
+        assertEquals(Instant.parse("2023-07-27T00:00:00Z"), captor.getValue().getMaxMoment());
+        assertEquals(new BigDecimal("10"), captor.getValue().getMinTotal());
+        assertEquals(new BigDecimal("100.50"), captor.getValue().getMaxTotal());
+        verifyNoMoreInteractions(orderService);
+    }
+
+    @Test
+    @WithMockUser(roles = {"MANAGER", "ADMIN"})
+    void shouldReturn400WhenFilterIsInvalidInFindAllOrders() throws Exception {
+        when(orderService.findAll(any(OrderFilterDTO.class), any(Pageable.class), any(FieldSet.class)))
+                .thenThrow(new IllegalArgumentException("Min total can not be greater than max total"));
+
+        mvc.perform(get(URL_PATH).accept(MediaType.APPLICATION_JSON)
+                        .param("minTotal", "100")
+                        .param("maxTotal", "10")).
+                andExpect(status().isBadRequest()).
+                andExpect(jsonPath("$.message", is("Min total can not be greater than max total"))).
+                andDo(print());
+    }
+
+    @Test
+    @WithMockUser(roles = {"MANAGER", "ADMIN"})
+    void shouldFindAllOrdersAsCborAndReturn200WhenIsAuthenticated() throws Exception {
+        when(orderService.findAll(any(OrderFilterDTO.class), any(Pageable.class), any(FieldSet.class)))
+                .thenReturn(new PageImpl<>(List.of(validOrderDTO)));
+
+        MvcResult mvcResult = mvc.perform(get(URL_PATH).accept(MediaType.APPLICATION_CBOR)).
+                andExpect(status().isOk()).
+                andExpect(content().contentType(MediaType.APPLICATION_CBOR)).
+                andReturn();
+
+        JsonNode page = cborMapper.readTree(mvcResult.getResponse().getContentAsByteArray());
+        assertEquals(1, page.get("content").size());
+        assertEquals(validOrderDTO.getId(), cborMapper.convertValue(page.get("content").get(0).get("id"), UUID.class));
+        assertEquals(validOrderDTO.getOrderStatus().name(), page.get("content").get(0).get("orderStatus").asText());
+        assertTrue(page.get("content").get(0).get("moment").asText().matches("\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}.\\d{9}Z"));
+        assertEquals(validOrderDTO.getClient().getEmail(), page.get("content").get(0).get("client").get("email").asText());
+        verify(orderService, times(1)).findAll(any(OrderFilterDTO.class), any(Pageable.class), any(FieldSet.class));
+        verifyNoMoreInteractions(orderService);
+    }
+
+    @Test
+    @WithMockUser(roles = {"MANAGER", "ADMIN"})
+    void shouldFindAllOrdersAsSmileAndReturn200WhenIsAuthenticated() throws Exception {
+        when(orderService.findAll(any(OrderFilterDTO.class), any(Pageable.class), any(FieldSet.class)))
+                .thenReturn(new PageImpl<>(List.of(validOrderDTO)));
+
+        MvcResult mvcResult = mvc.perform(get(URL_PATH).accept("application/x-jackson-smile")).
+                andExpect(status().isOk()).
+                andExpect(content().contentType("application/x-jackson-smile")).
+                andReturn();
+
+        JsonNode page = smileMapper.readTree(mvcResult.getResponse().getContentAsByteArray());
+        assertEquals(1, page.get("content").size());
+        assertEquals(validOrderDTO.getId(), smileMapper.convertValue(page.get("content").get(0).get("id"), UUID.class));
+        assertEquals(1, page.get("content").get(0).get("items").size());
+        verify(orderService, times(1)).findAll(any(OrderFilterDTO.class), any(Pageable.class), any(FieldSet.class));
         verifyNoMoreInteractions(orderService);
     }
 
@@ -176,6 +305,43 @@ class OrderControllerTest {
         verifyNoInteractions(orderService);
     }
 
+    @Test
+    @WithMockUser(roles = "USER")
+    void shouldFindOrderSummariesOfContextUserAndReturn200() throws Exception {
+        OrderSummary orderSummary = new OrderSummary(UUID.fromString(STRING_UUID));
+        orderSummary.setClientId(UUID.randomUUID());
+        orderSummary.setMoment(Instant.now());
+        orderSummary.setOrderStatus(OrderStatus.PAID);
+        orderSummary.setTotal(BigDecimal.TEN);
+        orderSummary.setItemCount(2);
+        orderSummary.setPaymentType(PaymentType.PIX);
+        ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+        when(orderSummaryService.findAllOfContextUser(any(Pageable.class))).
+                thenReturn(new PageImpl<>(List.of(new OrderSummaryDTO(orderSummary))));
+
+        mvc.perform(get(URL_PATH + "/mine").accept(MediaType.APPLICATION_JSON)).
+                andExpect(status().isOk()).
+                andExpect(jsonPath("$.content.size()", is(1))).
+                andExpect(jsonPath("$.content[0].id", is(STRING_UUID))).
+                andExpect(jsonPath("$.content[0].orderStatus", is("PAID"))).
+                andExpect(jsonPath("$.content[0].total", comparesEqualTo(10))).
+                andExpect(jsonPath("$.content[0].itemCount", is(2))).
+                andExpect(jsonPath("$.content[0].paymentType", is("PIX"))).
+                andExpect(jsonPath("$.content[0].clientId").doesNotExist());
+
+        verify(orderSummaryService, times(1)).findAllOfContextUser(pageableCaptor.capture());
+        assertEquals("moment: DESC", pageableCaptor.getValue().getSort().toString());
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    @WithAnonymousUser
+    void shouldReturn403WhenIsNotAuthenticatedInFindOrderSummaries() throws Exception {
+        mvc.perform(get(URL_PATH + "/mine")).andExpect(status().isForbidden());
+
+        verifyNoInteractions(orderSummaryService);
+    }
+
     @Test
     @WithMockUser(roles = {"USER", "MANAGER", "ADMIN"})
     void shouldFindOrderByUUIDAsJsonAndReturn200WhenIsAuthenticated() throws Exception {
@@ -401,6 +567,25 @@ class OrderControllerTest {
         verifyNoMoreInteractions(orderService);
     }
 
+    @Test
+    @WithMockUser(roles = {"USER", "ADMIN"})
+    void shouldInsertOrderAsCborAndReturn201WhenIsAuthenticated() throws Exception {
+        when(orderService.insert(any(OrderInsertDTO.class))).thenReturn(validOrderDTO);
+
+        MvcResult mvcResult = mvc.perform(post(URL_PATH).contentType(MediaType.APPLICATION_CBOR).
+                accept(MediaType.APPLICATION_CBOR).
+                content(cborMapper.writeValueAsBytes(validOrderInsertDTO))).
+                andExpect(status().isCreated()).
+                andExpect(content().contentType(MediaType.APPLICATION_CBOR)).
+                andExpect(header().string("Location", containsString(URL_PATH + "/" + validOrderDTO.getId()))).
+                andReturn();
+
+        JsonNode order = cborMapper.readTree(mvcResult.getResponse().getContentAsByteArray());
+        assertEquals(validOrderDTO.getId(), cborMapper.convertValue(order.get("id"), UUID.class));
+        verify(orderService, times(1)).insert(any(OrderInsertDTO.class));
+        verifyNoMoreInteractions(orderService);
+    }
+
     @Test
     @WithMockUser(roles = {"USER", "ADMIN"})
     void shouldReturn400WhenSendInvalidOrderInInsertOrder() throws Exception {
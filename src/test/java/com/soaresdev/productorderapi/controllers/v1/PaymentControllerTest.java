@@ -3,10 +3,13 @@ package com.soaresdev.productorderapi.controllers.v1;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import com.soaresdev.productorderapi.configs.SecurityConfig;
+import com.soaresdev.productorderapi.dtos.FieldSet;
 import com.soaresdev.productorderapi.dtos.PaymentDTO;
 import com.soaresdev.productorderapi.dtos.insertDTOs.PaymentInsertDTO;
+import com.soaresdev.productorderapi.entities.enums.PaymentStatus;
 import com.soaresdev.productorderapi.entities.enums.PaymentType;
 import com.soaresdev.productorderapi.exceptions.AlreadyPaidException;
+import com.soaresdev.productorderapi.exceptions.TooManyRequestsException;
 import com.soaresdev.productorderapi.security.jwt.JwtTokenProvider;
 import com.soaresdev.productorderapi.services.PaymentService;
 import jakarta.persistence.EntityNotFoundException;
@@ -74,7 +77,7 @@ class PaymentControllerTest {
     @Test
     @WithMockUser(roles = {"MANAGER", "ADMIN"})
     void shouldFindAllPaymentsAsJsonAndReturn200WhenIsAuthenticated() throws Exception {
-        when(paymentService.findAll(any(Pageable.class))).
+        when(paymentService.findAll(any(Pageable.class), any(FieldSet.class))).
                 thenReturn(new PageImpl<>(List.of(validPaymentDTO)));
 
         mvc.perform(get(URL_PATH).accept(MediaType.APPLICATION_JSON)).
@@ -93,14 +96,14 @@ class PaymentControllerTest {
                         is(validPaymentDTO.getOrder_id().toString()))).
                 andDo(print());
 
-        verify(paymentService, times(1)).findAll(any(Pageable.class));
+        verify(paymentService, times(1)).findAll(any(Pageable.class), any(FieldSet.class));
         verifyNoMoreInteractions(paymentService);
     }
 
     @Test
     @WithMockUser(roles = {"MANAGER", "ADMIN"})
     void shouldFindAllPaymentsAsXmlAndReturn200WhenIsAuthenticated() throws Exception {
-        when(paymentService.findAll(any(Pageable.class)))
+        when(paymentService.findAll(any(Pageable.class), any(FieldSet.class)))
                 .thenReturn(new PageImpl<>(List.of(validPaymentDTO)));
 
         mvc.perform(get(URL_PATH).accept(MediaType.APPLICATION_XML)).
@@ -119,7 +122,7 @@ class PaymentControllerTest {
                         .string(validPaymentDTO.getOrder_id().toString()))
                 .andDo(print());
 
-        verify(paymentService, times(1)).findAll(any(Pageable.class));
+        verify(paymentService, times(1)).findAll(any(Pageable.class), any(FieldSet.class));
         verifyNoMoreInteractions(paymentService);
     }
 
@@ -267,6 +270,43 @@ class PaymentControllerTest {
         verifyNoMoreInteractions(paymentService);
     }
 
+    @Test
+    @WithMockUser(roles = {"USER", "MANAGER", "ADMIN"})
+    void shouldInsertPendingPaymentAndReturn202WithStatusLocationWhenIsAuthenticated() throws Exception {
+        PaymentDTO pendingPaymentDTO = new PaymentDTO(Instant.now(), PaymentType.PIX, BigDecimal.ONE);
+        pendingPaymentDTO.setId(UUID.randomUUID());
+        pendingPaymentDTO.setOrder_id(UUID.fromString(STRING_UUID));
+        pendingPaymentDTO.setPaymentStatus(PaymentStatus.PENDING);
+        when(paymentService.insert(any(PaymentInsertDTO.class))).thenReturn(pendingPaymentDTO);
+
+        mvc.perform(post(URL_PATH).contentType(MediaType.APPLICATION_JSON).
+                accept(MediaType.APPLICATION_JSON).
+                content(objectMapper.writeValueAsString(validPaymentInsertDTO))).
+                andExpect(status().isAccepted()).
+                andExpect(jsonPath("$.id", is(pendingPaymentDTO.getId().toString()))).
+                andExpect(jsonPath("$.paymentStatus", is(PaymentStatus.PENDING.name()))).
+                andExpect(header().string("Location",
+                        containsString(URL_PATH + "/" + pendingPaymentDTO.getId()))).
+                andDo(print());
+
+        verify(paymentService, times(1)).insert(any(PaymentInsertDTO.class));
+        verifyNoMoreInteractions(paymentService);
+    }
+
+    @Test
+    @WithMockUser(roles = {"USER", "MANAGER", "ADMIN"})
+    void shouldReturn429WithRetryAfterWhenPaymentWorkersAreFullInInsertPayment() throws Exception {
+        when(paymentService.insert(any(PaymentInsertDTO.class))).
+                thenThrow(new TooManyRequestsException("Too many payments being processed, try again later", 1));
+
+        mvc.perform(post(URL_PATH).contentType(MediaType.APPLICATION_JSON).
+                accept(MediaType.APPLICATION_JSON).
+                content(objectMapper.writeValueAsString(validPaymentInsertDTO))).
+                andExpect(status().isTooManyRequests()).
+                andExpect(header().string("Retry-After", "1")).
+                andDo(print());
+    }
+
     @Test
     @WithMockUser(roles = {"USER", "MANAGER", "ADMIN"})
     void shouldInsertPaymentAsXmlAndReturn201WhenIsAuthenticated() throws Exception {
@@ -4,9 +4,17 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import com.soaresdev.productorderapi.configs.SecurityConfig;
 import com.soaresdev.productorderapi.dtos.CategoryDTO;
+import com.soaresdev.productorderapi.dtos.CategoryFacetDTO;
+import com.soaresdev.productorderapi.dtos.FieldSet;
+import com.soaresdev.productorderapi.dtos.ProductBulkUpdateResultDTO;
 import com.soaresdev.productorderapi.dtos.ProductDTO;
+import com.soaresdev.productorderapi.dtos.ProductPriceDTO;
+import com.soaresdev.productorderapi.dtos.ProductSearchDTO;
+import com.soaresdev.productorderapi.dtos.insertDTOs.ProductBulkUpdateDTO;
 import com.soaresdev.productorderapi.dtos.insertDTOs.ProductCategoryInsertDTO;
 import com.soaresdev.productorderapi.dtos.insertDTOs.ProductInsertDTO;
+import com.soaresdev.productorderapi.dtos.insertDTOs.ProductPriceBatchInsertDTO;
+import com.soaresdev.productorderapi.dtos.insertDTOs.ProductPriceInsertDTO;
 import com.soaresdev.productorderapi.security.jwt.JwtTokenProvider;
 import com.soaresdev.productorderapi.services.ProductService;
 import jakarta.persistence.EntityExistsException;
@@ -26,6 +34,7 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
@@ -34,6 +43,8 @@ import static org.hamcrest.Matchers.comparesEqualTo;
 import static org.hamcrest.Matchers.matchesRegex;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -76,7 +87,7 @@ class ProductControllerTest {
     @Test
     @WithMockUser(roles = {"USER", "ADMIN"})
     void shouldFindAllProductsAsJsonAndReturn200WhenIsAuthenticated() throws Exception {
-        when(productService.findAll(any(Pageable.class))).
+        when(productService.findAll(any(Pageable.class), any(FieldSet.class))).
                 thenReturn(new PageImpl<>(List.of(validProductDTO)));
 
         mvc.perform(get(URL_PATH).accept(MediaType.APPLICATION_JSON)).
@@ -93,14 +104,33 @@ class ProductControllerTest {
                 andExpect(jsonPath("$.content[0].categories.[0].name", is(categoryDTO.getName()))).
                 andDo(print());
 
-        verify(productService, times(1)).findAll(any(Pageable.class));
+        verify(productService, times(1)).findAll(any(Pageable.class), any(FieldSet.class));
+        verifyNoMoreInteractions(productService);
+    }
+
+    @Test
+    @WithMockUser(roles = {"USER", "ADMIN"})
+    void shouldFindAllProductsWithOnlyRequestedFieldsAsXmlAndReturn200() throws Exception {
+        when(productService.findAll(any(Pageable.class), any(FieldSet.class))).
+                thenReturn(new PageImpl<>(List.of(validProductDTO)));
+
+        mvc.perform(get(URL_PATH).param("fields", "id,name").accept(MediaType.APPLICATION_XML)).
+                andExpect(status().isOk()).
+                andExpect(content().contentType(MediaType.APPLICATION_XML)).
+                andExpect(xpath("PageImpl/content/content/id").string(validProductDTO.getId().toString())).
+                andExpect(xpath("PageImpl/content/content/name").string(validProductDTO.getName())).
+                andExpect(xpath("PageImpl/content/content/price").doesNotExist()).
+                andExpect(xpath("PageImpl/content/content/categories").doesNotExist()).
+                andDo(print());
+
+        verify(productService, times(1)).findAll(any(Pageable.class), any(FieldSet.class));
         verifyNoMoreInteractions(productService);
     }
 
     @Test
     @WithMockUser(roles = {"USER", "ADMIN"})
     void shouldFindAllProductsAsXmlAndReturn200WhenIsAuthenticated() throws Exception {
-        when(productService.findAll(any(Pageable.class))).
+        when(productService.findAll(any(Pageable.class), any(FieldSet.class))).
                 thenReturn(new PageImpl<>(List.of(validProductDTO)));
 
         mvc.perform(get(URL_PATH).accept(MediaType.APPLICATION_XML)).
@@ -125,7 +155,7 @@ class ProductControllerTest {
                         .string(is(categoryDTO.getName())))
                 .andDo(print());
 
-        verify(productService, times(1)).findAll(any(Pageable.class));
+        verify(productService, times(1)).findAll(any(Pageable.class), any(FieldSet.class));
         verifyNoMoreInteractions(productService);
     }
 
@@ -139,6 +169,51 @@ class ProductControllerTest {
         verifyNoInteractions(productService);
     }
 
+    @Test
+    @WithMockUser(roles = {"USER", "ADMIN"})
+    void shouldSearchProductsAsJsonAndReturn200WhenIsAuthenticated() throws Exception {
+        ProductSearchDTO productSearchDTO = new ProductSearchDTO(new PageImpl<>(List.of(validProductDTO)),
+                List.of(new CategoryFacetDTO(categoryDTO.getId(), categoryDTO.getName(), 1L)));
+        when(productService.search(anyString(), anyString(), any(BigDecimal.class), any(BigDecimal.class),
+                any(Pageable.class))).thenReturn(productSearchDTO);
+
+        mvc.perform(get(URL_PATH + "/search").param("q", "test").param("category_id", STRING_UUID)
+                        .param("minPrice", "1").param("maxPrice", "10").accept(MediaType.APPLICATION_JSON)).
+                andExpect(status().isOk()).
+                andExpect(content().contentType(MediaType.APPLICATION_JSON)).
+                andExpect(jsonPath("$.products.content.size()", is(1))).
+                andExpect(jsonPath("$.products.content[0].id", is(validProductDTO.getId().toString()))).
+                andExpect(jsonPath("$.facets.size()", is(1))).
+                andExpect(jsonPath("$.facets[0].id", is(categoryDTO.getId().toString()))).
+                andExpect(jsonPath("$.facets[0].count", is(1))).
+                andDo(print());
+
+        verify(productService, times(1)).search(anyString(), anyString(), any(BigDecimal.class),
+                any(BigDecimal.class), any(Pageable.class));
+        verifyNoMoreInteractions(productService);
+    }
+
+    @Test
+    @WithMockUser(roles = {"USER", "ADMIN"})
+    void shouldReturn400WhenIsAuthenticatedAndPriceRangeIsInvalidInSearchProducts() throws Exception {
+        when(productService.search(any(), any(), any(BigDecimal.class), any(BigDecimal.class), any(Pageable.class))).
+                thenThrow(new IllegalArgumentException("Min price can not be greater than max price"));
+
+        mvc.perform(get(URL_PATH + "/search").param("minPrice", "10").param("maxPrice", "1")
+                        .accept(MediaType.APPLICATION_JSON)).
+                andExpect(status().isBadRequest()).
+                andExpect(jsonPath("$.message", is("Min price can not be greater than max price"))).
+                andDo(print());
+    }
+
+    @Test
+    @WithAnonymousUser
+    void shouldReturn403WhenIsNotAuthenticatedInSearchProducts() throws Exception {
+        mvc.perform(get(URL_PATH + "/search")).andExpect(status().isForbidden()).andDo(print());
+
+        verifyNoInteractions(productService);
+    }
+
     @Test
     @WithMockUser(roles = {"USER", "ADMIN"})
     void shouldFindProductByUUIDAsJsonAndReturn200WhenIsAuthenticated() throws Exception {
@@ -489,6 +564,129 @@ class ProductControllerTest {
         verifyNoMoreInteractions(productService);
     }
 
+    @Test
+    @WithMockUser(roles = {"USER", "ADMIN"})
+    void shouldFindProductPriceAtMomentAndReturn200WhenIsAuthenticated() throws Exception {
+        Instant at = Instant.parse("2023-07-20T10:00:00Z");
+        when(productService.findPriceAt(validProductDTO.getId().toString(), at)).
+                thenReturn(new ProductPriceDTO(validProductDTO.getId(), at, BigDecimal.TEN));
+
+        mvc.perform(get(URL_PATH + "/{uuid}/price", validProductDTO.getId()).param("at", at.toString()).
+                accept(MediaType.APPLICATION_JSON)).
+                andExpect(status().isOk()).
+                andExpect(jsonPath("$.product_id", is(validProductDTO.getId().toString()))).
+                andExpect(jsonPath("$.at", is("2023-07-20T10:00:00.000000000Z"))).
+                andExpect(jsonPath("$.price", comparesEqualTo(10))).
+                andDo(print());
+
+        verify(productService, times(1)).findPriceAt(validProductDTO.getId().toString(), at);
+        verifyNoMoreInteractions(productService);
+    }
+
+    @Test
+    @WithMockUser(roles = {"USER", "ADMIN"})
+    void shouldReturn404WhenIsAuthenticatedAndProductNotFoundInFindProductPriceAt() throws Exception {
+        when(productService.findPriceAt(anyString(), eq(null))).thenThrow(new EntityNotFoundException("Product not found"));
+
+        mvc.perform(get(URL_PATH + "/{uuid}/price", validProductDTO.getId())).
+                andExpect(status().isNotFound()).
+                andExpect(jsonPath("$.message", is("Product not found"))).
+                andDo(print());
+    }
+
+    @Test
+    @WithMockUser(roles = {"MANAGER", "ADMIN"})
+    void shouldUpdateProductPricesAndReturn200WhenIsAuthenticated() throws Exception {
+        Instant now = Instant.parse("2023-07-20T10:00:00Z");
+        when(productService.updatePrices(any(ProductPriceBatchInsertDTO.class))).
+                thenReturn(List.of(new ProductPriceDTO(validProductDTO.getId(), now, BigDecimal.TEN)));
+
+        mvc.perform(put(URL_PATH + "/prices").
+                contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON).
+                content(objectMapper.writeValueAsString(new ProductPriceBatchInsertDTO(List.of(
+                        new ProductPriceInsertDTO(validProductDTO.getId().toString(), BigDecimal.TEN)))))).
+                andExpect(status().isOk()).
+                andExpect(jsonPath("$.size()", is(1))).
+                andExpect(jsonPath("$[0].product_id", is(validProductDTO.getId().toString()))).
+                andExpect(jsonPath("$[0].price", comparesEqualTo(10))).
+                andDo(print());
+
+        verify(productService, times(1)).updatePrices(any(ProductPriceBatchInsertDTO.class));
+        verifyNoMoreInteractions(productService);
+    }
+
+    @Test
+    @WithMockUser(roles = {"MANAGER", "ADMIN"})
+    void shouldReturn400WhenSendInvalidPricesInUpdateProductPrices() throws Exception {
+        mvc.perform(put(URL_PATH + "/prices").
+                contentType(MediaType.APPLICATION_JSON).
+                content(objectMapper.writeValueAsString(new ProductPriceBatchInsertDTO(List.of(
+                        new ProductPriceInsertDTO("invalid", BigDecimal.ZERO)))))).
+                andExpect(status().isBadRequest()).
+                andExpect(jsonPath("$.errors.size()", is(2))).
+                andExpect(jsonPath("$.errors[0]", is("prices[0].price: Price must be greater than zero"))).
+                andExpect(jsonPath("$.errors[1]", is("prices[0].product_id: Invalid product uuid"))).
+                andDo(print());
+
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void shouldReturn403WhenIsNotManagerInUpdateProductPrices() throws Exception {
+        mvc.perform(put(URL_PATH + "/prices").
+                contentType(MediaType.APPLICATION_JSON).
+                content(objectMapper.writeValueAsString(new ProductPriceBatchInsertDTO(List.of(
+                        new ProductPriceInsertDTO(validProductDTO.getId().toString(), BigDecimal.TEN)))))).
+                andExpect(status().isForbidden()).andDo(print());
+
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    @WithMockUser(roles = {"MANAGER", "ADMIN"})
+    void shouldBulkUpdateProductsAndReturn200WhenIsAuthenticated() throws Exception {
+        when(productService.bulkUpdate(any(ProductBulkUpdateDTO.class))).thenReturn(new ProductBulkUpdateResultDTO(3));
+
+        mvc.perform(patch(URL_PATH).
+                contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON).
+                content("{\"category_id\": \"" + categoryDTO.getId() + "\", \"pricePercentage\": -10}")).
+                andExpect(status().isOk()).
+                andExpect(jsonPath("$.updated", is(3))).
+                andDo(print());
+
+        verify(productService, times(1)).bulkUpdate(argThat(productBulkUpdateDTO ->
+                productBulkUpdateDTO.getPricePercentage().intValue() == -10 &&
+                categoryDTO.getId().toString().equals(productBulkUpdateDTO.getCategory_id())));
+        verifyNoMoreInteractions(productService);
+    }
+
+    @Test
+    @WithMockUser(roles = {"MANAGER", "ADMIN"})
+    void shouldReturn400WhenSendInvalidBulkUpdate() throws Exception {
+        mvc.perform(patch(URL_PATH).
+                contentType(MediaType.APPLICATION_JSON).
+                content("{\"product_ids\": [\"invalid\"], \"pricePercentage\": -100}")).
+                andExpect(status().isBadRequest()).
+                andExpect(jsonPath("$.errors.size()", is(2))).
+                andExpect(jsonPath("$.errors[0]", is("pricePercentage: Price percentage must be between -99 and 1000"))).
+                andExpect(jsonPath("$.errors[1]", is("product_ids[0]: Invalid product uuid"))).
+                andDo(print());
+
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void shouldReturn403WhenIsNotManagerInBulkUpdate() throws Exception {
+        mvc.perform(patch(URL_PATH).
+                contentType(MediaType.APPLICATION_JSON).
+                content("{\"minPrice\": 1, \"price\": 2}")).
+                andExpect(status().isForbidden()).andDo(print());
+
+        verifyNoInteractions(productService);
+    }
+
     @Test
     @WithMockUser(roles = {"MANAGER", "ADMIN"})
     void shouldAddCategoryInProductByUUIDAndReturn200WhenIsAuthenticated() throws Exception {
@@ -0,0 +1,125 @@
+package com.soaresdev.productorderapi.controllers.v1;
+
+import com.soaresdev.productorderapi.configs.SecurityConfig;
+import com.soaresdev.productorderapi.dtos.ReconciliationIssueDTO;
+import com.soaresdev.productorderapi.dtos.ReconciliationRunDTO;
+import com.soaresdev.productorderapi.entities.ReconciliationIssue;
+import com.soaresdev.productorderapi.entities.ReconciliationRun;
+import com.soaresdev.productorderapi.entities.enums.OrderStatus;
+import com.soaresdev.productorderapi.entities.enums.ReconciliationIssueType;
+import com.soaresdev.productorderapi.security.jwt.JwtTokenProvider;
+import com.soaresdev.productorderapi.services.ReconciliationService;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithAnonymousUser;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@Import(SecurityConfig.class)
+@WebMvcTest(ReconciliationController.class)
+class ReconciliationControllerTest {
+    @Autowired
+    private MockMvc mvc;
+
+    @MockBean
+    private ReconciliationService reconciliationService;
+
+    @MockBean
+    private JwtTokenProvider jwtTokenProvider;
+
+    private static final String URL_PATH = "/v1/reconciliation/runs";
+    private static final UUID RUN_ID = UUID.randomUUID();
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void shouldFindRunsAndReturn200WhenIsAdmin() throws Exception {
+        ReconciliationRun run = new ReconciliationRun(Instant.parse("2023-07-20T04:30:00Z"), 16);
+        run.setId(RUN_ID);
+        run.finish(Instant.parse("2023-07-20T04:31:00Z"), 10L, 1L);
+        when(reconciliationService.findRuns(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(new ReconciliationRunDTO(run))));
+
+        mvc.perform(get(URL_PATH).accept(MediaType.APPLICATION_JSON)).
+                andExpect(status().isOk()).
+                andExpect(jsonPath("$.content[0].id", is(RUN_ID.toString()))).
+                andExpect(jsonPath("$.content[0].finishedAt", is("2023-07-20T04:31:00.000000000Z"))).
+                andExpect(jsonPath("$.content[0].checked", is(10))).
+                andExpect(jsonPath("$.content[0].issues", is(1))).
+                andDo(print());
+
+        verify(reconciliationService, times(1)).findRuns(any(Pageable.class));
+        verifyNoMoreInteractions(reconciliationService);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void shouldFindIssuesOfRunAndReturn200WhenIsAdmin() throws Exception {
+        UUID orderId = UUID.randomUUID();
+        ReconciliationIssue issue = new ReconciliationIssue(RUN_ID, ReconciliationIssueType.PAID_WITHOUT_PAYMENT, orderId,
+                OrderStatus.SHIPPED.getCode(), BigDecimal.TEN, null, null);
+        when(reconciliationService.findIssues(eq(RUN_ID.toString()), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(new ReconciliationIssueDTO(issue))));
+
+        mvc.perform(get(URL_PATH + "/{uuid}/issues", RUN_ID).accept(MediaType.APPLICATION_JSON)).
+                andExpect(status().isOk()).
+                andExpect(jsonPath("$.content[0].issueType", is("PAID_WITHOUT_PAYMENT"))).
+                andExpect(jsonPath("$.content[0].orderId", is(orderId.toString()))).
+                andExpect(jsonPath("$.content[0].orderStatus", is("SHIPPED"))).
+                andExpect(jsonPath("$.content[0].paymentId").doesNotExist()).
+                andDo(print());
+
+        verify(reconciliationService, times(1)).findIssues(eq(RUN_ID.toString()), any(Pageable.class));
+        verifyNoMoreInteractions(reconciliationService);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void shouldReturn404WhenRunNotFoundInFindIssues() throws Exception {
+        when(reconciliationService.findIssues(any(), any(Pageable.class)))
+                .thenThrow(new EntityNotFoundException("Reconciliation run not found"));
+
+        mvc.perform(get(URL_PATH + "/{uuid}/issues", RUN_ID)).
+                andExpect(status().isNotFound()).
+                andExpect(jsonPath("$.message", is("Reconciliation run not found"))).
+                andDo(print());
+    }
+
+    @Test
+    @WithMockUser(roles = {"USER", "MANAGER"})
+    void shouldReturn403WhenIsNotAdminInFindIssues() throws Exception {
+        mvc.perform(get(URL_PATH + "/{uuid}/issues", RUN_ID)).
+                andExpect(status().isForbidden()).
+                andDo(print());
+
+        verifyNoInteractions(reconciliationService);
+    }
+
+    @Test
+    @WithAnonymousUser
+    void shouldReturn403WhenIsNotAuthenticatedInFindRuns() throws Exception {
+        mvc.perform(get(URL_PATH)).
+                andExpect(status().isForbidden()).
+                andDo(print());
+
+        verifyNoInteractions(reconciliationService);
+    }
+}
@@ -3,12 +3,16 @@ package com.soaresdev.productorderapi.controllers.v1;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import com.soaresdev.productorderapi.configs.SecurityConfig;
+import com.soaresdev.productorderapi.dtos.FieldSet;
+import com.soaresdev.productorderapi.dtos.OrderDTO;
 import com.soaresdev.productorderapi.dtos.UserDTO;
 import com.soaresdev.productorderapi.dtos.insertDTOs.UserInsertDTO;
 import com.soaresdev.productorderapi.dtos.insertDTOs.UserRoleInsertDTO;
 import com.soaresdev.productorderapi.entities.User;
+import com.soaresdev.productorderapi.entities.enums.OrderStatus;
 import com.soaresdev.productorderapi.entities.enums.RoleName;
 import com.soaresdev.productorderapi.security.jwt.JwtTokenProvider;
+import com.soaresdev.productorderapi.services.OrderService;
 import com.soaresdev.productorderapi.services.UserService;
 import jakarta.persistence.EntityExistsException;
 import jakarta.persistence.EntityNotFoundException;
@@ -27,6 +31,7 @@ import org.springframework.security.test.context.support.WithAnonymousUser;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
@@ -53,6 +58,9 @@ class UserControllerTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private OrderService orderService;
+
     private final XmlMapper xmlMapper = new XmlMapper();
 
     @MockBean
@@ -197,6 +205,46 @@ class UserControllerTest {
         verifyNoMoreInteractions(userService);
     }
 
+    @Test
+    @WithMockUser(roles = {"USER", "MANAGER", "ADMIN"})
+    void shouldFindOrdersByUserUUIDAndReturn200WhenIsAuthenticated() throws Exception {
+        OrderDTO orderDTO = new OrderDTO(UUID.randomUUID(), Instant.now(), validUserDTO, OrderStatus.WAITING_PAYMENT, null);
+        when(orderService.findAllByClient(anyString(), any(Pageable.class), any(FieldSet.class))).thenReturn(new PageImpl<>(List.of(orderDTO)));
+
+        mvc.perform(get(URL_PATH + "/{uuid}/orders", validUser.getId()).accept(MediaType.APPLICATION_JSON)).
+                andExpect(status().isOk()).
+                andExpect(content().contentType(MediaType.APPLICATION_JSON)).
+                andExpect(jsonPath("$.content.size()", is(1))).
+                andExpect(jsonPath("$.content[0].id", is(orderDTO.getId().toString()))).
+                andExpect(jsonPath("$.content[0].orderStatus", is(OrderStatus.WAITING_PAYMENT.name()))).
+                andExpect(jsonPath("$.content[0].client.email", is(validUserDTO.getEmail()))).
+                andDo(print());
+
+        verify(orderService, times(1)).findAllByClient(eq(validUser.getId().toString()), any(Pageable.class), any(FieldSet.class));
+        verifyNoMoreInteractions(orderService);
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void shouldReturn403WhenIsDifferentUserInFindOrdersByUserUUID() throws Exception {
+        when(orderService.findAllByClient(anyString(), any(Pageable.class), any(FieldSet.class))).thenThrow(new AccessDeniedException("Access denied"));
+
+        mvc.perform(get(URL_PATH + "/{uuid}/orders", validUser.getId()).accept(MediaType.APPLICATION_JSON)).
+                andExpect(status().isForbidden()).
+                andExpect(jsonPath("$.message", is("Access denied"))).
+                andDo(print());
+    }
+
+    @Test
+    @WithAnonymousUser
+    void shouldReturn403WhenIsNotAuthenticatedInFindOrdersByUserUUID() throws Exception {
+        mvc.perform(get(URL_PATH + "/{uuid}/orders", validUser.getId())).
+                andExpect(status().isForbidden()).andDo(print());
+
+        verifyNoInteractions(orderService);
+    }
+
     @Test
     @WithAnonymousUser
     void shouldInsertUserAsJsonAndReturn201() throws Exception {
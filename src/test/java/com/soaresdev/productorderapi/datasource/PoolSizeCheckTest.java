@@ -0,0 +1,30 @@
+package com.soaresdev.productorderapi.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class PoolSizeCheckTest {
+    @SuppressWarnings("unchecked")
+    private final ObjectProvider<HikariDataSource> dataSources = mock(ObjectProvider.class);
+
+    @Test
+    void shouldFlagPoolMuchSmallerThanRequestThreads() {
+        PoolSizeCheck poolSizeCheck = new PoolSizeCheck(dataSources, 200, 4);
+
+        assertTrue(poolSizeCheck.isUndersized(10));
+        assertTrue(poolSizeCheck.isUndersized(49));
+    }
+
+    @Test
+    void shouldAcceptPoolWithinThreadsPerConnectionRatio() {
+        PoolSizeCheck poolSizeCheck = new PoolSizeCheck(dataSources, 80, 4);
+
+        assertFalse(poolSizeCheck.isUndersized(20));
+        assertFalse(poolSizeCheck.isUndersized(40));
+        assertFalse(poolSizeCheck.isUndersized(0));
+    }
+}
@@ -0,0 +1,64 @@
+package com.soaresdev.productorderapi.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaRoutingDataSourceTest {
+    private DataSource primary;
+    private DataSource replica;
+
+    @BeforeEach
+    void setup() {
+        primary = getMarkedDataSource("jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1", "primary");
+        replica = getMarkedDataSource("jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1", "replica");
+    }
+
+    @Test
+    void shouldRouteReadOnlyTransactionsToReplicaAndOthersToPrimary() {
+        DataSource dataSource = getRoutingDataSource(replica);
+
+        assertEquals("replica", readMarker(dataSource, true));
+        assertEquals("primary", readMarker(dataSource, false));
+        assertEquals("primary", new JdbcTemplate(dataSource).queryForObject("SELECT name FROM marker", String.class));
+    }
+
+    @Test
+    void shouldFallbackToPrimaryWhenReplicaIsUnavailable() {
+        DataSource unavailableReplica = new DriverManagerDataSource("jdbc:h2:mem:routing-missing;IFEXISTS=TRUE", "sa", "");
+        DataSource dataSource = getRoutingDataSource(unavailableReplica);
+
+        assertEquals("primary", readMarker(dataSource, true));
+        assertEquals("primary", readMarker(dataSource, true));
+    }
+
+    private DataSource getRoutingDataSource(DataSource replica) {
+        return new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primary, replica, Duration.ofSeconds(30), Clock.systemUTC()));
+    }
+
+    private String readMarker(DataSource dataSource, boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status ->
+                new JdbcTemplate(dataSource).queryForObject("SELECT name FROM marker", String.class));
+    }
+
+    private DataSource getMarkedDataSource(String url, String name) {
+        DataSource dataSource = new DriverManagerDataSource(url, "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS marker (name VARCHAR(20))");
+        jdbcTemplate.execute("DELETE FROM marker");
+        jdbcTemplate.update("INSERT INTO marker VALUES (?)", name);
+        return dataSource;
+    }
+}
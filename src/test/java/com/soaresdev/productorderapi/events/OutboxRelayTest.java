@@ -0,0 +1,157 @@
+package com.soaresdev.productorderapi.events;
+
+import com.soaresdev.productorderapi.entities.OutboxEvent;
+import com.soaresdev.productorderapi.entities.enums.OutboxEventType;
+import com.soaresdev.productorderapi.repositories.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class OutboxRelayTest {
+    private static final Instant NOW = Instant.parse("2023-07-20T21:09:00Z");
+
+    private OutboxEventRepository outboxEventRepository;
+    private OutboxEventSink sink;
+    private MeterRegistry meterRegistry;
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setup() {
+        outboxEventRepository = mock(OutboxEventRepository.class);
+        sink = mock(OutboxEventSink.class);
+        meterRegistry = new SimpleMeterRegistry();
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.getTransactionManager()).thenReturn(mock(PlatformTransactionManager.class));
+        when(transactionTemplate.execute(any())).thenAnswer(invocationOnMock ->
+                invocationOnMock.getArgument(0, TransactionCallback.class).doInTransaction(null));
+        outboxRelay = new OutboxRelay(outboxEventRepository, List.of(sink), transactionTemplate,
+                Clock.fixed(NOW, ZoneOffset.UTC), meterRegistry, 2, 3);
+    }
+
+    @Test
+    void shouldPublishPendingEventsUntilBatchIsNotFull() throws Exception {
+        OutboxEvent first = getEvent(NOW.minusSeconds(3));
+        OutboxEvent second = getEvent(NOW.minusSeconds(2));
+        OutboxEvent third = getEvent(NOW.minusSeconds(1));
+        when(outboxEventRepository.findPendingForUpdate(any(Pageable.class)))
+                .thenReturn(List.of(first, second), List.of(third));
+
+        outboxRelay.relay();
+
+        assertEquals(NOW, first.getPublishedAt());
+        assertEquals(NOW, second.getPublishedAt());
+        assertEquals(NOW, third.getPublishedAt());
+        assertEquals(3, meterRegistry.counter("outbox.events.published").count());
+        assertEquals(3, meterRegistry.timer("outbox.events.lag").count());
+        verify(sink, times(1)).publishAll(List.of(first, second));
+        verify(sink, times(1)).publishAll(List.of(third));
+        verify(outboxEventRepository, times(2)).findPendingForUpdate(any(Pageable.class));
+        verify(outboxEventRepository, times(2)).saveAll(anyList());
+    }
+
+    @Test
+    void shouldNotMarkEventsAsPublishedWhenSinkFails() throws Exception {
+        OutboxEvent event = getEvent(NOW.minusSeconds(1));
+        when(outboxEventRepository.findPendingForUpdate(any(Pageable.class))).thenReturn(List.of(event));
+        doThrow(new IllegalStateException("Sink down")).when(sink).publishAll(anyList());
+
+        outboxRelay.relay();
+
+        assertNull(event.getPublishedAt());
+        assertNull(event.getParkedAt());
+        assertEquals(1, event.getAttempts());
+        assertTrue(event.getLastError().endsWith("Sink down"));
+        assertEquals(0, meterRegistry.counter("outbox.events.published").count());
+        assertEquals(1, meterRegistry.counter("outbox.events.failed").count());
+        verify(outboxEventRepository, times(1)).saveAll(List.of(event));
+    }
+
+    @Test
+    void shouldPublishLaterEventsWhenOneEventAlwaysFails() {
+        OutboxEvent poison = getEvent(NOW.minusSeconds(2));
+        OutboxEvent later = getEvent(NOW.minusSeconds(1));
+        RecordingSink recordingSink = new RecordingSink();
+        OutboxRelay relay = getRelay(List.of(new FailingSink(poison), recordingSink));
+        when(outboxEventRepository.findPendingForUpdate(any(Pageable.class)))
+                .thenReturn(List.of(poison, later), List.of(poison));
+
+        relay.relay();
+        relay.relay();
+
+        assertEquals(NOW, later.getPublishedAt());
+        assertNull(poison.getPublishedAt());
+        assertEquals(2, poison.getAttempts());
+        assertEquals("FailingSink: Poison event", poison.getLastError());
+        assertEquals(List.of(poison, later), recordingSink.published);
+        assertEquals(1, meterRegistry.counter("outbox.events.published").count());
+    }
+
+    @Test
+    void shouldParkEventAfterMaxAttempts() {
+        OutboxEvent poison = getEvent(NOW.minusSeconds(1));
+        poison.setAttempts(2);
+        OutboxRelay relay = getRelay(List.of(new FailingSink(poison)));
+        when(outboxEventRepository.findPendingForUpdate(any(Pageable.class))).thenReturn(List.of(poison));
+
+        relay.relay();
+
+        assertEquals(3, poison.getAttempts());
+        assertEquals(NOW, poison.getParkedAt());
+        assertNull(poison.getPublishedAt());
+        assertEquals(1, meterRegistry.counter("outbox.events.parked").count());
+    }
+
+    private OutboxRelay getRelay(List<OutboxEventSink> sinks) {
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.getTransactionManager()).thenReturn(mock(PlatformTransactionManager.class));
+        when(transactionTemplate.execute(any())).thenAnswer(invocationOnMock ->
+                invocationOnMock.getArgument(0, TransactionCallback.class).doInTransaction(null));
+        return new OutboxRelay(outboxEventRepository, sinks, transactionTemplate, Clock.fixed(NOW, ZoneOffset.UTC),
+                meterRegistry, 2, 3);
+    }
+
+    private OutboxEvent getEvent(Instant createdAt) {
+        OutboxEvent event = new OutboxEvent(OutboxEventType.PAYMENT_INSERTED, UUID.randomUUID(), "{}", createdAt);
+        event.setId(UUID.randomUUID());
+        return event;
+    }
+
+    private static class FailingSink implements OutboxEventSink {
+        private final OutboxEvent poison;
+
+        FailingSink(OutboxEvent poison) {
+            this.poison = poison;
+        }
+
+        @Override
+        public void publish(OutboxEvent event) {
+            if(event.equals(poison))
+                throw new IllegalStateException("Poison event");
+        }
+    }
+
+    private static class RecordingSink implements OutboxEventSink {
+        private final List<OutboxEvent> published = new ArrayList<>();
+
+        @Override
+        public void publish(OutboxEvent event) {
+            published.add(event);
+        }
+    }
+}
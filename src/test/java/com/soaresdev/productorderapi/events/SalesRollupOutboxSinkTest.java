@@ -0,0 +1,66 @@
+package com.soaresdev.productorderapi.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.soaresdev.productorderapi.entities.OutboxEvent;
+import com.soaresdev.productorderapi.entities.enums.OutboxEventType;
+import com.soaresdev.productorderapi.services.SalesRollupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+
+class SalesRollupOutboxSinkTest {
+    private SalesRollupService salesRollupService;
+    private SalesRollupOutboxSink sink;
+
+    @BeforeEach
+    void setup() {
+        salesRollupService = mock(SalesRollupService.class);
+        sink = new SalesRollupOutboxSink(salesRollupService, new ObjectMapper());
+    }
+
+    @Test
+    void shouldRebuildDayOfPaymentWhenPaymentChanges() throws Exception {
+        sink.publish(getEvent(OutboxEventType.PAYMENT_DELETED, "{\"moment\":\"2023-07-20T23:30:00Z\"}"));
+
+        verify(salesRollupService, times(1)).rebuildDay(LocalDate.parse("2023-07-20"));
+        verifyNoMoreInteractions(salesRollupService);
+    }
+
+    @Test
+    void shouldRebuildEachDayOnceForBatch() throws Exception {
+        sink.publishAll(List.of(
+                getEvent(OutboxEventType.PAYMENT_INSERTED, "{\"moment\":\"2023-07-21T10:00:00Z\"}"),
+                getEvent(OutboxEventType.PAYMENT_UPDATED, "{\"moment\":\"2023-07-20T09:00:00Z\"}"),
+                getEvent(OutboxEventType.ORDER_UPDATED, "{\"orderStatus\":\"PAID\"}"),
+                getEvent(OutboxEventType.PAYMENT_UPDATED, "{\"moment\":\"2023-07-21T10:00:00Z\"}")));
+
+        InOrder inOrder = inOrder(salesRollupService);
+        inOrder.verify(salesRollupService).rebuildDay(LocalDate.parse("2023-07-20"));
+        inOrder.verify(salesRollupService).rebuildDay(LocalDate.parse("2023-07-21"));
+        verifyNoMoreInteractions(salesRollupService);
+    }
+
+    @Test
+    void shouldIgnoreOrderEvents() throws Exception {
+        sink.publish(getEvent(OutboxEventType.ORDER_UPDATED, "{\"orderStatus\":\"SHIPPED\"}"));
+
+        verifyNoInteractions(salesRollupService);
+    }
+
+    @Test
+    void shouldIgnorePaymentEventsWithoutMoment() throws Exception {
+        sink.publish(getEvent(OutboxEventType.PAYMENT_INSERTED, "{\"amount\":10}"));
+
+        verifyNoInteractions(salesRollupService);
+    }
+
+    private OutboxEvent getEvent(OutboxEventType eventType, String payload) {
+        return new OutboxEvent(eventType, UUID.randomUUID(), payload, Instant.now());
+    }
+}
@@ -0,0 +1,86 @@
+package com.soaresdev.productorderapi.exceptions;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ErrorResponseWriterTest {
+    private static final Instant TIMESTAMP = Instant.parse("2023-06-01T10:15:30.123456789Z");
+
+    private ErrorResponseWriter errorResponseWriter;
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setup() {
+        errorResponseWriter = new ErrorResponseWriter(Jackson2ObjectMapperBuilder.json().build());
+        objectMapper = new ObjectMapper();
+    }
+
+    @Test
+    void shouldWriteOnlyErrorBodiesAsJson() {
+        assertTrue(errorResponseWriter.canWrite(StandardError.class, MediaType.APPLICATION_JSON));
+        assertTrue(errorResponseWriter.canWrite(StandardInsertDTOError.class, MediaType.APPLICATION_JSON));
+        assertFalse(errorResponseWriter.canWrite(StandardError.class, MediaType.APPLICATION_XML));
+        assertFalse(errorResponseWriter.canWrite(String.class, MediaType.APPLICATION_JSON));
+        assertFalse(errorResponseWriter.canRead(StandardError.class, MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void shouldWriteStandardError() throws Exception {
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+
+        errorResponseWriter.write(new StandardError(TIMESTAMP, 404, "EntityNotFoundException", "Product not found",
+                "/v1/products/1"), MediaType.APPLICATION_JSON, outputMessage);
+
+        JsonNode body = objectMapper.readTree(outputMessage.getBodyAsBytes());
+        assertEquals("2023-06-01T10:15:30.123456789Z", body.get("timestamp").asText());
+        assertEquals(404, body.get("status").asInt());
+        assertEquals("EntityNotFoundException", body.get("error").asText());
+        assertEquals("Product not found", body.get("message").asText());
+        assertEquals("/v1/products/1", body.get("path").asText());
+        assertEquals(MediaType.APPLICATION_JSON, outputMessage.getHeaders().getContentType());
+    }
+
+    @Test
+    void shouldWriteStandardInsertDTOError() throws Exception {
+        StandardInsertDTOError insertDTOError = new StandardInsertDTOError();
+        insertDTOError.setTimestamp(TIMESTAMP);
+        insertDTOError.setStatus(400);
+        insertDTOError.setErrors(List.of("name: must not be blank"));
+        insertDTOError.setPath("/v1/products");
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+
+        errorResponseWriter.write(insertDTOError, MediaType.APPLICATION_JSON, outputMessage);
+
+        JsonNode body = objectMapper.readTree(outputMessage.getBodyAsBytes());
+        assertEquals(400, body.get("status").asInt());
+        assertEquals("name: must not be blank", body.get("errors").get(0).asText());
+        assertEquals("/v1/products", body.get("path").asText());
+    }
+
+    @Test
+    void shouldStreamErrorToServletResponse() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        errorResponseWriter.write(new MockHttpServletRequest("GET", "/v1/orders"), response, HttpStatus.UNAUTHORIZED,
+                new IllegalStateException("Expired"));
+
+        JsonNode body = objectMapper.readTree(response.getContentAsByteArray());
+        assertEquals(HttpStatus.UNAUTHORIZED.value(), response.getStatus());
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, response.getContentType());
+        assertEquals("IllegalStateException", body.get("error").asText());
+        assertEquals("Expired", body.get("message").asText());
+        assertEquals("/v1/orders", body.get("path").asText());
+    }
+}
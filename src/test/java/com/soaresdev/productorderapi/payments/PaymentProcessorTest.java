@@ -0,0 +1,156 @@
+package com.soaresdev.productorderapi.payments;
+
+import com.soaresdev.productorderapi.entities.Order;
+import com.soaresdev.productorderapi.entities.Payment;
+import com.soaresdev.productorderapi.entities.User;
+import com.soaresdev.productorderapi.entities.enums.OrderStatus;
+import com.soaresdev.productorderapi.entities.enums.OutboxEventType;
+import com.soaresdev.productorderapi.entities.enums.PaymentStatus;
+import com.soaresdev.productorderapi.entities.enums.PaymentType;
+import com.soaresdev.productorderapi.repositories.PaymentRepository;
+import com.soaresdev.productorderapi.services.OrderSummaryService;
+import com.soaresdev.productorderapi.services.OutboxService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PaymentProcessorTest {
+    private static final Instant NOW = Instant.parse("2023-07-20T21:09:00Z");
+
+    private PaymentGateway paymentGateway;
+    private PaymentRepository paymentRepository;
+    private OutboxService outboxService;
+    private OrderSummaryService orderSummaryService;
+    private MeterRegistry meterRegistry;
+    private PaymentProcessor paymentProcessor;
+    private Payment payment;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setup() {
+        paymentGateway = mock(PaymentGateway.class);
+        paymentRepository = mock(PaymentRepository.class);
+        outboxService = mock(OutboxService.class);
+        orderSummaryService = mock(OrderSummaryService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocationOnMock ->
+                invocationOnMock.getArgument(0, TransactionCallback.class).doInTransaction(null));
+        paymentProcessor = new PaymentProcessor(paymentGateway, paymentRepository, outboxService, orderSummaryService,
+                transactionTemplate, Clock.fixed(NOW, ZoneOffset.UTC), meterRegistry, true, 1, 1, Duration.ofMinutes(5));
+
+        Order order = new Order(NOW.minusSeconds(60), OrderStatus.WAITING_PAYMENT, new User("t", "t", "t", "t"));
+        order.setId(UUID.randomUUID());
+        payment = new Payment(NOW.minusSeconds(10), PaymentType.PIX, order);
+        payment.setId(UUID.randomUUID());
+        payment.setAmount(BigDecimal.TEN);
+        payment.setPaymentStatus(PaymentStatus.PENDING);
+        when(paymentRepository.findById(payment.getId())).thenReturn(Optional.of(payment));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        paymentProcessor.shutdown();
+    }
+
+    @Test
+    void shouldCompletePaymentAndMarkOrderAsPaidWhenApproved() throws Exception {
+        when(paymentGateway.charge(payment.getId(), PaymentType.PIX, BigDecimal.TEN)).thenReturn(true);
+
+        paymentProcessor.process(payment.getId(), PaymentType.PIX, BigDecimal.TEN);
+
+        assertEquals(PaymentStatus.COMPLETED.getCode(), payment.getPaymentStatus());
+        assertEquals(NOW, payment.getMoment());
+        assertEquals(OrderStatus.PAID.getCode(), payment.getOrder().getOrderStatus());
+        assertEquals(1, meterRegistry.counter("payments.async.completed").count());
+        verify(outboxService, times(1)).paymentChanged(OutboxEventType.PAYMENT_INSERTED, payment);
+        verify(orderSummaryService, times(1)).paymentChanged(payment.getOrder(), payment);
+    }
+
+    @Test
+    void shouldCompletePaymentWithoutReopeningOrderCanceledWhilePending() throws Exception {
+        payment.getOrder().setOrderStatus(OrderStatus.CANCELED);
+        when(paymentGateway.charge(payment.getId(), PaymentType.PIX, BigDecimal.TEN)).thenReturn(true);
+
+        paymentProcessor.process(payment.getId(), PaymentType.PIX, BigDecimal.TEN);
+
+        assertEquals(PaymentStatus.COMPLETED.getCode(), payment.getPaymentStatus());
+        assertEquals(OrderStatus.CANCELED.getCode(), payment.getOrder().getOrderStatus());
+    }
+
+    @Test
+    void shouldFailPaymentAndKeepOrderOpenWhenDeclinedOrGatewayFails() throws Exception {
+        when(paymentGateway.charge(any(), any(), any())).thenThrow(new IllegalStateException("Provider down"));
+
+        paymentProcessor.process(payment.getId(), PaymentType.PIX, BigDecimal.TEN);
+
+        assertEquals(PaymentStatus.FAILED.getCode(), payment.getPaymentStatus());
+        assertEquals(OrderStatus.WAITING_PAYMENT.getCode(), payment.getOrder().getOrderStatus());
+        assertFalse(payment.getOrder().hasPayment());
+        assertEquals(1, meterRegistry.counter("payments.async.declined").count());
+        verifyNoInteractions(outboxService, orderSummaryService);
+    }
+
+    @Test
+    void shouldNotCompletePaymentThatIsNoLongerPending() throws Exception {
+        payment.setPaymentStatus(PaymentStatus.COMPLETED);
+        when(paymentGateway.charge(any(), any(), any())).thenReturn(false);
+
+        paymentProcessor.process(payment.getId(), PaymentType.PIX, BigDecimal.TEN);
+
+        assertEquals(PaymentStatus.COMPLETED.getCode(), payment.getPaymentStatus());
+        assertEquals(0, meterRegistry.counter("payments.async.declined").count());
+    }
+
+    @Test
+    void shouldRefuseReservationsBeyondWorkersAndQueueCapacity() {
+        assertTrue(paymentProcessor.tryReserve());
+        assertTrue(paymentProcessor.tryReserve());
+        assertFalse(paymentProcessor.tryReserve());
+        paymentProcessor.release();
+
+        assertTrue(paymentProcessor.tryReserve());
+        assertEquals(1, meterRegistry.counter("payments.async.rejected").count());
+    }
+
+    @Test
+    void shouldProcessSubmittedPaymentOnWorkerAndGiveItsSlotBack() throws Exception {
+        when(paymentGateway.charge(any(), any(), any())).thenReturn(true);
+        assertTrue(paymentProcessor.tryReserve());
+
+        paymentProcessor.submitAfterCommit(payment.getId(), PaymentType.PIX, BigDecimal.TEN);
+        paymentProcessor.shutdown();
+
+        assertEquals(PaymentStatus.COMPLETED.getCode(), payment.getPaymentStatus());
+        verify(paymentGateway, times(1)).charge(payment.getId(), PaymentType.PIX, BigDecimal.TEN);
+    }
+
+    @Test
+    void shouldResubmitStalePendingPayments() throws Exception {
+        when(paymentRepository.findByPaymentStatusAndMomentBefore(eq(PaymentStatus.PENDING.getCode()),
+                eq(NOW.minus(Duration.ofMinutes(5))), any(Pageable.class))).thenReturn(List.of(payment));
+        when(paymentGateway.charge(any(), any(), any())).thenReturn(true);
+
+        paymentProcessor.recover();
+        paymentProcessor.shutdown();
+
+        assertEquals(PaymentStatus.COMPLETED.getCode(), payment.getPaymentStatus());
+    }
+}
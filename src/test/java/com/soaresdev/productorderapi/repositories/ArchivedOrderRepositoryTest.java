@@ -0,0 +1,175 @@
+package com.soaresdev.productorderapi.repositories;
+
+import com.soaresdev.productorderapi.configs.ClockConfig;
+import com.soaresdev.productorderapi.entities.*;
+import com.soaresdev.productorderapi.entities.enums.OrderStatus;
+import com.soaresdev.productorderapi.entities.enums.PaymentType;
+import com.soaresdev.productorderapi.services.OrderArchivalService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles(value = "test")
+@Import({OrderArchivalService.class, ClockConfig.class})
+class ArchivedOrderRepositoryTest {
+    private static final Instant OLD = Instant.parse("2023-01-10T10:00:00Z");
+    private static final Instant CUTOFF = Instant.parse("2023-06-01T00:00:00Z");
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private OrderArchivalService orderArchivalService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User user;
+    private Product product;
+
+    @BeforeEach
+    void setup() {
+        user = userRepository.save(new User("t", "t", "t", "t"));
+        product = productRepository.save(new Product("t", "t", BigDecimal.TEN, "t"));
+    }
+
+    @Test
+    void shouldFindClosedOrdersOlderThanCutoffOldestFirst() {
+        Order older = saveOrder(OLD, OrderStatus.DELIVERED, false);
+        Order newer = saveOrder(OLD.plusSeconds(60), OrderStatus.CANCELED, false);
+        saveOrder(OLD, OrderStatus.WAITING_PAYMENT, false);
+        saveOrder(OLD, OrderStatus.PAID, true);
+        saveOrder(OLD, OrderStatus.SHIPPED, true);
+        saveOrder(CUTOFF.plusSeconds(60), OrderStatus.DELIVERED, false);
+
+        List<UUID> result = orderRepository.findArchivableIds(CUTOFF,
+                List.of(OrderStatus.DELIVERED.getCode(), OrderStatus.CANCELED.getCode()), PageRequest.of(0, 10));
+
+        assertEquals(List.of(older.getId(), newer.getId()), result);
+    }
+
+    @Test
+    void shouldMoveOrderWithItemsAndPaymentToArchive() {
+        Order order = saveOrder(OLD, OrderStatus.DELIVERED, true);
+        Order recent = saveOrder(CUTOFF.plusSeconds(60), OrderStatus.DELIVERED, true);
+        flushAndClear();
+
+        int archived = orderArchivalService.archiveBatch(CUTOFF, 10);
+        flushAndClear();
+
+        assertEquals(1, archived);
+        assertFalse(orderRepository.existsById(order.getId()));
+        assertTrue(orderRepository.existsById(recent.getId()));
+        assertEquals(1, orderItemRepository.count());
+        assertEquals(1, paymentRepository.count());
+        ArchivedOrder archivedOrder = archivedOrderRepository.findById(order.getId()).orElseThrow();
+        assertEquals(OLD, archivedOrder.getMoment());
+        assertEquals(OrderStatus.DELIVERED.getCode(), archivedOrder.getOrderStatus());
+        assertEquals(user, archivedOrder.getClient());
+        assertNotNull(archivedOrder.getArchivedAt());
+        assertEquals(1, archivedOrder.getItems().size());
+        ArchivedOrderItem archivedItem = archivedOrder.getItems().iterator().next();
+        assertEquals(product.getId(), archivedItem.getProductId());
+        assertEquals(product.getName(), archivedItem.getProductName());
+        assertEquals(0, BigDecimal.valueOf(20).compareTo(archivedOrder.getTotal()));
+        assertEquals(0, BigDecimal.valueOf(20).compareTo(archivedOrder.getPayment().getAmount()));
+        assertEquals(PaymentType.PIX.getCode(), archivedOrder.getPayment().getPaymentType());
+    }
+
+    @Test
+    void shouldArchiveInBatchesOfTheGivenSize() {
+        saveOrder(OLD, OrderStatus.DELIVERED, false);
+        saveOrder(OLD.plusSeconds(60), OrderStatus.DELIVERED, false);
+        saveOrder(OLD.plusSeconds(120), OrderStatus.DELIVERED, false);
+        flushAndClear();
+
+        assertEquals(2, orderArchivalService.archiveBatch(CUTOFF, 2));
+        assertEquals(1, orderArchivalService.archiveBatch(CUTOFF, 2));
+        assertEquals(0, orderArchivalService.archiveBatch(CUTOFF, 2));
+        assertEquals(3, archivedOrderRepository.count());
+    }
+
+    @Test
+    void shouldFindArchivedOrderByIdOnlyForItsClient() {
+        User otherUser = userRepository.save(new User("t2", "t2", "t2", "t2"));
+        Order order = saveOrder(OLD, OrderStatus.DELIVERED, false);
+        flushAndClear();
+        orderArchivalService.archiveBatch(CUTOFF, 10);
+        flushAndClear();
+
+        assertTrue(archivedOrderRepository.findByIdAndClientId(order.getId(), user.getId()).isPresent());
+        assertTrue(archivedOrderRepository.findByIdAndClientId(order.getId(), otherUser.getId()).isEmpty());
+    }
+
+    @Test
+    void shouldKeepArchivedOrderWhenItsProductIsDeleted() {
+        Order order = saveOrder(OLD, OrderStatus.DELIVERED, true);
+        flushAndClear();
+        orderArchivalService.archiveBatch(CUTOFF, 10);
+        flushAndClear();
+
+        productRepository.delete(productRepository.findById(product.getId()).orElseThrow());
+        flushAndClear();
+
+        assertFalse(productRepository.existsById(product.getId()));
+        ArchivedOrder archivedOrder = archivedOrderRepository.findById(order.getId()).orElseThrow();
+        ArchivedOrderItem archivedItem = archivedOrder.getItems().iterator().next();
+        assertEquals(product.getId(), archivedItem.getProductId());
+        assertEquals(product.getName(), archivedItem.getProductName());
+        assertEquals(0, BigDecimal.valueOf(20).compareTo(archivedOrder.getTotal()));
+    }
+
+    @Test
+    void shouldDeleteArchivedOrdersWithTheirClient() {
+        saveOrder(OLD, OrderStatus.DELIVERED, true);
+        flushAndClear();
+        orderArchivalService.archiveBatch(CUTOFF, 10);
+        flushAndClear();
+
+        userRepository.delete(userRepository.findById(user.getId()).orElseThrow());
+        flushAndClear();
+
+        assertEquals(0, archivedOrderRepository.count());
+    }
+
+    private Order saveOrder(Instant moment, OrderStatus orderStatus, boolean paid) {
+        Order order = new Order(moment, orderStatus, user);
+        order.getItems().add(new OrderItem(order, product, 2));
+        order = orderRepository.save(order);
+        if(paid)
+            paymentRepository.save(new Payment(moment, PaymentType.PIX, order));
+        return order;
+    }
+
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
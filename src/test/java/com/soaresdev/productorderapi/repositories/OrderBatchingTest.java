@@ -0,0 +1,100 @@
+package com.soaresdev.productorderapi.repositories;
+
+import com.soaresdev.productorderapi.entities.Order;
+import com.soaresdev.productorderapi.entities.OrderItem;
+import com.soaresdev.productorderapi.entities.Product;
+import com.soaresdev.productorderapi.entities.User;
+import com.soaresdev.productorderapi.entities.enums.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles(value = "test")
+@Import(OrderBatchingTest.RoundTripCounterConfig.class)
+class OrderBatchingTest {
+    private static final int ITEMS = 50;
+    private static final AtomicInteger ROUND_TRIPS = new AtomicInteger();
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Test
+    void shouldSaveOrderWithFiftyItemsInBatchedRoundTrips() {
+        User user = userRepository.save(new User("t", "t", "t", "t"));
+        List<Product> products = new ArrayList<>();
+        for(int i = 0; i < ITEMS; i++)
+            products.add(new Product("p" + i, "d", BigDecimal.valueOf(i + 1), "https://img.com/" + i));
+        products = productRepository.saveAll(products);
+        testEntityManager.flush();
+        Order order = new Order(Instant.now(), OrderStatus.WAITING_PAYMENT, user);
+        for(Product product : products)
+            order.getItems().add(new OrderItem(order, product, 1));
+        ROUND_TRIPS.set(0);
+
+        orderRepository.save(order);
+        testEntityManager.flush();
+
+        //one batch for tb_order and one for the 50 tb_order_product rows
+        assertEquals(2, ROUND_TRIPS.get());
+        testEntityManager.clear();
+        assertEquals(ITEMS, orderRepository.findById(order.getId()).orElseThrow().getItems().size());
+    }
+
+    @TestConfiguration
+    static class RoundTripCounterConfig {
+        @Bean
+        static BeanPostProcessor roundTripCounter() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if(bean instanceof DataSource)
+                        return countingProxy(bean, DataSource.class);
+                    return bean;
+                }
+            };
+        }
+
+        //Wraps DataSource -> Connection -> Statement and counts every execute* call sent to the database
+        private static Object countingProxy(Object target, Class<?> type) {
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                if(method.getName().startsWith("execute"))
+                    ROUND_TRIPS.incrementAndGet();
+                try {
+                    Object result = method.invoke(target, args);
+                    Class<?> returnType = method.getReturnType();
+                    if(result != null && returnType.isInterface() && returnType.getName().startsWith("java.sql"))
+                        return countingProxy(result, returnType);
+                    return result;
+                }catch(InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+        }
+    }
+}
@@ -1,16 +1,28 @@
 package com.soaresdev.productorderapi.repositories;
 
+import com.soaresdev.productorderapi.dtos.OrderFilterDTO;
 import com.soaresdev.productorderapi.entities.Order;
+import com.soaresdev.productorderapi.entities.OrderItem;
+import com.soaresdev.productorderapi.entities.Payment;
+import com.soaresdev.productorderapi.entities.Product;
 import com.soaresdev.productorderapi.entities.User;
 import com.soaresdev.productorderapi.entities.enums.OrderStatus;
+import com.soaresdev.productorderapi.entities.enums.PaymentStatus;
+import com.soaresdev.productorderapi.entities.enums.PaymentType;
+import com.soaresdev.productorderapi.services.ReconciliationService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
+import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -23,6 +35,12 @@ class OrderRepositoryTest {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
     @Test
     void shouldFindAllOrdersWithPage() {
         User user = new User("t", "t", "t", "t");
@@ -40,4 +58,155 @@ class OrderRepositoryTest {
         assertEquals(order1, result.getContent().get(0));
         assertEquals(order2, result.getContent().get(1));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldFindIdsFilteredByClientStatusMomentAndTotal() {
+        User user = userRepository.save(new User("t", "t", "t", "t"));
+        User otherUser = userRepository.save(new User("t2", "t2", "t2", "t2"));
+        Product product = productRepository.save(new Product("t", "t", BigDecimal.TEN, "t"));
+        Instant now = Instant.now();
+        Order match = saveOrder(now.minusSeconds(60), OrderStatus.WAITING_PAYMENT, user, product, 2);
+        saveOrder(now.minusSeconds(60), OrderStatus.DELIVERED, user, product, 2);
+        saveOrder(now.minusSeconds(60), OrderStatus.WAITING_PAYMENT, otherUser, product, 2);
+        saveOrder(now.minusSeconds(7200), OrderStatus.WAITING_PAYMENT, user, product, 2);
+        saveOrder(now.minusSeconds(60), OrderStatus.WAITING_PAYMENT, user, product, 9);
+        OrderFilterDTO orderFilterDTO = new OrderFilterDTO();
+        orderFilterDTO.setClient_id(user.getId().toString());
+        orderFilterDTO.setOrderStatus(OrderStatus.WAITING_PAYMENT);
+        orderFilterDTO.setMinMoment(now.minusSeconds(3600));
+        orderFilterDTO.setMaxMoment(now);
+        orderFilterDTO.setMinTotal(BigDecimal.valueOf(20));
+        orderFilterDTO.setMaxTotal(BigDecimal.valueOf(50));
+
+        Page<UUID> result = orderRepository.findIds(OrderSpecifications.of(orderFilterDTO), PageRequest.of(0, 10));
+
+        assertEquals(1, result.getTotalElements());
+        assertEquals(List.of(match.getId()), result.getContent());
+    }
+
+    @Test
+    void shouldFindOrdersWithoutItemsWhenMaxTotalIsGiven() {
+        User user = userRepository.save(new User("t", "t", "t", "t"));
+        Order order = orderRepository.save(new Order(Instant.now(), OrderStatus.WAITING_PAYMENT, user));
+        OrderFilterDTO orderFilterDTO = new OrderFilterDTO();
+        orderFilterDTO.setMaxTotal(BigDecimal.ONE);
+
+        Page<UUID> result = orderRepository.findIds(OrderSpecifications.of(orderFilterDTO), PageRequest.of(0, 10));
+
+        assertEquals(List.of(order.getId()), result.getContent());
+    }
+
+    @Test
+    void shouldPageIdsSortedByClientNameAndHydrateThem() {
+        User userA = userRepository.save(new User("a", "a", "a", "a"));
+        User userB = userRepository.save(new User("b", "b", "b", "b"));
+        Order orderB = orderRepository.save(new Order(Instant.now(), OrderStatus.DELIVERED, userB));
+        Order orderA1 = orderRepository.save(new Order(Instant.now(), OrderStatus.DELIVERED, userA));
+        Order orderA2 = orderRepository.save(new Order(Instant.now(), OrderStatus.DELIVERED, userA));
+        Pageable pageable = PageRequest.of(0, 2, Sort.by("client.name"));
+
+        Page<UUID> firstPage = orderRepository.findIds(OrderSpecifications.of(new OrderFilterDTO()), pageable);
+        Page<UUID> secondPage = orderRepository.findIds(OrderSpecifications.of(new OrderFilterDTO()), pageable.next());
+        List<Order> hydrated = orderRepository.findByIdIn(firstPage.getContent());
+
+        assertEquals(3, firstPage.getTotalElements());
+        assertEquals(2, firstPage.getContent().size());
+        assertTrue(firstPage.getContent().containsAll(List.of(orderA1.getId(), orderA2.getId())));
+        assertEquals(List.of(orderB.getId()), secondPage.getContent());
+        assertEquals(2, hydrated.size());
+        assertTrue(hydrated.stream().allMatch(order -> order.getClient().equals(userA)));
+    }
+
+    @Test
+    void shouldFindOrderHeadersWithTotalSummedByTheDatabase() {
+        User user = userRepository.save(new User("t", "t", "t", "t"));
+        Product product = productRepository.save(new Product("t", "t", BigDecimal.TEN, "t"));
+        Order withItems = saveOrder(Instant.parse("2023-07-20T10:00:00Z"), OrderStatus.WAITING_PAYMENT, user, product, 3);
+        Order withoutItems = orderRepository.save(new Order(Instant.now(), OrderStatus.DELIVERED, user));
+
+        List<OrderHeader> result = orderRepository.findHeadersByIdIn(List.of(withItems.getId(), withoutItems.getId()));
+
+        assertEquals(2, result.size());
+        OrderHeader header = result.stream().filter(h -> h.getId().equals(withItems.getId())).findFirst().orElseThrow();
+        assertEquals(withItems.getMoment(), header.getMoment());
+        assertEquals(OrderStatus.WAITING_PAYMENT.getCode(), header.getOrderStatus());
+        assertEquals(0, BigDecimal.valueOf(30).compareTo(header.getTotal()));
+        OrderHeader emptyHeader = result.stream().filter(h -> h.getId().equals(withoutItems.getId())).findFirst().orElseThrow();
+        assertEquals(0, BigDecimal.ZERO.compareTo(emptyHeader.getTotal()));
+    }
+
+    @Test
+    void shouldFindOrderByIdOnlyForItsClient() {
+        User user = userRepository.save(new User("t", "t", "t", "t"));
+        User otherUser = userRepository.save(new User("t2", "t2", "t2", "t2"));
+        Order order = orderRepository.save(new Order(Instant.now(), OrderStatus.WAITING_PAYMENT, user));
+
+        assertEquals(order, orderRepository.findByIdAndClientId(order.getId(), user.getId()).orElseThrow());
+        assertTrue(orderRepository.findByIdAndClientId(order.getId(), otherUser.getId()).isEmpty());
+        assertTrue(orderRepository.existsByIdAndClientId(order.getId(), user.getId()));
+        assertFalse(orderRepository.existsByIdAndClientId(order.getId(), otherUser.getId()));
+    }
+
+    @Test
+    void shouldFindReconciliationRowsWithItemTotalAndCompletedPaymentOnly() {
+        User user = userRepository.save(new User("t", "t", "t", "t"));
+        Product product = productRepository.save(new Product("t", "t", BigDecimal.TEN, "t"));
+        Order paid = saveOrder(Instant.now(), OrderStatus.PAID, user, product, 3);
+        Payment payment = paymentRepository.save(new Payment(Instant.now(), PaymentType.PIX, paid));
+        Order declined = saveOrder(Instant.now(), OrderStatus.WAITING_PAYMENT, user, product, 1);
+        Payment failed = new Payment(Instant.now(), PaymentType.PIX, declined);
+        failed.setPaymentStatus(PaymentStatus.FAILED);
+        paymentRepository.save(failed);
+        Order empty = orderRepository.save(new Order(Instant.now(), OrderStatus.PAID, user));
+
+        List<ReconciliationRow> result = orderRepository.findReconciliationRows(new UUID(0L, 0L),
+                new UUID(-1L, -1L), PaymentStatus.COMPLETED.getCode(), PageRequest.of(0, 10));
+
+        assertEquals(3, result.size());
+        ReconciliationRow paidRow = result.stream().filter(r -> r.getOrderId().equals(paid.getId())).findFirst().orElseThrow();
+        assertEquals(OrderStatus.PAID.getCode(), paidRow.getOrderStatus());
+        assertEquals(0, BigDecimal.valueOf(30).compareTo(paidRow.getItemTotal()));
+        assertEquals(payment.getId(), paidRow.getPaymentId());
+        assertEquals(0, BigDecimal.valueOf(30).compareTo(paidRow.getPaymentAmount()));
+        ReconciliationRow declinedRow = result.stream().filter(r -> r.getOrderId().equals(declined.getId())).findFirst().orElseThrow();
+        assertNull(declinedRow.getPaymentId());
+        assertNull(declinedRow.getPaymentAmount());
+        ReconciliationRow emptyRow = result.stream().filter(r -> r.getOrderId().equals(empty.getId())).findFirst().orElseThrow();
+        assertEquals(0, BigDecimal.ZERO.compareTo(emptyRow.getItemTotal()));
+    }
+
+    @Test
+    void shouldSplitReconciliationRowsIntoDisjointIdRangesReadInKeysetChunks() {
+        User user = userRepository.save(new User("t", "t", "t", "t"));
+        for(int i = 0; i < 8; i++)
+            orderRepository.save(new Order(Instant.now(), OrderStatus.WAITING_PAYMENT, user));
+
+        List<UUID> firstHalf = readRange(ReconciliationService.lowerBound(0, 2), ReconciliationService.upperBound(0, 2), 3);
+        List<UUID> secondHalf = readRange(ReconciliationService.lowerBound(1, 2), ReconciliationService.upperBound(1, 2), 3);
+
+        assertEquals(8, firstHalf.size() + secondHalf.size());
+        //Ids are compared unsigned, the ones with the top bit set belong to the upper half
+        assertTrue(firstHalf.stream().allMatch(id -> id.getMostSignificantBits() >= 0));
+        assertTrue(secondHalf.stream().allMatch(id -> id.getMostSignificantBits() < 0));
+    }
+
+    private List<UUID> readRange(UUID after, UUID last, int chunkSize) {
+        List<UUID> ids = new ArrayList<>();
+        List<ReconciliationRow> chunk;
+        do {
+            chunk = orderRepository.findReconciliationRows(after, last, PaymentStatus.COMPLETED.getCode(),
+                    PageRequest.of(0, chunkSize));
+            for(ReconciliationRow row : chunk)
+                ids.add(row.getOrderId());
+            if(!chunk.isEmpty())
+                after = chunk.get(chunk.size() - 1).getOrderId();
+        }while(chunk.size() == chunkSize);
+        return ids;
+    }
+
+    private Order saveOrder(Instant moment, OrderStatus orderStatus, User client, Product product, int quantity) {
+        Order order = new Order(moment, orderStatus, client);
+        order.getItems().add(new OrderItem(order, product, quantity));
+        return orderRepository.save(order);
+    }
+}
@@ -0,0 +1,113 @@
+package com.soaresdev.productorderapi.repositories;
+
+import com.soaresdev.productorderapi.entities.*;
+import com.soaresdev.productorderapi.entities.enums.OrderStatus;
+import com.soaresdev.productorderapi.entities.enums.PaymentStatus;
+import com.soaresdev.productorderapi.entities.enums.PaymentType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles(value = "test")
+class OrderSummaryRepositoryTest {
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private OrderSummaryRepository orderSummaryRepository;
+
+    private static final Instant MOMENT = Instant.parse("2023-07-20T10:00:00Z");
+
+    @Test
+    void shouldFindOnlySummariesOfTheGivenClientOrderedByMoment() {
+        User user = userRepository.save(new User("t", "t", "t", "t"));
+        User otherUser = userRepository.save(new User("t2", "t2", "t2", "t2"));
+        Order older = orderRepository.save(new Order(MOMENT, OrderStatus.WAITING_PAYMENT, user));
+        Order newer = orderRepository.save(new Order(MOMENT.plusSeconds(60), OrderStatus.WAITING_PAYMENT, user));
+        Order other = orderRepository.save(new Order(MOMENT, OrderStatus.WAITING_PAYMENT, otherUser));
+        saveSummary(older);
+        saveSummary(newer);
+        saveSummary(other);
+
+        Page<OrderSummary> result = orderSummaryRepository.findByClientId(user.getId(),
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "moment")));
+
+        assertEquals(2, result.getTotalElements());
+        assertEquals(List.of(newer.getId(), older.getId()),
+                result.getContent().stream().map(OrderSummary::getOrderId).toList());
+    }
+
+    @Test
+    void shouldInsertMissingSummariesWithTotalItemCountAndPaymentType() {
+        User user = userRepository.save(new User("t", "t", "t", "t"));
+        Product product = productRepository.save(new Product("t", "t", BigDecimal.TEN, "t"));
+        Product otherProduct = productRepository.save(new Product("t2", "t2", BigDecimal.ONE, "t2"));
+        Order paid = new Order(MOMENT, OrderStatus.PAID, user);
+        paid.getItems().add(new OrderItem(paid, product, 2));
+        paid.getItems().add(new OrderItem(paid, otherProduct, 3));
+        paid = orderRepository.save(paid);
+        paymentRepository.save(new Payment(MOMENT, PaymentType.PIX, paid));
+        Order empty = orderRepository.save(new Order(MOMENT, OrderStatus.WAITING_PAYMENT, user));
+        Order alreadySummarized = orderRepository.save(new Order(MOMENT, OrderStatus.WAITING_PAYMENT, user));
+        saveSummary(alreadySummarized);
+
+        int inserted = orderSummaryRepository.insertMissing(PaymentStatus.COMPLETED.getCode());
+
+        assertEquals(2, inserted);
+        OrderSummary paidSummary = orderSummaryRepository.findById(paid.getId()).orElseThrow();
+        assertEquals(user.getId(), paidSummary.getClientId());
+        assertEquals(MOMENT, paidSummary.getMoment());
+        assertEquals(OrderStatus.PAID.getCode(), paidSummary.getOrderStatus());
+        assertEquals(0, BigDecimal.valueOf(23).compareTo(paidSummary.getTotal()));
+        assertEquals(2, paidSummary.getItemCount());
+        assertEquals(PaymentType.PIX.getCode(), paidSummary.getPaymentType());
+        OrderSummary emptySummary = orderSummaryRepository.findById(empty.getId()).orElseThrow();
+        assertEquals(0, BigDecimal.ZERO.compareTo(emptySummary.getTotal()));
+        assertEquals(0, emptySummary.getItemCount());
+        assertNull(emptySummary.getPaymentType());
+        assertEquals(0, orderSummaryRepository.insertMissing(PaymentStatus.COMPLETED.getCode()));
+    }
+
+    @Test
+    void shouldDeleteSummariesByClientId() {
+        User user = userRepository.save(new User("t", "t", "t", "t"));
+        User otherUser = userRepository.save(new User("t2", "t2", "t2", "t2"));
+        saveSummary(orderRepository.save(new Order(MOMENT, OrderStatus.WAITING_PAYMENT, user)));
+        Order other = orderRepository.save(new Order(MOMENT, OrderStatus.WAITING_PAYMENT, otherUser));
+        saveSummary(other);
+
+        orderSummaryRepository.deleteByClientId(user.getId());
+
+        assertEquals(List.of(other.getId()),
+                orderSummaryRepository.findAll().stream().map(OrderSummary::getOrderId).toList());
+    }
+
+    private void saveSummary(Order order) {
+        OrderSummary orderSummary = new OrderSummary(order.getId());
+        orderSummary.setClientId(order.getClient().getId());
+        orderSummary.setMoment(order.getMoment());
+        orderSummary.setOrderStatus(OrderStatus.valueOf(order.getOrderStatus()));
+        orderSummary.setTotal(order.getTotal());
+        orderSummary.setItemCount(order.getItems().size());
+        orderSummaryRepository.save(orderSummary);
+    }
+}
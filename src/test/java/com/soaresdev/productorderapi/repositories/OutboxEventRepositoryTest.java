@@ -0,0 +1,55 @@
+package com.soaresdev.productorderapi.repositories;
+
+import com.soaresdev.productorderapi.entities.OutboxEvent;
+import com.soaresdev.productorderapi.entities.enums.OutboxEventType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles(value = "test")
+class OutboxEventRepositoryTest {
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Test
+    void shouldFindOnlyPendingUnparkedEventsOrderedByCreation() {
+        Instant now = Instant.now();
+        OutboxEvent newer = outboxEventRepository.save(getEvent(now));
+        OutboxEvent older = outboxEventRepository.save(getEvent(now.minusSeconds(10)));
+        OutboxEvent published = getEvent(now.minusSeconds(20));
+        published.setPublishedAt(now);
+        outboxEventRepository.save(published);
+        OutboxEvent parked = getEvent(now.minusSeconds(30));
+        parked.setParkedAt(now);
+        outboxEventRepository.save(parked);
+
+        List<OutboxEvent> result = outboxEventRepository.findPendingForUpdate(PageRequest.of(0, 10));
+
+        assertEquals(List.of(older, newer), result);
+        assertEquals(2, outboxEventRepository.countByPublishedAtIsNullAndParkedAtIsNull());
+        assertEquals(1, outboxEventRepository.countByParkedAtIsNotNull());
+    }
+
+    @Test
+    void shouldLimitPendingEventsToBatchSize() {
+        Instant now = Instant.now();
+        for(int i = 0; i < 5; i++)
+            outboxEventRepository.save(getEvent(now.plusSeconds(i)));
+
+        List<OutboxEvent> result = outboxEventRepository.findPendingForUpdate(PageRequest.of(0, 3));
+
+        assertEquals(3, result.size());
+    }
+
+    private OutboxEvent getEvent(Instant createdAt) {
+        return new OutboxEvent(OutboxEventType.ORDER_UPDATED, UUID.randomUUID(), "{}", createdAt);
+    }
+}
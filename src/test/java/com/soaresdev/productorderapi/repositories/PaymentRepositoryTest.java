@@ -4,6 +4,7 @@ import com.soaresdev.productorderapi.entities.Order;
 import com.soaresdev.productorderapi.entities.Payment;
 import com.soaresdev.productorderapi.entities.User;
 import com.soaresdev.productorderapi.entities.enums.OrderStatus;
+import com.soaresdev.productorderapi.entities.enums.PaymentStatus;
 import com.soaresdev.productorderapi.entities.enums.PaymentType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.MethodOrderer;
@@ -16,6 +17,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.ActiveProfiles;
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -52,13 +54,36 @@ class PaymentRepositoryTest {
     @org.junit.jupiter.api.Order(1)
     @Test
     void shouldPaymentExistsByOrderId() {
-        assertTrue(paymentRepository.existsByOrderId(order.getId()));
+        assertTrue(paymentRepository.existsByOrderId(order.getId(), PaymentStatus.FAILED.getCode()));
     }
 
     @org.junit.jupiter.api.Order(2)
     @Test
     void shouldPaymentNotExistsByOrderId() {
-        assertFalse(paymentRepository.existsByOrderId(UUID.randomUUID()));
+        assertFalse(paymentRepository.existsByOrderId(UUID.randomUUID(), PaymentStatus.FAILED.getCode()));
+    }
+
+    @Test
+    void shouldNotCountFailedPaymentAndDeleteItByOrderId() {
+        payment.setPaymentStatus(PaymentStatus.FAILED);
+        paymentRepository.saveAndFlush(payment);
+
+        assertFalse(paymentRepository.existsByOrderId(order.getId(), PaymentStatus.FAILED.getCode()));
+        paymentRepository.deleteFailedByOrderId(order.getId(), PaymentStatus.FAILED.getCode());
+        assertFalse(paymentRepository.existsById(payment.getId()));
+    }
+
+    @Test
+    void shouldFindPendingPaymentsOlderThanMoment() {
+        Order otherOrder = orderRepository.save(new Order(Instant.now(), OrderStatus.WAITING_PAYMENT, user));
+        Payment pending = new Payment(Instant.parse("2023-07-20T10:00:00Z"), PaymentType.PIX, otherOrder);
+        pending.setPaymentStatus(PaymentStatus.PENDING);
+        pending = paymentRepository.save(pending);
+
+        List<Payment> result = paymentRepository.findByPaymentStatusAndMomentBefore(PaymentStatus.PENDING.getCode(),
+                Instant.parse("2023-07-20T10:05:00Z"), PageRequest.of(0, 10));
+
+        assertEquals(List.of(pending), result);
     }
 
     @Test
@@ -83,4 +108,23 @@ class PaymentRepositoryTest {
         assertEquals(payment, result.getContent().get(0));
         assertEquals(payment2, result.getContent().get(1));
     }
+
+    @Test
+    void shouldFindAllPaymentViewsWithPage() {
+        Page<PaymentView> result = paymentRepository.findAllViews(PageRequest.of(0, 10));
+
+        assertEquals(1, result.getTotalElements());
+        assertEquals(payment.getId(), result.getContent().get(0).getId());
+        assertEquals(order.getId(), result.getContent().get(0).getOrderId());
+        assertEquals(PaymentType.PIX.getCode(), result.getContent().get(0).getPaymentType());
+        assertEquals(0, payment.getAmount().compareTo(result.getContent().get(0).getAmount()));
+    }
+
+    @Test
+    void shouldFindPaymentByIdOnlyForItsOrderClient() {
+        User otherUser = userRepository.save(new User("t2", "t2", "t2", "t2"));
+
+        assertEquals(payment, paymentRepository.findByIdAndOrderClientId(payment.getId(), user.getId()).orElseThrow());
+        assertTrue(paymentRepository.findByIdAndOrderClientId(payment.getId(), otherUser.getId()).isEmpty());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.soaresdev.productorderapi.repositories;
+
+import com.soaresdev.productorderapi.entities.ProductPrice;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles(value = "test")
+class ProductPriceRepositoryTest {
+    private static final Instant CHANGE = Instant.parse("2023-07-20T10:00:00Z");
+
+    @Autowired
+    private ProductPriceRepository productPriceRepository;
+
+    @Test
+    void shouldFindLatestPriceAtOrBeforeMoment() {
+        UUID productId = UUID.randomUUID();
+        productPriceRepository.saveAll(List.of(
+                new ProductPrice(productId, ProductPrice.BEFORE_HISTORY, BigDecimal.ONE),
+                new ProductPrice(productId, CHANGE, BigDecimal.TEN),
+                new ProductPrice(productId, CHANGE.plusSeconds(3600), BigDecimal.valueOf(20)),
+                new ProductPrice(UUID.randomUUID(), CHANGE, BigDecimal.valueOf(99))));
+
+        assertEquals(0, BigDecimal.ONE.compareTo(productPriceRepository
+                .findFirstByProductIdAndValidFromLessThanEqualOrderByValidFromDesc(productId, CHANGE.minusSeconds(1))
+                .orElseThrow().getPrice()));
+        assertEquals(0, BigDecimal.TEN.compareTo(productPriceRepository
+                .findFirstByProductIdAndValidFromLessThanEqualOrderByValidFromDesc(productId, CHANGE)
+                .orElseThrow().getPrice()));
+        assertEquals(0, BigDecimal.valueOf(20).compareTo(productPriceRepository
+                .findFirstByProductIdAndValidFromLessThanEqualOrderByValidFromDesc(productId, CHANGE.plusSeconds(7200))
+                .orElseThrow().getPrice()));
+        assertTrue(productPriceRepository.findFirstByProductIdAndValidFromLessThanEqualOrderByValidFromDesc(UUID.randomUUID(),
+                CHANGE).isEmpty());
+    }
+
+    @Test
+    void shouldFindFirstPriceChangeAfterTheRowBeforeHistory() {
+        UUID productId = UUID.randomUUID();
+        productPriceRepository.saveAll(List.of(
+                new ProductPrice(productId, ProductPrice.BEFORE_HISTORY, BigDecimal.ONE),
+                new ProductPrice(productId, CHANGE.plusSeconds(3600), BigDecimal.valueOf(20)),
+                new ProductPrice(productId, CHANGE, BigDecimal.TEN)));
+
+        assertEquals(CHANGE, productPriceRepository.findFirstByProductIdAndValidFromGreaterThanOrderByValidFromAsc(productId,
+                ProductPrice.BEFORE_HISTORY).orElseThrow().getValidFrom());
+        assertTrue(productPriceRepository.findFirstByProductIdAndValidFromGreaterThanOrderByValidFromAsc(UUID.randomUUID(),
+                ProductPrice.BEFORE_HISTORY).isEmpty());
+    }
+
+    @Test
+    void shouldFindProductIdsWithHistory() {
+        UUID withHistory = UUID.randomUUID();
+        UUID withoutHistory = UUID.randomUUID();
+        productPriceRepository.saveAll(List.of(
+                new ProductPrice(withHistory, ProductPrice.BEFORE_HISTORY, BigDecimal.ONE),
+                new ProductPrice(withHistory, CHANGE, BigDecimal.TEN)));
+
+        assertEquals(Set.of(withHistory), productPriceRepository.findProductIdsWithHistory(List.of(withHistory, withoutHistory)));
+        assertTrue(productPriceRepository.existsByProductId(withHistory));
+        assertFalse(productPriceRepository.existsByProductId(withoutHistory));
+    }
+}
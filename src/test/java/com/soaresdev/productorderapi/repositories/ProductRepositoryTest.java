@@ -1,14 +1,27 @@
 package com.soaresdev.productorderapi.repositories;
 
+import com.soaresdev.productorderapi.dtos.CategoryFacetDTO;
+import com.soaresdev.productorderapi.dtos.ProductDTO;
+import com.soaresdev.productorderapi.dtos.insertDTOs.ProductBulkUpdateDTO;
+import com.soaresdev.productorderapi.entities.Category;
 import com.soaresdev.productorderapi.entities.Product;
+import com.soaresdev.productorderapi.entities.ProductPrice;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -18,6 +31,15 @@ class ProductRepositoryTest {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductPriceRepository productPriceRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
     @Test
     void shouldFindAllProductsWithPage() {
         Product product1 = new Product("t", "t", BigDecimal.ONE, "t");
@@ -33,4 +55,170 @@ class ProductRepositoryTest {
         assertEquals(product1, result.getContent().get(0));
         assertEquals(product2, result.getContent().get(1));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldFindAllProductsWithoutCategoriesWithPage() {
+        Category category = categoryRepository.save(new Category("t"));
+        Product product = new Product("t", "t", BigDecimal.ONE, "t");
+        product.getCategories().add(category);
+        product = productRepository.save(product);
+
+        Page<ProductDTO> result = productRepository.findAllWithoutCategories(PageRequest.of(0, 10));
+
+        assertEquals(1, result.getTotalElements());
+        assertEquals(product.getId(), result.getContent().get(0).getId());
+        assertEquals(product.getName(), result.getContent().get(0).getName());
+        assertTrue(result.getContent().get(0).getCategories().isEmpty());
+    }
+
+    @Test
+    void shouldSearchProductIdsByTextCategoryAndPriceRange() {
+        Category phones = categoryRepository.save(new Category("Phones"));
+        Category books = categoryRepository.save(new Category("Books"));
+        Product phone = saveProduct("Smart Phone", "Android phone", BigDecimal.valueOf(1000), phones);
+        Product cheapPhone = saveProduct("Basic phone", "Cheap", BigDecimal.valueOf(100), phones);
+        Product book = saveProduct("Phone repair book", "Guide", BigDecimal.valueOf(50), books);
+        saveProduct("Laptop", "Notebook", BigDecimal.valueOf(3000), books);
+
+        Page<UUID> byText = productRepository.searchIds("PHONE", null, null, null, PageRequest.of(0, 10));
+        Page<UUID> byCategory = productRepository.searchIds("phone", phones.getId(), null, null, PageRequest.of(0, 10));
+        Page<UUID> byPrice = productRepository.searchIds(null, null, BigDecimal.valueOf(60), BigDecimal.valueOf(1000),
+                PageRequest.of(0, 1));
+
+        assertEquals(List.of(cheapPhone.getId(), book.getId(), phone.getId()), byText.getContent());
+        assertEquals(3, byText.getTotalElements());
+        assertEquals(List.of(cheapPhone.getId(), phone.getId()), byCategory.getContent());
+        assertEquals(List.of(cheapPhone.getId()), byPrice.getContent());
+        assertEquals(2, byPrice.getTotalElements());
+    }
+
+    @Test
+    void shouldMatchLikeWildcardsLiterallyInSearchText() {
+        Category category = categoryRepository.save(new Category("Discounts"));
+        Product percent = saveProduct("50% off", "Sale", BigDecimal.TEN, category);
+        Product underscore = saveProduct("snake_case mug", "Mug", BigDecimal.TEN, category);
+        saveProduct("500 off", "Sale", BigDecimal.TEN, category);
+        saveProduct("snakeXcase mug", "Mug", BigDecimal.TEN, category);
+
+        assertEquals(List.of(percent.getId()),
+                productRepository.searchIds("0%", null, null, null, PageRequest.of(0, 10)).getContent());
+        assertEquals(List.of(underscore.getId()),
+                productRepository.searchIds("e_c", null, null, null, PageRequest.of(0, 10)).getContent());
+    }
+
+    @Test
+    void shouldSortSearchByRequestedPropertyAndRejectOthers() {
+        Category phones = categoryRepository.save(new Category("Phones"));
+        Product phone = saveProduct("Smart Phone", "Android phone", BigDecimal.valueOf(1000), phones);
+        Product cheapPhone = saveProduct("Basic phone", "Cheap", BigDecimal.valueOf(100), phones);
+
+        Page<UUID> byPriceDesc = productRepository.searchIds("phone", null, null, null,
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "price")));
+
+        assertEquals(List.of(phone.getId(), cheapPhone.getId()), byPriceDesc.getContent());
+        Throwable e = assertThrows(InvalidDataAccessApiUsageException.class, () -> productRepository.searchIds("phone",
+                null, null, null, PageRequest.of(0, 10, Sort.by("imgUrl"))));
+        assertEquals("Invalid sort property: imgUrl", e.getCause().getMessage());
+    }
+
+    @Test
+    void shouldFindProductsForUpdateInIdOrder() {
+        Product first = productRepository.save(new Product("a", "a", BigDecimal.ONE, "a"));
+        Product second = productRepository.save(new Product("b", "b", BigDecimal.ONE, "b"));
+        //Databases order uuids by their unsigned bytes, as their strings sort, not as UUID.compareTo does
+        List<UUID> ids = Stream.of(first.getId(), second.getId()).sorted(Comparator.comparing(UUID::toString)).toList();
+
+        List<Product> result = productRepository.findAllByIdForUpdate(List.of(second.getId(), first.getId()));
+
+        assertEquals(ids, result.stream().map(Product::getId).toList());
+        assertEquals(first, productRepository.findByIdForUpdate(first.getId()).orElseThrow());
+    }
+
+    @Test
+    void shouldCountCategoryFacetsIgnoringCategoryFilter() {
+        Category phones = categoryRepository.save(new Category("Phones"));
+        Category books = categoryRepository.save(new Category("Books"));
+        saveProduct("Smart Phone", "Android phone", BigDecimal.valueOf(1000), phones);
+        saveProduct("Basic phone", "Cheap", BigDecimal.valueOf(100), phones);
+        saveProduct("Phone repair book", "Guide", BigDecimal.valueOf(50), books);
+
+        List<CategoryFacetDTO> facets = productRepository.countCategoryFacets("phone", null, BigDecimal.valueOf(500));
+
+        assertEquals(2, facets.size());
+        assertEquals(books.getId(), facets.get(0).getId());
+        assertEquals(1, facets.get(0).getCount());
+        assertEquals(phones.getId(), facets.get(1).getId());
+        assertEquals(1, facets.get(1).getCount());
+    }
+
+    private Product saveProduct(String name, String description, BigDecimal price, Category category) {
+        Product product = new Product(name, description, price, "https://img.com");
+        product.getCategories().add(category);
+        return productRepository.saveAndFlush(product);
+    }
+
+    @Test
+    void shouldRepriceProductsOfCategoryInPriceRangeAndRecordHistory() {
+        Category category = categoryRepository.save(new Category("Electronics"));
+        Product cheap = saveProduct("cheap", new BigDecimal("10.00"), category);
+        Product expensive = saveProduct("expensive", new BigDecimal("99.99"), category);
+        Product outOfRange = saveProduct("out", new BigDecimal("500.00"), category);
+        Product otherCategory = saveProduct("other", new BigDecimal("10.00"), null);
+        productPriceRepository.save(new ProductPrice(expensive.getId(), ProductPrice.BEFORE_HISTORY, new BigDecimal("90.00")));
+        entityManager.flush();
+        ProductBulkUpdateDTO productBulkUpdateDTO = new ProductBulkUpdateDTO();
+        productBulkUpdateDTO.setCategory_id(category.getId().toString());
+        productBulkUpdateDTO.setMaxPrice(BigDecimal.valueOf(100));
+        productBulkUpdateDTO.setPricePercentage(BigDecimal.valueOf(-10));
+        Instant now = Instant.parse("2023-07-20T10:00:00Z");
+
+        int updated = productRepository.bulkUpdate(productBulkUpdateDTO, now);
+        entityManager.clear();
+
+        assertEquals(2, updated);
+        assertEquals(0, new BigDecimal("9.00").compareTo(productRepository.findById(cheap.getId()).orElseThrow().getPrice()));
+        assertEquals(0, new BigDecimal("89.99").compareTo(productRepository.findById(expensive.getId()).orElseThrow().getPrice()));
+        assertEquals(0, new BigDecimal("500.00").compareTo(productRepository.findById(outOfRange.getId()).orElseThrow().getPrice()));
+        assertEquals(0, new BigDecimal("10.00").compareTo(productRepository.findById(otherCategory.getId()).orElseThrow().getPrice()));
+        assertEquals(0, new BigDecimal("10.00").compareTo(productPriceRepository
+                .findFirstByProductIdAndValidFromLessThanEqualOrderByValidFromDesc(cheap.getId(), now.minusSeconds(1))
+                .orElseThrow().getPrice()));
+        assertEquals(0, new BigDecimal("9.00").compareTo(productPriceRepository
+                .findFirstByProductIdAndValidFromLessThanEqualOrderByValidFromDesc(cheap.getId(), now).orElseThrow().getPrice()));
+        assertEquals(0, new BigDecimal("90.00").compareTo(productPriceRepository
+                .findFirstByProductIdAndValidFromLessThanEqualOrderByValidFromDesc(expensive.getId(), now.minusSeconds(1))
+                .orElseThrow().getPrice()));
+        assertEquals(4, productPriceRepository.count());
+    }
+
+    @Test
+    void shouldSetPriceAndDescriptionOfListedProductsWithoutHistoryForUnchangedPrices() {
+        Product changed = saveProduct("changed", new BigDecimal("10.00"), null);
+        Product samePrice = saveProduct("same", new BigDecimal("5.00"), null);
+        Product notListed = saveProduct("not listed", new BigDecimal("10.00"), null);
+        entityManager.flush();
+        ProductBulkUpdateDTO productBulkUpdateDTO = new ProductBulkUpdateDTO();
+        productBulkUpdateDTO.setProduct_ids(List.of(changed.getId().toString(), samePrice.getId().toString()));
+        productBulkUpdateDTO.setPrice(new BigDecimal("5.00"));
+        productBulkUpdateDTO.setDescription("On sale");
+
+        int updated = productRepository.bulkUpdate(productBulkUpdateDTO, Instant.now());
+        entityManager.clear();
+
+        assertEquals(2, updated);
+        Product result = productRepository.findById(changed.getId()).orElseThrow();
+        assertEquals(0, new BigDecimal("5.00").compareTo(result.getPrice()));
+        assertEquals("On sale", result.getDescription());
+        assertEquals("On sale", productRepository.findById(samePrice.getId()).orElseThrow().getDescription());
+        assertEquals("t", productRepository.findById(notListed.getId()).orElseThrow().getDescription());
+        assertFalse(productPriceRepository.existsByProductId(samePrice.getId()));
+        assertEquals(2, productPriceRepository.count());
+    }
+
+    private Product saveProduct(String name, BigDecimal price, Category category) {
+        Product product = new Product(name, "t", price, "t");
+        if(category != null)
+            product.getCategories().add(category);
+        return productRepository.save(product);
+    }
+}
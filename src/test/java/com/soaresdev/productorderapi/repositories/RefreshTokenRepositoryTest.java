@@ -0,0 +1,75 @@
+package com.soaresdev.productorderapi.repositories;
+
+import com.soaresdev.productorderapi.entities.RefreshToken;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles(value = "test")
+class RefreshTokenRepositoryTest {
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private static final String EMAIL = "testing@gmail.com";
+    private static final Instant NOW = Instant.parse("2023-07-20T10:00:00Z");
+
+    @Test
+    void shouldMarkRotatedOnlyOnce() {
+        RefreshToken refreshToken = refreshTokenRepository.saveAndFlush(
+                new RefreshToken(UUID.randomUUID(), UUID.randomUUID(), EMAIL, NOW.plusSeconds(60)));
+
+        assertEquals(1, refreshTokenRepository.markRotated(refreshToken.getId(), NOW));
+        assertEquals(0, refreshTokenRepository.markRotated(refreshToken.getId(), NOW));
+    }
+
+    @Test
+    void shouldNotMarkRotatedWhenExpiredOrUnknown() {
+        RefreshToken refreshToken = refreshTokenRepository.saveAndFlush(
+                new RefreshToken(UUID.randomUUID(), UUID.randomUUID(), EMAIL, NOW));
+
+        assertEquals(0, refreshTokenRepository.markRotated(refreshToken.getId(), NOW));
+        assertEquals(0, refreshTokenRepository.markRotated(UUID.randomUUID(), NOW));
+    }
+
+    @Test
+    void shouldFindLastExpirationOfFamily() {
+        UUID familyId = UUID.randomUUID();
+        refreshTokenRepository.save(new RefreshToken(UUID.randomUUID(), familyId, EMAIL, NOW.plusSeconds(60)));
+        refreshTokenRepository.save(new RefreshToken(UUID.randomUUID(), familyId, EMAIL, NOW.plusSeconds(120)));
+
+        assertEquals(NOW.plusSeconds(120), refreshTokenRepository.findLastExpirationOfFamily(familyId));
+        assertNull(refreshTokenRepository.findLastExpirationOfFamily(UUID.randomUUID()));
+    }
+
+    @Test
+    void shouldFindOnlyLiveFamiliesOfTheGivenEmail() {
+        UUID liveFamilyId = UUID.randomUUID();
+        refreshTokenRepository.save(new RefreshToken(UUID.randomUUID(), liveFamilyId, EMAIL, NOW.minusSeconds(60)));
+        refreshTokenRepository.save(new RefreshToken(UUID.randomUUID(), liveFamilyId, EMAIL, NOW.plusSeconds(60)));
+        refreshTokenRepository.save(new RefreshToken(UUID.randomUUID(), UUID.randomUUID(), EMAIL, NOW.minusSeconds(60)));
+        refreshTokenRepository.save(new RefreshToken(UUID.randomUUID(), UUID.randomUUID(), "other@gmail.com", NOW.plusSeconds(60)));
+
+        List<RefreshTokenFamily> families = refreshTokenRepository.findLiveFamiliesByEmail(EMAIL, NOW);
+
+        assertEquals(1, families.size());
+        assertEquals(liveFamilyId, families.get(0).getFamilyId());
+        assertEquals(NOW.plusSeconds(60), families.get(0).getExpiresAt());
+    }
+
+    @Test
+    void shouldDeleteExpired() {
+        refreshTokenRepository.save(new RefreshToken(UUID.randomUUID(), UUID.randomUUID(), EMAIL, NOW));
+        RefreshToken live = refreshTokenRepository.saveAndFlush(
+                new RefreshToken(UUID.randomUUID(), UUID.randomUUID(), EMAIL, NOW.plusSeconds(60)));
+
+        assertEquals(1, refreshTokenRepository.deleteExpired(NOW));
+        assertEquals(List.of(live.getId()), refreshTokenRepository.findAll().stream().map(RefreshToken::getId).toList());
+    }
+}
@@ -33,6 +33,13 @@ class RoleRepositoryTest {
         assertEquals(role, roleFound);
     }
 
+    @Order(1)
+    @Test
+    void shouldFindRoleIdByRoleNameCode() {
+        assertEquals(role.getId(), roleRepository.findIdByRoleNameCode(RoleName.ROLE_ADMIN.getCode()));
+        assertNull(roleRepository.findIdByRoleNameCode(RoleName.ROLE_USER.getCode()));
+    }
+
     @Order(2)
     @Test
     void shouldNotFindRoleByRoleNameCode() {
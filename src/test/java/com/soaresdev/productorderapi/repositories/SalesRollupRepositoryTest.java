@@ -0,0 +1,177 @@
+package com.soaresdev.productorderapi.repositories;
+
+import com.soaresdev.productorderapi.configs.ClockConfig;
+import com.soaresdev.productorderapi.entities.*;
+import com.soaresdev.productorderapi.entities.enums.OrderStatus;
+import com.soaresdev.productorderapi.entities.enums.PaymentType;
+import com.soaresdev.productorderapi.entities.enums.SalesDimension;
+import com.soaresdev.productorderapi.services.OrderArchivalService;
+import com.soaresdev.productorderapi.services.SalesRollupService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles(value = "test")
+@Import({SalesRollupService.class, OrderArchivalService.class, ClockConfig.class})
+class SalesRollupRepositoryTest {
+    private static final LocalDate DAY = LocalDate.parse("2023-07-20");
+    private static final Instant MORNING = Instant.parse("2023-07-20T09:00:00Z");
+
+    @Autowired
+    private SalesRollupRepository salesRollupRepository;
+
+    @Autowired
+    private SalesRollupDayRepository salesRollupDayRepository;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private OrderArchivalService orderArchivalService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Category category;
+    private Product phone;
+    private Product book;
+
+    @BeforeEach
+    void setup() {
+        User user = userRepository.save(new User("t", "t", "t", "t"));
+        category = categoryRepository.save(new Category("Electronics"));
+        phone = new Product("Phone", "t", BigDecimal.valueOf(100), "t");
+        phone.getCategories().add(category);
+        phone = productRepository.save(phone);
+        book = productRepository.save(new Product("Book", "t", BigDecimal.valueOf(10), "t"));
+
+        savePaidOrder(user, MORNING, PaymentType.PIX, 1, 3);
+        savePaidOrder(user, MORNING.plusSeconds(3600), PaymentType.CREDIT_CARD, 2, 0);
+        savePaidOrder(user, Instant.parse("2023-07-21T00:00:00Z"), PaymentType.PIX, 5, 6);
+        Order unpaid = new Order(MORNING, OrderStatus.WAITING_PAYMENT, user);
+        unpaid.getItems().add(new OrderItem(unpaid, phone, 10));
+        orderRepository.save(unpaid);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void shouldRebuildDayFromPaymentsOfThatDayOnly() {
+        salesRollupService.rebuildDay(DAY);
+
+        SalesRollup total = findRollups(SalesDimension.TOTAL).get(0);
+        assertEquals(2, total.getOrders());
+        assertEquals(0, BigDecimal.valueOf(330).compareTo(total.getRevenue()));
+        assertEquals(2, findRollups(SalesDimension.PAYMENT_TYPE).size());
+        assertEquals(2, findRollups(SalesDimension.PRODUCT).size());
+        SalesRollup categoryRollup = findRollups(SalesDimension.CATEGORY).get(0);
+        assertEquals(category.getId().toString(), categoryRollup.getDimensionKey());
+        assertEquals(2, categoryRollup.getOrders());
+        assertEquals(3, categoryRollup.getQuantity());
+        assertEquals(0, BigDecimal.valueOf(300).compareTo(categoryRollup.getRevenue()));
+    }
+
+    @Test
+    void shouldRebuildDayFromLiveAndArchivedPayments() {
+        assertEquals(1, orderArchivalService.archiveBatch(MORNING.plusSeconds(1), 10));
+        entityManager.flush();
+        entityManager.clear();
+
+        salesRollupService.rebuildDay(DAY);
+
+        SalesRollup total = findRollups(SalesDimension.TOTAL).get(0);
+        assertEquals(2, total.getOrders());
+        assertEquals(0, BigDecimal.valueOf(330).compareTo(total.getRevenue()));
+        assertEquals(2, findRollups(SalesDimension.PAYMENT_TYPE).size());
+        SalesRollup phoneRollup = findRollups(SalesDimension.PRODUCT).stream()
+                .filter(rollup -> rollup.getDimensionKey().equals(phone.getId().toString())).findFirst().orElseThrow();
+        assertEquals(2, phoneRollup.getOrders());
+        assertEquals(3, phoneRollup.getQuantity());
+        SalesRollup categoryRollup = findRollups(SalesDimension.CATEGORY).get(0);
+        assertEquals(2, categoryRollup.getOrders());
+        assertEquals(0, BigDecimal.valueOf(300).compareTo(categoryRollup.getRevenue()));
+    }
+
+    @Test
+    void shouldReplaceRowsWhenDayIsRebuiltAgain() {
+        salesRollupService.rebuildDay(DAY);
+        salesRollupService.rebuildDay(DAY);
+
+        assertEquals(1, findRollups(SalesDimension.TOTAL).size());
+        assertEquals(6, salesRollupRepository.count());
+        assertEquals(1, salesRollupDayRepository.count());
+        assertTrue(salesRollupDayRepository.findByDayForUpdate(DAY).isPresent());
+    }
+
+    @Test
+    void shouldSumProductsOrderedByQuantityOrRevenue() {
+        salesRollupService.rebuildDays(DAY, DAY.plusDays(1));
+
+        List<SalesRollupTotal> byQuantity = salesRollupRepository.sumByDimensionOrderByQuantity(
+                SalesDimension.PRODUCT.getCode(), DAY, DAY.plusDays(1), PageRequest.of(0, 1));
+        List<SalesRollupTotal> byRevenue = salesRollupRepository.sumByDimensionOrderByRevenue(
+                SalesDimension.PRODUCT.getCode(), DAY, DAY.plusDays(1), Pageable.unpaged());
+
+        assertEquals(1, byQuantity.size());
+        assertEquals(book.getId().toString(), byQuantity.get(0).getDimensionKey());
+        assertEquals(9, byQuantity.get(0).getQuantity());
+        assertEquals(2, byRevenue.size());
+        assertEquals(phone.getId().toString(), byRevenue.get(0).getDimensionKey());
+        assertEquals(3, byRevenue.get(0).getOrders());
+        assertEquals(0, BigDecimal.valueOf(800).compareTo(byRevenue.get(0).getRevenue()));
+    }
+
+    @Test
+    void shouldFindDailyTotalsInRange() {
+        salesRollupService.rebuildDays(DAY.minusDays(1), DAY.plusDays(1));
+
+        List<SalesRollup> result = salesRollupRepository.findByDimensionAndDayBetweenOrderByDay(
+                SalesDimension.TOTAL.getCode(), DAY.minusDays(1), DAY.plusDays(1));
+
+        assertEquals(2, result.size());
+        assertEquals(DAY, result.get(0).getDay());
+        assertEquals(DAY.plusDays(1), result.get(1).getDay());
+    }
+
+    private List<SalesRollup> findRollups(SalesDimension dimension) {
+        return salesRollupRepository.findByDimensionAndDayBetweenOrderByDay(dimension.getCode(), DAY, DAY);
+    }
+
+    private void savePaidOrder(User user, Instant moment, PaymentType paymentType, int phones, int books) {
+        Order order = new Order(moment, OrderStatus.DELIVERED, user);
+        if(phones > 0)
+            order.getItems().add(new OrderItem(order, phone, phones));
+        if(books > 0)
+            order.getItems().add(new OrderItem(order, book, books));
+        order = orderRepository.save(order);
+        paymentRepository.save(new Payment(moment, paymentType, order));
+    }
+}
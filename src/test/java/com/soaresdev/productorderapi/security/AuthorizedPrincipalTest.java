@@ -0,0 +1,77 @@
+package com.soaresdev.productorderapi.security;
+
+import com.soaresdev.productorderapi.entities.Role;
+import com.soaresdev.productorderapi.entities.User;
+import com.soaresdev.productorderapi.entities.enums.RoleName;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.soaresdev.productorderapi.utils.Utils.getAuthorizedPrincipal;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthorizedPrincipalTest {
+    private User user;
+    private User otherUser;
+
+    @BeforeEach
+    void setup() {
+        user = new User("test", "test@gmail.com", "test", "test");
+        user.setId(UUID.randomUUID());
+        user.getRoles().add(new Role(RoleName.ROLE_USER.getCode()));
+        otherUser = new User("test2", "test2@gmail.com", "test2", "test2");
+        otherUser.setId(UUID.randomUUID());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldBuildRoleSetFromUser() {
+        user.getRoles().add(new Role(RoleName.ROLE_MANAGER.getCode()));
+
+        AuthorizedPrincipal authorizedPrincipal = AuthorizedPrincipal.of(user);
+
+        assertEquals(user.getId(), authorizedPrincipal.getId());
+        assertEquals(user.getEmail(), authorizedPrincipal.getEmail());
+        assertEquals(Set.of(RoleName.ROLE_USER, RoleName.ROLE_MANAGER), authorizedPrincipal.getRoleNames());
+        assertTrue(authorizedPrincipal.hasRole(RoleName.ROLE_MANAGER));
+        assertFalse(authorizedPrincipal.isAdmin());
+        assertTrue(authorizedPrincipal.isManagerOrAdmin());
+        assertThrows(UnsupportedOperationException.class,
+                () -> authorizedPrincipal.getRoleNames().add(RoleName.ROLE_ADMIN));
+    }
+
+    @Test
+    void shouldCheckSelfById() {
+        AuthorizedPrincipal authorizedPrincipal = AuthorizedPrincipal.of(user);
+
+        assertTrue(authorizedPrincipal.isSelf(user.getId().toString().toUpperCase()));
+        assertFalse(authorizedPrincipal.isSelf(otherUser.getId().toString()));
+        assertFalse(authorizedPrincipal.isSelf(null));
+    }
+
+    @Test
+    void shouldNotBeSelfWithoutId() {
+        user.setId(null);
+
+        assertFalse(AuthorizedPrincipal.of(user).isSelf(otherUser.getId().toString()));
+    }
+
+    @Test
+    void shouldReadPrincipalFromAuthenticationDetails() {
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(user, "", user.getAuthorities());
+        authentication.setDetails(AuthorizedPrincipal.of(user));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+
+        assertTrue(getAuthorizedPrincipal().isSelf(user.getId().toString()));
+        assertFalse(getAuthorizedPrincipal().isSelf(otherUser.getId().toString()));
+    }
+}
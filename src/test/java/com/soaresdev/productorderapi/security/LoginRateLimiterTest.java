@@ -0,0 +1,110 @@
+package com.soaresdev.productorderapi.security;
+
+import com.soaresdev.productorderapi.exceptions.TooManyRequestsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginRateLimiterTest {
+    private static final String ADDRESS = "127.0.0.1";
+    private static final String EMAIL = "testing@gmail.com";
+
+    private final AtomicLong now = new AtomicLong();
+    private MeterRegistry meterRegistry;
+    private LoginRateLimiter loginRateLimiter;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        loginRateLimiter = new LoginRateLimiter(meterRegistry, true, 3, Duration.ofSeconds(1),
+                2, Duration.ofMinutes(1), 2, now::get);
+    }
+
+    @Test
+    void shouldRejectEmailAfterItsCapacityAndReportRetryAfter() {
+        loginRateLimiter.acquire(ADDRESS, EMAIL);
+        loginRateLimiter.acquire(ADDRESS, EMAIL);
+
+        TooManyRequestsException e = assertThrows(TooManyRequestsException.class,
+                () -> loginRateLimiter.acquire(ADDRESS, EMAIL));
+        assertEquals("Too many login attempts, try again later", e.getMessage());
+        assertEquals(60, e.getRetryAfterSeconds());
+        assertEquals(1, meterRegistry.get("auth.login.rate-limit.rejected").tag("key", "email").counter().count());
+    }
+
+    @Test
+    void shouldTreatEmailsCaseInsensitively() {
+        loginRateLimiter.acquire(ADDRESS, EMAIL);
+        loginRateLimiter.acquire(ADDRESS, " TESTING@gmail.com");
+
+        assertThrows(TooManyRequestsException.class, () -> loginRateLimiter.acquire(ADDRESS, EMAIL));
+    }
+
+    @Test
+    void shouldRejectAddressAfterItsCapacityEvenWithDifferentEmails() {
+        loginRateLimiter.acquire(ADDRESS, "a@gmail.com");
+        loginRateLimiter.acquire(ADDRESS, "b@gmail.com");
+        loginRateLimiter.acquire(ADDRESS, "c@gmail.com");
+
+        assertThrows(TooManyRequestsException.class, () -> loginRateLimiter.acquire(ADDRESS, "d@gmail.com"));
+        assertEquals(1, meterRegistry.get("auth.login.rate-limit.rejected").tag("key", "address").counter().count());
+    }
+
+    @Test
+    void shouldRefillOverTime() {
+        loginRateLimiter.acquire(ADDRESS, EMAIL);
+        loginRateLimiter.acquire(ADDRESS, EMAIL);
+        assertThrows(TooManyRequestsException.class, () -> loginRateLimiter.acquire(ADDRESS, EMAIL));
+
+        now.addAndGet(Duration.ofMinutes(1).toNanos());
+
+        assertDoesNotThrow(() -> loginRateLimiter.acquire(ADDRESS, EMAIL));
+    }
+
+    @Test
+    void shouldBoundBucketsAndEvictFullOnes() {
+        loginRateLimiter.acquire("10.0.0.1", "a@gmail.com");
+        loginRateLimiter.acquire("10.0.0.2", "b@gmail.com");
+        loginRateLimiter.acquire("10.0.0.3", "c@gmail.com");
+        //the third email shares the overflow bucket
+        assertEquals(3.0, meterRegistry.get("auth.login.rate-limit.buckets").tag("key", "email").gauge().value());
+
+        now.addAndGet(Duration.ofMinutes(2).toNanos());
+        loginRateLimiter.acquire("10.0.0.4", "d@gmail.com");
+
+        assertEquals(1.0, meterRegistry.get("auth.login.rate-limit.buckets").tag("key", "email").gauge().value());
+    }
+
+    @Test
+    void shouldAllowEverythingWhenDisabled() {
+        LoginRateLimiter disabled = new LoginRateLimiter(meterRegistry, false, 1, Duration.ofSeconds(1),
+                1, Duration.ofMinutes(1), 2, now::get);
+
+        for(int i = 0; i < 10; i++)
+            disabled.acquire(ADDRESS, EMAIL);
+    }
+
+    @Test
+    void shouldTakeEveryTokenOnceUnderContention() throws InterruptedException {
+        TokenBucket tokenBucket = new TokenBucket(1000, Duration.ofHours(1).toNanos(), 0);
+        AtomicLong acquired = new AtomicLong();
+        Thread[] threads = new Thread[8];
+        for(int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for(int j = 0; j < 500; j++)
+                    if(tokenBucket.tryAcquire(0) == 0)
+                        acquired.incrementAndGet();
+            });
+            threads[i].start();
+        }
+        for(Thread thread : threads)
+            thread.join();
+
+        assertEquals(1000, acquired.get());
+    }
+}
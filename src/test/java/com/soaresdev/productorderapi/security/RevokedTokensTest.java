@@ -0,0 +1,87 @@
+package com.soaresdev.productorderapi.security;
+
+import com.soaresdev.productorderapi.entities.RevokedToken;
+import com.soaresdev.productorderapi.repositories.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RevokedTokensTest {
+    private static final Instant NOW = Instant.parse("2023-07-20T10:00:00Z");
+
+    private RevokedTokenRepository revokedTokenRepository;
+    private RevokedTokens revokedTokens;
+
+    @BeforeEach
+    void setup() {
+        revokedTokenRepository = mock(RevokedTokenRepository.class);
+        revokedTokens = new RevokedTokens(revokedTokenRepository, Clock.fixed(NOW, ZoneOffset.UTC), 1000);
+    }
+
+    @Test
+    void shouldLoadRevocationsThatHaveNotExpired() {
+        UUID id = UUID.randomUUID();
+        when(revokedTokenRepository.findByExpiresAtAfter(NOW)).thenReturn(List.of(new RevokedToken(id, NOW.plusSeconds(60))));
+
+        revokedTokens.load();
+
+        assertTrue(revokedTokens.isRevoked(id));
+        assertFalse(revokedTokens.isRevoked(UUID.randomUUID()));
+        assertEquals(1, revokedTokens.size());
+        verify(revokedTokenRepository, times(1)).findByExpiresAtAfter(any(Instant.class));
+        verifyNoMoreInteractions(revokedTokenRepository);
+    }
+
+    @Test
+    void shouldRevoke() {
+        UUID id = UUID.randomUUID();
+
+        revokedTokens.revoke(id, NOW.plusSeconds(60));
+
+        assertTrue(revokedTokens.isRevoked(id));
+        assertFalse(revokedTokens.isRevoked(null));
+        verifyNoInteractions(revokedTokenRepository);
+    }
+
+    @Test
+    void shouldEvictExpiredAndKeepTheOthers() {
+        UUID expired = UUID.randomUUID();
+        UUID live = UUID.randomUUID();
+        revokedTokens.revoke(expired, NOW);
+        revokedTokens.revoke(live, NOW.plusSeconds(60));
+
+        assertEquals(1, revokedTokens.evictExpired(NOW));
+        assertFalse(revokedTokens.isRevoked(expired));
+        assertTrue(revokedTokens.isRevoked(live));
+    }
+
+    @Test
+    void shouldKeepTheLatestExpirationWhenRevokedTwice() {
+        UUID id = UUID.randomUUID();
+        revokedTokens.revoke(id, NOW.plusSeconds(60));
+        revokedTokens.revoke(id, NOW);
+
+        assertEquals(0, revokedTokens.evictExpired(NOW));
+        assertTrue(revokedTokens.isRevoked(id));
+    }
+
+    @Test
+    void shouldNeverMissAnIdPutInTheBloomFilter() {
+        UuidBloomFilter bloomFilter = new UuidBloomFilter(1000, 0.01);
+        List<UUID> ids = IntStream.range(0, 1000).mapToObj(i -> UUID.randomUUID()).toList();
+        ids.forEach(bloomFilter::put);
+
+        assertTrue(ids.stream().allMatch(bloomFilter::mightContain));
+        long falsePositives = IntStream.range(0, 10000).filter(i -> bloomFilter.mightContain(UUID.randomUUID())).count();
+        assertTrue(falsePositives < 500);
+    }
+}
@@ -1,6 +1,9 @@
 package com.soaresdev.productorderapi.security.jwt;
 
 import com.auth0.jwt.exceptions.JWTDecodeException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.soaresdev.productorderapi.exceptions.ErrorResponseWriter;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,7 +13,9 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.core.Authentication;
@@ -19,6 +24,7 @@ import java.io.IOException;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class JwtTokenFilterTest {
@@ -29,14 +35,17 @@ class JwtTokenFilterTest {
     @Mock
     private JwtTokenProvider jwtTokenProvider;
 
-    private HttpServletRequest mockRequest;
-    private HttpServletResponse mockResponse;
+    @Spy
+    private ErrorResponseWriter errorResponseWriter = new ErrorResponseWriter(Jackson2ObjectMapperBuilder.json().build());
+
+    private MockHttpServletRequest mockRequest;
+    private MockHttpServletResponse mockResponse;
     private FilterChain mockFilterChain;
 
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
-        mockRequest = new MockHttpServletRequest();
+        mockRequest = new MockHttpServletRequest("GET", "/v1/orders");
         mockResponse = new MockHttpServletResponse();
         mockFilterChain = mock(FilterChain.class);
     }
@@ -63,6 +72,7 @@ class JwtTokenFilterTest {
                 doFilter(mockRequest, mockResponse);
         verifyNoMoreInteractions(jwtTokenProvider);
         verifyNoMoreInteractions(mockFilterChain);
+        verifyNoInteractions(errorResponseWriter);
     }
 
     @Test
@@ -80,6 +90,7 @@ class JwtTokenFilterTest {
         verify(mockFilterChain, times(1)).doFilter(mockRequest, mockResponse);
         verifyNoMoreInteractions(jwtTokenProvider);
         verifyNoMoreInteractions(mockFilterChain);
+        verifyNoInteractions(errorResponseWriter);
     }
 
     @Test
@@ -99,19 +110,27 @@ class JwtTokenFilterTest {
         verify(mockFilterChain, times(1)).doFilter(mockRequest, mockResponse);
         verifyNoMoreInteractions(jwtTokenProvider);
         verifyNoMoreInteractions(mockFilterChain);
+        verifyNoInteractions(errorResponseWriter);
     }
 
     @Test
     void shouldThrowAnyExceptionWhenExceptionOccursInDoFilterInternal() throws ServletException, IOException {
         when(jwtTokenProvider.fixRequestTokenFormat(any(HttpServletRequest.class))).
                 thenReturn("jwt-token");
-        when(jwtTokenProvider.isAccessToken(anyString())).thenThrow(JWTDecodeException.class);
+        when(jwtTokenProvider.isAccessToken(anyString())).thenThrow(new JWTDecodeException("The token was expected to have 3 parts"));
 
         jwtTokenFilter.doFilterInternal(mockRequest, mockResponse, mockFilterChain);
 
+        JsonNode body = new ObjectMapper().readTree(mockResponse.getContentAsByteArray());
         assertEquals(HttpStatus.UNAUTHORIZED.value(), mockResponse.getStatus());
-        assertNotNull(mockResponse.getOutputStream());
         assertEquals("application/json", mockResponse.getContentType());
+        assertEquals(HttpStatus.UNAUTHORIZED.value(), body.get("status").asInt());
+        assertEquals("JWTDecodeException", body.get("error").asText());
+        assertEquals("The token was expected to have 3 parts", body.get("message").asText());
+        assertEquals("/v1/orders", body.get("path").asText());
+        assertTrue(body.get("timestamp").asText().endsWith("Z"));
+        verify(errorResponseWriter, times(1)).write(eq(mockRequest), eq(mockResponse), eq(HttpStatus.UNAUTHORIZED),
+                any(JWTDecodeException.class));
         verify(jwtTokenProvider, times(1)).
                 fixRequestTokenFormat(any(HttpServletRequest.class));
         verify(jwtTokenProvider, times(1)).isAccessToken(anyString());
@@ -2,9 +2,14 @@ package com.soaresdev.productorderapi.security.jwt;
 
 import com.auth0.jwt.exceptions.InvalidClaimException;
 import com.auth0.jwt.exceptions.JWTDecodeException;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import com.soaresdev.productorderapi.dtos.security.TokenDTO;
+import com.soaresdev.productorderapi.entities.Role;
 import com.soaresdev.productorderapi.entities.User;
 import com.soaresdev.productorderapi.entities.enums.RoleName;
+import com.soaresdev.productorderapi.security.AuthorizedPrincipal;
+import com.soaresdev.productorderapi.security.RevokedTokens;
+import com.soaresdev.productorderapi.services.UserService;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.*;
 import org.mockito.InjectMocks;
@@ -14,8 +19,7 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 import java.time.Clock;
@@ -23,8 +27,10 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -35,7 +41,10 @@ class JwtTokenProviderTest {
     private JwtTokenProvider jwtTokenProvider;
 
     @Mock
-    private UserDetailsService userDetailsService;
+    private UserService userService;
+
+    @Mock
+    private RevokedTokens revokedTokens;
 
     @Mock
     private Clock clock;
@@ -62,7 +71,7 @@ class JwtTokenProviderTest {
 
     @BeforeEach
     void setUp() {
-        Mockito.reset(userDetailsService);
+        Mockito.reset(userService, revokedTokens);
         RequestContextHolder.resetRequestAttributes();
     }
 
@@ -93,66 +102,86 @@ class JwtTokenProviderTest {
 
     @Test
     @Order(2)
-    void shouldCreateTokenWithRefreshToken() {
+    void shouldCreateTokenInFamily() {
         mockServletRequestAttributes();
+        UUID familyId = UUID.randomUUID();
+        UUID refreshTokenId = UUID.randomUUID();
+
+        when(clock.instant()).thenReturn(Instant.now());
+        TokenDTO tokenDTO = jwtTokenProvider.createToken(EMAIL, ROLES, familyId, refreshTokenId);
+        DecodedJWT refreshToken = jwtTokenProvider.decodeRefreshToken(tokenDTO.getRefreshToken());
+
+        assertEquals(EMAIL, refreshToken.getSubject());
+        assertEquals(refreshTokenId.toString(), refreshToken.getId());
+        assertEquals(familyId, JwtTokenProvider.getFamilyId(refreshToken));
+        assertEquals(ROLES, refreshToken.getClaim("roles").asList(String.class));
+        assertEquals(JwtTokenProvider.REFRESH_TOKEN_DURATION, Duration.between(refreshToken.getIssuedAtAsInstant(),
+                refreshToken.getExpiresAtAsInstant()));
+    }
+
+    @Test
+    void shouldDecodeRefreshToken() {
+        DecodedJWT refreshToken = jwtTokenProvider.decodeRefreshToken(REFRESH_TOKEN);
 
-        TokenDTO newTokenDTO = jwtTokenProvider.createTokenWithRefreshToken(REFRESH_TOKEN);
-
-        assertNotNull(newTokenDTO);
-        assertEquals(EMAIL, newTokenDTO.getEmail());
-        assertTrue(newTokenDTO.getAuthenticated());
-        assertNotNull(newTokenDTO.getCreation());
-        assertEquals(Instant.class, newTokenDTO.getCreation().getClass());
-        assertNotNull(newTokenDTO.getExpiration());
-        assertEquals(Instant.class, newTokenDTO.getExpiration().getClass());
-        assertEquals(ACCESS_TOKEN_DURATION_IN_HOURS, Duration.between(newTokenDTO.getCreation(),
-                newTokenDTO.getExpiration()).toHours());
-        assertNotNull(newTokenDTO.getAccessToken());
-        assertEquals(String.class, newTokenDTO.getAccessToken().getClass());
-        assertFalse(newTokenDTO.getAccessToken().isBlank());
-        assertNotNull(newTokenDTO.getRefreshToken());
-        assertEquals(String.class, newTokenDTO.getRefreshToken().getClass());
-        assertFalse(newTokenDTO.getRefreshToken().isBlank());
+        assertNotNull(refreshToken);
+        assertEquals(EMAIL, refreshToken.getSubject());
+        assertNotNull(JwtTokenProvider.parseUuid(refreshToken.getId()));
+        assertNotNull(JwtTokenProvider.getFamilyId(refreshToken));
     }
 
     @Test
-    void shouldThrowInvalidClaimExceptionWhenTokenIsNotRefreshTokenInCreateTokenWithRefreshToken() {
+    void shouldThrowInvalidClaimExceptionWhenTokenIsNotRefreshTokenInDecodeRefreshToken() {
         Throwable e = assertThrows(InvalidClaimException.class,
-                () -> jwtTokenProvider.createTokenWithRefreshToken(ACCESS_TOKEN));
+                () -> jwtTokenProvider.decodeRefreshToken(ACCESS_TOKEN));
         assertEquals("Invalid or expired token", e.getMessage());
     }
 
     @Test
-    void shouldThrowJWTDecodeExceptionWhenRefreshTokenIsExpiredInCreateTokenWithRefreshToken() {
+    void shouldThrowJWTDecodeExceptionWhenRefreshTokenIsExpiredInDecodeRefreshToken() {
         Throwable e = assertThrows(JWTDecodeException.class,
-                () -> jwtTokenProvider.createTokenWithRefreshToken(EXPIRED_REFRESH_TOKEN));
+                () -> jwtTokenProvider.decodeRefreshToken(EXPIRED_REFRESH_TOKEN));
         assertEquals("Error decoding token: Invalid or expired token", e.getMessage());
     }
 
     @Test
-    void shouldThrowJWTDecodeExceptionWhenTokenIsInvalidInCreateTokenWithRefreshToken() {
+    void shouldThrowJWTDecodeExceptionWhenTokenIsInvalidInDecodeRefreshToken() {
         Throwable e = assertThrows(JWTDecodeException.class,
-                () -> jwtTokenProvider.createTokenWithRefreshToken(INVALID_TOKEN));
+                () -> jwtTokenProvider.decodeRefreshToken(INVALID_TOKEN));
         assertEquals("Error decoding token: Invalid or expired token", e.getMessage());
     }
 
     @Test
     void shouldGetAuthentication() {
-        UserDetails user = new User("Testing", EMAIL, "testing", "testing");
-        when(userDetailsService.loadUserByUsername(anyString())).thenReturn(user);
+        User user = new User("Testing", EMAIL, "testing", "testing");
+        user.setId(UUID.randomUUID());
+        user.getRoles().add(new Role(RoleName.ROLE_USER.getCode()));
+        AuthorizedPrincipal authorizedPrincipal = AuthorizedPrincipal.of(user);
+        when(userService.loadPrincipal(anyString())).thenReturn(authorizedPrincipal);
 
         Authentication authentication = jwtTokenProvider.getAuthentication(ACCESS_TOKEN);
 
         assertNotNull(authentication);
         assertInstanceOf(UsernamePasswordAuthenticationToken.class, authentication);
-        assertEquals(user, authentication.getPrincipal());
+        assertEquals(EMAIL, authentication.getPrincipal());
         assertEquals("", authentication.getCredentials());
-        assertEquals(user.getAuthorities(), authentication.getAuthorities());
-        assertEquals(user.getUsername(), authentication.getName());
+        assertEquals(authorizedPrincipal.getAuthorities(), authentication.getAuthorities());
+        assertEquals(ROLES, authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
         assertEquals(EMAIL, authentication.getName());
         assertTrue(authentication.isAuthenticated());
-        verify(userDetailsService, times(1)).loadUserByUsername(anyString());
-        verifyNoMoreInteractions(userDetailsService);
+        assertSame(authorizedPrincipal, authentication.getDetails());
+        verify(revokedTokens, times(1)).isRevoked(any(UUID.class));
+        verify(userService, times(1)).loadPrincipal(EMAIL);
+        verifyNoMoreInteractions(userService);
+    }
+
+    @Test
+    void shouldThrowJWTDecodeExceptionWhenFamilyIsRevokedInGetAuthentication() {
+        when(revokedTokens.isRevoked(any(UUID.class))).thenReturn(true);
+
+        Throwable e = assertThrows(JWTDecodeException.class,
+                () -> jwtTokenProvider.getAuthentication(ACCESS_TOKEN));
+        assertEquals("Error decoding token: Invalid or expired token", e.getMessage());
+        verifyNoInteractions(userService);
     }
 
     @Test
@@ -160,7 +189,7 @@ class JwtTokenProviderTest {
         Throwable e = assertThrows(JWTDecodeException.class,
                 () -> jwtTokenProvider.getAuthentication(EXPIRED_ACCESS_TOKEN));
         assertEquals("Error decoding token: Invalid or expired token", e.getMessage());
-        verifyNoInteractions(userDetailsService);
+        verifyNoInteractions(userService);
     }
 
     @Test
@@ -168,7 +197,7 @@ class JwtTokenProviderTest {
         Throwable e = assertThrows(JWTDecodeException.class,
                 () -> jwtTokenProvider.getAuthentication(INVALID_TOKEN));
         assertEquals("Error decoding token: Invalid or expired token", e.getMessage());
-        verifyNoInteractions(userDetailsService);
+        verifyNoInteractions(userService);
     }
 
     @Test
@@ -0,0 +1,185 @@
+package com.soaresdev.productorderapi.services;
+
+import com.soaresdev.productorderapi.dtos.analyticsDTOs.CategorySalesDTO;
+import com.soaresdev.productorderapi.dtos.analyticsDTOs.PaymentTypeSalesDTO;
+import com.soaresdev.productorderapi.dtos.analyticsDTOs.ProductSalesDTO;
+import com.soaresdev.productorderapi.dtos.analyticsDTOs.RevenueDTO;
+import com.soaresdev.productorderapi.entities.Category;
+import com.soaresdev.productorderapi.entities.Product;
+import com.soaresdev.productorderapi.entities.SalesRollup;
+import com.soaresdev.productorderapi.entities.enums.PaymentType;
+import com.soaresdev.productorderapi.entities.enums.RevenueGranularity;
+import com.soaresdev.productorderapi.entities.enums.SalesDimension;
+import com.soaresdev.productorderapi.entities.enums.SalesRanking;
+import com.soaresdev.productorderapi.repositories.CategoryRepository;
+import com.soaresdev.productorderapi.repositories.ProductRepository;
+import com.soaresdev.productorderapi.repositories.SalesRollupRepository;
+import com.soaresdev.productorderapi.repositories.SalesRollupTotal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AnalyticsServiceTest {
+    @InjectMocks
+    private AnalyticsService analyticsService;
+
+    @Mock
+    private SalesRollupRepository salesRollupRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    private static final LocalDate FROM = LocalDate.parse("2023-07-01");
+    private static final LocalDate TO = LocalDate.parse("2023-07-31");
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void shouldGroupDailyRevenueIntoWeeks() {
+        when(salesRollupRepository.findByDimensionAndDayBetweenOrderByDay(SalesDimension.TOTAL.getCode(), FROM, TO))
+                .thenReturn(List.of(getTotal("2023-07-16", 1, "10"), getTotal("2023-07-17", 2, "20"),
+                        getTotal("2023-07-23", 3, "30")));
+
+        List<RevenueDTO> result = analyticsService.revenue(FROM, TO, RevenueGranularity.WEEK);
+
+        assertEquals(2, result.size());
+        assertEquals(LocalDate.parse("2023-07-10"), result.get(0).getStart());
+        assertEquals(1, result.get(0).getOrders());
+        assertEquals(LocalDate.parse("2023-07-17"), result.get(1).getStart());
+        assertEquals(5, result.get(1).getOrders());
+        assertEquals(new BigDecimal("50"), result.get(1).getRevenue());
+        verify(salesRollupRepository, times(1)).findByDimensionAndDayBetweenOrderByDay(SalesDimension.TOTAL.getCode(), FROM, TO);
+        verifyNoMoreInteractions(salesRollupRepository);
+    }
+
+    @Test
+    void shouldGroupDailyRevenueIntoMonths() {
+        when(salesRollupRepository.findByDimensionAndDayBetweenOrderByDay(anyInt(), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(List.of(getTotal("2023-07-16", 1, "10"), getTotal("2023-08-01", 2, "20")));
+
+        List<RevenueDTO> result = analyticsService.revenue(FROM, TO.plusDays(1), RevenueGranularity.MONTH);
+
+        assertEquals(2, result.size());
+        assertEquals(LocalDate.parse("2023-07-01"), result.get(0).getStart());
+        assertEquals(LocalDate.parse("2023-08-01"), result.get(1).getStart());
+    }
+
+    @Test
+    void shouldThrowIllegalArgumentExceptionWhenStartIsAfterEndInRevenue() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> analyticsService.revenue(TO, FROM, RevenueGranularity.DAY));
+
+        assertEquals("Start date can not be after end date", exception.getMessage());
+        verifyNoInteractions(salesRollupRepository);
+    }
+
+    @Test
+    void shouldFindTopProductsByQuantityWithNames() {
+        Product product = new Product("Phone", "t", BigDecimal.TEN, "t");
+        product.setId(UUID.randomUUID());
+        when(salesRollupRepository.sumByDimensionOrderByQuantity(anyInt(), any(LocalDate.class), any(LocalDate.class), any(Pageable.class)))
+                .thenReturn(List.of(getSum(product.getId().toString(), 2L, 5L, "50")));
+        when(productRepository.findAllById(anyIterable())).thenReturn(List.of(product));
+
+        List<ProductSalesDTO> result = analyticsService.topProducts(FROM, TO, SalesRanking.QUANTITY, 5);
+
+        assertEquals(1, result.size());
+        assertEquals(product.getId(), result.get(0).getId());
+        assertEquals("Phone", result.get(0).getName());
+        assertEquals(5, result.get(0).getQuantity());
+        verify(salesRollupRepository, times(1)).sumByDimensionOrderByQuantity(SalesDimension.PRODUCT.getCode(), FROM, TO,
+                PageRequest.of(0, 5));
+        verifyNoMoreInteractions(salesRollupRepository);
+    }
+
+    @Test
+    void shouldFindTopProductsByRevenue() {
+        when(salesRollupRepository.sumByDimensionOrderByRevenue(anyInt(), any(LocalDate.class), any(LocalDate.class), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        assertTrue(analyticsService.topProducts(FROM, TO, SalesRanking.REVENUE, 10).isEmpty());
+        verify(salesRollupRepository, times(1)).sumByDimensionOrderByRevenue(SalesDimension.PRODUCT.getCode(), FROM, TO,
+                PageRequest.of(0, 10));
+        verifyNoMoreInteractions(salesRollupRepository);
+    }
+
+    @Test
+    void shouldThrowIllegalArgumentExceptionWhenLimitIsOutOfRangeInTopProducts() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> analyticsService.topProducts(FROM, TO, SalesRanking.REVENUE, 101));
+
+        assertEquals("Limit must be between 1 and 100", exception.getMessage());
+        verifyNoInteractions(salesRollupRepository);
+    }
+
+    @Test
+    void shouldFindCategoriesWithNames() {
+        Category category = new Category("Electronics");
+        category.setId(UUID.randomUUID());
+        when(salesRollupRepository.sumByDimensionOrderByRevenue(anyInt(), any(LocalDate.class), any(LocalDate.class), any(Pageable.class)))
+                .thenReturn(List.of(getSum(category.getId().toString(), 3L, 4L, "40")));
+        when(categoryRepository.findAllById(anyIterable())).thenReturn(List.of(category));
+
+        List<CategorySalesDTO> result = analyticsService.categories(FROM, TO);
+
+        assertEquals(1, result.size());
+        assertEquals("Electronics", result.get(0).getName());
+        assertEquals(new BigDecimal("40"), result.get(0).getRevenue());
+        verify(salesRollupRepository, times(1)).sumByDimensionOrderByRevenue(SalesDimension.CATEGORY.getCode(), FROM, TO,
+                Pageable.unpaged());
+    }
+
+    @Test
+    void shouldComputeAverageOrderValuePerPaymentType() {
+        when(salesRollupRepository.sumByDimensionOrderByRevenue(anyInt(), any(LocalDate.class), any(LocalDate.class), any(Pageable.class)))
+                .thenReturn(List.of(getSum(PaymentType.PIX.getCode().toString(), 3L, 0L, "100")));
+
+        List<PaymentTypeSalesDTO> result = analyticsService.paymentTypes(FROM, TO);
+
+        assertEquals(1, result.size());
+        assertEquals(PaymentType.PIX, result.get(0).getPaymentType());
+        assertEquals(3, result.get(0).getOrders());
+        assertEquals(new BigDecimal("33.33"), result.get(0).getAverageOrderValue());
+        verify(salesRollupRepository, times(1)).sumByDimensionOrderByRevenue(SalesDimension.PAYMENT_TYPE.getCode(), FROM, TO,
+                Pageable.unpaged());
+    }
+
+    private SalesRollup getTotal(String day, long orders, String revenue) {
+        return new SalesRollup(LocalDate.parse(day), SalesDimension.TOTAL, "", orders, 0L, new BigDecimal(revenue));
+    }
+
+    private SalesRollupTotal getSum(String key, Long orders, Long quantity, String revenue) {
+        return new SalesRollupTotal() {
+            public String getDimensionKey() {
+                return key;
+            }
+            public Long getOrders() {
+                return orders;
+            }
+            public Long getQuantity() {
+                return quantity;
+            }
+            public BigDecimal getRevenue() {
+                return new BigDecimal(revenue);
+            }
+        };
+    }
+}
@@ -1,12 +1,14 @@
 package com.soaresdev.productorderapi.services;
 
+import com.auth0.jwt.exceptions.InvalidClaimException;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import com.soaresdev.productorderapi.dtos.security.LoginDTO;
 import com.soaresdev.productorderapi.dtos.security.RefreshDTO;
 import com.soaresdev.productorderapi.dtos.security.TokenDTO;
 import com.soaresdev.productorderapi.entities.User;
-import com.soaresdev.productorderapi.repositories.UserRepository;
+import com.soaresdev.productorderapi.exceptions.TooManyRequestsException;
+import com.soaresdev.productorderapi.security.LoginRateLimiter;
 import com.soaresdev.productorderapi.security.jwt.JwtTokenProvider;
-import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -32,7 +34,10 @@ class AuthServiceTest {
     private JwtTokenProvider jwtTokenProvider;
 
     @Mock
-    private UserRepository userRepository;
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private LoginRateLimiter loginRateLimiter;
 
     private LoginDTO loginDTO;
     private RefreshDTO refreshDTO;
@@ -40,6 +45,7 @@ class AuthServiceTest {
     private User user;
 
     private static final String EMAIL = "testing@gmail.com";
+    private static final String ADDRESS = "127.0.0.1";
 
     @BeforeEach
     void setup() {
@@ -53,9 +59,9 @@ class AuthServiceTest {
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
                 .thenReturn(authentication);
         when(authentication.getPrincipal()).thenReturn(user);
-        when(jwtTokenProvider.createToken(anyString(), anyList())).thenReturn(tokenDTO);
+        when(refreshTokenService.issue(anyString(), anyList())).thenReturn(tokenDTO);
 
-        TokenDTO response = authService.login(loginDTO);
+        TokenDTO response = authService.login(loginDTO, ADDRESS);
 
         assertNotNull(response);
         assertEquals(loginDTO.getEmail(), response.getEmail());
@@ -73,9 +79,10 @@ class AuthServiceTest {
         assertFalse(response.getRefreshToken().isBlank());
         verify(authenticationManager, times(1)).
                 authenticate(any(UsernamePasswordAuthenticationToken.class));
-        verify(jwtTokenProvider, times(1)).createToken(anyString(), anyList());
+        verify(refreshTokenService, times(1)).issue(anyString(), anyList());
         verifyNoMoreInteractions(authenticationManager);
-        verifyNoMoreInteractions(jwtTokenProvider);
+        verifyNoMoreInteractions(refreshTokenService);
+        verifyNoInteractions(jwtTokenProvider);
     }
 
     @Test
@@ -85,12 +92,12 @@ class AuthServiceTest {
                 thenThrow(InternalAuthenticationServiceException.class);
 
         Throwable e = assertThrows(BadCredentialsException.class,
-                () -> authService.login(loginDTO));
+                () -> authService.login(loginDTO, ADDRESS));
         assertEquals("Invalid email address or password", e.getMessage());
         verify(authenticationManager, times(1)).
                 authenticate(any(UsernamePasswordAuthenticationToken.class));
         verifyNoMoreInteractions(authenticationManager);
-        verifyNoInteractions(jwtTokenProvider);
+        verifyNoInteractions(refreshTokenService);
     }
 
     @Test
@@ -100,19 +107,31 @@ class AuthServiceTest {
                 thenThrow(BadCredentialsException.class);
 
         Throwable e = assertThrows(BadCredentialsException.class,
-                () -> authService.login(loginDTO));
+                () -> authService.login(loginDTO, ADDRESS));
         assertEquals("Invalid email address or password", e.getMessage());
         verify(authenticationManager, times(1)).
                 authenticate(any(UsernamePasswordAuthenticationToken.class));
         verifyNoMoreInteractions(authenticationManager);
-        verifyNoInteractions(jwtTokenProvider);
+        verifyNoInteractions(refreshTokenService);
+    }
+
+    @Test
+    void shouldThrowTooManyRequestsExceptionBeforeAuthenticatingWhenThrottledInLogin() {
+        doThrow(new TooManyRequestsException("Too many login attempts, try again later", 5))
+                .when(loginRateLimiter).acquire(ADDRESS, EMAIL);
+
+        Throwable e = assertThrows(TooManyRequestsException.class,
+                () -> authService.login(loginDTO, ADDRESS));
+        assertEquals("Too many login attempts, try again later", e.getMessage());
+        verify(loginRateLimiter, times(1)).acquire(ADDRESS, EMAIL);
+        verifyNoInteractions(authenticationManager);
+        verifyNoInteractions(refreshTokenService);
     }
 
     @Test
     void shouldRefreshToken() {
-        when(userRepository.existsByEmail(anyString())).thenReturn(true);
-        when(jwtTokenProvider.getEmailByToken(anyString())).thenReturn(EMAIL);
-        when(jwtTokenProvider.createTokenWithRefreshToken(anyString())).thenReturn(tokenDTO);
+        DecodedJWT decodedJWT = mockDecodedRefreshToken(EMAIL);
+        when(refreshTokenService.rotate(decodedJWT)).thenReturn(tokenDTO);
 
         TokenDTO response = authService.refreshToken(refreshDTO);
 
@@ -129,38 +148,43 @@ class AuthServiceTest {
         assertNotNull(response.getRefreshToken());
         assertEquals(String.class, response.getRefreshToken().getClass());
         assertFalse(response.getRefreshToken().isBlank());
-        verify(userRepository, times(1)).existsByEmail(anyString());
-        verify(jwtTokenProvider, times(1)).getEmailByToken(anyString());
-        verify(jwtTokenProvider, times(1)).
-                createTokenWithRefreshToken(anyString());
-        verifyNoMoreInteractions(userRepository);
+        verify(jwtTokenProvider, times(1)).decodeRefreshToken(anyString());
+        verify(refreshTokenService, times(1)).rotate(decodedJWT);
         verifyNoMoreInteractions(jwtTokenProvider);
+        verifyNoMoreInteractions(refreshTokenService);
     }
 
     @Test
-    void shouldThrowEntityNotFoundExceptionWhenEmailNotExistsInRefreshToken() {
-        when(userRepository.existsByEmail(anyString())).thenReturn(false);
+    void shouldThrowAuthenticationServiceExceptionWhenEmailNotMatchInRefreshToken() {
+        mockDecodedRefreshToken("differentemail@gmail.com");
 
-        Throwable e = assertThrows(EntityNotFoundException.class,
+        Throwable e = assertThrows(AuthenticationServiceException.class,
                 () -> authService.refreshToken(refreshDTO));
-        assertEquals("User not found", e.getMessage());
-        verify(userRepository, times(1)).existsByEmail(anyString());
-        verifyNoMoreInteractions(userRepository);
-        verifyNoInteractions(jwtTokenProvider);
+        assertEquals("Email not matching", e.getMessage());
+        verify(jwtTokenProvider, times(1)).decodeRefreshToken(anyString());
+        verifyNoMoreInteractions(jwtTokenProvider);
+        verifyNoInteractions(refreshTokenService);
     }
 
     @Test
-    void shouldThrowAuthenticationServiceExceptionWhenEmailNotMatchInRefreshToken() {
-        when(userRepository.existsByEmail(anyString())).thenReturn(true);
-        when(jwtTokenProvider.getEmailByToken(anyString())).thenReturn("differentemail@gmail.com");
+    void shouldThrowInvalidClaimExceptionWhenRefreshTokenIsReusedInRefreshToken() {
+        DecodedJWT decodedJWT = mockDecodedRefreshToken(EMAIL);
+        when(refreshTokenService.rotate(decodedJWT)).thenThrow(new InvalidClaimException("Refresh token reuse detected"));
 
-        Throwable e = assertThrows(AuthenticationServiceException.class,
+        Throwable e = assertThrows(InvalidClaimException.class,
                 () -> authService.refreshToken(refreshDTO));
-        assertEquals("Email not matching", e.getMessage());
-        verify(userRepository, times(1)).existsByEmail(anyString());
-        verify(jwtTokenProvider, times(1)).getEmailByToken(anyString());
-        verifyNoMoreInteractions(userRepository);
+        assertEquals("Refresh token reuse detected", e.getMessage());
+        verify(jwtTokenProvider, times(1)).decodeRefreshToken(anyString());
+        verify(refreshTokenService, times(1)).rotate(decodedJWT);
         verifyNoMoreInteractions(jwtTokenProvider);
+        verifyNoMoreInteractions(refreshTokenService);
+    }
+
+    private DecodedJWT mockDecodedRefreshToken(String subject) {
+        DecodedJWT decodedJWT = mock(DecodedJWT.class);
+        when(decodedJWT.getSubject()).thenReturn(subject);
+        when(jwtTokenProvider.decodeRefreshToken(anyString())).thenReturn(decodedJWT);
+        return decodedJWT;
     }
 
     private void init() {
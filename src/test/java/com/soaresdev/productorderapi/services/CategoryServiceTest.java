@@ -1,5 +1,7 @@
 package com.soaresdev.productorderapi.services;
 
+import com.soaresdev.productorderapi.cache.CompressedResponseCache;
+import com.soaresdev.productorderapi.cache.ProductSnapshotCache;
 import com.soaresdev.productorderapi.dtos.CategoryDTO;
 import com.soaresdev.productorderapi.dtos.insertDTOs.CategoryInsertDTO;
 import com.soaresdev.productorderapi.entities.Category;
@@ -33,6 +35,12 @@ class CategoryServiceTest {
     @Mock
     private ModelMapper modelMapper;
 
+    @Mock
+    private CompressedResponseCache compressedResponseCache;
+
+    @Mock
+    private ProductSnapshotCache productSnapshotCache;
+
     private static final UUID RANDOM_UUID = UUID.randomUUID();
 
     private Category category;
@@ -101,8 +109,12 @@ class CategoryServiceTest {
         verify(modelMapper, times(1)).
                 map(any(CategoryInsertDTO.class), eq(Category.class));
         verify(categoryRepository, times(1)).save(any(Category.class));
+        verify(compressedResponseCache, times(1)).invalidate(CompressedResponseCache.CATEGORIES_PATH);
+        verify(compressedResponseCache, times(1)).invalidate(CompressedResponseCache.PRODUCTS_PATH);
+        verifyNoInteractions(productSnapshotCache);
         verifyNoMoreInteractions(categoryRepository);
         verifyNoMoreInteractions(modelMapper);
+        verifyNoMoreInteractions(compressedResponseCache);
     }
 
     @Test
@@ -115,6 +127,7 @@ class CategoryServiceTest {
         verify(categoryRepository, times(1)).existsByName(anyString());
         verifyNoMoreInteractions(categoryRepository);
         verifyNoInteractions(modelMapper);
+        verifyNoInteractions(compressedResponseCache);
     }
 
     @Test
@@ -128,6 +141,9 @@ class CategoryServiceTest {
 
         verify(categoryRepository, times(1)).findById(any(UUID.class));
         verify(categoryRepository, times(1)).deleteByUUID(any(UUID.class));
+        verify(compressedResponseCache, times(1)).invalidate(CompressedResponseCache.CATEGORIES_PATH);
+        verify(compressedResponseCache, times(1)).invalidate(CompressedResponseCache.PRODUCTS_PATH);
+        verify(productSnapshotCache, times(1)).invalidateAll();
         verifyNoMoreInteractions(categoryRepository);
     }
 
@@ -161,6 +177,7 @@ class CategoryServiceTest {
         verify(categoryRepository, times(1)).findById(any(UUID.class));
         verify(categoryRepository, times(1)).existsByName(anyString());
         verify(categoryRepository, times(1)).save(any(Category.class));
+        verify(productSnapshotCache, times(1)).invalidateAll();
         verifyNoMoreInteractions(categoryRepository);
     }
 
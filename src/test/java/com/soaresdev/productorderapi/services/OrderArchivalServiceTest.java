@@ -0,0 +1,86 @@
+package com.soaresdev.productorderapi.services;
+
+import com.soaresdev.productorderapi.entities.enums.OrderStatus;
+import com.soaresdev.productorderapi.entities.enums.PaymentStatus;
+import com.soaresdev.productorderapi.repositories.ArchivedOrderRepository;
+import com.soaresdev.productorderapi.repositories.OrderItemRepository;
+import com.soaresdev.productorderapi.repositories.OrderRepository;
+import com.soaresdev.productorderapi.repositories.PaymentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OrderArchivalServiceTest {
+    private static final Instant NOW = Instant.parse("2023-07-20T03:00:00Z");
+    private static final Instant CUTOFF = Instant.parse("2023-01-20T03:00:00Z");
+
+    private OrderArchivalService orderArchivalService;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        orderArchivalService = new OrderArchivalService(orderRepository, orderItemRepository, paymentRepository,
+                archivedOrderRepository, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void shouldCopyToArchiveBeforeDeletingLiveRows() {
+        List<UUID> orderIds = List.of(UUID.randomUUID(), UUID.randomUUID());
+        when(orderRepository.findArchivableIds(CUTOFF,
+                List.of(OrderStatus.DELIVERED.getCode(), OrderStatus.CANCELED.getCode()), PageRequest.of(0, 2)))
+                .thenReturn(orderIds);
+
+        int archived = orderArchivalService.archiveBatch(CUTOFF, 2);
+
+        assertEquals(2, archived);
+        InOrder inOrder = inOrder(archivedOrderRepository, paymentRepository, orderItemRepository, orderRepository);
+        inOrder.verify(archivedOrderRepository).archiveOrders(orderIds, NOW);
+        inOrder.verify(archivedOrderRepository).archiveItems(orderIds);
+        inOrder.verify(archivedOrderRepository).archivePayments(orderIds, PaymentStatus.COMPLETED.getCode());
+        inOrder.verify(paymentRepository).deleteByOrderIdIn(orderIds);
+        inOrder.verify(orderItemRepository).deleteByOrderIdIn(orderIds);
+        inOrder.verify(orderRepository).deleteByIdIn(orderIds);
+        verifyNoMoreInteractions(archivedOrderRepository, paymentRepository, orderItemRepository);
+    }
+
+    @Test
+    void shouldDoNothingWhenNoOrderIsArchivable() {
+        when(orderRepository.findArchivableIds(any(), any(), any())).thenReturn(List.of());
+
+        assertEquals(0, orderArchivalService.archiveBatch(CUTOFF, 100));
+        verifyNoInteractions(archivedOrderRepository, paymentRepository, orderItemRepository);
+        verify(orderRepository, never()).deleteByIdIn(any());
+    }
+
+    @Test
+    void shouldThrowIllegalArgumentExceptionWhenBatchSizeIsNotPositive() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> orderArchivalService.archiveBatch(CUTOFF, 0));
+
+        assertEquals("Batch size must be positive", exception.getMessage());
+        verifyNoInteractions(orderRepository);
+    }
+}
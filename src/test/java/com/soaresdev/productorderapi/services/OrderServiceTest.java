@@ -1,15 +1,22 @@
 package com.soaresdev.productorderapi.services;
 
+import com.soaresdev.productorderapi.cache.ProductSnapshotCache;
+import com.soaresdev.productorderapi.dtos.FieldSet;
 import com.soaresdev.productorderapi.dtos.OrderDTO;
+import com.soaresdev.productorderapi.dtos.OrderFilterDTO;
 import com.soaresdev.productorderapi.dtos.insertDTOs.OrderInsertDTO;
 import com.soaresdev.productorderapi.dtos.insertDTOs.OrderItemDeleteDTO;
 import com.soaresdev.productorderapi.dtos.insertDTOs.OrderItemInsertDTO;
 import com.soaresdev.productorderapi.entities.*;
 import com.soaresdev.productorderapi.entities.enums.OrderStatus;
+import com.soaresdev.productorderapi.entities.enums.OutboxEventType;
+import com.soaresdev.productorderapi.entities.enums.PaymentStatus;
 import com.soaresdev.productorderapi.entities.enums.PaymentType;
 import com.soaresdev.productorderapi.entities.enums.RoleName;
 import com.soaresdev.productorderapi.exceptions.AlreadyPaidException;
 import com.soaresdev.productorderapi.exceptions.NotPaidException;
+import com.soaresdev.productorderapi.repositories.ArchivedOrderRepository;
+import com.soaresdev.productorderapi.repositories.OrderHeader;
 import com.soaresdev.productorderapi.repositories.OrderItemRepository;
 import com.soaresdev.productorderapi.repositories.OrderRepository;
 import com.soaresdev.productorderapi.repositories.ProductRepository;
@@ -20,11 +27,13 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
@@ -32,6 +41,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
+import java.util.Set;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -57,6 +67,18 @@ class OrderServiceTest {
     @Mock
     private ModelMapper modelMapper;
 
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private OrderSummaryService orderSummaryService;
+
+    @Mock
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Spy
+    private ProductSnapshotCache productSnapshotCache = new ProductSnapshotCache(100);
+
     private static final UUID RANDOM_UUID = UUID.randomUUID();
 
     private User client;
@@ -77,10 +99,9 @@ class OrderServiceTest {
 
     @Test
     void shouldFindAllOrders() {
-        when(orderRepository.findAll(any(Pageable.class))).
-                thenReturn(new PageImpl<>(List.of(order)));
+        mockFindPageReturns(order);
 
-        Page<OrderDTO> result = orderService.findAll(PageRequest.of(0, 2));
+        Page<OrderDTO> result = orderService.findAll(new OrderFilterDTO(), PageRequest.of(0, 2), FieldSet.all());
 
         assertFalse(result.isEmpty());
         assertEquals(1, result.getTotalElements());
@@ -92,13 +113,156 @@ class OrderServiceTest {
         assertEquals(order.getClient().getEmail(), result.getContent().get(0).getClient().getEmail());
         assertTrue(order.getItems().isEmpty());
         assertTrue(result.getContent().get(0).getItems().isEmpty());
-        verify(orderRepository,times(1)).findAll(any(Pageable.class));
+        verify(orderRepository,times(1)).findIds(any(), any(Pageable.class));
+        verify(orderRepository,times(1)).findByIdIn(List.of(RANDOM_UUID));
+        verifyNoMoreInteractions(orderRepository);
+    }
+
+    @Test
+    void shouldFindAllOrdersWithFilter() {
+        mockFindPageReturns(order);
+        OrderFilterDTO orderFilterDTO = new OrderFilterDTO();
+        orderFilterDTO.setClient_id(RANDOM_UUID.toString());
+        orderFilterDTO.setOrderStatus(OrderStatus.DELIVERED);
+        orderFilterDTO.setMinMoment(Instant.now().minusSeconds(60));
+        orderFilterDTO.setMaxMoment(Instant.now());
+        orderFilterDTO.setMinTotal(BigDecimal.ZERO);
+        orderFilterDTO.setMaxTotal(BigDecimal.TEN);
+
+        Page<OrderDTO> result = orderService.findAll(orderFilterDTO, PageRequest.of(0, 2), FieldSet.all());
+
+        assertEquals(1, result.getTotalElements());
+        assertEquals(RANDOM_UUID, result.getContent().get(0).getId());
+        verify(orderRepository,times(1)).findIds(any(), any(Pageable.class));
+        verify(orderRepository,times(1)).findByIdIn(List.of(RANDOM_UUID));
+        verifyNoMoreInteractions(orderRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldLeaveOrdersArchivedBeforeHydrationOutOfPage() {
+        Pageable pageable = PageRequest.of(0, 2);
+        when(orderRepository.findIds(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(UUID.randomUUID(), order.getId()), pageable, 2));
+        when(orderRepository.findByIdIn(anyCollection())).thenReturn(List.of(order));
+
+        Page<OrderDTO> result = orderService.findAll(new OrderFilterDTO(), pageable, FieldSet.all());
+
+        assertEquals(1, result.getTotalElements());
+        assertEquals(1, result.getContent().size());
+        assertEquals(order.getId(), result.getContent().get(0).getId());
+    }
+
+    @Test
+    void shouldFindAllOrdersHeadersWhenOnlyScalarFieldsAreRequested() {
+        OrderHeader header = mock(OrderHeader.class);
+        when(header.getId()).thenReturn(RANDOM_UUID);
+        when(header.getMoment()).thenReturn(order.getMoment());
+        when(header.getOrderStatus()).thenReturn(OrderStatus.PAID.getCode());
+        when(header.getTotal()).thenReturn(BigDecimal.TEN);
+        when(orderRepository.findIds(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(RANDOM_UUID)));
+        when(orderRepository.findHeadersByIdIn(anyCollection())).thenReturn(List.of(header));
+
+        Page<OrderDTO> result = orderService.findAll(new OrderFilterDTO(), PageRequest.of(0, 2),
+                FieldSet.parse("id,moment,orderStatus,total", OrderDTO.FIELDS));
+
+        assertEquals(1, result.getTotalElements());
+        assertEquals(RANDOM_UUID, result.getContent().get(0).getId());
+        assertEquals(order.getMoment(), result.getContent().get(0).getMoment());
+        assertEquals(OrderStatus.PAID, result.getContent().get(0).getOrderStatus());
+        assertEquals(BigDecimal.TEN, result.getContent().get(0).getTotal());
+        assertNull(result.getContent().get(0).getClient());
+        verify(orderRepository,times(1)).findIds(any(), any(Pageable.class));
+        verify(orderRepository,times(1)).findHeadersByIdIn(List.of(RANDOM_UUID));
         verifyNoMoreInteractions(orderRepository);
     }
 
+    @Test
+    void shouldThrowIllegalArgumentExceptionWhenMinMomentIsAfterMaxMomentInFindAllOrders() {
+        OrderFilterDTO orderFilterDTO = new OrderFilterDTO();
+        orderFilterDTO.setMinMoment(Instant.now());
+        orderFilterDTO.setMaxMoment(Instant.now().minusSeconds(60));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> orderService.findAll(orderFilterDTO, PageRequest.of(0, 2), FieldSet.all()));
+
+        assertEquals("Min moment can not be after max moment", exception.getMessage());
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void shouldThrowIllegalArgumentExceptionWhenMinTotalIsGreaterThanMaxTotalInFindAllOrders() {
+        OrderFilterDTO orderFilterDTO = new OrderFilterDTO();
+        orderFilterDTO.setMinTotal(BigDecimal.TEN);
+        orderFilterDTO.setMaxTotal(BigDecimal.ONE);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> orderService.findAll(orderFilterDTO, PageRequest.of(0, 2), FieldSet.all()));
+
+        assertEquals("Min total can not be greater than max total", exception.getMessage());
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void shouldFindAllOrdersByClient() {
+        mockFindPageReturns(order);
+        when(userRepository.existsById(any(UUID.class))).thenReturn(true);
+        mockGetPrincipalReturns(client);
+
+        Page<OrderDTO> result = orderService.findAllByClient(RANDOM_UUID.toString(), PageRequest.of(0, 2), FieldSet.all());
+
+        assertEquals(1, result.getTotalElements());
+        assertEquals(client.getEmail(), result.getContent().get(0).getClient().getEmail());
+        verify(userRepository, times(1)).existsById(RANDOM_UUID);
+        verify(orderRepository,times(1)).findIds(any(), any(Pageable.class));
+        verify(orderRepository,times(1)).findByIdIn(List.of(RANDOM_UUID));
+        verifyNoMoreInteractions(orderRepository, userRepository);
+    }
+
+    @Test
+    void shouldFindAllOrdersByClientWhenManagerAndDifferentUsers() {
+        mockFindPageReturns(order);
+        when(userRepository.existsById(any(UUID.class))).thenReturn(true);
+        User manager = new User("Manager", "manager@gmail.com", "manager", "manager");
+        manager.getRoles().add(new Role(RoleName.ROLE_MANAGER.getCode()));
+        mockGetPrincipalReturns(manager);
+
+        Page<OrderDTO> result = orderService.findAllByClient(RANDOM_UUID.toString(), PageRequest.of(0, 2), FieldSet.all());
+
+        assertEquals(1, result.getTotalElements());
+        verify(userRepository, times(1)).existsById(RANDOM_UUID);
+        verify(orderRepository,times(1)).findIds(any(), any(Pageable.class));
+        verify(orderRepository,times(1)).findByIdIn(List.of(RANDOM_UUID));
+        verifyNoMoreInteractions(orderRepository, userRepository);
+    }
+
+    @Test
+    void shouldThrowEntityNotFoundExceptionWhenClientNotExistsInFindAllOrdersByClient() {
+        when(userRepository.existsById(any(UUID.class))).thenReturn(false);
+
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+                () -> orderService.findAllByClient(RANDOM_UUID.toString(), PageRequest.of(0, 2), FieldSet.all()));
+
+        assertEquals("Client not found", exception.getMessage());
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void shouldThrowAccessDeniedExceptionWhenNotManagerOrAdminAndDifferentUsersInFindAllOrdersByClient() {
+        when(userRepository.existsById(any(UUID.class))).thenReturn(true);
+        mockGetPrincipalReturns(differentClient);
+
+        AccessDeniedException exception = assertThrows(AccessDeniedException.class,
+                () -> orderService.findAllByClient(RANDOM_UUID.toString(), PageRequest.of(0, 2), FieldSet.all()));
+
+        assertEquals("Access denied", exception.getMessage());
+        verifyNoInteractions(orderRepository);
+    }
+
     @Test
     void shouldFindOrderByUUID() {
-        when(orderRepository.findById(any(UUID.class))).
+        when(orderRepository.findByIdAndClientId(any(UUID.class), any(UUID.class))).
                 thenReturn(Optional.ofNullable(order));
         mockGetPrincipalReturns(client);
 
@@ -113,39 +277,92 @@ class OrderServiceTest {
         assertEquals(order.getClient().getEmail(), responseOrder.getClient().getEmail());
         assertTrue(order.getItems().isEmpty());
         assertTrue(responseOrder.getItems().isEmpty());
-        verify(orderRepository, times(1)).findById(any(UUID.class));
+        verify(orderRepository, times(1)).findByIdAndClientId(any(UUID.class), any(UUID.class));
         verifyNoMoreInteractions(orderRepository);
     }
 
     @Test
     void shouldThrowEntityNotFoundExceptionWhenOrderNotExistsInFindOrderByUUID() {
-        when(orderRepository.findById(any(UUID.class))).thenReturn(Optional.empty());
+        when(orderRepository.findByIdAndClientId(any(UUID.class), any(UUID.class))).thenReturn(Optional.empty());
+        when(orderRepository.existsById(any(UUID.class))).thenReturn(false);
+        mockGetPrincipalReturns(client);
 
         Throwable e = assertThrows(EntityNotFoundException.class,
                 () -> orderService.findByUUID(RANDOM_UUID.toString()));
         assertEquals("Order not found", e.getMessage());
-        verify(orderRepository, times(1)).findById(any(UUID.class));
+        verify(orderRepository, times(1)).findByIdAndClientId(any(UUID.class), any(UUID.class));
+        verify(orderRepository, times(1)).existsById(any(UUID.class));
         verifyNoMoreInteractions(orderRepository);
     }
 
     @Test
     void shouldThrowAccessDeniedExceptionWhenNotManagerOrAdminAndDifferentUsersInFindOrderByUUID() {
-        when(orderRepository.findById(any(UUID.class))).
-                thenReturn(Optional.ofNullable(order));
+        when(orderRepository.findByIdAndClientId(any(UUID.class), any(UUID.class))).thenReturn(Optional.empty());
+        when(orderRepository.existsById(any(UUID.class))).thenReturn(true);
         mockGetPrincipalReturns(differentClient);
 
         Throwable e = assertThrows(AccessDeniedException.class,
                 () -> orderService.findByUUID(RANDOM_UUID.toString()));
         assertEquals("Access denied", e.getMessage());
-        verify(orderRepository, times(1)).findById(any(UUID.class));
+        verify(orderRepository, times(1)).findByIdAndClientId(any(UUID.class), any(UUID.class));
+        verify(orderRepository, times(1)).existsById(any(UUID.class));
         verifyNoMoreInteractions(orderRepository);
     }
 
+    @Test
+    void shouldFindArchivedOrderByUUIDWhenNotInLiveTables() {
+        ArchivedOrder archivedOrder = mockArchivedOrder();
+        when(orderRepository.findByIdAndClientId(any(UUID.class), any(UUID.class))).thenReturn(Optional.empty());
+        when(archivedOrderRepository.findByIdAndClientId(any(UUID.class), any(UUID.class)))
+                .thenReturn(Optional.of(archivedOrder));
+        mockGetPrincipalReturns(client);
+
+        OrderDTO responseOrder = orderService.findByUUID(RANDOM_UUID.toString());
+
+        assertEquals(RANDOM_UUID, responseOrder.getId());
+        assertEquals(OrderStatus.DELIVERED, responseOrder.getOrderStatus());
+        assertEquals(client.getEmail(), responseOrder.getClient().getEmail());
+        assertEquals(BigDecimal.TEN, responseOrder.getTotal());
+        verify(orderRepository, times(1)).findByIdAndClientId(any(UUID.class), any(UUID.class));
+        verify(archivedOrderRepository, times(1)).findByIdAndClientId(any(UUID.class), any(UUID.class));
+        verifyNoMoreInteractions(orderRepository, archivedOrderRepository);
+    }
+
+    @Test
+    void shouldFindArchivedOrderByUUIDWhenManager() {
+        ArchivedOrder archivedOrder = mockArchivedOrder();
+        when(orderRepository.findById(RANDOM_UUID)).thenReturn(Optional.empty());
+        when(archivedOrderRepository.findById(RANDOM_UUID)).thenReturn(Optional.of(archivedOrder));
+        User manager = new User("Manager", "manager@gmail.com", "manager", "manager");
+        manager.getRoles().add(new Role(RoleName.ROLE_MANAGER.getCode()));
+        mockGetPrincipalReturns(manager);
+
+        OrderDTO responseOrder = orderService.findByUUID(RANDOM_UUID.toString());
+
+        assertEquals(RANDOM_UUID, responseOrder.getId());
+        verify(orderRepository, times(1)).findById(RANDOM_UUID);
+        verify(archivedOrderRepository, times(1)).findById(RANDOM_UUID);
+        verifyNoMoreInteractions(orderRepository, archivedOrderRepository);
+    }
+
+    @Test
+    void shouldThrowAccessDeniedExceptionWhenArchivedOrderOfDifferentUserInFindOrderByUUID() {
+        when(orderRepository.findByIdAndClientId(any(UUID.class), any(UUID.class))).thenReturn(Optional.empty());
+        when(archivedOrderRepository.findByIdAndClientId(any(UUID.class), any(UUID.class))).thenReturn(Optional.empty());
+        when(orderRepository.existsById(any(UUID.class))).thenReturn(false);
+        when(archivedOrderRepository.existsById(any(UUID.class))).thenReturn(true);
+        mockGetPrincipalReturns(differentClient);
+
+        Throwable e = assertThrows(AccessDeniedException.class,
+                () -> orderService.findByUUID(RANDOM_UUID.toString()));
+        assertEquals("Access denied", e.getMessage());
+        verify(archivedOrderRepository, times(1)).existsById(any(UUID.class));
+    }
+
     @Test
     void shouldInsertOrder() {
         when(userRepository.existsById(any(UUID.class))).thenReturn(true);
         mockGetPrincipalReturns(client);
-        when(userRepository.getReferenceById(any(UUID.class))).thenReturn(client);
         when(modelMapper.map(any(OrderInsertDTO.class), eq(Order.class))).
                 thenReturn(order);
         when(orderRepository.save(any(Order.class))).thenAnswer(invocationOnMock -> {
@@ -166,10 +383,10 @@ class OrderServiceTest {
         assertTrue(order.getItems().isEmpty());
         assertTrue(responseOrder.getItems().isEmpty());
         verify(userRepository, times(1)).existsById(any(UUID.class));
-        verify(userRepository, times(1)).getReferenceById(any(UUID.class));
         verify(modelMapper, times(1)).
                 map(any(OrderInsertDTO.class), eq(Order.class));
         verify(orderRepository, times(1)).save(any(Order.class));
+        verify(orderSummaryService, times(1)).orderChanged(order);
         verifyNoMoreInteractions(orderRepository);
         verifyNoMoreInteractions(modelMapper);
         verifyNoMoreInteractions(userRepository);
@@ -191,15 +408,12 @@ class OrderServiceTest {
     @Test
     void shouldThrowAccessDeniedExceptionWhenNotAdminAndDifferentUsersInInsertOrder() {
         when(userRepository.existsById(any(UUID.class))).thenReturn(true);
-        mockGetPrincipalReturns(client);
-        when(userRepository.getReferenceById(any(UUID.class))).thenReturn(differentClient);
-
+        mockGetPrincipalReturns(differentClient);
 
         Throwable e = assertThrows(AccessDeniedException.class,
                 () -> orderService.insert(orderInsertDTO));
         assertEquals("Access denied", e.getMessage());
         verify(userRepository, times(1)).existsById(any(UUID.class));
-        verify(userRepository, times(1)).getReferenceById(any(UUID.class));
         verifyNoMoreInteractions(userRepository);
         verifyNoInteractions(modelMapper);
         verifyNoInteractions(orderRepository);
@@ -210,13 +424,11 @@ class OrderServiceTest {
         orderInsertDTO.setOrderStatus(OrderStatus.PAID);
         when(userRepository.existsById(any(UUID.class))).thenReturn(true);
         mockGetPrincipalReturns(client);
-        when(userRepository.getReferenceById(any(UUID.class))).thenReturn(client);
 
         Throwable e = assertThrows(NotPaidException.class,
                 () -> orderService.insert(orderInsertDTO));
         assertEquals("Not paid yet", e.getMessage());
         verify(userRepository, times(1)).existsById(any(UUID.class));
-        verify(userRepository, times(1)).getReferenceById(any(UUID.class));
         verifyNoMoreInteractions(userRepository);
         verifyNoInteractions(modelMapper);
         verifyNoInteractions(orderRepository);
@@ -232,6 +444,7 @@ class OrderServiceTest {
 
         verify(orderRepository, times(1)).findById(any(UUID.class));
         verify(orderRepository, times(1)).delete(any(Order.class));
+        verify(orderSummaryService, times(1)).orderDeleted(order.getId());
         verifyNoMoreInteractions(orderRepository);
     }
 
@@ -273,6 +486,8 @@ class OrderServiceTest {
         verify(userRepository, times(1)).existsById(any(UUID.class));
         verify(userRepository, times(1)).getReferenceById(any(UUID.class));
         verify(orderRepository, times(1)).save(any(Order.class));
+        verify(outboxService, times(1)).orderChanged(OutboxEventType.ORDER_UPDATED, order);
+        verify(orderSummaryService, times(1)).orderChanged(order);
         verifyNoMoreInteractions(orderRepository);
         verifyNoMoreInteractions(userRepository);
     }
@@ -320,6 +535,22 @@ class OrderServiceTest {
         verifyNoMoreInteractions(orderRepository);
     }
 
+    @Test
+    void shouldThrowNotPaidExceptionWhenOrderStatusToPaidOrShippedAndPaymentIsPendingInUpdateOrderByUUID() {
+        payment.setPaymentStatus(PaymentStatus.PENDING);
+        order.setPayment(payment);
+        order.setOrderStatus(OrderStatus.WAITING_PAYMENT);
+        when(orderRepository.findById(any(UUID.class))).
+                thenReturn(Optional.ofNullable(order));
+        when(userRepository.existsById(any(UUID.class))).thenReturn(true);
+
+        orderInsertDTO.setOrderStatus(OrderStatus.PAID);
+        assertThrows(NotPaidException.class, () -> orderService.updateByUUID(RANDOM_UUID.toString(), orderInsertDTO));
+        orderInsertDTO.setOrderStatus(OrderStatus.SHIPPED);
+        assertThrows(NotPaidException.class, () -> orderService.updateByUUID(RANDOM_UUID.toString(), orderInsertDTO));
+        assertEquals(OrderStatus.WAITING_PAYMENT.getCode(), order.getOrderStatus());
+    }
+
     @Test
     void shouldThrowAlreadyPaidExceptionWhenPaymentIsNotNullAndOrderStatusToWaitingPaymentInUpdateOrderByUUID() {
         order.setPayment(payment);
@@ -341,7 +572,7 @@ class OrderServiceTest {
     @Test
     void shouldAddItemInOrderWhenItemNotExistsInOrder() {
         when(productRepository.existsById(any(UUID.class))).thenReturn(true);
-        when(orderRepository.findById(any(UUID.class))).
+        when(orderRepository.findByIdAndClientId(any(UUID.class), any(UUID.class))).
                 thenReturn(Optional.ofNullable(order));
         mockGetPrincipalReturns(client);
         when(orderItemRepository.
@@ -374,11 +605,12 @@ class OrderServiceTest {
         assertEquals(order.getItems().iterator().next().getSubTotal(),
                 responseOrder.getItems().iterator().next().getSubTotal());
         verify(productRepository, times(1)).existsById(any(UUID.class));
-        verify(orderRepository, times(1)).findById(any(UUID.class));
+        verify(orderRepository, times(1)).findByIdAndClientId(any(UUID.class), any(UUID.class));
         verify(orderItemRepository, times(1)).
                 existsById_OrderIdAndId_ProductId(any(UUID.class), any(UUID.class));
         verify(productRepository, times(1)).getReferenceById(any(UUID.class));
         verify(orderRepository, times(1)).save(any(Order.class));
+        verify(orderSummaryService, times(1)).orderChanged(order);
         verifyNoMoreInteractions(orderRepository);
         verifyNoMoreInteractions(productRepository);
         verifyNoMoreInteractions(orderItemRepository);
@@ -388,7 +620,7 @@ class OrderServiceTest {
     void shouldAddItemInOrderWhenItemExistsInOrder() {
         order.getItems().add(orderItem);
         when(productRepository.existsById(any(UUID.class))).thenReturn(true);
-        when(orderRepository.findById(any(UUID.class))).
+        when(orderRepository.findByIdAndClientId(any(UUID.class), any(UUID.class))).
                 thenReturn(Optional.ofNullable(order));
         mockGetPrincipalReturns(client);
         when(orderItemRepository.
@@ -423,12 +655,13 @@ class OrderServiceTest {
         assertEquals(order.getItems().iterator().next().getSubTotal(),
                 responseOrder.getItems().iterator().next().getSubTotal());
         verify(productRepository, times(1)).existsById(any(UUID.class));
-        verify(orderRepository, times(1)).findById(any(UUID.class));
+        verify(orderRepository, times(1)).findByIdAndClientId(any(UUID.class), any(UUID.class));
         verify(orderItemRepository, times(1)).
                 existsById_OrderIdAndId_ProductId(any(UUID.class), any(UUID.class));
         verify(orderItemRepository, times(1)).
                 findById_OrderIdAndId_ProductId(any(UUID.class), any(UUID.class));
         verify(orderRepository, times(1)).save(any(Order.class));
+        verify(orderSummaryService, times(1)).orderChanged(order);
         verifyNoMoreInteractions(orderRepository);
         verifyNoMoreInteractions(productRepository);
         verifyNoMoreInteractions(orderItemRepository);
@@ -450,13 +683,16 @@ class OrderServiceTest {
     @Test
     void shouldThrowEntityNotFoundExceptionWhenOrderNotExistsInAddItemInOrder() {
         when(productRepository.existsById(any(UUID.class))).thenReturn(true);
-        when(orderRepository.findById(any(UUID.class))).thenReturn(Optional.empty());
+        when(orderRepository.findByIdAndClientId(any(UUID.class), any(UUID.class))).thenReturn(Optional.empty());
+        when(orderRepository.existsById(any(UUID.class))).thenReturn(false);
+        mockGetPrincipalReturns(client);
 
         Throwable e = assertThrows(EntityNotFoundException.class,
                 () -> orderService.addItem(RANDOM_UUID.toString(), orderItemInsertDTO));
         assertEquals("Order not found", e.getMessage());
         verify(productRepository, times(1)).existsById(any(UUID.class));
-        verify(orderRepository, times(1)).findById(any(UUID.class));
+        verify(orderRepository, times(1)).findByIdAndClientId(any(UUID.class), any(UUID.class));
+        verify(orderRepository, times(1)).existsById(any(UUID.class));
         verifyNoMoreInteractions(productRepository);
         verifyNoMoreInteractions(orderRepository);
         verifyNoInteractions(orderItemRepository);
@@ -465,15 +701,16 @@ class OrderServiceTest {
     @Test
     void shouldThrowAccessDeniedExceptionWhenNotAdminAndDifferentUsersInAddItemInOrder() {
         when(productRepository.existsById(any(UUID.class))).thenReturn(true);
-        when(orderRepository.findById(any(UUID.class))).
-                thenReturn(Optional.ofNullable(order));
+        when(orderRepository.findByIdAndClientId(any(UUID.class), any(UUID.class))).thenReturn(Optional.empty());
+        when(orderRepository.existsById(any(UUID.class))).thenReturn(true);
         mockGetPrincipalReturns(differentClient);
 
         Throwable e = assertThrows(AccessDeniedException.class,
                 () -> orderService.addItem(RANDOM_UUID.toString(), orderItemInsertDTO));
         assertEquals("Access denied", e.getMessage());
         verify(productRepository, times(1)).existsById(any(UUID.class));
-        verify(orderRepository, times(1)).findById(any(UUID.class));
+        verify(orderRepository, times(1)).findByIdAndClientId(any(UUID.class), any(UUID.class));
+        verify(orderRepository, times(1)).existsById(any(UUID.class));
         verifyNoMoreInteractions(productRepository);
         verifyNoMoreInteractions(orderRepository);
         verifyNoInteractions(orderItemRepository);
@@ -483,7 +720,7 @@ class OrderServiceTest {
     void shouldThrowAlreadyPaidExceptionWhenOrderIsPaidInAddItemInOrder() {
         order.setPayment(payment);
         when(productRepository.existsById(any(UUID.class))).thenReturn(true);
-        when(orderRepository.findById(any(UUID.class))).
+        when(orderRepository.findByIdAndClientId(any(UUID.class), any(UUID.class))).
                 thenReturn(Optional.ofNullable(order));
         mockGetPrincipalReturns(client);
 
@@ -491,7 +728,7 @@ class OrderServiceTest {
                 () -> orderService.addItem(RANDOM_UUID.toString(), orderItemInsertDTO));
         assertEquals("Already paid, unable to do changes in this order item", e.getMessage());
         verify(productRepository, times(1)).existsById(any(UUID.class));
-        verify(orderRepository, times(1)).findById(any(UUID.class));
+        verify(orderRepository, times(1)).findByIdAndClientId(any(UUID.class), any(UUID.class));
         verifyNoMoreInteractions(productRepository);
         verifyNoMoreInteractions(orderRepository);
         verifyNoInteractions(orderItemRepository);
@@ -501,7 +738,7 @@ class OrderServiceTest {
     void shouldDeleteItemInOrder() {
         order.getItems().add(orderItem);
         when(productRepository.existsById(any(UUID.class))).thenReturn(true);
-        when(orderRepository.findById(any(UUID.class))).
+        when(orderRepository.findByIdAndClientId(any(UUID.class), any(UUID.class))).
                 thenReturn(Optional.ofNullable(order));
         mockGetPrincipalReturns(client);
         when(orderItemRepository.
@@ -528,7 +765,7 @@ class OrderServiceTest {
         assertTrue(order.getItems().isEmpty());
         assertTrue(responseOrder.getItems().isEmpty());
         verify(productRepository, times(1)).existsById(any(UUID.class));
-        verify(orderRepository,times(1)).findById(any(UUID.class));
+        verify(orderRepository, times(1)).findByIdAndClientId(any(UUID.class), any(UUID.class));
         verify(orderItemRepository, times(1)).
                 existsById_OrderIdAndId_ProductId(RANDOM_UUID, RANDOM_UUID);
         verify(orderItemRepository, times(1)).
@@ -536,6 +773,7 @@ class OrderServiceTest {
         verify(orderItemRepository, times(1)).
                 deleteById_OrderIdAndId_ProductId(RANDOM_UUID, RANDOM_UUID);
         verify(orderRepository, times(1)).save(any(Order.class));
+        verify(orderSummaryService, times(1)).orderChanged(order);
         verifyNoMoreInteractions(orderRepository);
         verifyNoMoreInteractions(orderItemRepository);
         verifyNoMoreInteractions(productRepository);
@@ -557,13 +795,16 @@ class OrderServiceTest {
     @Test
     void shouldThrowEntityNotFoundExceptionWhenOrderNotExistsInDeleteItemInOrder() {
         when(productRepository.existsById(any(UUID.class))).thenReturn(true);
-        when(orderRepository.findById(any(UUID.class))).thenReturn(Optional.empty());
+        when(orderRepository.findByIdAndClientId(any(UUID.class), any(UUID.class))).thenReturn(Optional.empty());
+        when(orderRepository.existsById(any(UUID.class))).thenReturn(false);
+        mockGetPrincipalReturns(client);
 
         Throwable e = assertThrows(EntityNotFoundException.class,
                 () -> orderService.deleteItem(RANDOM_UUID.toString(), orderItemDeleteDTO));
         assertEquals("Order not found", e.getMessage());
         verify(productRepository, times(1)).existsById(any(UUID.class));
-        verify(orderRepository,times(1)).findById(any(UUID.class));
+        verify(orderRepository, times(1)).findByIdAndClientId(any(UUID.class), any(UUID.class));
+        verify(orderRepository, times(1)).existsById(any(UUID.class));
         verifyNoMoreInteractions(orderRepository);
         verifyNoMoreInteractions(productRepository);
         verifyNoInteractions(orderItemRepository);
@@ -572,15 +813,16 @@ class OrderServiceTest {
     @Test
     void shouldThrowAccessDeniedExceptionWhenNotAdminAndDifferentUsersInDeleteItemInOrder() {
         when(productRepository.existsById(any(UUID.class))).thenReturn(true);
-        when(orderRepository.findById(any(UUID.class))).
-                thenReturn(Optional.ofNullable(order));
+        when(orderRepository.findByIdAndClientId(any(UUID.class), any(UUID.class))).thenReturn(Optional.empty());
+        when(orderRepository.existsById(any(UUID.class))).thenReturn(true);
         mockGetPrincipalReturns(differentClient);
 
         Throwable e = assertThrows(AccessDeniedException.class,
                 () -> orderService.deleteItem(RANDOM_UUID.toString(), orderItemDeleteDTO));
         assertEquals("Access denied", e.getMessage());
         verify(productRepository, times(1)).existsById(any(UUID.class));
-        verify(orderRepository,times(1)).findById(any(UUID.class));
+        verify(orderRepository, times(1)).findByIdAndClientId(any(UUID.class), any(UUID.class));
+        verify(orderRepository, times(1)).existsById(any(UUID.class));
         verifyNoMoreInteractions(orderRepository);
         verifyNoMoreInteractions(productRepository);
         verifyNoInteractions(orderItemRepository);
@@ -590,7 +832,7 @@ class OrderServiceTest {
     void shouldThrowAlreadyPaidExceptionWhenOrderIsPaidInDeleteItemInOrder() {
         order.setPayment(payment);
         when(productRepository.existsById(any(UUID.class))).thenReturn(true);
-        when(orderRepository.findById(any(UUID.class))).
+        when(orderRepository.findByIdAndClientId(any(UUID.class), any(UUID.class))).
                 thenReturn(Optional.ofNullable(order));
         mockGetPrincipalReturns(client);
 
@@ -598,7 +840,7 @@ class OrderServiceTest {
                 () -> orderService.deleteItem(RANDOM_UUID.toString(), orderItemDeleteDTO));
         assertEquals("Already paid, unable to do changes in this order item", e.getMessage());
         verify(productRepository, times(1)).existsById(any(UUID.class));
-        verify(orderRepository,times(1)).findById(any(UUID.class));
+        verify(orderRepository, times(1)).findByIdAndClientId(any(UUID.class), any(UUID.class));
         verifyNoMoreInteractions(orderRepository);
         verifyNoMoreInteractions(productRepository);
         verifyNoInteractions(orderItemRepository);
@@ -607,7 +849,7 @@ class OrderServiceTest {
     @Test
     void shouldThrowEntityNotFoundExceptionWhenOrderItemNotExistsInDeleteItemInOrder() {
         when(productRepository.existsById(any(UUID.class))).thenReturn(true);
-        when(orderRepository.findById(any(UUID.class))).
+        when(orderRepository.findByIdAndClientId(any(UUID.class), any(UUID.class))).
                 thenReturn(Optional.ofNullable(order));
         mockGetPrincipalReturns(client);
         when(orderItemRepository.
@@ -617,7 +859,7 @@ class OrderServiceTest {
                 () -> orderService.deleteItem(RANDOM_UUID.toString(), orderItemDeleteDTO));
         assertEquals("Order item not found", e.getMessage());
         verify(productRepository, times(1)).existsById(any(UUID.class));
-        verify(orderRepository,times(1)).findById(any(UUID.class));
+        verify(orderRepository, times(1)).findByIdAndClientId(any(UUID.class), any(UUID.class));
         verify(orderItemRepository, times(1)).
                 existsById_OrderIdAndId_ProductId(RANDOM_UUID, RANDOM_UUID);
         verifyNoMoreInteractions(orderRepository);
@@ -630,7 +872,7 @@ class OrderServiceTest {
         order.getItems().add(orderItem);
         orderItemInsertDTO.setQuantity(13);
         when(productRepository.existsById(any(UUID.class))).thenReturn(true);
-        when(orderRepository.findById(any(UUID.class))).
+        when(orderRepository.findByIdAndClientId(any(UUID.class), any(UUID.class))).
                 thenReturn(Optional.ofNullable(order));
         mockGetPrincipalReturns(client);
         when(orderItemRepository.
@@ -663,12 +905,13 @@ class OrderServiceTest {
         assertEquals(order.getItems().iterator().next().getSubTotal(),
                 responseOrder.getItems().iterator().next().getSubTotal());
         verify(productRepository, times(1)).existsById(any(UUID.class));
-        verify(orderRepository, times(1)).findById(any(UUID.class));
+        verify(orderRepository, times(1)).findByIdAndClientId(any(UUID.class), any(UUID.class));
         verify(orderItemRepository, times(1)).
                 existsById_OrderIdAndId_ProductId(any(UUID.class), any(UUID.class));
         verify(orderItemRepository, times(1)).
                 findById_OrderIdAndId_ProductId(any(UUID.class), any(UUID.class));
         verify(orderRepository, times(1)).save(any(Order.class));
+        verify(orderSummaryService, times(1)).orderChanged(order);
         verifyNoMoreInteractions(orderRepository);
         verifyNoMoreInteractions(productRepository);
         verifyNoMoreInteractions(orderItemRepository);
@@ -692,13 +935,16 @@ class OrderServiceTest {
     void shouldThrowEntityNotFoundExceptionWhenOrderNotExistsInUpdateItemInOrder() {
         orderItemInsertDTO.setQuantity(13);
         when(productRepository.existsById(any(UUID.class))).thenReturn(true);
-        when(orderRepository.findById(any(UUID.class))).thenReturn(Optional.empty());
+        when(orderRepository.findByIdAndClientId(any(UUID.class), any(UUID.class))).thenReturn(Optional.empty());
+        when(orderRepository.existsById(any(UUID.class))).thenReturn(false);
+        mockGetPrincipalReturns(client);
 
         Throwable e = assertThrows(EntityNotFoundException.class,
                 () -> orderService.updateItem(RANDOM_UUID.toString(), orderItemInsertDTO));
         assertEquals("Order not found", e.getMessage());
         verify(productRepository, times(1)).existsById(any(UUID.class));
-        verify(orderRepository,times(1)).findById(any(UUID.class));
+        verify(orderRepository, times(1)).findByIdAndClientId(any(UUID.class), any(UUID.class));
+        verify(orderRepository, times(1)).existsById(any(UUID.class));
         verifyNoMoreInteractions(orderRepository);
         verifyNoMoreInteractions(productRepository);
         verifyNoInteractions(orderItemRepository);
@@ -708,15 +954,16 @@ class OrderServiceTest {
     void shouldThrowAccessDeniedExceptionWhenNotAdminAndDifferentUsersInUpdateItemInOrder() {
         orderItemInsertDTO.setQuantity(13);
         when(productRepository.existsById(any(UUID.class))).thenReturn(true);
-        when(orderRepository.findById(any(UUID.class))).
-                thenReturn(Optional.ofNullable(order));
+        when(orderRepository.findByIdAndClientId(any(UUID.class), any(UUID.class))).thenReturn(Optional.empty());
+        when(orderRepository.existsById(any(UUID.class))).thenReturn(true);
         mockGetPrincipalReturns(differentClient);
 
         Throwable e = assertThrows(AccessDeniedException.class,
                 () -> orderService.updateItem(RANDOM_UUID.toString(), orderItemInsertDTO));
         assertEquals("Access denied", e.getMessage());
         verify(productRepository, times(1)).existsById(any(UUID.class));
-        verify(orderRepository,times(1)).findById(any(UUID.class));
+        verify(orderRepository, times(1)).findByIdAndClientId(any(UUID.class), any(UUID.class));
+        verify(orderRepository, times(1)).existsById(any(UUID.class));
         verifyNoMoreInteractions(orderRepository);
         verifyNoMoreInteractions(productRepository);
         verifyNoInteractions(orderItemRepository);
@@ -727,7 +974,7 @@ class OrderServiceTest {
         orderItemInsertDTO.setQuantity(13);
         order.setPayment(payment);
         when(productRepository.existsById(any(UUID.class))).thenReturn(true);
-        when(orderRepository.findById(any(UUID.class))).
+        when(orderRepository.findByIdAndClientId(any(UUID.class), any(UUID.class))).
                 thenReturn(Optional.ofNullable(order));
         mockGetPrincipalReturns(client);
 
@@ -735,7 +982,7 @@ class OrderServiceTest {
                 () -> orderService.updateItem(RANDOM_UUID.toString(), orderItemInsertDTO));
         assertEquals("Already paid, unable to do changes in this order item", e.getMessage());
         verify(productRepository, times(1)).existsById(any(UUID.class));
-        verify(orderRepository,times(1)).findById(any(UUID.class));
+        verify(orderRepository, times(1)).findByIdAndClientId(any(UUID.class), any(UUID.class));
         verifyNoMoreInteractions(orderRepository);
         verifyNoMoreInteractions(productRepository);
         verifyNoInteractions(orderItemRepository);
@@ -745,7 +992,7 @@ class OrderServiceTest {
     void shouldThrowEntityNotFoundExceptionWhenOrderItemNotExistsInUpdateItemInOrder() {
         orderItemInsertDTO.setQuantity(13);
         when(productRepository.existsById(any(UUID.class))).thenReturn(true);
-        when(orderRepository.findById(any(UUID.class))).
+        when(orderRepository.findByIdAndClientId(any(UUID.class), any(UUID.class))).
                 thenReturn(Optional.ofNullable(order));
         mockGetPrincipalReturns(client);
         when(orderItemRepository.
@@ -755,7 +1002,7 @@ class OrderServiceTest {
                 () -> orderService.updateItem(RANDOM_UUID.toString(), orderItemInsertDTO));
         assertEquals("Order item not found", e.getMessage());
         verify(productRepository, times(1)).existsById(any(UUID.class));
-        verify(orderRepository,times(1)).findById(any(UUID.class));
+        verify(orderRepository, times(1)).findByIdAndClientId(any(UUID.class), any(UUID.class));
         verify(orderItemRepository, times(1)).
                 existsById_OrderIdAndId_ProductId(RANDOM_UUID, RANDOM_UUID);
         verifyNoMoreInteractions(orderRepository);
@@ -768,8 +1015,10 @@ class OrderServiceTest {
         Role role = new Role(RoleName.ROLE_USER.getCode());
         client = new User("test", "test@gmail.com", "test", "test");
         client.getRoles().add(role);
+        client.setId(RANDOM_UUID);
         differentClient = new User("Test2", "test2@gmail.com", "test2", "test2");
         differentClient.getRoles().add(role);
+        differentClient.setId(UUID.randomUUID());
         order = new Order(Instant.now(), OrderStatus.DELIVERED, client);
         order.setId(RANDOM_UUID);
         orderInsertDTO = new OrderInsertDTO(OrderStatus.CANCELED, RANDOM_UUID.toString());
@@ -780,6 +1029,13 @@ class OrderServiceTest {
         orderItemDeleteDTO = new OrderItemDeleteDTO(RANDOM_UUID.toString());
     }
 
+    @SuppressWarnings("unchecked")
+    private void mockFindPageReturns(Order order) {
+        when(orderRepository.findIds(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(order.getId())));
+        when(orderRepository.findByIdIn(anyCollection())).thenReturn(List.of(order));
+    }
+
     private void mockGetPrincipalReturns(User user) {
         Authentication auth = mock(Authentication.class);
         SecurityContext securityContext = mock(SecurityContext.class);
@@ -789,4 +1045,15 @@ class OrderServiceTest {
 
         SecurityContextHolder.setContext(securityContext);
     }
+
+    private ArchivedOrder mockArchivedOrder() {
+        ArchivedOrder archivedOrder = mock(ArchivedOrder.class);
+        when(archivedOrder.getId()).thenReturn(RANDOM_UUID);
+        when(archivedOrder.getMoment()).thenReturn(Instant.now());
+        when(archivedOrder.getOrderStatus()).thenReturn(OrderStatus.DELIVERED.getCode());
+        when(archivedOrder.getClient()).thenReturn(client);
+        when(archivedOrder.getItems()).thenReturn(Set.of());
+        when(archivedOrder.getTotal()).thenReturn(BigDecimal.TEN);
+        return archivedOrder;
+    }
 }
\ No newline at end of file
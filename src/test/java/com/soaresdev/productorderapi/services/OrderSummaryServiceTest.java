@@ -0,0 +1,129 @@
+package com.soaresdev.productorderapi.services;
+
+import com.soaresdev.productorderapi.dtos.OrderSummaryDTO;
+import com.soaresdev.productorderapi.entities.*;
+import com.soaresdev.productorderapi.entities.enums.OrderStatus;
+import com.soaresdev.productorderapi.entities.enums.PaymentType;
+import com.soaresdev.productorderapi.repositories.OrderSummaryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OrderSummaryServiceTest {
+    private static final Instant NOW = Instant.parse("2023-07-20T21:09:00Z");
+
+    private OrderSummaryService orderSummaryService;
+    private OrderSummaryRepository orderSummaryRepository;
+
+    private User client;
+    private Order order;
+
+    @BeforeEach
+    void setup() {
+        orderSummaryRepository = mock(OrderSummaryRepository.class);
+        orderSummaryService = new OrderSummaryService(orderSummaryRepository);
+        client = new User("test", "test@gmail.com", "test", "test");
+        client.setId(UUID.randomUUID());
+        order = new Order(NOW, OrderStatus.WAITING_PAYMENT, client);
+        order.setId(UUID.randomUUID());
+        Product product = new Product("test", "test", BigDecimal.TEN, "test");
+        product.setId(UUID.randomUUID());
+        order.getItems().add(new OrderItem(order, product, 3));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldCreateSummaryWhenOrderChanged() {
+        when(orderSummaryRepository.findById(order.getId())).thenReturn(Optional.empty());
+
+        orderSummaryService.orderChanged(order);
+
+        OrderSummary orderSummary = captureSavedSummary();
+        assertEquals(order.getId(), orderSummary.getOrderId());
+        assertEquals(client.getId(), orderSummary.getClientId());
+        assertEquals(NOW, orderSummary.getMoment());
+        assertEquals(OrderStatus.WAITING_PAYMENT.getCode(), orderSummary.getOrderStatus());
+        assertEquals(0, BigDecimal.valueOf(30).compareTo(orderSummary.getTotal()));
+        assertEquals(1, orderSummary.getItemCount());
+        assertNull(orderSummary.getPaymentType());
+    }
+
+    @Test
+    void shouldUpdateExistingSummaryWhenPaymentChanged() {
+        OrderSummary existing = new OrderSummary(order.getId());
+        when(orderSummaryRepository.findById(order.getId())).thenReturn(Optional.of(existing));
+        order.setOrderStatus(OrderStatus.PAID);
+        Payment payment = new Payment(NOW, PaymentType.CREDIT_CARD, order);
+
+        orderSummaryService.paymentChanged(order, payment);
+
+        OrderSummary orderSummary = captureSavedSummary();
+        assertSame(existing, orderSummary);
+        assertEquals(OrderStatus.PAID.getCode(), orderSummary.getOrderStatus());
+        assertEquals(PaymentType.CREDIT_CARD.getCode(), orderSummary.getPaymentType());
+    }
+
+    @Test
+    void shouldClearPaymentTypeWhenPaymentRemoved() {
+        OrderSummary existing = new OrderSummary(order.getId());
+        existing.setPaymentType(PaymentType.PIX);
+        when(orderSummaryRepository.findById(order.getId())).thenReturn(Optional.of(existing));
+
+        orderSummaryService.paymentChanged(order, null);
+
+        assertNull(captureSavedSummary().getPaymentType());
+    }
+
+    @Test
+    void shouldFindSummariesOfContextUser() {
+        Authentication auth = mock(Authentication.class);
+        SecurityContext securityContext = mock(SecurityContext.class);
+        when(auth.getPrincipal()).thenReturn(client);
+        when(securityContext.getAuthentication()).thenReturn(auth);
+        SecurityContextHolder.setContext(securityContext);
+        OrderSummary orderSummary = new OrderSummary(order.getId());
+        orderSummary.setClientId(client.getId());
+        orderSummary.setMoment(NOW);
+        orderSummary.setOrderStatus(OrderStatus.WAITING_PAYMENT);
+        orderSummary.setTotal(BigDecimal.TEN);
+        orderSummary.setItemCount(1);
+        Pageable pageable = PageRequest.of(0, 10);
+        when(orderSummaryRepository.findByClientId(client.getId(), pageable)).
+                thenReturn(new PageImpl<>(List.of(orderSummary)));
+
+        Page<OrderSummaryDTO> result = orderSummaryService.findAllOfContextUser(pageable);
+
+        assertEquals(1, result.getTotalElements());
+        assertEquals(order.getId(), result.getContent().get(0).getId());
+        assertEquals(OrderStatus.WAITING_PAYMENT, result.getContent().get(0).getOrderStatus());
+        assertNull(result.getContent().get(0).getPaymentType());
+        verify(orderSummaryRepository, times(1)).findByClientId(client.getId(), pageable);
+        verifyNoMoreInteractions(orderSummaryRepository);
+    }
+
+    private OrderSummary captureSavedSummary() {
+        ArgumentCaptor<OrderSummary> captor = ArgumentCaptor.forClass(OrderSummary.class);
+        verify(orderSummaryRepository, times(1)).save(captor.capture());
+        return captor.getValue();
+    }
+}
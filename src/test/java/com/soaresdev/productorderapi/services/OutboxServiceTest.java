@@ -0,0 +1,81 @@
+package com.soaresdev.productorderapi.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.soaresdev.productorderapi.entities.Order;
+import com.soaresdev.productorderapi.entities.OutboxEvent;
+import com.soaresdev.productorderapi.entities.Payment;
+import com.soaresdev.productorderapi.entities.User;
+import com.soaresdev.productorderapi.entities.enums.OrderStatus;
+import com.soaresdev.productorderapi.entities.enums.OutboxEventType;
+import com.soaresdev.productorderapi.entities.enums.PaymentType;
+import com.soaresdev.productorderapi.repositories.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OutboxServiceTest {
+    private static final Instant NOW = Instant.parse("2023-07-20T21:09:00Z");
+
+    private OutboxService outboxService;
+    private OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Order order;
+
+    @BeforeEach
+    void setup() {
+        outboxEventRepository = mock(OutboxEventRepository.class);
+        outboxService = new OutboxService(outboxEventRepository, objectMapper, Clock.fixed(NOW, ZoneOffset.UTC));
+        User client = new User("test", "test@gmail.com", "test", "test");
+        client.setId(UUID.randomUUID());
+        order = new Order(NOW, OrderStatus.PAID, client);
+        order.setId(UUID.randomUUID());
+    }
+
+    @Test
+    void shouldSaveOrderChangedEvent() throws Exception {
+        outboxService.orderChanged(OutboxEventType.ORDER_UPDATED, order);
+
+        OutboxEvent event = captureSavedEvent();
+        JsonNode payload = objectMapper.readTree(event.getPayload());
+        assertEquals(OutboxEventType.ORDER_UPDATED.getCode(), event.getEventType());
+        assertEquals(order.getId(), event.getAggregateId());
+        assertEquals(NOW, event.getCreatedAt());
+        assertNull(event.getPublishedAt());
+        assertEquals(order.getId().toString(), payload.get("orderId").asText());
+        assertEquals("PAID", payload.get("orderStatus").asText());
+        assertEquals(order.getClient().getId().toString(), payload.get("clientId").asText());
+    }
+
+    @Test
+    void shouldSavePaymentChangedEvent() throws Exception {
+        Payment payment = new Payment(NOW, PaymentType.PIX, order);
+        payment.setId(UUID.randomUUID());
+
+        outboxService.paymentChanged(OutboxEventType.PAYMENT_INSERTED, payment);
+
+        OutboxEvent event = captureSavedEvent();
+        JsonNode payload = objectMapper.readTree(event.getPayload());
+        assertEquals(OutboxEventType.PAYMENT_INSERTED.getCode(), event.getEventType());
+        assertEquals(order.getId(), event.getAggregateId());
+        assertEquals(payment.getId().toString(), payload.get("paymentId").asText());
+        assertEquals("PIX", payload.get("paymentType").asText());
+        assertEquals(NOW.toString(), payload.get("moment").asText());
+        assertEquals("PAYMENT_INSERTED", payload.get("eventType").asText());
+    }
+
+    private OutboxEvent captureSavedEvent() {
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository, times(1)).save(captor.capture());
+        verifyNoMoreInteractions(outboxEventRepository);
+        return captor.getValue();
+    }
+}
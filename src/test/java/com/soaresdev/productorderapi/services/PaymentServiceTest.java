@@ -1,5 +1,6 @@
 package com.soaresdev.productorderapi.services;
 
+import com.soaresdev.productorderapi.dtos.FieldSet;
 import com.soaresdev.productorderapi.dtos.PaymentDTO;
 import com.soaresdev.productorderapi.dtos.insertDTOs.PaymentInsertDTO;
 import com.soaresdev.productorderapi.entities.Order;
@@ -7,11 +8,17 @@ import com.soaresdev.productorderapi.entities.Payment;
 import com.soaresdev.productorderapi.entities.Role;
 import com.soaresdev.productorderapi.entities.User;
 import com.soaresdev.productorderapi.entities.enums.OrderStatus;
+import com.soaresdev.productorderapi.entities.enums.OutboxEventType;
+import com.soaresdev.productorderapi.entities.enums.PaymentStatus;
 import com.soaresdev.productorderapi.entities.enums.PaymentType;
 import com.soaresdev.productorderapi.entities.enums.RoleName;
 import com.soaresdev.productorderapi.exceptions.AlreadyPaidException;
+import com.soaresdev.productorderapi.exceptions.PaymentInProgressException;
+import com.soaresdev.productorderapi.exceptions.TooManyRequestsException;
+import com.soaresdev.productorderapi.payments.PaymentProcessor;
 import com.soaresdev.productorderapi.repositories.OrderRepository;
 import com.soaresdev.productorderapi.repositories.PaymentRepository;
+import com.soaresdev.productorderapi.repositories.PaymentView;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -27,6 +34,7 @@ import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import java.time.Clock;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
@@ -48,7 +56,20 @@ class PaymentServiceTest {
     @Mock
     private ModelMapper modelMapper;
 
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private OrderSummaryService orderSummaryService;
+
+    @Mock
+    private PaymentProcessor paymentProcessor;
+
+    @Mock
+    private Clock clock;
+
     private static final UUID RANDOM_UUID = UUID.randomUUID();
+    private static final Instant NOW = Instant.parse("2023-07-20T10:00:00Z");
 
     private Payment payment;
     private PaymentInsertDTO paymentInsertDTO;
@@ -59,6 +80,7 @@ class PaymentServiceTest {
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
+        when(clock.instant()).thenReturn(NOW);
         init();
     }
 
@@ -67,7 +89,7 @@ class PaymentServiceTest {
         when(paymentRepository.findAll(any(Pageable.class))).
                 thenReturn(new PageImpl<>(List.of(payment)));
 
-        Page<PaymentDTO> result = paymentService.findAll(PageRequest.of(0, 2));
+        Page<PaymentDTO> result = paymentService.findAll(PageRequest.of(0, 2), FieldSet.all());
 
         assertFalse(result.isEmpty());
         assertEquals(1, result.getTotalElements());
@@ -79,9 +101,31 @@ class PaymentServiceTest {
         verifyNoMoreInteractions(paymentRepository);
     }
 
+    @Test
+    void shouldFindAllPaymentViewsWhenFieldsAreRequested() {
+        PaymentView view = mock(PaymentView.class);
+        when(view.getId()).thenReturn(RANDOM_UUID);
+        when(view.getOrderId()).thenReturn(order.getId());
+        when(view.getMoment()).thenReturn(payment.getMoment());
+        when(view.getPaymentType()).thenReturn(payment.getPaymentType());
+        when(view.getPaymentStatus()).thenReturn(payment.getPaymentStatus());
+        when(view.getAmount()).thenReturn(payment.getAmount());
+        when(paymentRepository.findAllViews(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(view)));
+
+        Page<PaymentDTO> result = paymentService.findAll(PageRequest.of(0, 2), FieldSet.parse("id,amount", PaymentDTO.FIELDS));
+
+        assertEquals(1, result.getTotalElements());
+        assertEquals(RANDOM_UUID, result.getContent().get(0).getId());
+        assertEquals(order.getId(), result.getContent().get(0).getOrder_id());
+        assertEquals(payment.getPaymentType(), result.getContent().get(0).getPaymentType().getCode());
+        assertEquals(payment.getAmount(), result.getContent().get(0).getAmount());
+        verify(paymentRepository, times(1)).findAllViews(any(Pageable.class));
+        verifyNoMoreInteractions(paymentRepository);
+    }
+
     @Test
     void shouldFindPaymentByUUID() {
-        when(paymentRepository.findById(any(UUID.class))).
+        when(paymentRepository.findByIdAndOrderClientId(any(UUID.class), any(UUID.class))).
                 thenReturn(Optional.ofNullable(payment));
         mockGetPrincipalReturns(client);
 
@@ -92,40 +136,44 @@ class PaymentServiceTest {
         assertEquals(payment.getPaymentType(), responsePayment.getPaymentType().getCode());
         assertEquals(payment.getAmount(), responsePayment.getAmount());
         assertEquals(payment.getOrder().getId(), responsePayment.getOrder_id());
-        verify(paymentRepository, times(1)).findById(any(UUID.class));
+        verify(paymentRepository, times(1)).findByIdAndOrderClientId(any(UUID.class), any(UUID.class));
         verifyNoMoreInteractions(paymentRepository);
     }
 
     @Test
     void shouldThrowEntityNotFoundExceptionWhenPaymentNotExistsInFindPaymentByUUID() {
-        when(paymentRepository.findById(any(UUID.class))).thenReturn(Optional.empty());
+        when(paymentRepository.findByIdAndOrderClientId(any(UUID.class), any(UUID.class))).thenReturn(Optional.empty());
+        when(paymentRepository.existsById(any(UUID.class))).thenReturn(false);
+        mockGetPrincipalReturns(client);
 
         Throwable e = assertThrows(EntityNotFoundException.class,
                 () -> paymentService.findByUUID(RANDOM_UUID.toString()));
         assertEquals("Payment not found", e.getMessage());
-        verify(paymentRepository, times(1)).findById(any(UUID.class));
+        verify(paymentRepository, times(1)).findByIdAndOrderClientId(any(UUID.class), any(UUID.class));
+        verify(paymentRepository, times(1)).existsById(any(UUID.class));
         verifyNoMoreInteractions(paymentRepository);
     }
 
     @Test
     void shouldThrowAccessDeniedExceptionWhenNotManagerOrAdminAndDifferentUsersInFindPaymentByUUID() {
-        when(paymentRepository.findById(any(UUID.class))).
-                thenReturn(Optional.ofNullable(payment));
+        when(paymentRepository.findByIdAndOrderClientId(any(UUID.class), any(UUID.class))).thenReturn(Optional.empty());
+        when(paymentRepository.existsById(any(UUID.class))).thenReturn(true);
         mockGetPrincipalReturns(differentClient);
 
         Throwable e = assertThrows(AccessDeniedException.class,
                 () -> paymentService.findByUUID(RANDOM_UUID.toString()));
         assertEquals("Access denied", e.getMessage());
-        verify(paymentRepository, times(1)).findById(any(UUID.class));
+        verify(paymentRepository, times(1)).findByIdAndOrderClientId(any(UUID.class), any(UUID.class));
+        verify(paymentRepository, times(1)).existsById(any(UUID.class));
         verifyNoMoreInteractions(paymentRepository);
     }
 
     @Test
     void shouldInsertPayment() {
         when(orderRepository.existsById(any(UUID.class))).thenReturn(true);
-        when(paymentRepository.existsByOrderId(any(UUID.class))).thenReturn(false);
+        when(paymentRepository.existsByOrderId(any(UUID.class), eq(PaymentStatus.FAILED.getCode()))).thenReturn(false);
         mockGetPrincipalReturns(client);
-        when(orderRepository.getReferenceById(any(UUID.class))).thenReturn(order);
+        when(orderRepository.existsByIdAndClientId(any(UUID.class), any(UUID.class))).thenReturn(true);
         when(modelMapper.map(any(PaymentInsertDTO.class), eq(Payment.class))).
                 thenReturn(payment);
         when(paymentRepository.save(any(Payment.class))).thenAnswer(invocationOnMock -> {
@@ -142,16 +190,77 @@ class PaymentServiceTest {
         assertEquals(payment.getAmount(), responsePayment.getAmount());
         assertEquals(payment.getOrder().getId(), responsePayment.getOrder_id());
         verify(orderRepository, times(1)).existsById(any(UUID.class));
-        verify(paymentRepository, times(1)).existsByOrderId(any(UUID.class));
-        verify(orderRepository, times(1)).getReferenceById(any(UUID.class));
+        verify(paymentRepository, times(1)).existsByOrderId(any(UUID.class), eq(PaymentStatus.FAILED.getCode()));
+        verify(orderRepository, times(1)).existsByIdAndClientId(any(UUID.class), any(UUID.class));
         verify(modelMapper, times(1)).
                 map(any(PaymentInsertDTO.class), eq(Payment.class));
+        verify(paymentRepository, times(1)).deleteFailedByOrderId(RANDOM_UUID, PaymentStatus.FAILED.getCode());
         verify(paymentRepository, times(1)).save(any(Payment.class));
+        verify(outboxService, times(1)).paymentChanged(OutboxEventType.PAYMENT_INSERTED, payment);
+        verify(orderSummaryService, times(1)).paymentChanged(order, payment);
         verifyNoMoreInteractions(paymentRepository);
         verifyNoMoreInteractions(modelMapper);
         verifyNoMoreInteractions(orderRepository);
     }
 
+    @Test
+    void shouldInsertPendingPaymentAndSubmitItWhenAsync() {
+        when(orderRepository.existsById(any(UUID.class))).thenReturn(true);
+        when(paymentRepository.existsByOrderId(any(UUID.class), eq(PaymentStatus.FAILED.getCode()))).thenReturn(false);
+        mockGetPrincipalReturns(client);
+        when(orderRepository.existsByIdAndClientId(any(UUID.class), any(UUID.class))).thenReturn(true);
+        when(orderRepository.getReferenceById(RANDOM_UUID)).thenReturn(order);
+        when(paymentProcessor.isEnabled()).thenReturn(true);
+        when(paymentProcessor.tryReserve()).thenReturn(true);
+        when(paymentRepository.save(any(Payment.class))).thenAnswer(invocationOnMock -> {
+            Payment saved = invocationOnMock.getArgument(0);
+            saved.setId(RANDOM_UUID);
+            return saved;
+        });
+
+        PaymentDTO responsePayment = paymentService.insert(paymentInsertDTO);
+
+        assertEquals(PaymentStatus.PENDING, responsePayment.getPaymentStatus());
+        assertEquals(RANDOM_UUID, responsePayment.getId());
+        assertEquals(NOW, responsePayment.getMoment());
+        assertEquals(OrderStatus.DELIVERED.getCode(), order.getOrderStatus());
+        verify(paymentProcessor, times(1)).submitAfterCommit(RANDOM_UUID, PaymentType.PIX, order.getTotal());
+        verify(paymentProcessor, never()).release();
+        verifyNoInteractions(modelMapper, outboxService, orderSummaryService);
+    }
+
+    @Test
+    void shouldThrowTooManyRequestsExceptionWhenNoPaymentWorkerIsFreeInInsertPayment() {
+        when(orderRepository.existsById(any(UUID.class))).thenReturn(true);
+        when(paymentRepository.existsByOrderId(any(UUID.class), eq(PaymentStatus.FAILED.getCode()))).thenReturn(false);
+        mockGetPrincipalReturns(client);
+        when(orderRepository.existsByIdAndClientId(any(UUID.class), any(UUID.class))).thenReturn(true);
+        when(paymentProcessor.isEnabled()).thenReturn(true);
+        when(paymentProcessor.tryReserve()).thenReturn(false);
+
+        TooManyRequestsException e = assertThrows(TooManyRequestsException.class,
+                () -> paymentService.insert(paymentInsertDTO));
+        assertEquals(1, e.getRetryAfterSeconds());
+        verify(paymentRepository, never()).save(any(Payment.class));
+        verify(paymentProcessor, never()).submitAfterCommit(any(), any(), any());
+    }
+
+    @Test
+    void shouldReleaseReservedSlotWhenPendingPaymentIsNotSaved() {
+        when(orderRepository.existsById(any(UUID.class))).thenReturn(true);
+        when(paymentRepository.existsByOrderId(any(UUID.class), eq(PaymentStatus.FAILED.getCode()))).thenReturn(false);
+        mockGetPrincipalReturns(client);
+        when(orderRepository.existsByIdAndClientId(any(UUID.class), any(UUID.class))).thenReturn(true);
+        when(orderRepository.getReferenceById(RANDOM_UUID)).thenReturn(order);
+        when(paymentProcessor.isEnabled()).thenReturn(true);
+        when(paymentProcessor.tryReserve()).thenReturn(true);
+        when(paymentRepository.save(any(Payment.class))).thenThrow(new IllegalStateException("Database down"));
+
+        assertThrows(IllegalStateException.class, () -> paymentService.insert(paymentInsertDTO));
+        verify(paymentProcessor, times(1)).release();
+        verify(paymentProcessor, never()).submitAfterCommit(any(), any(), any());
+    }
+
     @Test
     void shouldThrowEntityNotFoundExceptionWhenPaymentOrderNotExistsInInsertPayment() {
         when(orderRepository.existsById(any(UUID.class))).thenReturn(false);
@@ -167,13 +276,13 @@ class PaymentServiceTest {
     @Test
     void shouldThrowAlreadyPaidExceptionWhenExistsPaymentByOrderIdInInsertPayment() {
         when(orderRepository.existsById(any(UUID.class))).thenReturn(true);
-        when(paymentRepository.existsByOrderId(any(UUID.class))).thenReturn(true);
+        when(paymentRepository.existsByOrderId(any(UUID.class), eq(PaymentStatus.FAILED.getCode()))).thenReturn(true);
 
         Throwable e = assertThrows(AlreadyPaidException.class,
                 () -> paymentService.insert(paymentInsertDTO));
         assertEquals("Order already paid", e.getMessage());
         verify(orderRepository, times(1)).existsById(any(UUID.class));
-        verify(paymentRepository, times(1)).existsByOrderId(any(UUID.class));
+        verify(paymentRepository, times(1)).existsByOrderId(any(UUID.class), eq(PaymentStatus.FAILED.getCode()));
         verifyNoMoreInteractions(paymentRepository);
         verifyNoMoreInteractions(orderRepository);
         verifyNoInteractions(modelMapper);
@@ -182,16 +291,16 @@ class PaymentServiceTest {
     @Test
     void shouldThrowAccessDeniedExceptionWhenNotManagerOrAdminAndDifferentUsersInInsertPayment() {
         when(orderRepository.existsById(any(UUID.class))).thenReturn(true);
-        when(paymentRepository.existsByOrderId(any(UUID.class))).thenReturn(false);
+        when(paymentRepository.existsByOrderId(any(UUID.class), eq(PaymentStatus.FAILED.getCode()))).thenReturn(false);
         mockGetPrincipalReturns(differentClient);
-        when(orderRepository.getReferenceById(any(UUID.class))).thenReturn(order);
+        when(orderRepository.existsByIdAndClientId(any(UUID.class), any(UUID.class))).thenReturn(false);
 
         Throwable e = assertThrows(AccessDeniedException.class,
                 () -> paymentService.insert(paymentInsertDTO));
         assertEquals("Access denied", e.getMessage());
         verify(orderRepository, times(1)).existsById(any(UUID.class));
-        verify(paymentRepository, times(1)).existsByOrderId(any(UUID.class));
-        verify(orderRepository, times(1)).getReferenceById(any(UUID.class));
+        verify(paymentRepository, times(1)).existsByOrderId(any(UUID.class), eq(PaymentStatus.FAILED.getCode()));
+        verify(orderRepository, times(1)).existsByIdAndClientId(any(UUID.class), any(UUID.class));
         verifyNoMoreInteractions(orderRepository);
         verifyNoMoreInteractions(paymentRepository);
         verifyNoInteractions(modelMapper);
@@ -209,6 +318,8 @@ class PaymentServiceTest {
         assertEquals(OrderStatus.WAITING_PAYMENT.getCode(), payment.getOrder().getOrderStatus());
         verify(paymentRepository, times(1)).findById(any(UUID.class));
         verify(paymentRepository, times(1)).deleteByUUID(any(UUID.class));
+        verify(outboxService, times(1)).paymentChanged(OutboxEventType.PAYMENT_DELETED, payment);
+        verify(orderSummaryService, times(1)).paymentChanged(order, null);
         verifyNoMoreInteractions(paymentRepository);
     }
 
@@ -231,7 +342,7 @@ class PaymentServiceTest {
         when(paymentRepository.findById(any(UUID.class))).
                 thenReturn(Optional.ofNullable(payment));
         when(orderRepository.existsById(any(UUID.class))).thenReturn(true);
-        when(paymentRepository.existsByOrderId(any(UUID.class))).thenReturn(false);
+        when(paymentRepository.existsByOrderId(any(UUID.class), eq(PaymentStatus.FAILED.getCode()))).thenReturn(false);
         when(orderRepository.getReferenceById(any(UUID.class))).thenReturn(newOrder);
         when(paymentRepository.save(any(Payment.class))).thenAnswer(invocationOnMock -> {
             payment.setId(RANDOM_UUID);
@@ -250,13 +361,77 @@ class PaymentServiceTest {
         assertEquals(OrderStatus.WAITING_PAYMENT.getCode(), order.getOrderStatus());
         verify(paymentRepository, times(1)).findById(any(UUID.class));
         verify(orderRepository, times(1)).existsById(any(UUID.class));
-        verify(paymentRepository, times(1)).existsByOrderId(any(UUID.class));
+        verify(paymentRepository, times(1)).existsByOrderId(any(UUID.class), eq(PaymentStatus.FAILED.getCode()));
         verify(orderRepository, times(1)).getReferenceById(any(UUID.class));
         verify(paymentRepository, times(1)).save(any(Payment.class));
+        verify(outboxService, times(1)).paymentChanged(OutboxEventType.PAYMENT_UPDATED, payment);
+        verify(orderSummaryService, times(1)).paymentChanged(order, null);
+        verify(orderSummaryService, times(1)).paymentChanged(newOrder, payment);
         verifyNoMoreInteractions(paymentRepository);
         verifyNoMoreInteractions(orderRepository);
     }
 
+    @Test
+    void shouldThrowPaymentInProgressExceptionWhenPaymentIsPendingInUpdatePaymentByUUID() {
+        Order newOrder = getNewOrder();
+        payment.setPaymentStatus(PaymentStatus.PENDING);
+        paymentInsertDTO.setPaymentType(PaymentType.CREDIT_CARD);
+        paymentInsertDTO.setOrder_id(newOrder.getId().toString());
+        when(paymentRepository.findById(any(UUID.class))).
+                thenReturn(Optional.ofNullable(payment));
+
+        Throwable e = assertThrows(PaymentInProgressException.class,
+                () -> paymentService.updateByUUID(RANDOM_UUID.toString(), paymentInsertDTO));
+        assertEquals("Payment is still being processed", e.getMessage());
+        assertEquals(OrderStatus.CANCELED.getCode(), newOrder.getOrderStatus());
+        verify(paymentRepository, times(1)).findById(any(UUID.class));
+        verifyNoMoreInteractions(paymentRepository);
+        verifyNoInteractions(orderRepository);
+        verifyNoInteractions(outboxService);
+    }
+
+    @Test
+    void shouldNotMarkOrderPaidWhenPaymentFailedInUpdatePaymentByUUID() {
+        Order newOrder = getNewOrder();
+        newOrder.setOrderStatus(OrderStatus.WAITING_PAYMENT);
+        order.setOrderStatus(OrderStatus.CANCELED);
+        payment.setPaymentStatus(PaymentStatus.FAILED);
+        paymentInsertDTO.setPaymentType(PaymentType.CREDIT_CARD);
+        paymentInsertDTO.setOrder_id(newOrder.getId().toString());
+        when(paymentRepository.findById(any(UUID.class))).
+                thenReturn(Optional.ofNullable(payment));
+        when(orderRepository.existsById(any(UUID.class))).thenReturn(true);
+        when(paymentRepository.existsByOrderId(any(UUID.class), eq(PaymentStatus.FAILED.getCode()))).thenReturn(false);
+        when(orderRepository.getReferenceById(any(UUID.class))).thenReturn(newOrder);
+        when(paymentRepository.save(any(Payment.class))).thenReturn(payment);
+
+        PaymentDTO responsePayment = paymentService.updateByUUID(RANDOM_UUID.toString(), paymentInsertDTO);
+
+        assertEquals(PaymentStatus.FAILED, responsePayment.getPaymentStatus());
+        assertEquals(newOrder.getId(), responsePayment.getOrder_id());
+        assertEquals(OrderStatus.WAITING_PAYMENT.getCode(), newOrder.getOrderStatus());
+        assertEquals(OrderStatus.CANCELED.getCode(), order.getOrderStatus());
+        verify(outboxService, times(1)).paymentChanged(OutboxEventType.PAYMENT_UPDATED, payment);
+    }
+
+    @Test
+    void shouldNotChangeOrderStatusWhenFailedPaymentKeepsItsOrderInUpdatePaymentByUUID() {
+        order.setOrderStatus(OrderStatus.WAITING_PAYMENT);
+        payment.setPaymentStatus(PaymentStatus.FAILED);
+        paymentInsertDTO.setPaymentType(PaymentType.CREDIT_CARD);
+        paymentInsertDTO.setOrder_id(order.getId().toString());
+        when(paymentRepository.findById(any(UUID.class))).
+                thenReturn(Optional.ofNullable(payment));
+        when(orderRepository.existsById(any(UUID.class))).thenReturn(true);
+        when(orderRepository.getReferenceById(any(UUID.class))).thenReturn(order);
+        when(paymentRepository.save(any(Payment.class))).thenReturn(payment);
+
+        paymentService.updateByUUID(RANDOM_UUID.toString(), paymentInsertDTO);
+
+        assertEquals(OrderStatus.WAITING_PAYMENT.getCode(), order.getOrderStatus());
+        verify(paymentRepository, never()).existsByOrderId(any(UUID.class), any());
+    }
+
     @Test
     void shouldThrowEntityNotFoundExceptionWhenPaymentNotExistsInUpdatePaymentByUUID() {
         Order newOrder = getNewOrder();
@@ -298,14 +473,14 @@ class PaymentServiceTest {
         when(paymentRepository.findById(any(UUID.class))).
                 thenReturn(Optional.ofNullable(payment));
         when(orderRepository.existsById(any(UUID.class))).thenReturn(true);
-        when(paymentRepository.existsByOrderId(any(UUID.class))).thenReturn(true);
+        when(paymentRepository.existsByOrderId(any(UUID.class), eq(PaymentStatus.FAILED.getCode()))).thenReturn(true);
 
         Throwable e = assertThrows(AlreadyPaidException.class,
                 () -> paymentService.updateByUUID(RANDOM_UUID.toString(), paymentInsertDTO));
         assertEquals("Order already paid", e.getMessage());
         verify(paymentRepository, times(1)).findById(any(UUID.class));
         verify(orderRepository, times(1)).existsById(any(UUID.class));
-        verify(paymentRepository, times(1)).existsByOrderId(any(UUID.class));
+        verify(paymentRepository, times(1)).existsByOrderId(any(UUID.class), eq(PaymentStatus.FAILED.getCode()));
         verifyNoMoreInteractions(paymentRepository);
         verifyNoMoreInteractions(orderRepository);
     }
@@ -314,8 +489,10 @@ class PaymentServiceTest {
         Role role = new Role(RoleName.ROLE_USER.getCode());
         client = new User("test", "test@gmail.com", "test", "test");
         client.getRoles().add(role);
+        client.setId(UUID.randomUUID());
         differentClient = new User("Test2", "test2@gmail.com", "test2", "test2");
         differentClient.getRoles().add(role);
+        differentClient.setId(UUID.randomUUID());
         order = new Order(Instant.now(), OrderStatus.DELIVERED, client);
         order.setId(RANDOM_UUID);
         payment = new Payment(Instant.now(), PaymentType.PIX, order);
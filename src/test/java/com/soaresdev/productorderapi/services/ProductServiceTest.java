@@ -1,11 +1,23 @@
 package com.soaresdev.productorderapi.services;
 
+import com.soaresdev.productorderapi.cache.CompressedResponseCache;
+import com.soaresdev.productorderapi.cache.ProductSnapshotCache;
+import com.soaresdev.productorderapi.dtos.CategoryFacetDTO;
+import com.soaresdev.productorderapi.dtos.FieldSet;
+import com.soaresdev.productorderapi.dtos.ProductBulkUpdateResultDTO;
 import com.soaresdev.productorderapi.dtos.ProductDTO;
+import com.soaresdev.productorderapi.dtos.ProductPriceDTO;
+import com.soaresdev.productorderapi.dtos.ProductSearchDTO;
+import com.soaresdev.productorderapi.dtos.insertDTOs.ProductBulkUpdateDTO;
 import com.soaresdev.productorderapi.dtos.insertDTOs.ProductCategoryInsertDTO;
 import com.soaresdev.productorderapi.dtos.insertDTOs.ProductInsertDTO;
+import com.soaresdev.productorderapi.dtos.insertDTOs.ProductPriceBatchInsertDTO;
+import com.soaresdev.productorderapi.dtos.insertDTOs.ProductPriceInsertDTO;
 import com.soaresdev.productorderapi.entities.Category;
 import com.soaresdev.productorderapi.entities.Product;
+import com.soaresdev.productorderapi.entities.ProductPrice;
 import com.soaresdev.productorderapi.repositories.CategoryRepository;
+import com.soaresdev.productorderapi.repositories.ProductPriceRepository;
 import com.soaresdev.productorderapi.repositories.ProductRepository;
 import jakarta.persistence.EntityExistsException;
 import jakarta.persistence.EntityNotFoundException;
@@ -19,9 +31,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.mockito.BDDMockito.*;
@@ -40,7 +56,20 @@ class ProductServiceTest {
     @Mock
     private ModelMapper modelMapper;
 
+    @Mock
+    private CompressedResponseCache compressedResponseCache;
+
+    @Mock
+    private ProductSnapshotCache productSnapshotCache;
+
+    @Mock
+    private ProductPriceRepository productPriceRepository;
+
+    @Mock
+    private Clock clock;
+
     private static final UUID RANDOM_UUID = UUID.randomUUID();
+    private static final Instant NOW = Instant.parse("2023-07-20T10:00:00Z");
 
     private Product product;
     private ProductInsertDTO productInsertDTO;
@@ -50,6 +79,7 @@ class ProductServiceTest {
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
+        when(clock.instant()).thenReturn(NOW);
         init();
     }
 
@@ -58,7 +88,7 @@ class ProductServiceTest {
         when(productRepository.findAll(any(Pageable.class))).
                 thenReturn(new PageImpl<>(List.of(product)));
 
-        Page<ProductDTO> result = productService.findAll(PageRequest.of(0, 2));
+        Page<ProductDTO> result = productService.findAll(PageRequest.of(0, 2), FieldSet.all());
 
         assertFalse(result.isEmpty());
         assertEquals(1, result.getTotalElements());
@@ -70,6 +100,21 @@ class ProductServiceTest {
         verifyNoMoreInteractions(productRepository);
     }
 
+    @Test
+    void shouldFindAllProductsWithoutCategoriesWhenCategoriesAreNotRequested() {
+        ProductDTO productDTO = new ProductDTO(RANDOM_UUID, product.getName(), product.getDescription(),
+                product.getPrice(), product.getImgUrl());
+        when(productRepository.findAllWithoutCategories(any(Pageable.class))).
+                thenReturn(new PageImpl<>(List.of(productDTO)));
+
+        Page<ProductDTO> result = productService.findAll(PageRequest.of(0, 2), FieldSet.parse("id,name,price", ProductDTO.FIELDS));
+
+        assertEquals(1, result.getTotalElements());
+        assertSame(productDTO, result.getContent().get(0));
+        verify(productRepository, times(1)).findAllWithoutCategories(any(Pageable.class));
+        verifyNoMoreInteractions(productRepository);
+    }
+
     @Test
     void shouldFindProductByUUID() {
         when(productRepository.findById(any(UUID.class))).
@@ -97,6 +142,67 @@ class ProductServiceTest {
         verifyNoMoreInteractions(productRepository);
     }
 
+    @Test
+    void shouldSearchProductsKeepingRelevanceOrder() {
+        Product other = new Product("Other", "Other", BigDecimal.TEN, "www.test.org");
+        other.setId(UUID.randomUUID());
+        product.setId(RANDOM_UUID);
+        product.getCategories().add(category);
+        Pageable pageable = PageRequest.of(0, 2);
+        when(productRepository.searchIds("test", RANDOM_UUID, BigDecimal.ONE, BigDecimal.TEN, pageable)).
+                thenReturn(new PageImpl<>(List.of(other.getId(), product.getId()), pageable, 2));
+        when(productRepository.findByIdIn(anyList())).thenReturn(List.of(product, other));
+        when(productRepository.countCategoryFacets("test", BigDecimal.ONE, BigDecimal.TEN)).
+                thenReturn(List.of(new CategoryFacetDTO(RANDOM_UUID, "Test", 1L)));
+
+        ProductSearchDTO result = productService.search(" test ", RANDOM_UUID.toString(), BigDecimal.ONE,
+                BigDecimal.TEN, pageable);
+
+        assertEquals(2, result.getProducts().getTotalElements());
+        assertEquals(other.getId(), result.getProducts().getContent().get(0).getId());
+        assertEquals(product.getId(), result.getProducts().getContent().get(1).getId());
+        assertEquals(1, result.getProducts().getContent().get(1).getCategories().size());
+        assertEquals(1, result.getFacets().size());
+        assertEquals(1L, result.getFacets().get(0).getCount());
+        verify(productRepository, times(1)).searchIds("test", RANDOM_UUID, BigDecimal.ONE, BigDecimal.TEN, pageable);
+        verify(productRepository, times(1)).findByIdIn(anyList());
+        verify(productRepository, times(1)).countCategoryFacets("test", BigDecimal.ONE, BigDecimal.TEN);
+        verifyNoMoreInteractions(productRepository);
+    }
+
+    @Test
+    void shouldLeaveProductsDeletedBeforeHydrationOutOfSearchPage() {
+        product.setId(RANDOM_UUID);
+        Pageable pageable = PageRequest.of(0, 2);
+        when(productRepository.searchIds("test", null, null, null, pageable)).
+                thenReturn(new PageImpl<>(List.of(UUID.randomUUID(), product.getId()), pageable, 2));
+        when(productRepository.findByIdIn(anyList())).thenReturn(List.of(product));
+
+        ProductSearchDTO result = productService.search("test", null, null, null, pageable);
+
+        assertEquals(1, result.getProducts().getTotalElements());
+        assertEquals(1, result.getProducts().getContent().size());
+        assertEquals(product.getId(), result.getProducts().getContent().get(0).getId());
+    }
+
+    @Test
+    void shouldThrowIllegalArgumentExceptionWhenSearchSortPropertyIsNotAllowed() {
+        Pageable pageable = PageRequest.of(0, 2, Sort.by("imgUrl"));
+
+        Throwable e = assertThrows(IllegalArgumentException.class,
+                () -> productService.search("test", null, null, null, pageable));
+        assertEquals("Invalid sort property: imgUrl", e.getMessage());
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void shouldThrowIllegalArgumentExceptionWhenMinPriceIsGreaterThanMaxPriceInSearchProducts() {
+        Throwable e = assertThrows(IllegalArgumentException.class,
+                () -> productService.search(null, null, BigDecimal.TEN, BigDecimal.ONE, PageRequest.of(0, 2)));
+        assertEquals("Min price can not be greater than max price", e.getMessage());
+        verifyNoInteractions(productRepository);
+    }
+
     @Test
     void shouldInsertProduct() {
         when(modelMapper.map(any(ProductInsertDTO.class), eq(Product.class))).
@@ -114,9 +220,12 @@ class ProductServiceTest {
         assertEquals(product.getDescription(), responseProduct.getDescription());
         assertEquals(product.getPrice(), responseProduct.getPrice());
         assertEquals(product.getImgUrl(), responseProduct.getImgUrl());
+        assertEquals(NOW, product.getCreatedAt());
         verify(modelMapper, times(1)).
                 map(any(ProductInsertDTO.class), eq(Product.class));
         verify(productRepository, times(1)).save(any(Product.class));
+        verify(compressedResponseCache, times(1)).invalidate(CompressedResponseCache.PRODUCTS_PATH);
+        verifyNoInteractions(productSnapshotCache);
         verifyNoMoreInteractions(productRepository);
         verifyNoMoreInteractions(modelMapper);
     }
@@ -131,6 +240,8 @@ class ProductServiceTest {
 
         verify(productRepository, times(1)).findById(any(UUID.class));
         verify(productRepository, times(1)).delete(any(Product.class));
+        verify(compressedResponseCache, times(1)).invalidate(CompressedResponseCache.PRODUCTS_PATH);
+        verify(productSnapshotCache, times(1)).invalidate(product.getId());
         verifyNoMoreInteractions(productRepository);
     }
 
@@ -147,7 +258,7 @@ class ProductServiceTest {
 
     @Test
     void shouldUpdateProductByUUID() {
-        when(productRepository.findById(any(UUID.class))).
+        when(productRepository.findByIdForUpdate(any(UUID.class))).
                 thenReturn(Optional.ofNullable(product));
         doNothing().when(modelMapper).map(any(ProductInsertDTO.class), any(Product.class));
         productInsertDTO.setPrice(BigDecimal.TEN);
@@ -165,26 +276,213 @@ class ProductServiceTest {
         assertEquals(product.getDescription(), responseProduct.getDescription());
         assertEquals(product.getPrice(), responseProduct.getPrice());
         assertEquals(product.getImgUrl(), responseProduct.getImgUrl());
-        verify(productRepository, times(1)).findById(any(UUID.class));
+        verify(productRepository, times(1)).findByIdForUpdate(any(UUID.class));
         verify(modelMapper, times(1)).
                 map(any(ProductInsertDTO.class), any(Product.class));
         verify(productRepository, times(1)).save(any(Product.class));
+        verify(productPriceRepository, times(1)).existsByProductId(RANDOM_UUID);
+        verify(productPriceRepository, times(1)).saveAll(argThat(history -> {
+            List<ProductPrice> rows = (List<ProductPrice>) history;
+            return rows.size() == 2 && rows.get(0).getValidFrom().equals(ProductPrice.BEFORE_HISTORY) &&
+                    rows.get(0).getPrice().equals(BigDecimal.ONE) && rows.get(1).getValidFrom().equals(NOW) &&
+                    rows.get(1).getPrice().equals(BigDecimal.TEN);
+        }));
+        verify(compressedResponseCache, times(1)).invalidate(CompressedResponseCache.PRODUCTS_PATH);
+        verify(productSnapshotCache, times(1)).invalidate(product.getId());
         verifyNoMoreInteractions(productRepository);
         verifyNoMoreInteractions(modelMapper);
+        verifyNoMoreInteractions(productPriceRepository);
     }
 
     @Test
-    void shouldThrowEntityNotFoundExceptionWhenProductNotExistsInUpdateProductByUUID() {
+    void shouldNotRecordPriceHistoryWhenPriceIsUnchangedInUpdateProductByUUID() {
+        product.setId(RANDOM_UUID);
+        when(productRepository.findByIdForUpdate(any(UUID.class))).thenReturn(Optional.of(product));
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+
+        productService.updateByUUID(RANDOM_UUID.toString(), productInsertDTO);
+
+        verifyNoInteractions(productPriceRepository);
+    }
+
+    @Test
+    void shouldFindRecordedPriceAtMoment() {
+        Instant at = NOW.minusSeconds(3600);
+        product.setCreatedAt(NOW.minusSeconds(7200));
+        product.setId(RANDOM_UUID);
+        when(productRepository.findById(RANDOM_UUID)).thenReturn(Optional.of(product));
+        when(productPriceRepository.findFirstByProductIdAndValidFromLessThanEqualOrderByValidFromDesc(RANDOM_UUID, at))
+                .thenReturn(Optional.of(new ProductPrice(RANDOM_UUID, at.minusSeconds(60), BigDecimal.TEN)));
+
+        ProductPriceDTO result = productService.findPriceAt(RANDOM_UUID.toString(), at);
+
+        assertEquals(RANDOM_UUID, result.getProduct_id());
+        assertEquals(at, result.getAt());
+        assertEquals(BigDecimal.TEN, result.getPrice());
+        verify(productPriceRepository, never()).findFirstByProductIdAndValidFromGreaterThanOrderByValidFromAsc(any(), any());
+    }
+
+    @Test
+    void shouldFindCurrentPriceNowWhenProductHasNoPriceHistory() {
+        when(productPriceRepository.findFirstByProductIdAndValidFromLessThanEqualOrderByValidFromDesc(RANDOM_UUID, NOW))
+                .thenReturn(Optional.empty());
+        when(productPriceRepository.findFirstByProductIdAndValidFromGreaterThanOrderByValidFromAsc(RANDOM_UUID,
+                ProductPrice.BEFORE_HISTORY)).thenReturn(Optional.empty());
+        product.setId(RANDOM_UUID);
+        when(productRepository.findById(RANDOM_UUID)).thenReturn(Optional.of(product));
+
+        ProductPriceDTO result = productService.findPriceAt(RANDOM_UUID.toString(), null);
+
+        assertEquals(NOW, result.getAt());
+        assertEquals(product.getPrice(), result.getPrice());
+    }
+
+    @Test
+    void shouldThrowEntityNotFoundExceptionWhenMomentPrecedesProductCreationInFindPriceAt() {
+        product.setCreatedAt(NOW.minusSeconds(60));
+        when(productRepository.findById(RANDOM_UUID)).thenReturn(Optional.of(product));
+
+        Throwable e = assertThrows(EntityNotFoundException.class,
+                () -> productService.findPriceAt(RANDOM_UUID.toString(), NOW.minusSeconds(61)));
+        assertEquals("Product did not exist at the given moment", e.getMessage());
+        verifyNoInteractions(productPriceRepository);
+    }
+
+    @Test
+    void shouldThrowEntityNotFoundExceptionWhenMomentPrecedesFirstPriceChangeOfProductWithoutCreationInFindPriceAt() {
+        product.setId(RANDOM_UUID);
+        when(productRepository.findById(RANDOM_UUID)).thenReturn(Optional.of(product));
+        when(productPriceRepository.findFirstByProductIdAndValidFromGreaterThanOrderByValidFromAsc(RANDOM_UUID,
+                ProductPrice.BEFORE_HISTORY)).thenReturn(Optional.of(new ProductPrice(RANDOM_UUID, NOW, BigDecimal.TEN)));
+
+        Throwable e = assertThrows(EntityNotFoundException.class,
+                () -> productService.findPriceAt(RANDOM_UUID.toString(), NOW.minusSeconds(1)));
+        assertEquals("Product did not exist at the given moment", e.getMessage());
+        verify(productPriceRepository, never()).findFirstByProductIdAndValidFromLessThanEqualOrderByValidFromDesc(any(), any());
+    }
+
+    @Test
+    void shouldThrowEntityNotFoundExceptionWhenProductNotExistsInFindPriceAt() {
         when(productRepository.findById(any(UUID.class))).thenReturn(Optional.empty());
 
+        Throwable e = assertThrows(EntityNotFoundException.class,
+                () -> productService.findPriceAt(RANDOM_UUID.toString(), NOW));
+        assertEquals("Product not found", e.getMessage());
+        verifyNoInteractions(productPriceRepository);
+    }
+
+    @Test
+    void shouldUpdatePricesAndRecordHistoryOfChangedProductsOnly() {
+        Product changed = new Product("a", "a", BigDecimal.ONE, "www.test.org");
+        changed.setId(UUID.randomUUID());
+        Product unchanged = new Product("b", "b", BigDecimal.TEN, "www.test.org");
+        unchanged.setId(UUID.randomUUID());
+        when(productRepository.findAllByIdForUpdate(any())).thenReturn(List.of(unchanged, changed));
+        when(productPriceRepository.findProductIdsWithHistory(any())).thenReturn(Set.of(changed.getId()));
+
+        List<ProductPriceDTO> result = productService.updatePrices(new ProductPriceBatchInsertDTO(List.of(
+                new ProductPriceInsertDTO(changed.getId().toString(), BigDecimal.valueOf(2)),
+                new ProductPriceInsertDTO(unchanged.getId().toString(), BigDecimal.TEN))));
+
+        assertEquals(List.of(changed.getId(), unchanged.getId()), result.stream().map(ProductPriceDTO::getProduct_id).toList());
+        assertEquals(BigDecimal.valueOf(2), changed.getPrice());
+        assertTrue(result.stream().allMatch(productPriceDTO -> NOW.equals(productPriceDTO.getAt())));
+        verify(productPriceRepository, times(1)).saveAll(argThat(history -> {
+            List<ProductPrice> rows = (List<ProductPrice>) history;
+            return rows.size() == 1 && rows.get(0).getProductId().equals(changed.getId()) &&
+                    rows.get(0).getValidFrom().equals(NOW) && rows.get(0).getPrice().equals(BigDecimal.valueOf(2));
+        }));
+        verify(productRepository, times(1)).saveAll(any());
+        verify(compressedResponseCache, times(1)).invalidate(CompressedResponseCache.PRODUCTS_PATH);
+        verify(productSnapshotCache, times(1)).invalidate(changed.getId());
+        verify(productSnapshotCache, times(1)).invalidate(unchanged.getId());
+    }
+
+    @Test
+    void shouldThrowIllegalArgumentExceptionWhenProductIsRepeatedInUpdatePrices() {
+        ProductPriceInsertDTO price = new ProductPriceInsertDTO(RANDOM_UUID.toString(), BigDecimal.TEN);
+
+        Throwable e = assertThrows(IllegalArgumentException.class,
+                () -> productService.updatePrices(new ProductPriceBatchInsertDTO(List.of(price, price))));
+        assertEquals("Duplicate product in price update", e.getMessage());
+        verifyNoInteractions(productRepository, productPriceRepository);
+    }
+
+    @Test
+    void shouldThrowEntityNotFoundExceptionWhenProductNotExistsInUpdatePrices() {
+        when(productRepository.findAllByIdForUpdate(any())).thenReturn(List.of());
+
+        Throwable e = assertThrows(EntityNotFoundException.class, () -> productService.updatePrices(
+                new ProductPriceBatchInsertDTO(List.of(new ProductPriceInsertDTO(RANDOM_UUID.toString(), BigDecimal.TEN)))));
+        assertEquals("Product not found", e.getMessage());
+        verifyNoInteractions(productPriceRepository, compressedResponseCache);
+    }
+
+    @Test
+    void shouldThrowEntityNotFoundExceptionWhenProductNotExistsInUpdateProductByUUID() {
+        when(productRepository.findByIdForUpdate(any(UUID.class))).thenReturn(Optional.empty());
+
         Throwable e = assertThrows(EntityNotFoundException.class,
                 () -> productService.updateByUUID(RANDOM_UUID.toString(), productInsertDTO));
         assertEquals("Product not found", e.getMessage());
-        verify(productRepository, times(1)).findById(any(UUID.class));
+        verify(productRepository, times(1)).findByIdForUpdate(any(UUID.class));
         verifyNoMoreInteractions(productRepository);
         verifyNoInteractions(modelMapper);
     }
 
+    @Test
+    void shouldBulkUpdateProductsAndEvictCaches() {
+        ProductBulkUpdateDTO productBulkUpdateDTO = new ProductBulkUpdateDTO();
+        productBulkUpdateDTO.setCategory_id(RANDOM_UUID.toString());
+        productBulkUpdateDTO.setPricePercentage(BigDecimal.valueOf(-10));
+        when(productRepository.bulkUpdate(productBulkUpdateDTO, NOW)).thenReturn(3);
+
+        ProductBulkUpdateResultDTO result = productService.bulkUpdate(productBulkUpdateDTO);
+
+        assertEquals(3, result.getUpdated());
+        verify(productRepository, times(1)).bulkUpdate(productBulkUpdateDTO, NOW);
+        verify(compressedResponseCache, times(1)).invalidate(CompressedResponseCache.PRODUCTS_PATH);
+        verify(productSnapshotCache, times(1)).invalidateAll();
+        verifyNoMoreInteractions(productRepository);
+    }
+
+    @Test
+    void shouldNotEvictCachesWhenBulkUpdateMatchesNoProduct() {
+        ProductBulkUpdateDTO productBulkUpdateDTO = new ProductBulkUpdateDTO();
+        productBulkUpdateDTO.setMinPrice(BigDecimal.valueOf(1000));
+        productBulkUpdateDTO.setDescription("t");
+        when(productRepository.bulkUpdate(productBulkUpdateDTO, NOW)).thenReturn(0);
+
+        assertEquals(0, productService.bulkUpdate(productBulkUpdateDTO).getUpdated());
+        verifyNoInteractions(compressedResponseCache, productSnapshotCache);
+    }
+
+    @Test
+    void shouldThrowIllegalArgumentExceptionWhenBulkUpdateIsInvalid() {
+        ProductBulkUpdateDTO withoutFilter = new ProductBulkUpdateDTO();
+        withoutFilter.setPrice(BigDecimal.TEN);
+        ProductBulkUpdateDTO bothPrices = new ProductBulkUpdateDTO();
+        bothPrices.setCategory_id(RANDOM_UUID.toString());
+        bothPrices.setPrice(BigDecimal.TEN);
+        bothPrices.setPricePercentage(BigDecimal.TEN);
+        ProductBulkUpdateDTO withoutChange = new ProductBulkUpdateDTO();
+        withoutChange.setCategory_id(RANDOM_UUID.toString());
+        ProductBulkUpdateDTO invalidRange = new ProductBulkUpdateDTO();
+        invalidRange.setMinPrice(BigDecimal.TEN);
+        invalidRange.setMaxPrice(BigDecimal.ONE);
+        invalidRange.setPrice(BigDecimal.TEN);
+
+        assertEquals("At least one filter is required", assertThrows(IllegalArgumentException.class,
+                () -> productService.bulkUpdate(withoutFilter)).getMessage());
+        assertEquals("Price and price percentage can not be combined", assertThrows(IllegalArgumentException.class,
+                () -> productService.bulkUpdate(bothPrices)).getMessage());
+        assertEquals("No change was given", assertThrows(IllegalArgumentException.class,
+                () -> productService.bulkUpdate(withoutChange)).getMessage());
+        assertEquals("Min price can not be greater than max price", assertThrows(IllegalArgumentException.class,
+                () -> productService.bulkUpdate(invalidRange)).getMessage());
+        verifyNoInteractions(productRepository);
+    }
+
     @Test
     void shouldAddCategoryInProductByUUID() {
         when(categoryRepository.existsById(any(UUID.class))).thenReturn(true);
@@ -213,6 +511,8 @@ class ProductServiceTest {
         verify(categoryRepository, times(1)).getReferenceById(any(UUID.class));
         verify(productRepository, times(1)).findById(any(UUID.class));
         verify(productRepository, times(1)).save(any(Product.class));
+        verify(compressedResponseCache, times(1)).invalidate(CompressedResponseCache.PRODUCTS_PATH);
+        verify(productSnapshotCache, times(1)).invalidate(product.getId());
         verifyNoMoreInteractions(productRepository);
         verifyNoMoreInteractions(categoryRepository);
     }
@@ -257,6 +557,7 @@ class ProductServiceTest {
         Throwable e = assertThrows(EntityExistsException.class, () ->
                 productService.addCategoryByUUID(RANDOM_UUID.toString(), productCategoryInsertDTO));
         assertEquals("Category already exists in this product", e.getMessage());
+        verifyNoInteractions(compressedResponseCache);
         verify(categoryRepository, times(1)).existsById(any(UUID.class));
         verify(categoryRepository, times(1)).getReferenceById(any(UUID.class));
         verify(productRepository, times(1)).findById(any(UUID.class));
@@ -290,6 +591,8 @@ class ProductServiceTest {
         verify(categoryRepository, times(1)).getReferenceById(any(UUID.class));
         verify(productRepository, times(1)).findById(any(UUID.class));
         verify(productRepository, times(1)).save(any(Product.class));
+        verify(compressedResponseCache, times(1)).invalidate(CompressedResponseCache.PRODUCTS_PATH);
+        verify(productSnapshotCache, times(1)).invalidate(product.getId());
         verifyNoMoreInteractions(productRepository);
         verifyNoMoreInteractions(categoryRepository);
     }
@@ -0,0 +1,263 @@
+package com.soaresdev.productorderapi.services;
+
+import com.soaresdev.productorderapi.dtos.ReconciliationIssueDTO;
+import com.soaresdev.productorderapi.entities.ReconciliationCheckpoint;
+import com.soaresdev.productorderapi.entities.ReconciliationIssue;
+import com.soaresdev.productorderapi.entities.ReconciliationRun;
+import com.soaresdev.productorderapi.entities.enums.OrderStatus;
+import com.soaresdev.productorderapi.entities.enums.PaymentStatus;
+import com.soaresdev.productorderapi.entities.enums.ReconciliationIssueType;
+import com.soaresdev.productorderapi.repositories.OrderRepository;
+import com.soaresdev.productorderapi.repositories.ReconciliationCheckpointRepository;
+import com.soaresdev.productorderapi.repositories.ReconciliationIssueRepository;
+import com.soaresdev.productorderapi.repositories.ReconciliationRow;
+import com.soaresdev.productorderapi.repositories.ReconciliationRunRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ReconciliationServiceTest {
+    private static final Instant NOW = Instant.parse("2023-07-20T04:30:00Z");
+    private static final UUID RUN_ID = UUID.randomUUID();
+
+    private ReconciliationService reconciliationService;
+    private final List<ReconciliationCheckpoint> checkpoints = new ArrayList<>();
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private ReconciliationRunRepository reconciliationRunRepository;
+
+    @Mock
+    private ReconciliationCheckpointRepository reconciliationCheckpointRepository;
+
+    @Mock
+    private ReconciliationIssueRepository reconciliationIssueRepository;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocationOnMock ->
+                invocationOnMock.getArgument(0, TransactionCallback.class).doInTransaction(null));
+        when(reconciliationRunRepository.save(any())).thenAnswer(invocationOnMock -> {
+            ReconciliationRun run = invocationOnMock.getArgument(0);
+            if(run.getId() == null)
+                run.setId(RUN_ID);
+            when(reconciliationRunRepository.findByIdForUpdate(RUN_ID)).thenReturn(Optional.of(run));
+            return run;
+        });
+        when(reconciliationCheckpointRepository.saveAll(anyList())).thenAnswer(invocationOnMock -> {
+            List<ReconciliationCheckpoint> saved = invocationOnMock.getArgument(0);
+            saved.forEach(checkpoint -> checkpoint.setId(UUID.randomUUID()));
+            checkpoints.addAll(saved);
+            return checkpoints;
+        });
+        when(reconciliationCheckpointRepository.findByIdForUpdate(any())).thenAnswer(invocationOnMock ->
+                checkpoints.stream().filter(checkpoint -> checkpoint.getId().equals(invocationOnMock.getArgument(0))).findFirst());
+        when(reconciliationCheckpointRepository.findByRunIdOrderBySegment(any())).thenAnswer(invocationOnMock -> checkpoints);
+        when(reconciliationCheckpointRepository.save(any())).thenAnswer(invocationOnMock -> invocationOnMock.getArgument(0));
+        reconciliationService = new ReconciliationService(orderRepository, reconciliationRunRepository,
+                reconciliationCheckpointRepository, reconciliationIssueRepository, transactionTemplate,
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void shouldStartRunWithOneCheckpointPerSegmentAndFinishItWithTotals() {
+        when(reconciliationRunRepository.findFirstByFinishedAtIsNullOrderByStartedAtDesc()).thenReturn(Optional.empty());
+        ReconciliationRow mismatch = row(OrderStatus.PAID, BigDecimal.TEN, UUID.randomUUID(), BigDecimal.ONE);
+        ReconciliationRow matching = row(OrderStatus.PAID, BigDecimal.TEN, UUID.randomUUID(), BigDecimal.TEN);
+        when(orderRepository.findReconciliationRows(eq(ReconciliationService.lowerBound(0, 2)), any(), any(), any()))
+                .thenReturn(List.of(mismatch, matching));
+
+        ReconciliationRun run = reconciliationService.reconcile(2, 2, 10);
+
+        assertEquals(RUN_ID, run.getId());
+        assertEquals(NOW, run.getFinishedAt());
+        InOrder inOrder = inOrder(reconciliationRunRepository);
+        inOrder.verify(reconciliationRunRepository).lockRunStart();
+        inOrder.verify(reconciliationRunRepository).findFirstByFinishedAtIsNullOrderByStartedAtDesc();
+        assertEquals(2L, run.getChecked());
+        assertEquals(1L, run.getIssues());
+        assertEquals(2, checkpoints.size());
+        assertTrue(checkpoints.stream().allMatch(ReconciliationCheckpoint::getDone));
+        assertEquals(matching.getOrderId(), checkpoints.get(0).getLastOrderId());
+        assertEquals(new UUID(-1L, -1L), checkpoints.get(1).getUpperOrderId());
+        verify(orderRepository).findReconciliationRows(ReconciliationService.lowerBound(1, 2),
+                ReconciliationService.upperBound(1, 2), PaymentStatus.COMPLETED.getCode(), PageRequest.of(0, 10));
+        verify(reconciliationIssueRepository).saveAll(argThat(issues -> issues.iterator().hasNext() &&
+                ReconciliationIssueType.AMOUNT_MISMATCH.getCode().equals(issues.iterator().next().getIssueType())));
+    }
+
+    @Test
+    void shouldResumeUnfinishedRunFromItsCheckpoints() {
+        ReconciliationRun unfinished = new ReconciliationRun(NOW.minusSeconds(3600), 2);
+        unfinished.setId(RUN_ID);
+        UUID lastOrderId = UUID.randomUUID();
+        ReconciliationCheckpoint done = new ReconciliationCheckpoint(RUN_ID, 0, lastOrderId, lastOrderId);
+        done.setId(UUID.randomUUID());
+        done.advance(lastOrderId, 5, 0, true);
+        ReconciliationCheckpoint pending = new ReconciliationCheckpoint(RUN_ID, 1, lastOrderId, new UUID(-1L, -1L));
+        pending.setId(UUID.randomUUID());
+        pending.advance(lastOrderId, 3, 1, false);
+        checkpoints.addAll(List.of(done, pending));
+        when(reconciliationRunRepository.findFirstByFinishedAtIsNullOrderByStartedAtDesc()).thenReturn(Optional.of(unfinished));
+        when(reconciliationRunRepository.findByIdForUpdate(RUN_ID)).thenReturn(Optional.of(unfinished));
+        when(orderRepository.findReconciliationRows(any(), any(), any(), any())).thenReturn(List.of());
+
+        ReconciliationRun run = reconciliationService.reconcile(4, 2, 10);
+
+        assertEquals(8L, run.getChecked());
+        assertEquals(1L, run.getIssues());
+        assertTrue(pending.getDone());
+        verify(orderRepository).findReconciliationRows(lastOrderId, new UUID(-1L, -1L), PaymentStatus.COMPLETED.getCode(),
+                PageRequest.of(0, 10));
+        verifyNoMoreInteractions(orderRepository);
+        verify(reconciliationCheckpointRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void shouldLeaveRunUnfinishedWhenSegmentFails() {
+        when(reconciliationRunRepository.findFirstByFinishedAtIsNullOrderByStartedAtDesc()).thenReturn(Optional.empty());
+        when(orderRepository.findReconciliationRows(any(), any(), any(), any())).thenThrow(new IllegalStateException("down"));
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> reconciliationService.reconcile(1, 1, 10));
+
+        assertEquals("Reconciliation of a segment failed", exception.getMessage());
+        assertFalse(checkpoints.get(0).getDone());
+        verify(reconciliationRunRepository, never()).findByIdForUpdate(any());
+    }
+
+    @Test
+    void shouldLeaveSegmentAndRunToTheNodeHoldingItsCheckpoint() {
+        ReconciliationRun unfinished = new ReconciliationRun(NOW.minusSeconds(60), 1);
+        unfinished.setId(RUN_ID);
+        UUID lastOrderId = UUID.randomUUID();
+        ReconciliationCheckpoint held = new ReconciliationCheckpoint(RUN_ID, 0, lastOrderId, new UUID(-1L, -1L));
+        held.setId(UUID.randomUUID());
+        checkpoints.add(held);
+        when(reconciliationRunRepository.findFirstByFinishedAtIsNullOrderByStartedAtDesc()).thenReturn(Optional.of(unfinished));
+        when(reconciliationRunRepository.findByIdForUpdate(RUN_ID)).thenReturn(Optional.of(unfinished));
+        when(reconciliationCheckpointRepository.findByIdForUpdate(held.getId())).thenReturn(Optional.empty());
+
+        ReconciliationRun run = reconciliationService.reconcile(1, 1, 10);
+
+        assertNull(run.getFinishedAt());
+        assertFalse(held.getDone());
+        verifyNoInteractions(orderRepository, reconciliationIssueRepository);
+        verify(reconciliationRunRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldNotFinishRunAgainWhenAnotherNodeFinishedIt() {
+        ReconciliationRun finished = new ReconciliationRun(NOW.minusSeconds(60), 1);
+        finished.setId(RUN_ID);
+        finished.finish(NOW.minusSeconds(30), 4L, 0L);
+        ReconciliationCheckpoint done = new ReconciliationCheckpoint(RUN_ID, 0, new UUID(0L, 0L), new UUID(-1L, -1L));
+        done.setId(UUID.randomUUID());
+        done.advance(new UUID(-1L, -1L), 4, 0, true);
+        checkpoints.add(done);
+        when(reconciliationRunRepository.findFirstByFinishedAtIsNullOrderByStartedAtDesc()).thenReturn(Optional.of(finished));
+        when(reconciliationRunRepository.findByIdForUpdate(RUN_ID)).thenReturn(Optional.of(finished));
+
+        ReconciliationRun run = reconciliationService.reconcile(1, 1, 10);
+
+        assertEquals(NOW.minusSeconds(30), run.getFinishedAt());
+        verify(reconciliationRunRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldThrowEntityNotFoundExceptionWhenRunNotExistsInFindIssues() {
+        when(reconciliationRunRepository.existsById(RUN_ID)).thenReturn(false);
+
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+                () -> reconciliationService.findIssues(RUN_ID.toString(), PageRequest.of(0, 10)));
+
+        assertEquals("Reconciliation run not found", exception.getMessage());
+        verifyNoInteractions(reconciliationIssueRepository);
+    }
+
+    @Test
+    void shouldFindIssuesOfRun() {
+        ReconciliationIssue issue = new ReconciliationIssue(RUN_ID, ReconciliationIssueType.AMOUNT_MISMATCH,
+                UUID.randomUUID(), OrderStatus.PAID.getCode(), BigDecimal.TEN, UUID.randomUUID(), BigDecimal.ONE);
+        when(reconciliationRunRepository.existsById(RUN_ID)).thenReturn(true);
+        when(reconciliationIssueRepository.findByRunId(RUN_ID, PageRequest.of(0, 10))).thenReturn(new PageImpl<>(List.of(issue)));
+
+        Page<ReconciliationIssueDTO> result = reconciliationService.findIssues(RUN_ID.toString(), PageRequest.of(0, 10));
+
+        assertEquals(1, result.getTotalElements());
+        assertEquals(ReconciliationIssueType.AMOUNT_MISMATCH, result.getContent().get(0).getIssueType());
+        assertEquals(OrderStatus.PAID, result.getContent().get(0).getOrderStatus());
+    }
+
+    @Test
+    void shouldFlagPaidOrdersWithoutPaymentAndPaymentsOnUnpaidOrders() {
+        List<ReconciliationIssue> withoutPayment = ReconciliationService.issuesOf(RUN_ID,
+                row(OrderStatus.SHIPPED, BigDecimal.TEN, null, null));
+        List<ReconciliationIssue> unpaid = ReconciliationService.issuesOf(RUN_ID,
+                row(OrderStatus.WAITING_PAYMENT, BigDecimal.TEN, UUID.randomUUID(), BigDecimal.ONE));
+
+        assertEquals(1, withoutPayment.size());
+        assertEquals(ReconciliationIssueType.PAID_WITHOUT_PAYMENT.getCode(), withoutPayment.get(0).getIssueType());
+        assertNull(withoutPayment.get(0).getPaymentId());
+        assertEquals(List.of(ReconciliationIssueType.PAYMENT_ON_UNPAID_ORDER.getCode(),
+                ReconciliationIssueType.AMOUNT_MISMATCH.getCode()), unpaid.stream().map(ReconciliationIssue::getIssueType).toList());
+        assertTrue(ReconciliationService.issuesOf(RUN_ID, row(OrderStatus.WAITING_PAYMENT, BigDecimal.TEN, null, null)).isEmpty());
+        assertTrue(ReconciliationService.issuesOf(RUN_ID, row(OrderStatus.CANCELED, BigDecimal.TEN, UUID.randomUUID(),
+                BigDecimal.ONE)).isEmpty());
+        assertTrue(ReconciliationService.issuesOf(RUN_ID, row(OrderStatus.DELIVERED, new BigDecimal("10.0"),
+                UUID.randomUUID(), new BigDecimal("10.00"))).isEmpty());
+    }
+
+    @Test
+    void shouldSplitIdSpaceIntoContiguousSegments() {
+        assertEquals(new UUID(0L, 0L), ReconciliationService.lowerBound(0, 4));
+        assertEquals(new UUID(0x3fffffffffffffffL, -1L), ReconciliationService.upperBound(0, 4));
+        assertEquals(ReconciliationService.upperBound(0, 4), ReconciliationService.lowerBound(1, 4));
+        assertEquals(new UUID(-1L, -1L), ReconciliationService.upperBound(3, 4));
+        assertEquals(new UUID(-1L, -1L), ReconciliationService.upperBound(0, 1));
+    }
+
+    @Test
+    void shouldThrowIllegalArgumentExceptionWhenSizesAreNotPositive() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> reconciliationService.reconcile(0, 1, 10));
+
+        assertEquals("Segments, threads and chunk size must be positive", exception.getMessage());
+        verifyNoInteractions(reconciliationRunRepository, orderRepository);
+    }
+
+    private ReconciliationRow row(OrderStatus orderStatus, BigDecimal itemTotal, UUID paymentId, BigDecimal paymentAmount) {
+        ReconciliationRow row = mock(ReconciliationRow.class);
+        when(row.getOrderId()).thenReturn(UUID.randomUUID());
+        when(row.getOrderStatus()).thenReturn(orderStatus.getCode());
+        when(row.getItemTotal()).thenReturn(itemTotal);
+        when(row.getPaymentId()).thenReturn(paymentId);
+        when(row.getPaymentAmount()).thenReturn(paymentAmount);
+        return row;
+    }
+}
@@ -0,0 +1,156 @@
+package com.soaresdev.productorderapi.services;
+
+import com.auth0.jwt.exceptions.InvalidClaimException;
+import com.auth0.jwt.interfaces.Claim;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.soaresdev.productorderapi.dtos.security.TokenDTO;
+import com.soaresdev.productorderapi.entities.RefreshToken;
+import com.soaresdev.productorderapi.repositories.RefreshTokenRepository;
+import com.soaresdev.productorderapi.security.RevokedTokens;
+import com.soaresdev.productorderapi.security.jwt.JwtTokenProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RefreshTokenServiceTest {
+    @InjectMocks
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private RevokedTokens revokedTokens;
+
+    @Mock
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Mock
+    private Clock clock;
+
+    private static final String EMAIL = "testing@gmail.com";
+    private static final List<String> ROLES = List.of("ROLE_USER");
+    private static final Instant NOW = Instant.parse("2023-07-20T10:00:00Z");
+    private static final UUID TOKEN_ID = UUID.randomUUID();
+    private static final UUID FAMILY_ID = UUID.randomUUID();
+
+    private TokenDTO tokenDTO;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(clock.instant()).thenReturn(NOW);
+        tokenDTO = new TokenDTO(EMAIL, true, NOW, NOW.plusSeconds(3600), "access-token", "refresh-token");
+    }
+
+    @Test
+    void shouldIssueTokenInNewFamilyAndStoreIt() {
+        when(jwtTokenProvider.createToken(eq(EMAIL), eq(ROLES), any(UUID.class), any(UUID.class))).thenReturn(tokenDTO);
+
+        TokenDTO response = refreshTokenService.issue(EMAIL, ROLES);
+
+        assertEquals(tokenDTO, response);
+        RefreshToken stored = captureSavedRefreshToken();
+        assertEquals(EMAIL, stored.getEmail());
+        assertEquals(NOW.plus(JwtTokenProvider.REFRESH_TOKEN_DURATION), stored.getExpiresAt());
+        verify(jwtTokenProvider, times(1)).createToken(EMAIL, ROLES, stored.getFamilyId(), stored.getId());
+        verifyNoMoreInteractions(jwtTokenProvider);
+        verifyNoInteractions(tokenRevocationService);
+    }
+
+    @Test
+    void shouldRotateTokenInSameFamily() {
+        DecodedJWT refreshToken = mockRefreshToken(TOKEN_ID.toString(), FAMILY_ID.toString());
+        when(refreshTokenRepository.markRotated(TOKEN_ID, NOW)).thenReturn(1);
+        when(jwtTokenProvider.createToken(eq(EMAIL), eq(ROLES), eq(FAMILY_ID), any(UUID.class))).thenReturn(tokenDTO);
+
+        TokenDTO response = refreshTokenService.rotate(refreshToken);
+
+        assertEquals(tokenDTO, response);
+        assertEquals(FAMILY_ID, captureSavedRefreshToken().getFamilyId());
+        verify(refreshTokenRepository, times(1)).markRotated(TOKEN_ID, NOW);
+        verifyNoInteractions(tokenRevocationService);
+    }
+
+    @Test
+    void shouldRevokeFamilyWhenRotatedTokenIsReused() {
+        DecodedJWT refreshToken = mockRefreshToken(TOKEN_ID.toString(), FAMILY_ID.toString());
+        when(refreshTokenRepository.markRotated(TOKEN_ID, NOW)).thenReturn(0);
+        when(refreshTokenRepository.existsById(TOKEN_ID)).thenReturn(true);
+
+        Throwable e = assertThrows(InvalidClaimException.class, () -> refreshTokenService.rotate(refreshToken));
+        assertEquals("Refresh token reuse detected", e.getMessage());
+        verify(tokenRevocationService, times(1)).revokeFamily(FAMILY_ID);
+        verifyNoMoreInteractions(tokenRevocationService);
+        verifyNoInteractions(jwtTokenProvider);
+    }
+
+    @Test
+    void shouldThrowInvalidClaimExceptionWhenTokenIsUnknown() {
+        DecodedJWT refreshToken = mockRefreshToken(TOKEN_ID.toString(), FAMILY_ID.toString());
+        when(refreshTokenRepository.markRotated(TOKEN_ID, NOW)).thenReturn(0);
+        when(refreshTokenRepository.existsById(TOKEN_ID)).thenReturn(false);
+
+        Throwable e = assertThrows(InvalidClaimException.class, () -> refreshTokenService.rotate(refreshToken));
+        assertEquals("Invalid or expired token", e.getMessage());
+        verifyNoInteractions(tokenRevocationService);
+        verifyNoInteractions(jwtTokenProvider);
+    }
+
+    @Test
+    void shouldThrowInvalidClaimExceptionWhenFamilyIsRevoked() {
+        DecodedJWT refreshToken = mockRefreshToken(TOKEN_ID.toString(), FAMILY_ID.toString());
+        when(revokedTokens.isRevoked(FAMILY_ID)).thenReturn(true);
+
+        Throwable e = assertThrows(InvalidClaimException.class, () -> refreshTokenService.rotate(refreshToken));
+        assertEquals("Invalid or expired token", e.getMessage());
+        verifyNoInteractions(refreshTokenRepository);
+        verifyNoInteractions(tokenRevocationService);
+    }
+
+    @Test
+    void shouldThrowInvalidClaimExceptionWhenTokenHasNoIdOrFamily() {
+        DecodedJWT withoutId = mockRefreshToken(null, FAMILY_ID.toString());
+        DecodedJWT withoutFamily = mockRefreshToken(TOKEN_ID.toString(), null);
+
+        assertThrows(InvalidClaimException.class, () -> refreshTokenService.rotate(withoutId));
+        assertThrows(InvalidClaimException.class, () -> refreshTokenService.rotate(withoutFamily));
+        verifyNoInteractions(refreshTokenRepository);
+        verifyNoInteractions(tokenRevocationService);
+    }
+
+    private RefreshToken captureSavedRefreshToken() {
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository, times(1)).save(captor.capture());
+        return captor.getValue();
+    }
+
+    private DecodedJWT mockRefreshToken(String id, String familyId) {
+        DecodedJWT refreshToken = mock(DecodedJWT.class);
+        Claim familyClaim = mock(Claim.class);
+        Claim rolesClaim = mock(Claim.class);
+        when(familyClaim.asString()).thenReturn(familyId);
+        when(rolesClaim.asList(String.class)).thenReturn(ROLES);
+        when(refreshToken.getId()).thenReturn(id);
+        when(refreshToken.getClaim("fid")).thenReturn(familyClaim);
+        when(refreshToken.getClaim("roles")).thenReturn(rolesClaim);
+        when(refreshToken.getSubject()).thenReturn(EMAIL);
+        when(refreshToken.getExpiresAtAsInstant()).thenReturn(NOW.plusSeconds(60));
+        return refreshToken;
+    }
+}
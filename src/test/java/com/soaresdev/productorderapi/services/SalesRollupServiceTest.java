@@ -0,0 +1,139 @@
+package com.soaresdev.productorderapi.services;
+
+import com.soaresdev.productorderapi.entities.SalesRollup;
+import com.soaresdev.productorderapi.entities.enums.PaymentStatus;
+import com.soaresdev.productorderapi.entities.enums.SalesDimension;
+import com.soaresdev.productorderapi.repositories.SalesRollupDayRepository;
+import com.soaresdev.productorderapi.repositories.SalesRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SalesRollupServiceTest {
+    @InjectMocks
+    private SalesRollupService salesRollupService;
+
+    @Mock
+    private SalesRollupRepository salesRollupRepository;
+
+    @Mock
+    private SalesRollupDayRepository salesRollupDayRepository;
+
+    private static final LocalDate DAY = LocalDate.parse("2023-07-20");
+    private static final Instant START = Instant.parse("2023-07-20T00:00:00Z");
+    private static final Instant END = Instant.parse("2023-07-21T00:00:00Z");
+    private static final Integer COMPLETED = PaymentStatus.COMPLETED.getCode();
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldReplaceRollupsOfDay() {
+        UUID productId = UUID.randomUUID();
+        when(salesRollupRepository.aggregatePayments(START, END, COMPLETED)).thenReturn(rows(new Object[]{2L, new BigDecimal("30")}));
+        when(salesRollupRepository.aggregatePaymentsByPaymentType(START, END, COMPLETED)).thenReturn(rows(new Object[]{2, 2L, new BigDecimal("30")}));
+        when(salesRollupRepository.aggregateItemsByProduct(START, END, COMPLETED)).thenReturn(rows(new Object[]{productId, 2L, 3L, new BigDecimal("30")}));
+        when(salesRollupRepository.aggregateItemsByCategory(START, END, COMPLETED)).thenReturn(List.of());
+
+        salesRollupService.rebuildDay(DAY);
+
+        ArgumentCaptor<List<SalesRollup>> captor = ArgumentCaptor.forClass(List.class);
+        InOrder inOrder = inOrder(salesRollupDayRepository, salesRollupRepository);
+        inOrder.verify(salesRollupDayRepository).insertIfMissing(DAY);
+        inOrder.verify(salesRollupDayRepository).findByDayForUpdate(DAY);
+        inOrder.verify(salesRollupRepository).deleteByDay(DAY);
+        verify(salesRollupRepository, times(1)).saveAll(captor.capture());
+        List<SalesRollup> rollups = captor.getValue();
+        assertEquals(3, rollups.size());
+        assertEquals(SalesDimension.TOTAL.getCode(), rollups.get(0).getDimension());
+        assertEquals("2", rollups.get(1).getDimensionKey());
+        assertEquals(productId.toString(), rollups.get(2).getDimensionKey());
+        assertEquals(3, rollups.get(2).getQuantity());
+        assertTrue(rollups.stream().allMatch(rollup -> DAY.equals(rollup.getDay())));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldAddArchivedAggregationsToLiveOnes() {
+        UUID productId = UUID.randomUUID();
+        UUID archivedProductId = UUID.randomUUID();
+        when(salesRollupRepository.aggregatePayments(START, END, COMPLETED)).thenReturn(rows(new Object[]{2L, new BigDecimal("30")}));
+        when(salesRollupRepository.aggregateArchivedPayments(START, END)).thenReturn(rows(new Object[]{1L, new BigDecimal("5")}));
+        when(salesRollupRepository.aggregateItemsByProduct(START, END, COMPLETED)).thenReturn(rows(new Object[]{productId, 2L, 3L, new BigDecimal("30")}));
+        when(salesRollupRepository.aggregateArchivedItemsByProduct(START, END)).thenReturn(rows(
+                new Object[]{productId, 1L, 1L, new BigDecimal("10")}, new Object[]{archivedProductId, 1L, 4L, new BigDecimal("8")}));
+
+        salesRollupService.rebuildDay(DAY);
+
+        ArgumentCaptor<List<SalesRollup>> captor = ArgumentCaptor.forClass(List.class);
+        verify(salesRollupRepository, times(1)).saveAll(captor.capture());
+        List<SalesRollup> rollups = captor.getValue();
+        assertEquals(3, rollups.size());
+        assertEquals(3, rollups.get(0).getOrders());
+        assertEquals(0, new BigDecimal("35").compareTo(rollups.get(0).getRevenue()));
+        assertEquals(productId.toString(), rollups.get(1).getDimensionKey());
+        assertEquals(3, rollups.get(1).getOrders());
+        assertEquals(4, rollups.get(1).getQuantity());
+        assertEquals(0, new BigDecimal("40").compareTo(rollups.get(1).getRevenue()));
+        assertEquals(archivedProductId.toString(), rollups.get(2).getDimensionKey());
+        assertEquals(4, rollups.get(2).getQuantity());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldNotSaveTotalWhenDayHasNoPayments() {
+        when(salesRollupRepository.aggregatePayments(START, END, COMPLETED)).thenReturn(rows(new Object[]{0L, BigDecimal.ZERO}));
+
+        salesRollupService.rebuildDay(DAY);
+
+        ArgumentCaptor<List<SalesRollup>> captor = ArgumentCaptor.forClass(List.class);
+        verify(salesRollupRepository, times(1)).saveAll(captor.capture());
+        assertTrue(captor.getValue().isEmpty());
+    }
+
+    @Test
+    void shouldRebuildEveryDayOfRange() {
+        salesRollupService.rebuildDays(DAY, DAY.plusDays(2));
+
+        verify(salesRollupRepository, times(1)).deleteByDay(DAY);
+        verify(salesRollupRepository, times(1)).deleteByDay(DAY.plusDays(1));
+        verify(salesRollupRepository, times(1)).deleteByDay(DAY.plusDays(2));
+        verify(salesRollupRepository, times(3)).saveAll(any());
+    }
+
+    @Test
+    void shouldThrowIllegalArgumentExceptionWhenStartIsAfterEndInRebuildDays() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> salesRollupService.rebuildDays(DAY.plusDays(1), DAY));
+
+        assertEquals("Start date can not be after end date", exception.getMessage());
+        verifyNoInteractions(salesRollupRepository);
+    }
+
+    @Test
+    void shouldUseUtcDayOfMoment() {
+        assertEquals(DAY, SalesRollupService.dayOf(Instant.parse("2023-07-20T23:59:59Z")));
+        assertEquals(DAY.plusDays(1), SalesRollupService.dayOf(END));
+    }
+
+    private List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+}
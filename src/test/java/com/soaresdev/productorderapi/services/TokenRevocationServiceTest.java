@@ -0,0 +1,91 @@
+package com.soaresdev.productorderapi.services;
+
+import com.soaresdev.productorderapi.entities.RevokedToken;
+import com.soaresdev.productorderapi.repositories.RefreshTokenRepository;
+import com.soaresdev.productorderapi.repositories.RevokedTokenRepository;
+import com.soaresdev.productorderapi.security.LoopbackRevocationBus;
+import com.soaresdev.productorderapi.security.RevokedTokens;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+//Two nodes sharing one loopback revocation bus
+class TokenRevocationServiceTest {
+    private static final Instant NOW = Instant.parse("2023-07-20T10:00:00Z");
+
+    private RevokedTokenRepository revokedTokenRepository;
+    private RevokedTokens node1RevokedTokens;
+    private RevokedTokens node2RevokedTokens;
+    private TokenRevocationService node1;
+
+    @BeforeEach
+    void setup() {
+        Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+        LoopbackRevocationBus revocationBus = new LoopbackRevocationBus();
+        RefreshTokenRepository refreshTokenRepository = mock(RefreshTokenRepository.class);
+        revokedTokenRepository = mock(RevokedTokenRepository.class);
+        node1RevokedTokens = new RevokedTokens(revokedTokenRepository, clock, 100);
+        node2RevokedTokens = new RevokedTokens(revokedTokenRepository, clock, 100);
+        node1 = new TokenRevocationService(refreshTokenRepository, revokedTokenRepository, node1RevokedTokens,
+                revocationBus, clock);
+        new TokenRevocationService(refreshTokenRepository, revokedTokenRepository, node2RevokedTokens, revocationBus,
+                clock);
+    }
+
+    @Test
+    void shouldBroadcastRevocationsToOtherNodes() {
+        UUID id = UUID.randomUUID();
+
+        node1.revokeToken(id, NOW.plusSeconds(60));
+
+        assertTrue(node1RevokedTokens.isRevoked(id));
+        assertTrue(node2RevokedTokens.isRevoked(id));
+        verify(revokedTokenRepository, times(1)).save(any(RevokedToken.class));
+        verifyNoMoreInteractions(revokedTokenRepository);
+    }
+
+    @Test
+    void shouldBroadcastRevocationsOnlyAfterCommit() {
+        UUID id = UUID.randomUUID();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            node1.revokeToken(id, NOW.plusSeconds(60));
+            assertFalse(node1RevokedTokens.isRevoked(id));
+            assertFalse(node2RevokedTokens.isRevoked(id));
+
+            for(TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations())
+                synchronization.afterCommit();
+        }finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(node1RevokedTokens.isRevoked(id));
+        assertTrue(node2RevokedTokens.isRevoked(id));
+    }
+
+    @Test
+    void shouldNotRevokeInMemoryWhenTransactionRollsBack() {
+        UUID id = UUID.randomUUID();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            node1.revokeToken(id, NOW.plusSeconds(60));
+
+            for(TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations())
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertFalse(node1RevokedTokens.isRevoked(id));
+        assertFalse(node2RevokedTokens.isRevoked(id));
+    }
+}
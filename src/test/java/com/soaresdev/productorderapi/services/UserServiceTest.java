@@ -1,5 +1,6 @@
 package com.soaresdev.productorderapi.services;
 
+import com.soaresdev.productorderapi.configs.CacheConfig;
 import com.soaresdev.productorderapi.dtos.UserDTO;
 import com.soaresdev.productorderapi.dtos.insertDTOs.UserInsertDTO;
 import com.soaresdev.productorderapi.dtos.insertDTOs.UserRoleInsertDTO;
@@ -8,6 +9,7 @@ import com.soaresdev.productorderapi.entities.User;
 import com.soaresdev.productorderapi.entities.enums.RoleName;
 import com.soaresdev.productorderapi.repositories.RoleRepository;
 import com.soaresdev.productorderapi.repositories.UserRepository;
+import com.soaresdev.productorderapi.security.AuthorizedPrincipal;
 import jakarta.persistence.EntityExistsException;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,12 +18,15 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.modelmapper.ModelMapper;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import java.util.List;
@@ -46,6 +51,18 @@ class UserServiceTest {
     @Mock
     private ModelMapper modelMapper;
 
+    @Mock
+    private OrderSummaryService orderSummaryService;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache principals;
+
     private static final UUID RANDOM_UUID = UUID.randomUUID();
 
     private User user;
@@ -57,6 +74,7 @@ class UserServiceTest {
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
+        when(cacheManager.getCache(CacheConfig.PRINCIPALS)).thenReturn(principals);
         init();
     }
 
@@ -80,6 +98,28 @@ class UserServiceTest {
         verifyNoMoreInteractions(userRepository);
     }
 
+    @Test
+    void shouldLoadPrincipalWithoutCredentials() {
+        when(userRepository.findByEmailWithEagerRoles(anyString())).thenReturn(Optional.ofNullable(user));
+
+        AuthorizedPrincipal authorizedPrincipal = userService.loadPrincipal("test@gmail.com");
+
+        assertEquals(user.getId(), authorizedPrincipal.getId());
+        assertEquals(user.getEmail(), authorizedPrincipal.getEmail());
+        assertEquals(List.of(role.getAuthority()),
+                authorizedPrincipal.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        verify(userRepository, times(1)).findByEmailWithEagerRoles("test@gmail.com");
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    @Test
+    void shouldThrowEntityNotFoundExceptionWhenEmailNotExistsInLoadPrincipal() {
+        when(userRepository.findByEmailWithEagerRoles(anyString())).thenReturn(Optional.empty());
+
+        Throwable e = assertThrows(EntityNotFoundException.class, () -> userService.loadPrincipal("test@gmail.com"));
+        assertEquals("Email not exists", e.getMessage());
+    }
+
     @Test
     void shouldThrowEntityNotFoundExceptionWhenEmailNotExistsInLoadUserByUsername() {
         when(userRepository.findByEmailWithEagerRoles(anyString())).thenReturn(Optional.empty());
@@ -181,12 +221,17 @@ class UserServiceTest {
 
         verify(userRepository, times(1)).findById(any(UUID.class));
         verify(userRepository, times(1)).delete(any(User.class));
+        verify(orderSummaryService, times(1)).clientDeleted(user.getId());
+        verify(tokenRevocationService, times(1)).revokeAllOf(user.getEmail());
+        verify(principals, times(1)).evict(user.getEmail());
         verifyNoMoreInteractions(userRepository);
+        verifyNoMoreInteractions(principals);
     }
 
     @Test
     void shouldThrowEntityNotFoundExceptionWhenUserNotExistsInDeleteUserByUUID() {
         when(userRepository.findById(any(UUID.class))).thenReturn(Optional.empty());
+        mockGetPrincipalReturns(user);
 
         Throwable e = assertThrows(EntityNotFoundException.class,
                 () -> userService.deleteByUUID(RANDOM_UUID.toString()));
@@ -196,13 +241,13 @@ class UserServiceTest {
     }
     @Test
     void shouldThrowAccessDeniedExceptionWhenNotAdminAndDifferentUsersInDeleteUserByUUID() {
-        when(userRepository.findById(any(UUID.class))).thenReturn(Optional.ofNullable(user));
+        when(userRepository.existsById(any(UUID.class))).thenReturn(true);
         mockGetPrincipalReturns(diffentUser);
 
         Throwable e = assertThrows(AccessDeniedException.class,
                 () -> userService.deleteByUUID(RANDOM_UUID.toString()));
         assertEquals("Access denied", e.getMessage());
-        verify(userRepository, times(1)).findById(any(UUID.class));
+        verify(userRepository, times(1)).existsById(any(UUID.class));
         verifyNoMoreInteractions(userRepository);
     }
 
@@ -212,6 +257,7 @@ class UserServiceTest {
         when(userRepository.findById(any(UUID.class))).thenReturn(Optional.ofNullable(user));
         //who accesses
         mockGetPrincipalReturns(user);
+        String oldEmail = user.getEmail();
         userInsertDTO.setEmail("differentemail@gmail.com");
         when(userRepository.existsByEmail(anyString())).thenReturn(false);
         doNothing().when(modelMapper).map(any(UserInsertDTO.class), any(User.class),
@@ -234,13 +280,18 @@ class UserServiceTest {
         verify(modelMapper, times(1)).map(any(UserInsertDTO.class),
                 any(User.class), eq("updateUserConverter"));
         verify(userRepository, times(1)).save(any(User.class));
+        verify(tokenRevocationService, times(1)).revokeAllOf(oldEmail);
+        verify(principals, times(1)).evict(oldEmail);
+        verifyNoMoreInteractions(principals);
         verifyNoMoreInteractions(userRepository);
         verifyNoMoreInteractions(modelMapper);
+        verifyNoMoreInteractions(tokenRevocationService);
     }
 
     @Test
     void shouldThrowEntityNotFoundExceptionWhenUserNotExistsInUpdateUserByUUID() {
         when(userRepository.findById(any(UUID.class))).thenReturn(Optional.empty());
+        mockGetPrincipalReturns(user);
 
         Throwable e = assertThrows(EntityNotFoundException.class,
                 () -> userService.updateByUUID(RANDOM_UUID.toString(), userInsertDTO));
@@ -252,13 +303,13 @@ class UserServiceTest {
 
     @Test
     void shouldThrowAccessDeniedExceptionWhenNotAdminAndDifferentUsersInUpdateUserByUUID() {
-        when(userRepository.findById(any(UUID.class))).thenReturn(Optional.ofNullable(user));
+        when(userRepository.existsById(any(UUID.class))).thenReturn(true);
         mockGetPrincipalReturns(diffentUser);
 
         Throwable e = assertThrows(AccessDeniedException.class,
                 () -> userService.updateByUUID(RANDOM_UUID.toString(), userInsertDTO));
         assertEquals("Access denied", e.getMessage());
-        verify(userRepository, times(1)).findById(any(UUID.class));
+        verify(userRepository, times(1)).existsById(any(UUID.class));
         verifyNoMoreInteractions(userRepository);
         verifyNoInteractions(modelMapper);
     }
@@ -283,8 +334,10 @@ class UserServiceTest {
     @Test
     void shouldAddRoleInUser() {
         Role differentRole = new Role(RoleName.ROLE_ADMIN.getCode());
+        UUID differentRoleId = UUID.randomUUID();
         when(userRepository.findById(any(UUID.class))).thenReturn(Optional.ofNullable(user));
-        when(roleRepository.findByRoleNameCode(anyInt())).thenReturn(differentRole);
+        when(roleRepository.findIdByRoleNameCode(RoleName.ROLE_ADMIN.getCode())).thenReturn(differentRoleId);
+        when(roleRepository.getReferenceById(differentRoleId)).thenReturn(differentRole);
         when(userRepository.save(any(User.class))).thenReturn(user);
 
         userService.addRole(RANDOM_UUID.toString(), userRoleInsertDTO);
@@ -294,10 +347,13 @@ class UserServiceTest {
         assertTrue(user.getRoles().contains(role));
         assertTrue(user.getRoles().contains(differentRole));
         verify(userRepository, times(1)).findById(any(UUID.class));
-        verify(roleRepository, times(1)).findByRoleNameCode(anyInt());
+        verify(roleRepository, times(1)).findIdByRoleNameCode(RoleName.ROLE_ADMIN.getCode());
+        verify(roleRepository, times(1)).getReferenceById(differentRoleId);
         verify(userRepository, times(1)).save(any(User.class));
+        verify(principals, times(1)).evict(user.getEmail());
         verifyNoMoreInteractions(userRepository);
         verifyNoMoreInteractions(roleRepository);
+        verifyNoMoreInteractions(principals);
     }
 
     @Test
@@ -328,7 +384,6 @@ class UserServiceTest {
     @Test
     void shouldDeleteRoleInUser() {
         when(userRepository.findById(any(UUID.class))).thenReturn(Optional.ofNullable(user));
-        when(roleRepository.findByRoleNameCode(anyInt())).thenReturn(role);
         when(userRepository.save(any(User.class))).thenReturn(user);
         userRoleInsertDTO.setRoleName(RoleName.ROLE_USER);
 
@@ -337,10 +392,11 @@ class UserServiceTest {
         assertTrue(user.getRoles().isEmpty());
         assertFalse(user.getRoles().contains(role));
         verify(userRepository, times(1)).findById(any(UUID.class));
-        verify(roleRepository, times(1)).findByRoleNameCode(anyInt());
         verify(userRepository, times(1)).save(any(User.class));
+        verify(principals, times(1)).evict(user.getEmail());
         verifyNoMoreInteractions(userRepository);
-        verifyNoMoreInteractions(roleRepository);
+        verifyNoInteractions(roleRepository);
+        verifyNoMoreInteractions(principals);
     }
 
     @Test
@@ -373,8 +429,10 @@ class UserServiceTest {
         userInsertDTO = new UserInsertDTO("Test", "test@gmail.com", "test", "test");
         user = new User("Test", "test@gmail.com", "test", "test");
         user.getRoles().add(role);
+        user.setId(RANDOM_UUID);
         diffentUser = new User("Test2", "test2@gmail.com", "test2", "test2");
         diffentUser.getRoles().add(role);
+        diffentUser.setId(UUID.randomUUID());
     }
 
     private void mockGetPrincipalReturns(User user) {